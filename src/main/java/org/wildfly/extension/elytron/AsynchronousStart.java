@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+
+/**
+ * Utility to perform the start of a service asynchronously using a bounded executor dedicated to the subsystem so services
+ * with expensive start up work can start concurrently without holding MSC threads.
+ *
+ * The time taken by the most recent start of each service is retained, both the time spent waiting for a thread and the
+ * time spent starting, so it can be reported by the management model, it is also logged at DEBUG level.
+ */
+final class AsynchronousStart {
+
+    private static final int MAXIMUM_THREADS = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    /*
+     * Keyed by controller rather than name so services which have since been removed are not reported and their entries
+     * can be collected.
+     */
+    private static final Map<ServiceController<?>, StartTime> START_TIMES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private AsynchronousStart() {
+    }
+
+    /**
+     * Get a snapshot of the time taken by the most recent asynchronous start of each service.
+     *
+     * @return a snapshot of the start times keyed by the controller of the service.
+     */
+    static Map<ServiceController<?>, StartTime> getStartTimes() {
+        synchronized (START_TIMES) {
+            return new HashMap<>(START_TIMES);
+        }
+    }
+
+    /**
+     * Perform the start of a service asynchronously, the {@link StartContext} is completed or failed once the task has
+     * finished.
+     *
+     * @param context the {@link StartContext} of the service being started.
+     * @param task the task performing the start.
+     */
+    static void start(final StartContext context, final StartTask task) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final long queued = System.nanoTime();
+        context.asynchronous();
+        try {
+            ExecutorHolder.EXECUTOR.execute(() -> run(context, task, classLoader, queued));
+        } catch (RejectedExecutionException e) {
+            run(context, task, classLoader, queued);
+        }
+    }
+
+    /**
+     * Run a task on the same bounded executor, for work a service continues in the background after its start has completed.
+     *
+     * @param task the task to run.
+     */
+    static void execute(final Runnable task) {
+        try {
+            ExecutorHolder.EXECUTOR.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private static void run(final StartContext context, final StartTask task, final ClassLoader classLoader, final long queued) {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader original = thread.getContextClassLoader();
+        final long started = System.nanoTime();
+        thread.setContextClassLoader(classLoader);
+        StartException failure = null;
+        try {
+            task.start();
+        } catch (StartException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = ROOT_LOGGER.unableToStartService(e);
+        } catch (Error e) {
+            failure = new StartException(e);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+
+        // Recorded before the context is completed so the time is visible as soon as the service is.
+        final StartTime startTime = new StartTime(TimeUnit.NANOSECONDS.toMillis(started - queued),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), failure != null);
+        final ServiceController<?> controller = context.getController();
+        START_TIMES.put(controller, startTime);
+        ROOT_LOGGER.debugf("Service %s %s in %d ms after waiting %d ms", controller.getName(), failure != null ? "failed to start" : "started",
+                startTime.getStartTime(), startTime.getWaitTime());
+
+        if (failure != null) {
+            context.failed(failure);
+        } else {
+            context.complete();
+        }
+    }
+
+    /**
+     * The time taken by a single asynchronous start.
+     */
+    static final class StartTime {
+
+        private final long waitTime;
+        private final long startTime;
+        private final boolean failed;
+
+        StartTime(final long waitTime, final long startTime, final boolean failed) {
+            this.waitTime = waitTime;
+            this.startTime = startTime;
+            this.failed = failed;
+        }
+
+        /**
+         * @return the time in milliseconds the start waited for a thread.
+         */
+        long getWaitTime() {
+            return waitTime;
+        }
+
+        /**
+         * @return the time in milliseconds taken by the start itself.
+         */
+        long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return {@code true} if the start failed.
+         */
+        boolean isFailed() {
+            return failed;
+        }
+    }
+
+    /**
+     * The work performed to start a service.
+     */
+    @FunctionalInterface
+    interface StartTask {
+
+        void start() throws StartException;
+
+    }
+
+    private static final class ExecutorHolder {
+
+        private static final Executor EXECUTOR;
+
+        static {
+            final AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAXIMUM_THREADS, MAXIMUM_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "elytron-service-start-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // No threads are retained once the services have started.
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
+
+}
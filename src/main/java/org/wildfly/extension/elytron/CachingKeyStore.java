@@ -0,0 +1,306 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.io.IOException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.wildfly.common.function.ExceptionFunction;
+
+/**
+ * A {@link KeyStore} wrapper caching the results of the per alias lookups made against the delegate, this is intended for
+ * {@link KeyStore} implementations such as {@link org.wildfly.security.keystore.LdapKeyStore} where each lookup is a remote
+ * call.
+ *
+ * Entries are evicted in least recently used order once the maximum number of entries is reached and expire once the
+ * time to live has elapsed since they were first cached.  Modifications made through this wrapper invalidate the cached
+ * entry for the alias, modifications made directly to the backing store are only seen once the entry has expired or the
+ * cache has been flushed.
+ */
+final class CachingKeyStore extends KeyStore {
+
+    private final CachingKeyStoreSpi keyStoreSpi;
+
+    private CachingKeyStore(CachingKeyStoreSpi keyStoreSpi, KeyStore delegate) {
+        super(keyStoreSpi, delegate.getProvider(), delegate.getType());
+        this.keyStoreSpi = keyStoreSpi;
+    }
+
+    static CachingKeyStore cachingKeyStore(KeyStore delegate, int maximumEntries, long timeToLive, boolean negativeCaching) throws NoSuchAlgorithmException, CertificateException, IOException {
+        CachingKeyStore keyStore = new CachingKeyStore(new CachingKeyStoreSpi(delegate, maximumEntries, timeToLive, negativeCaching), delegate);
+        keyStore.load(null, null);
+
+        return keyStore;
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     *
+     * @return the number of lookups answered from the cache.
+     */
+    long getHitCount() {
+        return keyStoreSpi.hits.get();
+    }
+
+    /**
+     * Get the number of lookups which required a call to the delegate {@link KeyStore}.
+     *
+     * @return the number of lookups which required a call to the delegate {@link KeyStore}.
+     */
+    long getMissCount() {
+        return keyStoreSpi.misses.get();
+    }
+
+    /**
+     * Discard all cached entries.
+     */
+    void flush() {
+        keyStoreSpi.flush();
+    }
+
+    private enum Lookup {
+        CONTAINS_ALIAS, CERTIFICATE, CERTIFICATE_CHAIN, CREATION_DATE, KEY_ENTRY, CERTIFICATE_ENTRY
+    }
+
+    private static final class CachedEntry {
+
+        private final long expiry;
+        private final Map<Lookup, Object> values = new EnumMap<>(Lookup.class);
+        private boolean missing;
+
+        CachedEntry(long expiry) {
+            this.expiry = expiry;
+        }
+    }
+
+    private static final class CachingKeyStoreSpi extends DelegatingKeyStoreSpi {
+
+        /**
+         * Placeholder for a cached {@code null} result.
+         */
+        private static final Object NULL = new Object();
+
+        private final long timeToLive;
+        private final boolean negativeCaching;
+        private final Map<String, CachedEntry> entries;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        /**
+         * Incremented on every invalidation so a result obtained before the invalidation is not cached after it.
+         */
+        private final AtomicLong generation = new AtomicLong();
+
+        CachingKeyStoreSpi(KeyStore delegate, final int maximumEntries, long timeToLive, boolean negativeCaching) {
+            super(delegate);
+            this.timeToLive = timeToLive;
+            this.negativeCaching = negativeCaching;
+            this.entries = new LinkedHashMap<String, CachedEntry>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                    return size() > maximumEntries;
+                }
+
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T lookup(String alias, Lookup lookup, ExceptionFunction<String, T, KeyStoreException> function) {
+            Object cached = getCached(alias, lookup);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached == NULL ? null : (T) cached;
+            }
+
+            misses.incrementAndGet();
+            long generation = this.generation.get();
+            T result;
+            try {
+                result = function.apply(alias);
+            } catch (KeyStoreException e) {
+                throw new IllegalStateException(e);
+            }
+            cache(alias, lookup, result, generation);
+
+            return result;
+        }
+
+        private Object getCached(String alias, Lookup lookup) {
+            synchronized (entries) {
+                CachedEntry entry = entries.get(alias);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiry <= System.currentTimeMillis()) {
+                    entries.remove(alias);
+                    return null;
+                }
+                if (entry.missing) {
+                    return lookup == Lookup.CONTAINS_ALIAS || lookup == Lookup.KEY_ENTRY || lookup == Lookup.CERTIFICATE_ENTRY ? Boolean.FALSE : NULL;
+                }
+
+                return entry.values.get(lookup);
+            }
+        }
+
+        private void cache(String alias, Lookup lookup, Object result, long generation) {
+            boolean missing = lookup == Lookup.CONTAINS_ALIAS && Boolean.FALSE.equals(result);
+            if ((missing || result == null) && negativeCaching == false) {
+                return;
+            }
+
+            synchronized (entries) {
+                if (generation != this.generation.get()) {
+                    return;
+                }
+
+                long now = System.currentTimeMillis();
+                CachedEntry entry = entries.get(alias);
+                if (entry == null || entry.expiry <= now) {
+                    entry = new CachedEntry(now + timeToLive);
+                    entries.put(alias, entry);
+                }
+                if (missing) {
+                    entry.missing = true;
+                    entry.values.clear();
+                } else {
+                    entry.values.put(lookup, result == null ? NULL : result);
+                }
+            }
+        }
+
+        private void invalidate(String alias) {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.remove(alias);
+            }
+        }
+
+        private void flush() {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.clear();
+            }
+        }
+
+        private boolean isMissing(String alias) {
+            synchronized (entries) {
+                CachedEntry entry = entries.get(alias);
+                return entry != null && entry.missing && entry.expiry > System.currentTimeMillis();
+            }
+        }
+
+        @Override
+        public Key engineGetKey(String alias, char[] password) throws NoSuchAlgorithmException, UnrecoverableKeyException {
+            // Keys are never cached so the password is always verified against the delegate, a known missing alias
+            // can still be answered without calling it.
+            if (isMissing(alias)) {
+                hits.incrementAndGet();
+                return null;
+            }
+
+            return super.engineGetKey(alias, password);
+        }
+
+        @Override
+        public Certificate[] engineGetCertificateChain(String alias) {
+            Certificate[] chain = lookup(alias, Lookup.CERTIFICATE_CHAIN, delegate::getCertificateChain);
+            return chain == null ? null : chain.clone();
+        }
+
+        @Override
+        public Certificate engineGetCertificate(String alias) {
+            return lookup(alias, Lookup.CERTIFICATE, delegate::getCertificate);
+        }
+
+        @Override
+        public Date engineGetCreationDate(String alias) {
+            Date creationDate = lookup(alias, Lookup.CREATION_DATE, delegate::getCreationDate);
+            return creationDate == null ? null : (Date) creationDate.clone();
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, Key key, char[] password, Certificate[] chain) throws KeyStoreException {
+            try {
+                super.engineSetKeyEntry(alias, key, password, chain);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, byte[] key, Certificate[] chain) throws KeyStoreException {
+            try {
+                super.engineSetKeyEntry(alias, key, chain);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public void engineSetCertificateEntry(String alias, Certificate cert) throws KeyStoreException {
+            try {
+                super.engineSetCertificateEntry(alias, cert);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public void engineDeleteEntry(String alias) throws KeyStoreException {
+            try {
+                super.engineDeleteEntry(alias);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public boolean engineContainsAlias(String alias) {
+            return lookup(alias, Lookup.CONTAINS_ALIAS, delegate::containsAlias);
+        }
+
+        @Override
+        public boolean engineIsKeyEntry(String alias) {
+            return lookup(alias, Lookup.KEY_ENTRY, delegate::isKeyEntry);
+        }
+
+        @Override
+        public boolean engineIsCertificateEntry(String alias) {
+            return lookup(alias, Lookup.CERTIFICATE_ENTRY, delegate::isCertificateEntry);
+        }
+
+        @Override
+        protected void loaded() {
+            flush();
+        }
+    }
+
+}
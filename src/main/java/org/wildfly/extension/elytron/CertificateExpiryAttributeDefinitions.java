@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.NotificationDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.notification.Notification;
+import org.jboss.as.controller.notification.NotificationHandler;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.NotificationHandlerRegistration;
+import org.jboss.as.server.Services;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.elytron.CertificateExpiryIndex.ExpiringCertificate;
+
+/**
+ * A holder for {@link AttributeDefinition} instances related to the expiry of the certificates within a KeyStore.
+ */
+class CertificateExpiryAttributeDefinitions {
+
+    static final SimpleAttributeDefinition EXPIRY_HORIZON = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.EXPIRY_HORIZON, ModelType.LONG, true)
+        .setDefaultValue(new ModelNode(TimeUnit.DAYS.toMillis(30)))
+        .setAllowExpression(true)
+        .setValidator(new LongRangeValidator(0L, Long.MAX_VALUE, true, true))
+        .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+        .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+        .build();
+
+    private static final SimpleAttributeDefinition ALIAS = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.ALIAS, ModelType.STRING).build();
+
+    private static final SimpleAttributeDefinition SUBJECT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SUBJECT, ModelType.STRING).build();
+
+    private static final SimpleAttributeDefinition NOT_AFTER = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.NOT_AFTER, ModelType.STRING).build();
+
+    private static final ObjectTypeAttributeDefinition EXPIRING_CERTIFICATE = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.CERTIFICATE, ALIAS, SUBJECT, NOT_AFTER)
+        .setAllowNull(false)
+        .build();
+
+    static final ObjectListAttributeDefinition EXPIRING_CERTIFICATES = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.EXPIRING_CERTIFICATES, EXPIRING_CERTIFICATE)
+        .setStorageRuntime()
+        .build();
+
+    static NotificationDefinition certificateExpiringNotification(ResourceDescriptionResolver resolver) {
+        return NotificationDefinition.Builder.create(CertificateExpiryIndex.CERTIFICATE_EXPIRING_NOTIFICATION, resolver).build();
+    }
+
+    /**
+     * Populate the result with the certificates expiring within the horizon.
+     *
+     * @param context the current {@link OperationContext}.
+     * @param index the index of the KeyStore being queried.
+     */
+    static void populateExpiringCertificates(OperationContext context, CertificateExpiryIndex index) {
+        ModelNode result = context.getResult();
+        result.setEmptyList();
+        for (ExpiringCertificate current : index.getExpiringCertificates()) {
+            result.add(toModelNode(current));
+        }
+    }
+
+    /**
+     * Create a notifier for a {@link CertificateExpiryIndex} which emits a notification against the current resource for
+     * each certificate as it moves within the horizon, as the index checks the certificates on its own schedule the
+     * notifications are passed directly to the handlers registered with the {@link ModelController}.
+     *
+     * @param context the {@link OperationContext} adding the KeyStore.
+     * @return the notifier or {@code null} if the {@link ModelController} is not available.
+     */
+    static Consumer<ExpiringCertificate> expiryNotifier(OperationContext context) {
+        ServiceController<?> serviceController = context.getServiceRegistry(false).getService(Services.JBOSS_SERVER_CONTROLLER);
+        if (serviceController == null) {
+            return null;
+        }
+        final NotificationHandlerRegistration registry = ((ModelController) serviceController.getValue()).getNotificationRegistry();
+        final PathAddress address = context.getCurrentAddress();
+        final String keyStoreName = context.getCurrentAddressValue();
+
+        return expiringCertificate -> {
+            String message = ROOT_LOGGER.certificateExpiringNotification(expiringCertificate.getAlias(), keyStoreName, expiringCertificate.getNotAfterDate());
+            Notification notification = new Notification(CertificateExpiryIndex.CERTIFICATE_EXPIRING_NOTIFICATION, address, message, toModelNode(expiringCertificate));
+            for (NotificationHandler handler : registry.findMatchingNotificationHandlers(notification)) {
+                try {
+                    handler.handleNotification(notification);
+                } catch (RuntimeException e) {
+                    ROOT_LOGGER.tracef(e, "Notification handler failed to handle notification [%s]", notification);
+                }
+            }
+        };
+    }
+
+    private static ModelNode toModelNode(ExpiringCertificate expiringCertificate) {
+        ModelNode certificate = new ModelNode();
+        certificate.get(ElytronDescriptionConstants.ALIAS).set(expiringCertificate.getAlias());
+        certificate.get(ElytronDescriptionConstants.SUBJECT).set(expiringCertificate.getSubject());
+        certificate.get(ElytronDescriptionConstants.NOT_AFTER).set(expiringCertificate.getNotAfterDate());
+        return certificate;
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.CertificateNotYetValidException;
+import java.security.cert.X509Certificate;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * An index of the certificates within a {@link KeyStore} ordered by the time they expire.
+ *
+ * The certificates not yet within the horizon are held in a min-heap ordered by their notAfter date, a check is scheduled
+ * for the time the first of these reaches the horizon so the {@link KeyStore} is not rescanned, each certificate moved
+ * within the horizon is logged and passed to the notifier as it is found. Entries set in the {@link KeyStore} after it was
+ * indexed are added using {@link #entryChanged(String)}.
+ */
+final class CertificateExpiryIndex {
+
+    static final String CERTIFICATE_EXPIRING_NOTIFICATION = "certificate-expiring";
+
+    /**
+     * The maximum time between checks, guards against the system clock being changed.
+     */
+    private static final long MAX_CHECK_DELAY = TimeUnit.HOURS.toMillis(24);
+
+    private static final Comparator<ExpiringCertificate> BY_NOT_AFTER = Comparator.comparingLong(ExpiringCertificate::getNotAfter);
+
+    private final String keyStoreName;
+    private final long horizon;
+    private final Consumer<ExpiringCertificate> notifier;
+
+    private final Map<String, ExpiringCertificate> indexed = new HashMap<>();
+    private final PriorityQueue<ExpiringCertificate> pending = new PriorityQueue<>(BY_NOT_AFTER);
+    private final List<ExpiringCertificate> expiring = new ArrayList<>();
+    private final List<ExpiringCertificate> unnotified = new ArrayList<>();
+
+    private KeyStore keyStore;
+    private ScheduledFuture<?> nextCheck;
+    private boolean closed;
+
+    /**
+     * @param keyStoreName the name of the {@link KeyStore} being indexed.
+     * @param horizon the time in milliseconds before a certificate expires that it is reported.
+     * @param notifier notified of each certificate as it moves within the horizon, outside of any lock, may be {@code null}.
+     */
+    CertificateExpiryIndex(String keyStoreName, long horizon, Consumer<ExpiringCertificate> notifier) {
+        this.keyStoreName = keyStoreName;
+        this.horizon = horizon;
+        this.notifier = notifier;
+    }
+
+    /**
+     * Replace the content of the index with the certificates of the supplied {@link KeyStore}, certificates which are not
+     * currently valid are also reported.
+     *
+     * @param keyStore the {@link KeyStore} to index.
+     * @throws KeyStoreException if the {@link KeyStore} can not be read.
+     */
+    void rebuild(KeyStore keyStore) throws KeyStoreException {
+        List<ExpiringCertificate> certificates = new ArrayList<>();
+        Enumeration<String> aliases = keyStore.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate instanceof X509Certificate) {
+                certificates.add(toExpiringCertificate(alias, (X509Certificate) certificate));
+            }
+        }
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            this.keyStore = keyStore;
+            indexed.clear();
+            for (ExpiringCertificate current : certificates) {
+                indexed.put(current.alias, current);
+            }
+            pending.clear();
+            pending.addAll(certificates);
+            expiring.clear();
+            unnotified.clear();
+            check(false);
+        }
+        notifyExpiring();
+    }
+
+    /**
+     * Add the certificate now held under the specified alias of the indexed {@link KeyStore}, entries which have been
+     * removed or replaced are not removed as they are verified against the {@link KeyStore} as they are used.
+     *
+     * @param alias the alias of the entry which has been set or deleted.
+     */
+    void entryChanged(String alias) {
+        final KeyStore keyStore;
+        synchronized (this) {
+            if (closed || this.keyStore == null) {
+                // Not yet indexed, the entry is read as the index is built.
+                return;
+            }
+            keyStore = this.keyStore;
+        }
+
+        final Certificate certificate;
+        try {
+            certificate = keyStore.getCertificate(alias);
+        } catch (KeyStoreException e) {
+            ROOT_LOGGER.unableToIndexCertificates(keyStoreName, e);
+            return;
+        }
+        if (certificate instanceof X509Certificate == false) {
+            return;
+        }
+
+        synchronized (this) {
+            ExpiringCertificate current = indexed.get(alias);
+            if (closed || keyStore != this.keyStore || current != null && current.certificate.equals(certificate)) {
+                return;
+            }
+            ExpiringCertificate added = toExpiringCertificate(alias, (X509Certificate) certificate);
+            indexed.put(alias, added);
+            pending.add(added);
+            check(false);
+        }
+        notifyExpiring();
+    }
+
+    /**
+     * As {@link #entryChanged(String)} but in the background, in order with {@link #rebuildInBackground(KeyStore)}.
+     *
+     * @param alias the alias of the entry which has been set or deleted.
+     */
+    void entryChangedInBackground(String alias) {
+        Scheduler.INSTANCE.execute(() -> {
+            try {
+                entryChanged(alias);
+            } catch (RuntimeException e) {
+                ROOT_LOGGER.unableToIndexCertificates(keyStoreName, e);
+            }
+        });
+    }
+
+    private static ExpiringCertificate toExpiringCertificate(String alias, X509Certificate certificate) {
+        try {
+            certificate.checkValidity();
+        } catch (CertificateExpiredException | CertificateNotYetValidException e) {
+            ROOT_LOGGER.certificateNotValid(alias, e);
+        }
+        return new ExpiringCertificate(alias, certificate);
+    }
+
+    /**
+     * Rebuild the index in the background, for use where reading the {@link KeyStore} may be slow such as a remote store.
+     *
+     * @param keyStore the {@link KeyStore} to index.
+     */
+    void rebuildInBackground(KeyStore keyStore) {
+        Scheduler.INSTANCE.execute(() -> {
+            try {
+                rebuild(keyStore);
+            } catch (KeyStoreException | RuntimeException e) {
+                ROOT_LOGGER.unableToIndexCertificates(keyStoreName, e);
+            }
+        });
+    }
+
+    /**
+     * Get the certificates which expire within the horizon, ordered by the time they expire.
+     *
+     * @return the certificates which expire within the horizon.
+     */
+    List<ExpiringCertificate> getExpiringCertificates() {
+        List<ExpiringCertificate> result;
+        synchronized (this) {
+            check(true);
+            result = new ArrayList<>(expiring.size());
+            for (ExpiringCertificate current : expiring) {
+                if (isCurrent(current)) {
+                    result.add(current);
+                }
+            }
+        }
+        notifyExpiring();
+        return result;
+    }
+
+    /**
+     * Pass the certificates which have moved within the horizon to the notifier, this is called without holding the lock so
+     * the notifier does not block the index.
+     */
+    private void notifyExpiring() {
+        if (notifier == null) {
+            return;
+        }
+        List<ExpiringCertificate> notify;
+        synchronized (this) {
+            if (unnotified.isEmpty()) {
+                return;
+            }
+            notify = new ArrayList<>(unnotified);
+            unnotified.clear();
+        }
+        for (ExpiringCertificate current : notify) {
+            notifier.accept(current);
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        if (nextCheck != null) {
+            nextCheck.cancel(false);
+            nextCheck = null;
+        }
+        indexed.clear();
+        pending.clear();
+        expiring.clear();
+        unnotified.clear();
+        keyStore = null;
+    }
+
+    private void scheduledCheck() {
+        synchronized (this) {
+            nextCheck = null;
+            if (closed) {
+                return;
+            }
+            check(false);
+        }
+        notifyExpiring();
+    }
+
+    private void check(boolean keepSchedule) {
+        long now = System.currentTimeMillis();
+        long cutOff = horizon > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + horizon;
+        ExpiringCertificate next;
+        while ((next = pending.peek()) != null && next.getNotAfter() <= cutOff) {
+            pending.poll();
+            if (isCurrent(next)) {
+                expiring.add(next);
+                if (notifier != null) {
+                    unnotified.add(next);
+                }
+                ROOT_LOGGER.certificateExpiring(next.getAlias(), keyStoreName, next.getNotAfterDate());
+            }
+        }
+
+        if (keepSchedule && nextCheck != null) {
+            return;
+        }
+        if (nextCheck != null) {
+            nextCheck.cancel(false);
+        }
+        long delay = next == null ? MAX_CHECK_DELAY : Math.min(MAX_CHECK_DELAY, next.getNotAfter() - cutOff);
+        nextCheck = Scheduler.INSTANCE.schedule(this::scheduledCheck, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Entries are not removed from the index as the {@link KeyStore} is modified, instead they are verified against the
+     * {@link KeyStore} as they are used.
+     */
+    private boolean isCurrent(ExpiringCertificate expiringCertificate) {
+        try {
+            return keyStore != null && expiringCertificate.certificate.equals(keyStore.getCertificate(expiringCertificate.alias));
+        } catch (KeyStoreException e) {
+            return false;
+        }
+    }
+
+    static final class ExpiringCertificate {
+
+        private final String alias;
+        private final X509Certificate certificate;
+
+        ExpiringCertificate(String alias, X509Certificate certificate) {
+            this.alias = alias;
+            this.certificate = certificate;
+        }
+
+        String getAlias() {
+            return alias;
+        }
+
+        String getSubject() {
+            return certificate.getSubjectX500Principal().getName();
+        }
+
+        long getNotAfter() {
+            return certificate.getNotAfter().getTime();
+        }
+
+        String getNotAfterDate() {
+            return new SimpleDateFormat(ElytronExtension.ISO_8601_FORMAT).format(certificate.getNotAfter());
+        }
+    }
+
+    /**
+     * A single scheduler shared by all indexes, only created once the first index is used.
+     */
+    private static final class Scheduler {
+
+        private static final ScheduledThreadPoolExecutor INSTANCE;
+
+        static {
+            INSTANCE = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "elytron-certificate-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            INSTANCE.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * An {@link SSLSessionContext} wrapper which maintains session statistics as handshakes complete so they can be read
+ * without enumerating the underlying session cache.
+ *
+ * The sessions known to this context are tracked in access order in the same way as the underlying cache, once more
+ * sessions are tracked than the maximum size of the underlying cache the least recently used ones are counted as evicted.
+ * As the JDK expires sessions based on their creation time the sessions are also queued in creation order so time outs are
+ * detected by only checking the head of that queue. Sessions discarded by the underlying cache and collected are detected
+ * using a {@link ReferenceQueue}.
+ *
+ * Sessions can also be invalidated directly using {@link SSLSession#invalidate()} without this context being notified,
+ * these are detected by checking a small number of tracked sessions in turn on each handshake and each read so the cost of
+ * a read does not grow with the number of sessions, a session invalidated directly is counted once it has been reached.
+ */
+class CountingSSLSessionContext implements SSLSessionContext {
+
+    private static final String TLS_V1_3 = "TLSv1.3";
+
+    /**
+     * The number of tracked sessions checked for a direct invalidation each time the statistics are updated.
+     */
+    private static final int CHECKS_PER_UPDATE = 4;
+
+    private final SSLSessionContext delegate;
+
+    // All guarded by sessions.
+    private final LinkedHashMap<ByteBuffer, TrackedSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<TrackedSession> creationOrder = new ArrayDeque<>();
+    private final ArrayDeque<TrackedSession> checkOrder = new ArrayDeque<>();
+    private final ReferenceQueue<SSLSession> collected = new ReferenceQueue<>();
+
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder resumptions = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    CountingSSLSessionContext(SSLSessionContext delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Record the completion of a handshake which used this context.
+     *
+     * @param session the session negotiated by the handshake.
+     * @param resumptionRequested {@code true} if the client offered a session ID to resume.
+     */
+    void handshakeCompleted(SSLSession session, boolean resumptionRequested) {
+        byte[] id = session.getId();
+        if (id == null || id.length == 0) {
+            // Not a cacheable session so nothing to track.
+            creations.increment();
+            return;
+        }
+
+        ByteBuffer key = ByteBuffer.wrap(id.clone());
+        synchronized (sessions) {
+            // Also moves the session to the most recently used position.
+            if (sessions.get(key) != null) {
+                resumptions.increment();
+            } else {
+                TrackedSession tracked = new TrackedSession(key, session, collected);
+                sessions.put(key, tracked);
+                creationOrder.add(tracked);
+                checkOrder.add(tracked);
+                creations.increment();
+                // TLSv1.3 clients always send a legacy session ID so it does not indicate a resumption attempt.
+                if (resumptionRequested && TLS_V1_3.equals(session.getProtocol()) == false) {
+                    misses.increment();
+                }
+            }
+            update();
+        }
+    }
+
+    /**
+     * Invalidate the session with the specified ID, if it is still known.
+     *
+     * @param sessionId the ID of the session to invalidate.
+     * @return {@code true} if a session was found and invalidated.
+     */
+    boolean invalidate(byte[] sessionId) {
+        SSLSession session = delegate.getSession(sessionId);
+        if (session == null) {
+            return false;
+        }
+        session.invalidate();
+        synchronized (sessions) {
+            TrackedSession tracked = sessions.get(ByteBuffer.wrap(sessionId));
+            if (tracked != null) {
+                remove(tracked, invalidations);
+            }
+        }
+        return true;
+    }
+
+    long getActiveSessionCount() {
+        synchronized (sessions) {
+            update();
+            return sessions.size();
+        }
+    }
+
+    long getCreationCount() {
+        return creations.sum();
+    }
+
+    long getResumptionCount() {
+        return resumptions.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    long getEvictionCount() {
+        synchronized (sessions) {
+            update();
+        }
+        return evictions.sum();
+    }
+
+    long getInvalidationCount() {
+        synchronized (sessions) {
+            update();
+        }
+        return invalidations.sum();
+    }
+
+    /**
+     * Remove tracked sessions which have been collected, have timed out, exceed the maximum size of the underlying cache
+     * or have been found to be invalidated. Each session is removed once so the cost is constant when amortised over the
+     * handshakes which created the sessions.
+     */
+    private void update() {
+        Reference<? extends SSLSession> reference;
+        while ((reference = collected.poll()) != null) {
+            remove((TrackedSession) reference, evictions);
+        }
+
+        final long timeout = TimeUnit.SECONDS.toMillis(delegate.getSessionTimeout());
+        final long now = System.currentTimeMillis();
+        TrackedSession head;
+        while ((head = creationOrder.peek()) != null) {
+            if (head.removed == false) {
+                if (timeout <= 0 || now - head.creationTime < timeout) {
+                    break;
+                }
+                remove(head, evictions);
+            }
+            creationOrder.poll();
+        }
+
+        final int maximumSize = delegate.getSessionCacheSize();
+        if (maximumSize > 0) {
+            Iterator<TrackedSession> leastRecentlyUsed = sessions.values().iterator();
+            while (sessions.size() > maximumSize) {
+                TrackedSession tracked = leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+                tracked.removed = true;
+                evictions.increment();
+            }
+        }
+
+        for (int i = 0; i < CHECKS_PER_UPDATE && checkOrder.isEmpty() == false; i++) {
+            TrackedSession tracked = checkOrder.poll();
+            if (tracked.removed) {
+                continue;
+            }
+            SSLSession session = tracked.get();
+            if (session == null) {
+                remove(tracked, evictions);
+            } else if (session.isValid() == false) {
+                remove(tracked, invalidations);
+            } else {
+                checkOrder.add(tracked);
+            }
+        }
+    }
+
+    private void remove(TrackedSession tracked, LongAdder counter) {
+        if (tracked.removed == false) {
+            tracked.removed = true;
+            sessions.remove(tracked.key);
+            counter.increment();
+        }
+    }
+
+    @Override
+    public SSLSession getSession(byte[] sessionId) {
+        return delegate.getSession(sessionId);
+    }
+
+    @Override
+    public Enumeration<byte[]> getIds() {
+        return delegate.getIds();
+    }
+
+    @Override
+    public void setSessionTimeout(int seconds) throws IllegalArgumentException {
+        delegate.setSessionTimeout(seconds);
+    }
+
+    @Override
+    public int getSessionTimeout() {
+        return delegate.getSessionTimeout();
+    }
+
+    @Override
+    public void setSessionCacheSize(int size) throws IllegalArgumentException {
+        delegate.setSessionCacheSize(size);
+        synchronized (sessions) {
+            update();
+        }
+    }
+
+    @Override
+    public int getSessionCacheSize() {
+        return delegate.getSessionCacheSize();
+    }
+
+    private static final class TrackedSession extends WeakReference<SSLSession> {
+
+        private final ByteBuffer key;
+        private final long creationTime;
+        private boolean removed;
+
+        TrackedSession(ByteBuffer key, SSLSession session, ReferenceQueue<SSLSession> queue) {
+            super(session, queue);
+            this.key = key;
+            this.creationTime = session.getCreationTime();
+        }
+    }
+
+}
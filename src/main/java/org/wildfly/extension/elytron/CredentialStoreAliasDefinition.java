@@ -156,7 +156,8 @@ class CredentialStoreAliasDefinition extends SimpleResourceDefinition {
             ServiceName credentialStoreServiceName = CREDENTIAL_STORE_CLIENT_UTIL.serviceName(operation);
             @SuppressWarnings("unchecked")
             ServiceController<CredentialStoreClient> serviceContainer = (ServiceController<CredentialStoreClient>) context.getServiceRegistry(false).getRequiredService(credentialStoreServiceName);
-            CredentialStoreClient credentialStoreClient = ((CredentialStoreService) serviceContainer.getService()).getValue();
+            CredentialStoreService credentialStoreService = (CredentialStoreService) serviceContainer.getService();
+            CredentialStoreClient credentialStoreClient = credentialStoreService.getValue();
             CredentialStore credentialStore = credentialStoreClient.getCredentialStore();
             try {
                 if (entryType == null || ClearPassword.ALGORITHM_CLEAR.equals(entryType)) {
@@ -167,6 +168,8 @@ class CredentialStoreAliasDefinition extends SimpleResourceDefinition {
                 }
             } catch (CredentialStoreException | UnsupportedCredentialTypeException e) {
                 throw ROOT_LOGGER.unableToCompleteOperation(e, e.getLocalizedMessage());
+            } finally {
+                credentialStoreService.invalidateSecret(alias);
             }
         }
 
@@ -193,6 +196,8 @@ class CredentialStoreAliasDefinition extends SimpleResourceDefinition {
                 credentialStore.remove(alias, PasswordCredential.class);
             } catch (CredentialStoreException | UnsupportedCredentialTypeException e) {
                 throw new OperationFailedException(e);
+            } finally {
+                credentialStoreService.invalidateSecret(alias);
             }
         }
 
@@ -221,6 +226,7 @@ class CredentialStoreAliasDefinition extends SimpleResourceDefinition {
          */
         @Override
         protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<String> handbackHolder) throws OperationFailedException {
+            invalidateSecret(context, operation);
             return false;
         }
 
@@ -237,6 +243,15 @@ class CredentialStoreAliasDefinition extends SimpleResourceDefinition {
          */
         @Override
         protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, String handback) throws OperationFailedException {
+            invalidateSecret(context, operation);
+        }
+
+        private static void invalidateSecret(OperationContext context, ModelNode operation) {
+            ServiceName credentialStoreServiceName = CREDENTIAL_STORE_CLIENT_UTIL.serviceName(operation);
+            ServiceController<?> serviceController = context.getServiceRegistry(false).getService(credentialStoreServiceName);
+            if (serviceController != null) {
+                ((CredentialStoreService) serviceController.getService()).invalidateSecret(alias(operation));
+            }
         }
     }
 
@@ -32,6 +32,8 @@ import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NAME;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PROVIDER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PROVIDER_LOADER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.RELATIVE_TO;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SECRET_CACHE_SIZE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SECRET_CACHE_TIME_TO_LIVE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.TYPE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.URI;
 import static org.wildfly.extension.elytron.ElytronSubsystemParser.verifyNamespace;
@@ -100,6 +102,12 @@ class CredentialStoreParser {
                     case PROVIDER_LOADER:
                         CredentialStoreResourceDefinition.PROVIDER_LOADER.parseAndSetParameter(value, addCredentialStore, reader);
                         break;
+                    case SECRET_CACHE_SIZE:
+                        CredentialStoreResourceDefinition.SECRET_CACHE_SIZE.parseAndSetParameter(value, addCredentialStore, reader);
+                        break;
+                    case SECRET_CACHE_TIME_TO_LIVE:
+                        CredentialStoreResourceDefinition.SECRET_CACHE_TIME_TO_LIVE.parseAndSetParameter(value, addCredentialStore, reader);
+                        break;
                     case RELATIVE_TO:
                         CredentialStoreResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, addCredentialStore, reader);
                     default:
@@ -141,6 +149,8 @@ class CredentialStoreParser {
                 CredentialStoreResourceDefinition.PROVIDER.marshallAsAttribute(credentialStoreModelNode, writer);
                 CredentialStoreResourceDefinition.PROVIDER_LOADER.marshallAsAttribute(credentialStoreModelNode, writer);
                 CredentialStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(credentialStoreModelNode, writer);
+                CredentialStoreResourceDefinition.SECRET_CACHE_SIZE.marshallAsAttribute(credentialStoreModelNode, writer);
+                CredentialStoreResourceDefinition.SECRET_CACHE_TIME_TO_LIVE.marshallAsAttribute(credentialStoreModelNode, writer);
                 CredentialStoreResourceDefinition.URI.marshallAsElement(credentialStoreModelNode, writer);
                 writer.writeEndElement();
             }
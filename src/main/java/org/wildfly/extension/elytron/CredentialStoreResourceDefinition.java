@@ -48,8 +48,11 @@ import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -113,6 +116,21 @@ final class CredentialStoreResourceDefinition extends SimpleResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
+    static final SimpleAttributeDefinition SECRET_CACHE_SIZE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECRET_CACHE_SIZE, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(64))
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition SECRET_CACHE_TIME_TO_LIVE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECRET_CACHE_TIME_TO_LIVE, ModelType.LONG, true)
+            .setDefaultValue(new ModelNode(300000L))
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(0L, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
     // Resource Resolver
     static final StandardResourceDescriptionResolver RESOURCE_RESOLVER = ElytronExtension.getResourceDescriptionResolver(ElytronDescriptionConstants.CREDENTIAL_STORE);
 
@@ -120,7 +138,7 @@ final class CredentialStoreResourceDefinition extends SimpleResourceDefinition {
     static final SimpleOperationDefinition RELOAD = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.RELOAD, RESOURCE_RESOLVER)
             .build();
 
-    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] {URI, TYPE, PROVIDER, PROVIDER_LOADER, RELATIVE_TO};
+    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] {URI, TYPE, PROVIDER, PROVIDER_LOADER, RELATIVE_TO, SECRET_CACHE_SIZE, SECRET_CACHE_TIME_TO_LIVE};
 
     private static final CredentialStoreAddHandler ADD = new CredentialStoreAddHandler();
     private static final OperationStepHandler REMOVE = new CredentialStoreRemoveHandler(ADD);
@@ -184,12 +202,15 @@ final class CredentialStoreResourceDefinition extends SimpleResourceDefinition {
             if (relativeTo == null) {
                 relativeTo = "jboss.server.data.dir";
             }
+            int secretCacheSize = SECRET_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
+            long secretCacheTimeToLive = SECRET_CACHE_TIME_TO_LIVE.resolveModelAttribute(context, model).asLong();
 
             ServiceTarget serviceTarget = context.getServiceTarget();
             // ----------- credential store service ----------------
             final CredentialStoreService csService;
             try {
-                csService = CredentialStoreService.createCredentialStoreService(name, uri, type, provider, relativeTo, providerLoader);
+                csService = CredentialStoreService.createCredentialStoreService(name, uri, type, provider, relativeTo, providerLoader,
+                        secretCacheSize, secretCacheTimeToLive);
             } catch (CredentialStoreException e) {
                 throw new OperationFailedException(e);
             }
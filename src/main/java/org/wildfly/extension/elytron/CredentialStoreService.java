@@ -27,6 +27,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.Provider;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.security.CredentialStoreClient;
 import org.jboss.as.controller.security.CredentialStoreURIParser;
@@ -50,13 +51,16 @@ import org.wildfly.security.credential.store.CredentialStoreException;
  */
 class CredentialStoreService implements Service<CredentialStoreClient> {
 
-    private CredentialStore credentialStore;
+    private volatile SecretCachingCredentialStore credentialStore;
+    private volatile CredentialStoreClient credentialStoreClient;
     private final String type;
     private final String provider;
     private final String providerLoaderName;
     private final String relativeTo;
     private final String name;
     private final Map<String, String> credentialStoreAttributes;
+    private final int secretCacheSize;
+    private final long secretCacheTimeToLive;
 
     private final InjectedValue<PathManager> pathManager = new InjectedValue<>();
     private final InjectedValue<Provider[]> providers = new InjectedValue<>();
@@ -65,16 +69,20 @@ class CredentialStoreService implements Service<CredentialStoreClient> {
 
     private Handle callbackHandle;
 
-    private CredentialStoreService(String name, Map<String, String> credentialStoreAttributes, String type, String provider, String relativeTo, String providerLoaderName) throws CredentialStoreException {
+    private CredentialStoreService(String name, Map<String, String> credentialStoreAttributes, String type, String provider, String relativeTo, String providerLoaderName,
+            int secretCacheSize, long secretCacheTimeToLive) throws CredentialStoreException {
         this.name = name;
         this.type = type != null ? type : KEY_STORE_PASSWORD_STORE;
         this.provider = provider;
         this.relativeTo = relativeTo;
         this.credentialStoreAttributes = credentialStoreAttributes;
         this.providerLoaderName = providerLoaderName;
+        this.secretCacheSize = secretCacheSize;
+        this.secretCacheTimeToLive = secretCacheTimeToLive;
     }
 
-    static CredentialStoreService createCredentialStoreService(String name, String uri, String type, String provider, String relativeTo, String providerLoaderName) throws CredentialStoreException {
+    static CredentialStoreService createCredentialStoreService(String name, String uri, String type, String provider, String relativeTo, String providerLoaderName,
+            int secretCacheSize, long secretCacheTimeToLive) throws CredentialStoreException {
         try {
             CredentialStoreURIParser credentialStoreURIParser = new CredentialStoreURIParser(uri);
             String nameToSet = name != null ? name : credentialStoreURIParser.getName(); // once we specify name, the name from uri is ignored
@@ -84,7 +92,8 @@ class CredentialStoreService implements Service<CredentialStoreClient> {
             if (storageFile != null) {
                 credentialStoreAttributes.put(ElytronDescriptionConstants.CREDENTIAL_STORE_FILE, storageFile);
             }
-            return new CredentialStoreService(nameToSet, credentialStoreAttributes, type, provider, relativeTo, providerLoaderName);
+            return new CredentialStoreService(nameToSet, credentialStoreAttributes, type, provider, relativeTo, providerLoaderName,
+                    secretCacheSize, secretCacheTimeToLive);
         } catch (URISyntaxException e) {
             throw new CredentialStoreException(e);
         }
@@ -96,10 +105,17 @@ class CredentialStoreService implements Service<CredentialStoreClient> {
 
     @Override
     public void start(StartContext startContext) throws StartException {
+        AsynchronousStart.start(startContext, this::startCredentialStore);
+    }
+
+    private void startCredentialStore() throws StartException {
         resolveFileLocation();
         try {
-            credentialStore = getCredentialStoreInstance();
+            CredentialStore credentialStore = getCredentialStoreInstance();
             credentialStore.initialize(credentialStoreAttributes);
+            this.credentialStore = SecretCachingCredentialStore.secretCachingCredentialStore(credentialStore,
+                    secretCacheSize, secretCacheTimeToLive, TimeUnit.MILLISECONDS);
+            credentialStoreClient = new CredentialStoreClient(this.credentialStore, name, null);
         } catch (CredentialStoreException | NoSuchAlgorithmException | NoSuchProviderException e) {
             throw ElytronSubsystemMessages.ROOT_LOGGER.unableToStartService(e);
         }
@@ -110,11 +126,29 @@ class CredentialStoreService implements Service<CredentialStoreClient> {
         if (callbackHandle != null) {
             callbackHandle.remove();
         }
+        SecretCachingCredentialStore credentialStore = this.credentialStore;
+        if (credentialStore != null) {
+            credentialStore.clear();
+        }
+        this.credentialStore = null;
+        credentialStoreClient = null;
     }
 
     @Override
     public CredentialStoreClient getValue() {
-        return new CredentialStoreClient(credentialStore, name, null);
+        return credentialStoreClient;
+    }
+
+    /**
+     * Discard any cached secret for the specified alias so the next retrieval reads it from the credential store.
+     *
+     * @param alias the alias which has been modified.
+     */
+    void invalidateSecret(String alias) {
+        SecretCachingCredentialStore credentialStore = this.credentialStore;
+        if (credentialStore != null) {
+            credentialStore.invalidate(alias);
+        }
     }
 
     private void resolveFileLocation() {
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.net.ssl.SSLEngine;
+
+/**
+ * A bounded executor for the tasks returned by {@link SSLEngine#getDelegatedTask()}.
+ *
+ * The {@link SSLEngine} contract requires a delegated task to have completed before the caller continues with the handshake
+ * so the caller still waits for the task, however the expensive key exchange and signature operations are limited to the
+ * configured parallelism so a burst of handshakes can not occupy every processor. Where the queue is full the task is run
+ * by the calling thread instead and counted as rejected, a rising rejected count shows the executor is saturated.
+ */
+class DelegatedTaskExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    DelegatedTaskExecutor(String name, int parallelism, int queueDepth) {
+        final BlockingQueue<Runnable> queue = queueDepth > 0 ? new ArrayBlockingQueue<>(queueDepth) : new SynchronousQueue<>();
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS, queue, r -> {
+            Thread thread = new Thread(r, "elytron-delegated-task-" + name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Wrap a delegated task so it is run by this executor when the returned {@link Runnable} is run.
+     *
+     * @param task the delegated task obtained from the {@link SSLEngine}.
+     * @return a {@link Runnable} which returns once the delegated task has completed.
+     */
+    Runnable wrap(Runnable task) {
+        return () -> execute(task);
+    }
+
+    private void execute(Runnable task) {
+        final FutureTask<Void> future = new FutureTask<>(task, null);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            task.run();
+            return;
+        }
+
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException e) {
+                    // The handshake can not continue until the task completes.
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+}
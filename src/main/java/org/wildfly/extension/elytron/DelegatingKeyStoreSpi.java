@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.KeyStoreSpi;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.util.Date;
+import java.util.Enumeration;
+
+/**
+ * A {@link KeyStoreSpi} delegating all calls to an already loaded {@link KeyStore}, used as the base for the {@link KeyStore}
+ * wrappers within the subsystem.
+ *
+ * The first call to {@link #engineLoad(InputStream, char[])} is the initialisation of the wrapper and is not passed to the
+ * delegate, subsequent calls are passed to the delegate followed by a call to {@link #loaded()}.
+ */
+abstract class DelegatingKeyStoreSpi extends KeyStoreSpi {
+
+    protected final KeyStore delegate;
+    private volatile boolean initialised;
+
+    DelegatingKeyStoreSpi(KeyStore delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Called after the content of the delegate has been reloaded.
+     */
+    protected void loaded() {
+    }
+
+    @Override
+    public Key engineGetKey(String alias, char[] password) throws NoSuchAlgorithmException, UnrecoverableKeyException {
+        try {
+            return delegate.getKey(alias, password);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Certificate[] engineGetCertificateChain(String alias) {
+        try {
+            return delegate.getCertificateChain(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Certificate engineGetCertificate(String alias) {
+        try {
+            return delegate.getCertificate(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Date engineGetCreationDate(String alias) {
+        try {
+            return delegate.getCreationDate(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void engineSetKeyEntry(String alias, Key key, char[] password, Certificate[] chain) throws KeyStoreException {
+        delegate.setKeyEntry(alias, key, password, chain);
+    }
+
+    @Override
+    public void engineSetKeyEntry(String alias, byte[] key, Certificate[] chain) throws KeyStoreException {
+        delegate.setKeyEntry(alias, key, chain);
+    }
+
+    @Override
+    public void engineSetCertificateEntry(String alias, Certificate cert) throws KeyStoreException {
+        delegate.setCertificateEntry(alias, cert);
+    }
+
+    @Override
+    public void engineDeleteEntry(String alias) throws KeyStoreException {
+        delegate.deleteEntry(alias);
+    }
+
+    @Override
+    public Enumeration<String> engineAliases() {
+        try {
+            return delegate.aliases();
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean engineContainsAlias(String alias) {
+        try {
+            return delegate.containsAlias(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int engineSize() {
+        try {
+            return delegate.size();
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean engineIsKeyEntry(String alias) {
+        try {
+            return delegate.isKeyEntry(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean engineIsCertificateEntry(String alias) {
+        try {
+            return delegate.isCertificateEntry(alias);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String engineGetCertificateAlias(Certificate cert) {
+        try {
+            return delegate.getCertificateAlias(cert);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void engineStore(OutputStream stream, char[] password) throws IOException, NoSuchAlgorithmException, CertificateException {
+        try {
+            delegate.store(stream, password);
+        } catch (KeyStoreException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void engineLoad(InputStream stream, char[] password) throws IOException, NoSuchAlgorithmException, CertificateException {
+        if (initialised) {
+            delegate.load(stream, password);
+            loaded();
+        } else {
+            // The first call is the initialisation of the wrapper, the delegate is already loaded.
+            initialised = true;
+        }
+    }
+
+}
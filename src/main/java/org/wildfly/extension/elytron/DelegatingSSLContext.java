@@ -0,0 +1,40 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import javax.net.ssl.SSLContext;
+
+/**
+ * An {@link SSLContext} backed by a {@link DelegatingSSLContextSpi}, the provider and protocol are those of the wrapped
+ * {@link SSLContext}.
+ */
+final class DelegatingSSLContext extends SSLContext {
+
+    private final DelegatingSSLContextSpi contextSpi;
+
+    DelegatingSSLContext(DelegatingSSLContextSpi contextSpi) {
+        super(contextSpi, contextSpi.getDelegate().getProvider(), contextSpi.getDelegate().getProtocol());
+        this.contextSpi = contextSpi;
+    }
+
+    DelegatingSSLContextSpi getContextSpi() {
+        return contextSpi;
+    }
+
+}
@@ -156,7 +156,7 @@ public class DirContextDefinition extends SimpleResourceDefinition {
 
             final InjectedValue<SSLContext> sslContextInjector = new InjectedValue<>();
 
-            TrivialService<ExceptionSupplier<DirContext, NamingException>> service = new TrivialService<>(obtainDirContextSupplier(context, model, sslContextInjector));
+            TrivialService<ExceptionSupplier<DirContext, NamingException>> service = new TrivialService<>(obtainDirContextSupplier(context, model, sslContextInjector), true);
             ServiceBuilder<ExceptionSupplier<DirContext, NamingException>> serviceBuilder = context.getServiceTarget().addService(serviceName, service);
 
             String sslContextName = asStringIfDefined(context, SSL_CONTEXT, model);
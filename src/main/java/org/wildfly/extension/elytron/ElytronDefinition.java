@@ -29,16 +29,26 @@ import static org.wildfly.extension.elytron.Capabilities.SECURITY_REALM_RUNTIME_
 import static org.wildfly.extension.elytron.Capabilities.SECURITY_FACTORY_CREDENTIAL_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
+import java.util.Map;
+import java.util.TreeMap;
+
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationContext.AttachmentKey;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
@@ -68,12 +78,36 @@ class ElytronDefinition extends SimpleResourceDefinition {
 
     private static final AttachmentKey<SecurityPropertyService> SECURITY_PROPERTY_SERVICE_KEY = AttachmentKey.create(SecurityPropertyService.class);
 
+    private static final SimpleAttributeDefinition SERVICE_NAME = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SERVICE_NAME, ModelType.STRING).build();
+
+    private static final SimpleAttributeDefinition WAIT_TIME = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.WAIT_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    private static final SimpleAttributeDefinition START_TIME = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.START_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    private static final SimpleAttributeDefinition FAILED = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.FAILED, ModelType.BOOLEAN).build();
+
+    private static final ObjectTypeAttributeDefinition SERVICE_START_TIME = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.SERVICE_START_TIME,
+            SERVICE_NAME, WAIT_TIME, START_TIME, FAILED).build();
+
+    static final ObjectListAttributeDefinition SERVICE_START_TIMES = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.SERVICE_START_TIMES, SERVICE_START_TIME)
+            .setStorageRuntime()
+            .build();
+
     private ElytronDefinition() {
         super(ElytronExtension.SUBSYSTEM_PATH,
                 ElytronExtension.getResourceDescriptionResolver(),
                 new ElytronAdd(),new ElytronRemove());
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadOnlyAttribute(SERVICE_START_TIMES, new ServiceStartTimesHandler());
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         // Security Properties
@@ -167,6 +201,7 @@ class ElytronDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerSubModel(SSLDefinitions.getTrustManagerDefinition());
         resourceRegistration.registerSubModel(SSLDefinitions.getServerSSLContextDefinition());
         resourceRegistration.registerSubModel(SSLDefinitions.getClientSSLContextDefinition());
+        resourceRegistration.registerSubModel(SSLDefinitions.getServerSNISSLContextDefinition());
 
         // Credential Store Block
         resourceRegistration.registerSubModel(new CredentialStoreResourceDefinition());
@@ -203,6 +238,34 @@ class ElytronDefinition extends SimpleResourceDefinition {
         return null;
     }
 
+    /**
+     * Reports the time taken by the most recent asynchronous start of each service still installed.
+     */
+    private static class ServiceStartTimesHandler extends AbstractRuntimeOnlyHandler {
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceRegistry serviceRegistry = context.getServiceRegistry(false);
+            Map<String, AsynchronousStart.StartTime> startTimes = new TreeMap<>();
+            AsynchronousStart.getStartTimes().forEach((ServiceController<?> controller, AsynchronousStart.StartTime startTime) -> {
+                // The same name may have been started in another container or by a controller since removed.
+                ServiceController<?> current = serviceRegistry.getService(controller.getName());
+                if (current != null && current.getService() == controller.getService()) {
+                    startTimes.put(controller.getName().getCanonicalName(), startTime);
+                }
+            });
+
+            ModelNode result = context.getResult().setEmptyList();
+            startTimes.forEach((String name, AsynchronousStart.StartTime startTime) -> {
+                ModelNode entry = result.add();
+                entry.get(ElytronDescriptionConstants.SERVICE_NAME).set(name);
+                entry.get(ElytronDescriptionConstants.WAIT_TIME).set(startTime.getWaitTime());
+                entry.get(ElytronDescriptionConstants.START_TIME).set(startTime.getStartTime());
+                entry.get(ElytronDescriptionConstants.FAILED).set(startTime.isFailed());
+            });
+        }
+    }
+
     private static class ElytronAdd extends AbstractBoottimeAddStepHandler {
 
         private ElytronAdd() {
@@ -37,6 +37,7 @@ interface ElytronDescriptionConstants {
     String AGGREGATE_ROLE_MAPPER = "aggregate-role-mapper";
     String AGGREGATE_SASL_SERVER_FACTORY = "aggregate-sasl-server-factory";
     String ALIAS = "alias";
+    String ALIASES = "aliases";
     String ALIAS_ATTRIBUTE = "alias-attribute";
     String ALIAS_FILTER = "alias-filter";
     String ALGORITHM = "algorithm";
@@ -54,16 +55,24 @@ interface ElytronDescriptionConstants {
     String AUTHENTICATION_OPTIONAL = "authentication-optional";
     String AUTHENTICATION_REALM = "authentication-realm";
     String AUTHORIZATION_REALM = "authorization-realm";
+    String AUTO_RELOAD = "auto-reload";
+    String AUTO_RELOAD_INTERVAL = "auto-reload-interval";
     String AVAILABLE_MECHANISMS = "available-mechanisms";
 
     String BCRYPT = "bcrypt";
     String BCRYPT_MAPPER = "bcrypt-mapper";
 
+    String BUCKET = "bucket";
+    String BUCKETS = "buckets";
+    String CACHE = "cache";
+    String CACHE_HIT_COUNT = "cache-hit-count";
+    String CACHE_MISS_COUNT = "cache-miss-count";
     String CERTIFICATE = "certificate";
     String CERTIFICATE_ATTRIBUTE = "certificate-attribute";
     String CERTIFICATE_CHAIN = "certificate-chain";
     String CERTIFICATE_CHAIN_ATTRIBUTE = "certificate-chain-attribute";
     String CERTIFICATE_CHAIN_ENCODING = "certificate-chain-encoding";
+    String CERTIFICATE_REVOCATION_LIST = "certificate-revocation-list";
     String CERTIFICATE_TYPE = "certificate-type";
     String CHAINED_NAME_REWRITER = "chained-name-rewriter";
     String CIPHER_SUITE = "cipher-suite";
@@ -73,6 +82,8 @@ interface ElytronDescriptionConstants {
     String CLASS_NAMES = "class-names";
     String CLEAR = "clear";
     String CLEAR_PASSWORD_MAPPER = "clear-password-mapper";
+    String CLIENT_AUTH_ABSENT_COUNT = "client-auth-absent-count";
+    String CLIENT_AUTH_ACCEPTED_COUNT = "client-auth-accepted-count";
     String CLIENT_ID = "client-id";
     String CLIENT_SECRET = "client-secret";
     String CLIENT_SSL_CONTEXT = "client-ssl-context";
@@ -90,6 +101,7 @@ interface ElytronDescriptionConstants {
     String CONSTANT_REALM_MAPPER = "constant-realm-mapper";
     String CONSTANT_ROLE_MAPPER = "constant-role-mapper";
     String CORE_SERVICE = "core-service";
+    String COUNT = "count";
     String CREATION_DATE = "creation-date";
     String CREATION_TIME = "creation-time";
     String CREDENTIAL = "credential";
@@ -114,6 +126,13 @@ interface ElytronDescriptionConstants {
     String DATA_SOURCE = "data-source";
     String DEBUG = "debug";
     String DEFAULT_REALM = "default-realm";
+    String DEFAULT_SSL_CONTEXT = "default-ssl-context";
+    String DELEGATED_TASK_ACTIVE_COUNT = "delegated-task-active-count";
+    String DELEGATED_TASK_COMPLETED_COUNT = "delegated-task-completed-count";
+    String DELEGATED_TASK_PARALLELISM = "delegated-task-parallelism";
+    String DELEGATED_TASK_QUEUE_DEPTH = "delegated-task-queue-depth";
+    String DELEGATED_TASK_QUEUE_SIZE = "delegated-task-queue-size";
+    String DELEGATED_TASK_REJECTED_COUNT = "delegated-task-rejected-count";
     String DELEGATE_REALM_MAPPER = "delegate-realm-mapper";
     String DIGEST = "digest";
     String DIR_CONTEXT = "dir-context";
@@ -125,6 +144,12 @@ interface ElytronDescriptionConstants {
     String ENCODED = "encoded";
     String ENTRY_TYPE = "entry-type";
 
+    String EXPIRING_CERTIFICATES = "expiring-certificates";
+    String EXPIRY_HORIZON = "expiry-horizon";
+    String EXPORTED = "exported";
+    String EXPORT_CERTIFICATES = "export-certificates";
+    String FAILED = "failed";
+    String FAILED_STORES = "failed-stores";
     String FILE = "file";
     String FILESYSTEM_REALM = "filesystem-realm";
     String FILTER = "filter";
@@ -139,6 +164,7 @@ interface ElytronDescriptionConstants {
     String FINGER_PRINT = "finger-print";
     String FINGER_PRINTS = "finger-prints";
     String FIRST = "first";
+    String FLUSH_CACHE = "flush-cache";
     String FORMAT = "format";
     String FROM = "from";
 
@@ -147,6 +173,12 @@ interface ElytronDescriptionConstants {
     String GROUPS_ATTRIBUTE = "groups-attribute";
     String GROUPS_PROPERTIES = "groups-properties";
 
+    String HANDSHAKE_DURATION = "handshake-duration";
+    String HANDSHAKE_DURATIONS = "handshake-durations";
+    String HANDSHAKE_FAILURE = "handshake-failure";
+    String HANDSHAKE_FAILURES = "handshake-failures";
+    String HOST = "host";
+    String HOST_CONTEXT_MAP = "host-context-map";
     String HOST_NAME = "host-name";
     String HOST_NAME_VERIFICATION_POLICY = "host-name-verification-policy";
     String HASH_FROM = "hash-from";
@@ -159,7 +191,10 @@ interface ElytronDescriptionConstants {
     String IDENTITY_MAPPING = "identity-mapping";
     String IDENTITY_REALM = "identity-realm";
     String IMPLEMENTATION = "implementation";
+    String IMPORTED = "imported";
+    String IMPORT_CERTIFICATES = "import-certificates";
     String INDEX = "index";
+    String INDEXED = "indexed";
     String INFO = "info";
     String INTROSPECTION_URL = "introspection-url";
     String INVALIDATE = "invalidate";
@@ -182,12 +217,14 @@ interface ElytronDescriptionConstants {
     String KEY_STORES = "key-stores";
 
     String LAST_ACCESSED_TIME = "last-accessed-time";
+    String LAZY_LOAD = "lazy-load";
     String LDAP_KEY_STORE = "ldap-key-store";
     String LDAP_MAPPING = "ldap-mapping";
     String LDAP_REALM = "ldap-realm";
     String LEFT = "left";
     String LESS_THAN = "less-than";
     String LEVELS = "levels";
+    String LIMIT = "limit";
     String LOAD = "load";
     String LOAD_SERVICES = "load-services";
     String LOADED_PROVIDER = "loaded-provider";
@@ -202,8 +239,12 @@ interface ElytronDescriptionConstants {
     String MAPPERS = "mappers";
     String MAPPING_MODE = "mapping-mode";
     String MATCH = "match";
+    String MATERIALIZED = "materialized";
+    String MAXIMUM_AGE = "maximum-age";
+    String MAXIMUM_ENTRIES = "maximum-entries";
     String MAXIMUM_SEGMENTS = "maximum-segments";
     String MAXIMUM_SESSION_CACHE_SIZE = "maximum-session-cache-size";
+    String MAXIMUM_TIME = "maximum-time";
     String MECHANISM = "mechanism";
     String MECHANISM_CONFIGURATION = "mechanism-configuration";
     String MECHANISM_CONFIGURATIONS = "mechanism-configurations";
@@ -213,6 +254,7 @@ interface ElytronDescriptionConstants {
     String MECHANISM_REALM = "mechanism-realm";
     String MECHANISM_REALM_CONFIGURATION = "mechanism-realm-configuration";
     String MECHANISM_REALM_CONFIGURATIONS = "mechanism-realm-configurations";
+    String MINIMUM_AGE = "minimum-age";
     String MINIMUM_REMAINING_LIFETIME = "minimum-remaining-lifetime";
     String MINUS = "minus";
     String MODIFIABLE_SECURITY_REALM = "modifiable-security-realm";
@@ -223,6 +265,7 @@ interface ElytronDescriptionConstants {
     String NAME_REWRITER = "name-rewriter";
     String NAME_REWRITERS = "name-rewriters";
     String NEED_CLIENT_AUTH = "need-client-auth";
+    String NEGATIVE_CACHING = "negative-caching";
     String NEW_IDENTITY_ATTRIBUTES = "new-identity-attributes";
     String NEW_IDENTITY_PARENT_DN = "new-identity-parent-dn";
     String NEW_ITEM_ATTRIBUTES = "new-item-attributes";
@@ -233,11 +276,14 @@ interface ElytronDescriptionConstants {
     String NOT_BEFORE = "not-before";
 
     String OAUTH2_INTROSPECTION = "oauth2-introspection";
+    String OCSP = "ocsp";
+    String OFFSET = "offset";
     String OID = "oid";
     String OTP_CREDENTIAL_MAPPER = "otp-credential-mapper";
     String OR = "or";
 
     String PACKET_BUFFER_SIZE = "packet-buffer-size";
+    String PAGE_SIZE = "page-size";
     String PATH = "path";
     String PASSWORD = "password";
     String PASSWORD_INDEX = "password-index";
@@ -247,11 +293,14 @@ interface ElytronDescriptionConstants {
     String PEER_HOST = "peer-host";
     String PEER_PORT = "peer-port";
     String PEER_PRINCIPAL = "peer-principal";
+    String PENDING_MODIFICATIONS = "pending-modifications";
     String PERMISSION = "permission";
     String PERMISSIONS = "permissions";
     String PERMISSION_MAPPER = "permission-mapper";
     String PERMISSION_MAPPING = "permission-mapping";
     String PERMISSION_MAPPINGS = "permission-mappings";
+    String PINNED_SESSION_COUNT = "pinned-session-count";
+    String PIN_SESSIONS = "pin-sessions";
     String PLAIN_TEXT = "plain-text";
     String POST_REALM_NAME_REWRITER = "post-realm-name-rewriter";
     String PRE_REALM_NAME_REWRITER = "pre-realm-name-rewriter";
@@ -280,14 +329,18 @@ interface ElytronDescriptionConstants {
     String PUBLIC_KEY = "public-key";
 
     String RDN_IDENTIFIER = "rdn-identifier";
+    String READ_ALIASES = "read-aliases";
     String READ_IDENTITY = "read-identity";
+    String READ_SESSIONS = "read-sessions";
     String REALM = "realm";
     String REALM_MAP = "realm-map";
     String REALM_MAPPER = "realm-mapper";
     String REALM_MAPPING = "realm-mapping";
     String REALM_NAME = "realm-name";
     String REALMS = "realms";
+    String REASON = "reason";
     String REFERRAL_MODE = "referral-mode";
+    String REFRESH_INTERVAL = "refresh-interval";
     String REGEX_NAME_REWRITER = "regex-name-rewriter";
     String REGEX_NAME_VALIDATING_REWRITER = "regex-name-validating-rewriter";
     String REGISTER = "register";
@@ -295,9 +348,11 @@ interface ElytronDescriptionConstants {
     String REMOVE_ATTRIBUTE = "remove-attribute";
     String REPLACE_ALL = "replace-all";
     String REPLACEMENT = "replacement";
+    String REPLACE_EXISTING = "replace-existing";
     String REQUEST_LIFETIME = "request-lifetime";
     String REQUIRED = "required";
     String REQUIRED_OIDS = "required-oids";
+    String RESPONDER = "responder";
     String REVERSE = "reverse";
     String RIGHT = "right";
     String ROLE_DECODER = "role-decoder";
@@ -319,6 +374,12 @@ interface ElytronDescriptionConstants {
     String SEARCH_PATH = "search-path";
     String SEARCH_RECURSIVE = "search-recursive";
     String SEARCH_TIME_LIMIT = "search-time-limit";
+    String SECRET_CACHE_SIZE = "secret-cache-size";
+    String SECRET_CACHE_TIME_TO_LIVE = "secret-cache-time-to-live";
+    String SECURE_RANDOM_POOL_SIZE = "secure-random-pool-size";
+    String SECURE_RANDOM_REQUEST_COUNT = "secure-random-request-count";
+    String SECURE_RANDOM_RESEED_INTERVAL = "secure-random-reseed-interval";
+    String SECURE_RANDOM_WAIT_TIME = "secure-random-wait-time";
     String SECURITY_DOMAIN = "security-domain";
     String SECURITY_DOMAINS = "security-domains";
     String SECURITY_PROPERTIES = "security-properties";
@@ -332,6 +393,17 @@ interface ElytronDescriptionConstants {
     String SERVER = "server";
     String SERVER_SSL_CONTEXT = "server-ssl-context";
     String SERVER_SSL_CONTEXTS = "server-ssl-contexts";
+    String SERVER_SSL_SNI_CONTEXT = "server-ssl-sni-context";
+    String SERVER_SSL_SNI_CONTEXTS = "server-ssl-sni-contexts";
+    String SERVICE_NAME = "service-name";
+    String SERVICE_START_TIME = "service-start-time";
+    String SERVICE_START_TIMES = "service-start-times";
+    String SESSION_CREATION_COUNT = "session-creation-count";
+    String SESSION_EVICTION_COUNT = "session-eviction-count";
+    String SESSION_ID = "session-id";
+    String SESSION_INVALIDATION_COUNT = "session-invalidation-count";
+    String SESSION_MISS_COUNT = "session-miss-count";
+    String SESSION_RESUMPTION_COUNT = "session-resumption-count";
     String SESSION_TIMEOUT = "session-timeout";
     String SET_PASSWORD = "set-password";
     String SERVICE = "service";
@@ -347,10 +419,13 @@ interface ElytronDescriptionConstants {
     String SIMPLE_REGEX_REALM_MAPPER = "simple-regex-realm-mapper";
     String SIMPLE_ROLE_DECODER = "simple-role-decoder";
     String SIZE = "size";
+    String SNI_MAPPING = "sni-mapping";
+    String SOFT_FAIL = "soft-fail";
     String SQL = "sql";
     String SSL_CONTEXT = "ssl-context";
     String SSL_SESSION = "ssl-session";
     String START_SEGMENT = "start-segment";
+    String START_TIME = "start-time";
     String STATE = "state";
     String STORE = "store";
     String SUBJECT = "subject";
@@ -358,9 +433,11 @@ interface ElytronDescriptionConstants {
     String SYNCHRONIZED = "synchronized";
 
     String TARGET_NAME = "target-name";
+    String TIME_TO_LIVE = "time-to-live";
     String TLS = "tls";
     String TO = "to";
     String TOKEN_REALM = "token-realm";
+    String TOTAL_TIME = "total-time";
     String TRUST_MANAGER = "trust-manager";
     String TRUST_MANAGERS = "trust-managers";
     String TRUSTED_SECURITY_DOMAINS = "trusted-security-domains";
@@ -368,6 +445,7 @@ interface ElytronDescriptionConstants {
 
     String RELOAD = "reload";
     String UNLESS = "unless";
+    String UPPER_BOUND = "upper-bound";
     String URI = "uri";
     String URL = "url";
     String USE_RECURSIVE_SEARCH = "use-recursive-search";
@@ -381,9 +459,12 @@ interface ElytronDescriptionConstants {
     String VERSION = "version";
     String VERSION_COMPARISON = "version-comparison";
 
+    String WAIT_TIME = "wait-time";
     String WANT_CLIENT_AUTH = "want-client-auth";
+    String WARM_UP_PEERS = "warm-up-peers";
     String WRITABLE = "writable";
 
+    String WRITE_BEHIND_DELAY = "write-behind-delay";
     String X500_ATTRIBUTE_PRINCIPAL_DECODER = "x500-attribute-principal-decoder";
     String XOR = "xor";
 
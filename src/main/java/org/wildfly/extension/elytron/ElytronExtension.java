@@ -23,6 +23,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
@@ -65,6 +68,12 @@ public class ElytronExtension implements Extension {
 
     static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
 
+    /**
+     * A thread safe formatter for {@link #ISO_8601_FORMAT} which can be shared instead of creating a {@code SimpleDateFormat}
+     * for each use.
+     */
+    static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern(ISO_8601_FORMAT).withZone(ZoneId.systemDefault());
+
     /**
      * The parser used for parsing our subsystem
      */
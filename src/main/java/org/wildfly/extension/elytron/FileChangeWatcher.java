@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a single file and calls a listener each time the content of the file appears to have changed.
+ *
+ * A {@link WatchService} on the parent directory is used to be notified promptly, any event in the directory triggers a
+ * check as tools commonly replace files by renaming or by swapping a symbolic link to a directory. As a
+ * {@link WatchService} is not reliable on all file systems the attributes of the file are also checked each time the
+ * poll interval elapses, the listener is only called when the file key (e.g. the inode), the modification time at the
+ * full precision reported by the file system or the size of the file has changed.
+ *
+ * Checks and calls to the listener are made holding the supplied lock, owners should also hold this lock while writing
+ * the file and calling {@link #refresh()} so their own writes are never reported back to the listener.
+ */
+class FileChangeWatcher {
+
+    private final File file;
+    private final long pollInterval;
+    private final Runnable listener;
+    private final Object lock;
+    private final Thread thread;
+
+    private volatile boolean stopped;
+    private volatile WatchService watchService;
+    private volatile long checks;
+    private FileState state;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the file to watch.
+     * @param pollInterval the interval in milliseconds between checks when no events are received.
+     * @param listener the listener to call when the file has changed, it is always called from the watching thread.
+     * @param lock the lock to hold while checking the file and calling the listener.
+     * @param name the name to use for the watching thread.
+     */
+    FileChangeWatcher(File file, long pollInterval, Runnable listener, Object lock, String name) {
+        this.file = file;
+        this.pollInterval = pollInterval;
+        this.listener = listener;
+        this.lock = lock;
+        thread = new Thread(this::watch, name);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        refresh();
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            try {
+                WatchService watchService = FileSystems.getDefault().newWatchService();
+                directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                this.watchService = watchService;
+            } catch (IOException | UnsupportedOperationException e) {
+                // Polling alone will detect the changes.
+            }
+        }
+        thread.start();
+    }
+
+    void stop() {
+        stopped = true;
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * Get the number of checks of the file made by the watching thread, a change made before this count has increased
+     * twice has been seen by a check.
+     *
+     * @return the number of checks made.
+     */
+    long getCheckCount() {
+        return checks;
+    }
+
+    /**
+     * Record the current state of the file as seen so a change made by the caller, e.g. a save, is not reported back to
+     * the listener.
+     */
+    void refresh() {
+        synchronized (lock) {
+            state = FileState.of(file);
+        }
+    }
+
+    private void watch() {
+        while (stopped == false) {
+            try {
+                WatchService watchService = this.watchService;
+                if (watchService != null) {
+                    WatchKey key = watchService.poll(pollInterval, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                } else {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                continue;
+            }
+            synchronized (lock) {
+                if (stopped == false && checkChanged()) {
+                    listener.run();
+                }
+                checks++;
+            }
+        }
+    }
+
+    private boolean checkChanged() {
+        FileState current = FileState.of(file);
+        if (current == null || current.equals(state)) {
+            // A missing file is treated as unchanged so the current content is retained until it is replaced.
+            return false;
+        }
+        state = current;
+        return true;
+    }
+
+    private static final class FileState {
+
+        private final Object fileKey;
+        private final long modified;
+        private final long size;
+
+        private FileState(Object fileKey, long modified, long size) {
+            this.fileKey = fileKey;
+            this.modified = modified;
+            this.size = size;
+        }
+
+        static FileState of(File file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                return new FileState(attributes.fileKey(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), attributes.size());
+            } catch (IOException e) {
+                // Includes the file not existing.
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof FileState == false) {
+                return false;
+            }
+            FileState that = (FileState) other;
+            return modified == that.modified && size == that.size && Objects.equals(fileKey, that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fileKey, modified, size);
+        }
+    }
+
+}
@@ -76,9 +76,15 @@ public class FilteringKeyStoreDefinition extends SimpleResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
+    static final SimpleAttributeDefinition MATERIALIZED = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MATERIALIZED, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
     static final StandardResourceDescriptionResolver RESOURCE_RESOLVER = ElytronExtension.getResourceDescriptionResolver(ElytronDescriptionConstants.FILTERING_KEY_STORE);
 
-    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] { KEY_STORE, ALIAS_FILTER };
+    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] { KEY_STORE, ALIAS_FILTER, MATERIALIZED };
 
     private static final KeyStoreAddHandler ADD = new KeyStoreAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, KEY_STORE_RUNTIME_CAPABILITY);
@@ -112,6 +118,12 @@ public class FilteringKeyStoreDefinition extends SimpleResourceDefinition {
         });
     }
 
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        ReadAliasesHandler.register(resourceRegistration, RESOURCE_RESOLVER);
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerSubModel(new KeyStoreAliasDefinition(FILTERING_KEY_STORE_UTIL));
@@ -129,13 +141,14 @@ public class FilteringKeyStoreDefinition extends SimpleResourceDefinition {
 
             String sourceKeyStoreName = asStringIfDefined(context, KEY_STORE, model);
             String aliasFilter = asStringIfDefined(context, ALIAS_FILTER, model);
+            boolean materialized = MATERIALIZED.resolveModelAttribute(context, model).asBoolean();
 
             String sourceKeyStoreCapability = RuntimeCapability.buildDynamicCapabilityName(KEY_STORE_CAPABILITY, sourceKeyStoreName);
             ServiceName sourceKeyStoreServiceName = context.getCapabilityServiceName(sourceKeyStoreCapability, KeyStore.class);
 
             final InjectedValue<ModifiableKeyStoreService> serviceInjector = new InjectedValue<>();
 
-            FilteringKeyStoreService filteringKeyStoreService = new FilteringKeyStoreService(serviceInjector, aliasFilter);
+            FilteringKeyStoreService filteringKeyStoreService = new FilteringKeyStoreService(serviceInjector, aliasFilter, materialized);
 
             ServiceTarget serviceTarget = context.getServiceTarget();
             RuntimeCapability<Void> runtimeCapability = KEY_STORE_RUNTIME_CAPABILITY.fromBaseCapability(context.getCurrentAddressValue());
@@ -27,6 +27,7 @@ import org.wildfly.security.keystore.AliasFilter;
 import org.wildfly.security.keystore.FilteringKeyStore;
 
 import java.security.KeyStore;
+import java.util.function.Consumer;
 
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
@@ -39,12 +40,15 @@ public class FilteringKeyStoreService implements ModifiableKeyStoreService {
 
     final InjectedValue<ModifiableKeyStoreService> serviceInjector;
     final String aliasFilter;
+    final boolean materialized;
     KeyStore filteringKeyStore;
     KeyStore modifiableFilteringKeyStore;
+    private Runnable loadListener;
 
-    FilteringKeyStoreService(InjectedValue<ModifiableKeyStoreService> serviceInjector, String aliasFilter) {
+    FilteringKeyStoreService(InjectedValue<ModifiableKeyStoreService> serviceInjector, String aliasFilter, boolean materialized) {
         this.serviceInjector = serviceInjector;
         this.aliasFilter = aliasFilter;
+        this.materialized = materialized;
     }
 
     /*
@@ -60,10 +64,17 @@ public class FilteringKeyStoreService implements ModifiableKeyStoreService {
             KeyStore modifiable = keyStoreService.getModifiableValue();
 
             ROOT_LOGGER.tracef(
-                    "starting:  aliasFilter = %s  filter = %s  unmodifiable = %s  modifiable = %s",
-                    aliasFilter, filter, unmodifiable, modifiable);
-
-            filteringKeyStore = FilteringKeyStore.filteringKeyStore(unmodifiable, filter);
+                    "starting:  aliasFilter = %s  filter = %s  materialized = %b  unmodifiable = %s  modifiable = %s",
+                    aliasFilter, filter, materialized, unmodifiable, modifiable);
+
+            if (materialized) {
+                MaterializedFilteringKeyStore materializedKeyStore = MaterializedFilteringKeyStore.materializedFilteringKeyStore(unmodifiable, filter, keyStoreService::getVersion);
+                loadListener = materializedKeyStore::invalidate;
+                keyStoreService.registerLoadListener(loadListener);
+                filteringKeyStore = materializedKeyStore;
+            } else {
+                filteringKeyStore = FilteringKeyStore.filteringKeyStore(unmodifiable, filter);
+            }
             if (modifiableFilteringKeyStore != null) {
                 modifiableFilteringKeyStore = FilteringKeyStore.filteringKeyStore(modifiable, filter);
             }
@@ -80,6 +91,10 @@ public class FilteringKeyStoreService implements ModifiableKeyStoreService {
                 filteringKeyStore, modifiableFilteringKeyStore
         );
 
+        if (loadListener != null) {
+            serviceInjector.getValue().unregisterLoadListener(loadListener);
+            loadListener = null;
+        }
         filteringKeyStore = null;
         modifiableFilteringKeyStore = null;
     }
@@ -95,4 +110,29 @@ public class FilteringKeyStoreService implements ModifiableKeyStoreService {
         }
         return modifiableFilteringKeyStore;
     }
+
+    @Override
+    public void registerLoadListener(Runnable listener) {
+        serviceInjector.getValue().registerLoadListener(listener);
+    }
+
+    @Override
+    public void unregisterLoadListener(Runnable listener) {
+        serviceInjector.getValue().unregisterLoadListener(listener);
+    }
+
+    @Override
+    public void registerEntryListener(Consumer<String> listener) {
+        serviceInjector.getValue().registerEntryListener(listener);
+    }
+
+    @Override
+    public void unregisterEntryListener(Consumer<String> listener) {
+        serviceInjector.getValue().unregisterEntryListener(listener);
+    }
+
+    @Override
+    public long getVersion() {
+        return serviceInjector.getValue().getVersion();
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Statistics describing the handshakes performed using a single {@link javax.net.ssl.SSLContext}.
+ *
+ * Durations are held in fixed histogram buckets per protocol and cipher suite combination, failures are counted by the
+ * alert received from the peer or by the cause of a locally detected failure.
+ */
+class HandshakeStatistics {
+
+    /**
+     * The inclusive upper bound in milliseconds of each histogram bucket, a final bucket holds all longer handshakes.
+     */
+    static final long[] BUCKET_UPPER_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+
+    private static final Pattern RECEIVED_ALERT = Pattern.compile("Received fatal alert: (\\w+)");
+
+    private final Map<Negotiated, DurationHistogram> durations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LongAdder clientAuthAccepted = new LongAdder();
+    private final LongAdder clientAuthAbsent = new LongAdder();
+
+    void handshakeCompleted(String protocol, String cipherSuite, long durationNanos) {
+        durations.computeIfAbsent(new Negotiated(protocol, cipherSuite), n -> new DurationHistogram())
+                .record(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+
+    void handshakeFailed(Throwable failure) {
+        failures.computeIfAbsent(failureReason(failure), r -> new LongAdder()).increment();
+    }
+
+    void clientAuthentication(boolean certificatePresented) {
+        (certificatePresented ? clientAuthAccepted : clientAuthAbsent).increment();
+    }
+
+    long getClientAuthAcceptedCount() {
+        return clientAuthAccepted.sum();
+    }
+
+    long getClientAuthAbsentCount() {
+        return clientAuthAbsent.sum();
+    }
+
+    void writeDurations(ModelNode result) {
+        result.setEmptyList();
+        durations.forEach((negotiated, histogram) -> {
+            ModelNode duration = result.add();
+            duration.get(ElytronDescriptionConstants.PROTOCOL).set(negotiated.protocol);
+            duration.get(ElytronDescriptionConstants.CIPHER_SUITE).set(negotiated.cipherSuite);
+            histogram.write(duration);
+        });
+    }
+
+    void writeFailures(ModelNode result) {
+        result.setEmptyList();
+        failures.forEach((reason, count) -> {
+            ModelNode failure = result.add();
+            failure.get(ElytronDescriptionConstants.REASON).set(reason);
+            failure.get(ElytronDescriptionConstants.COUNT).set(count.sum());
+        });
+    }
+
+    /**
+     * JSSE does not expose the alert as a type so alerts received from the peer are identified from the message, for
+     * failures detected locally the type of the root cause is used to keep the number of distinct reasons bounded.
+     */
+    static String failureReason(Throwable failure) {
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            String message = current.getMessage();
+            if (message != null) {
+                Matcher matcher = RECEIVED_ALERT.matcher(message);
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+        }
+
+        Throwable rootCause = failure;
+        while (rootCause.getCause() != null && rootCause.getCause() != rootCause) {
+            rootCause = rootCause.getCause();
+        }
+        return rootCause.getClass().getSimpleName();
+    }
+
+    private static final class Negotiated {
+
+        private final String protocol;
+        private final String cipherSuite;
+
+        Negotiated(String protocol, String cipherSuite) {
+            this.protocol = protocol;
+            this.cipherSuite = cipherSuite;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof Negotiated == false) {
+                return false;
+            }
+            Negotiated negotiated = (Negotiated) other;
+            return Objects.equals(protocol, negotiated.protocol) && Objects.equals(cipherSuite, negotiated.cipherSuite);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(protocol, cipherSuite);
+        }
+    }
+
+    private static final class DurationHistogram {
+
+        private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS.length + 1];
+        private final LongAdder totalTime = new LongAdder();
+        private final LongAccumulator maximumTime = new LongAccumulator(Math::max, 0);
+
+        DurationHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long durationMillis) {
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_BOUNDS.length && durationMillis > BUCKET_UPPER_BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            totalTime.add(durationMillis);
+            maximumTime.accumulate(durationMillis);
+        }
+
+        void write(ModelNode target) {
+            long count = 0;
+            ModelNode bucketList = target.get(ElytronDescriptionConstants.BUCKETS).setEmptyList();
+            for (int i = 0; i < buckets.length; i++) {
+                long bucketCount = buckets[i].sum();
+                count += bucketCount;
+                ModelNode bucket = bucketList.add();
+                if (i < BUCKET_UPPER_BOUNDS.length) {
+                    bucket.get(ElytronDescriptionConstants.UPPER_BOUND).set(BUCKET_UPPER_BOUNDS[i]);
+                }
+                bucket.get(ElytronDescriptionConstants.COUNT).set(bucketCount);
+            }
+            target.get(ElytronDescriptionConstants.COUNT).set(count);
+            target.get(ElytronDescriptionConstants.TOTAL_TIME).set(totalTime.sum());
+            target.get(ElytronDescriptionConstants.MAXIMUM_TIME).set(maximumTime.get());
+        }
+    }
+
+}
@@ -0,0 +1,389 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.math.BigInteger;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.wildfly.security.auth.realm.KeyStoreBackedSecurityRealm;
+import org.wildfly.security.auth.server.IdentityLocator;
+import org.wildfly.security.auth.server.RealmIdentity;
+import org.wildfly.security.auth.server.RealmUnavailableException;
+import org.wildfly.security.auth.server.SecurityRealm;
+import org.wildfly.security.auth.server.SupportLevel;
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.evidence.Evidence;
+import org.wildfly.security.evidence.X509PeerCertificateChainEvidence;
+
+/**
+ * A {@link SecurityRealm} backed by a {@link KeyStore} which maintains an index of the certificates in the {@link KeyStore}
+ * so identities can be located from X.509 evidence or a subject distinguished name without iterating the entries.
+ *
+ * Certificates are indexed by SHA-256 fingerprint, by issuer and serial number and by subject. The index is built as the
+ * realm starts, after that it is maintained in the background so requests never wait for it; the whole index is rebuilt
+ * when the content of the {@link KeyStore} is replaced and only the affected aliases are updated when single entries are
+ * set or deleted. Requests use the previous index until the new one is ready. A fingerprint, issuer and serial number or
+ * subject shared by more than one alias is not used for lookups.
+ *
+ * Identities are otherwise located by alias exactly as {@link KeyStoreBackedSecurityRealm}.
+ */
+final class IndexedKeyStoreRealm implements SecurityRealm {
+
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    private final String name;
+    private final KeyStore keyStore;
+    private final LongSupplier version;
+    private final SecurityRealm delegate;
+    private final Set<String> changedAliases = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildRequired = new AtomicBoolean();
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
+    private volatile Index index;
+
+    /**
+     * @param name the name of the {@link KeyStore} used for reporting.
+     * @param keyStore the {@link KeyStore} backing the realm.
+     * @param version supplier of the version of the content of the {@link KeyStore}, see {@link ModifiableKeyStoreService#getVersion()}.
+     */
+    IndexedKeyStoreRealm(String name, KeyStore keyStore, LongSupplier version) {
+        this.name = name;
+        this.keyStore = keyStore;
+        this.version = version;
+        this.delegate = new KeyStoreBackedSecurityRealm(keyStore);
+    }
+
+    /**
+     * Build the whole index on the calling thread, used as the realm starts before it is made available.
+     */
+    void refresh() {
+        synchronized (this) {
+            update(true, Collections.emptySet());
+        }
+    }
+
+    /**
+     * Schedule a rebuild of the whole index, e.g. after the {@link KeyStore} has been reloaded.
+     */
+    void contentReplaced() {
+        rebuildRequired.set(true);
+        schedule();
+    }
+
+    /**
+     * Schedule an update of the index for a single entry of the {@link KeyStore} which has been set or deleted.
+     *
+     * @param alias the alias of the entry.
+     */
+    void entryChanged(String alias) {
+        changedAliases.add(alias);
+        schedule();
+    }
+
+    @Override
+    public RealmIdentity getRealmIdentity(IdentityLocator locator) throws RealmUnavailableException {
+        Index index = this.index;
+        if (index != null) {
+            String alias = null;
+            if (locator.hasEvidence()) {
+                alias = index.findByEvidence(locator.getEvidence());
+            }
+            if (alias == null && locator.hasName() && index.aliases.containsKey(locator.getName()) == false) {
+                alias = index.findBySubject(locator.getName());
+            }
+            if (alias == null && locator.hasName() == false && locator.hasPrincipal()) {
+                alias = index.findBySubject(locator.getPrincipal());
+            }
+            if (alias != null) {
+                return delegate.getRealmIdentity(IdentityLocator.fromName(alias));
+            }
+        }
+
+        return delegate.getRealmIdentity(locator);
+    }
+
+    @Override
+    public SupportLevel getCredentialAcquireSupport(Class<? extends Credential> credentialType, String algorithmName) throws RealmUnavailableException {
+        return delegate.getCredentialAcquireSupport(credentialType, algorithmName);
+    }
+
+    @Override
+    public SupportLevel getEvidenceVerifySupport(Class<? extends Evidence> evidenceType, String algorithmName) throws RealmUnavailableException {
+        return delegate.getEvidenceVerifySupport(evidenceType, algorithmName);
+    }
+
+    private void schedule() {
+        if (updateScheduled.compareAndSet(false, true)) {
+            Updater.EXECUTOR.execute(this::update);
+        }
+    }
+
+    private void update() {
+        // Cleared before the pending work is taken so anything arriving later schedules a further update.
+        updateScheduled.set(false);
+        boolean rebuild = rebuildRequired.getAndSet(false);
+        List<String> changed = new ArrayList<>();
+        for (Iterator<String> iterator = changedAliases.iterator(); iterator.hasNext();) {
+            changed.add(iterator.next());
+            iterator.remove();
+        }
+        synchronized (this) {
+            update(rebuild, changed);
+        }
+    }
+
+    /**
+     * Publish a new index, must be called whilst holding the lock of this realm.
+     *
+     * @param rebuild {@code true} if the whole index should be rebuilt.
+     * @param changed the aliases of the entries set or deleted since the current index was built.
+     */
+    private void update(boolean rebuild, Collection<String> changed) {
+        long version = this.version.getAsLong();
+        if (version < 0) {
+            this.index = null;
+            return;
+        }
+        Index current = this.index;
+        if (rebuild == false && (current == null || changed.isEmpty())) {
+            return;
+        }
+
+        try {
+            // The version is read before the content so the version of an index never claims a change it does not contain,
+            // a modification racing with the read is notified again and applied by a further update.
+            this.index = rebuild || current == null ? new Index(version, keyStore, current) : new Index(version, keyStore, current, changed);
+        } catch (KeyStoreException | NoSuchAlgorithmException | CertificateEncodingException | RuntimeException e) {
+            ROOT_LOGGER.unableToIndexRealmCertificates(name, e);
+            this.index = null;
+        }
+    }
+
+    private static String canonical(X500Principal principal) {
+        return principal.getName(X500Principal.CANONICAL);
+    }
+
+    private static String issuerAndSerial(X509Certificate certificate) {
+        return issuerAndSerial(certificate.getIssuerX500Principal(), certificate.getSerialNumber());
+    }
+
+    private static String issuerAndSerial(X500Principal issuer, BigInteger serialNumber) {
+        return canonical(issuer) + '#' + serialNumber.toString(16);
+    }
+
+    private static String get(Map<?, Set<String>> map, Object key) {
+        Set<String> aliases = map.get(key);
+        return aliases != null && aliases.size() == 1 ? aliases.iterator().next() : null;
+    }
+
+    /**
+     * The indexed form of a single certificate.
+     */
+    private static final class IndexedCertificate {
+
+        private final X509Certificate certificate;
+        private final String fingerprint;
+        private final String issuerAndSerial;
+        private final String subject;
+
+        IndexedCertificate(X509Certificate certificate, MessageDigest digest) throws CertificateEncodingException {
+            this.certificate = certificate;
+            this.fingerprint = fingerprint(certificate, digest);
+            this.issuerAndSerial = IndexedKeyStoreRealm.issuerAndSerial(certificate);
+            this.subject = canonical(certificate.getSubjectX500Principal());
+        }
+    }
+
+    private static String fingerprint(X509Certificate certificate, MessageDigest digest) throws CertificateEncodingException {
+        return new BigInteger(1, digest.digest(certificate.getEncoded())).toString(16);
+    }
+
+    /**
+     * An immutable index of the certificates of the {@link KeyStore} at a specific version.
+     *
+     * The sets of aliases held by the maps are never modified once the index is published so an update can copy the maps of
+     * the previous index and replace only the sets affected by the changed aliases.
+     */
+    private static final class Index {
+
+        private final long version;
+        private final Map<String, IndexedCertificate> aliases;
+        private final Map<String, Set<String>> byFingerprint;
+        private final Map<String, Set<String>> byIssuerAndSerial;
+        private final Map<String, Set<String>> bySubject;
+
+        /**
+         * Build the index of every entry of the {@link KeyStore}, entries whose certificate is unchanged are carried over
+         * from the previous index.
+         */
+        Index(long version, KeyStore keyStore, Index previous) throws KeyStoreException, NoSuchAlgorithmException, CertificateEncodingException {
+            this.version = version;
+            this.aliases = new HashMap<>();
+            this.byFingerprint = new HashMap<>();
+            this.byIssuerAndSerial = new HashMap<>();
+            this.bySubject = new HashMap<>();
+            MessageDigest digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+            Map<String, IndexedCertificate> previousAliases = previous != null ? previous.aliases : Collections.emptyMap();
+
+            Enumeration<String> enumeration = keyStore.aliases();
+            while (enumeration.hasMoreElements()) {
+                String alias = enumeration.nextElement();
+                add(alias, keyStore.getCertificate(alias), previousAliases.get(alias), digest);
+            }
+        }
+
+        /**
+         * Build the index from the previous index updating only the changed aliases.
+         */
+        Index(long version, KeyStore keyStore, Index previous, Collection<String> changed) throws KeyStoreException, NoSuchAlgorithmException, CertificateEncodingException {
+            this.version = version;
+            this.aliases = new HashMap<>(previous.aliases);
+            this.byFingerprint = new HashMap<>(previous.byFingerprint);
+            this.byIssuerAndSerial = new HashMap<>(previous.byIssuerAndSerial);
+            this.bySubject = new HashMap<>(previous.bySubject);
+            MessageDigest digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+
+            for (String alias : changed) {
+                IndexedCertificate previousCertificate = aliases.remove(alias);
+                if (previousCertificate != null) {
+                    remove(byFingerprint, previousCertificate.fingerprint, alias);
+                    remove(byIssuerAndSerial, previousCertificate.issuerAndSerial, alias);
+                    remove(bySubject, previousCertificate.subject, alias);
+                }
+                if (keyStore.containsAlias(alias)) {
+                    add(alias, keyStore.getCertificate(alias), previousCertificate, digest);
+                }
+            }
+        }
+
+        private void add(String alias, Certificate certificate, IndexedCertificate previous, MessageDigest digest) throws CertificateEncodingException {
+            if (certificate instanceof X509Certificate == false) {
+                // Still recorded so lookups by this alias are never redirected to another entry.
+                aliases.put(alias, null);
+                return;
+            }
+
+            IndexedCertificate indexed = previous;
+            if (indexed == null || indexed.certificate.equals(certificate) == false) {
+                indexed = new IndexedCertificate((X509Certificate) certificate, digest);
+            }
+            aliases.put(alias, indexed);
+            add(byFingerprint, indexed.fingerprint, alias);
+            add(byIssuerAndSerial, indexed.issuerAndSerial, alias);
+            add(bySubject, indexed.subject, alias);
+        }
+
+        private static void add(Map<String, Set<String>> map, String key, String alias) {
+            Set<String> existing = map.get(key);
+            if (existing == null) {
+                map.put(key, Collections.singleton(alias));
+            } else if (existing.contains(alias) == false) {
+                Set<String> aliases = new HashSet<>(existing);
+                aliases.add(alias);
+                map.put(key, Collections.unmodifiableSet(aliases));
+            }
+        }
+
+        private static void remove(Map<String, Set<String>> map, String key, String alias) {
+            Set<String> existing = map.get(key);
+            if (existing == null || existing.contains(alias) == false) {
+                return;
+            }
+            if (existing.size() == 1) {
+                map.remove(key);
+            } else {
+                Set<String> aliases = new HashSet<>(existing);
+                aliases.remove(alias);
+                map.put(key, Collections.unmodifiableSet(aliases));
+            }
+        }
+
+        String findByEvidence(Evidence evidence) {
+            if (evidence instanceof X509PeerCertificateChainEvidence == false) {
+                return null;
+            }
+            X509Certificate certificate = ((X509PeerCertificateChainEvidence) evidence).getFirstCertificate();
+            try {
+                String alias = get(byFingerprint, fingerprint(certificate, MessageDigest.getInstance(FINGERPRINT_ALGORITHM)));
+                if (alias != null) {
+                    return alias;
+                }
+            } catch (CertificateEncodingException | NoSuchAlgorithmException e) {
+                ROOT_LOGGER.tracef(e, "Unable to calculate the fingerprint of certificate [%s]", certificate.getSubjectX500Principal());
+            }
+            return get(byIssuerAndSerial, issuerAndSerial(certificate));
+        }
+
+        String findBySubject(Principal principal) {
+            return principal instanceof X500Principal ? get(bySubject, canonical((X500Principal) principal)) : null;
+        }
+
+        String findBySubject(String name) {
+            try {
+                return get(bySubject, canonical(new X500Principal(name)));
+            } catch (IllegalArgumentException e) {
+                // Not a distinguished name.
+                return null;
+            }
+        }
+    }
+
+    private static final class Updater {
+
+        private static final Executor EXECUTOR;
+
+        static {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "elytron-realm-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
+
+}
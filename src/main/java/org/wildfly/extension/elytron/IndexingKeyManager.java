@@ -0,0 +1,405 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.net.Socket;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.StandardConstants;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * An {@link X509ExtendedKeyManager} which indexes the private key entries of a {@link KeyStore} by key type, issuer and
+ * host name when it is created so choosing an alias does not need to iterate every entry of the store.
+ *
+ * The alias chosen for each combination of key type, issuers and matched host name is cached, a new instance is created
+ * each time the {@link KeyStore} is reloaded so the cache never outlives the entries it was built from.
+ */
+class IndexingKeyManager extends X509ExtendedKeyManager {
+
+    private static final int SUBJECT_ALT_NAME_DNS = 2;
+    private static final int MAXIMUM_CACHED_CHOICES = 1024;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, List<Entry>> byKeyAlgorithm = new HashMap<>();
+    private final Map<X500Principal, Set<String>> byIssuer = new HashMap<>();
+    private final Map<String, Set<String>> byHostName = new HashMap<>();
+    private final Map<String, Set<String>> byWildcardDomain = new HashMap<>();
+
+    private final ConcurrentHashMap<Choice, Selection> choices = new ConcurrentHashMap<>();
+
+    IndexingKeyManager(KeyStore keyStore, char[] password) throws KeyStoreException, NoSuchAlgorithmException, UnrecoverableKeyException {
+        Enumeration<String> aliases = keyStore.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            if (keyStore.isKeyEntry(alias) == false) {
+                continue;
+            }
+
+            Key key = keyStore.getKey(alias, password);
+            X509Certificate[] chain = toX509(keyStore.getCertificateChain(alias));
+            if (key instanceof PrivateKey == false || chain == null || chain.length == 0) {
+                continue;
+            }
+
+            Entry entry = new Entry(alias, (PrivateKey) key, chain);
+            entries.put(alias, entry);
+            byKeyAlgorithm.computeIfAbsent(key.getAlgorithm().toUpperCase(Locale.ROOT), k -> new ArrayList<>()).add(entry);
+            for (X509Certificate certificate : chain) {
+                byIssuer.computeIfAbsent(certificate.getIssuerX500Principal(), k -> new HashSet<>()).add(alias);
+            }
+            for (String hostName : getHostNames(chain[0])) {
+                if (hostName.startsWith("*.")) {
+                    byWildcardDomain.computeIfAbsent(hostName.substring(2), k -> new HashSet<>()).add(alias);
+                } else {
+                    byHostName.computeIfAbsent(hostName, k -> new HashSet<>()).add(alias);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String[] getClientAliases(String keyType, Principal[] issuers) {
+        return getAliases(keyType, issuers);
+    }
+
+    @Override
+    public String chooseClientAlias(String[] keyTypes, Principal[] issuers, Socket socket) {
+        return chooseClientAlias(keyTypes, issuers);
+    }
+
+    @Override
+    public String chooseEngineClientAlias(String[] keyTypes, Principal[] issuers, SSLEngine engine) {
+        return chooseClientAlias(keyTypes, issuers);
+    }
+
+    @Override
+    public String[] getServerAliases(String keyType, Principal[] issuers) {
+        return getAliases(keyType, issuers);
+    }
+
+    @Override
+    public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+        SSLSession handshakeSession = socket instanceof SSLSocket ? ((SSLSocket) socket).getHandshakeSession() : null;
+        return choose(keyType, issuers, getRequestedHostName(handshakeSession));
+    }
+
+    @Override
+    public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine) {
+        return choose(keyType, issuers, getRequestedHostName(engine != null ? engine.getHandshakeSession() : null));
+    }
+
+    @Override
+    public X509Certificate[] getCertificateChain(String alias) {
+        Entry entry = alias != null ? entries.get(alias) : null;
+        return entry != null ? entry.chain.clone() : null;
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(String alias) {
+        Entry entry = alias != null ? entries.get(alias) : null;
+        return entry != null ? entry.privateKey : null;
+    }
+
+    private String chooseClientAlias(String[] keyTypes, Principal[] issuers) {
+        if (keyTypes != null) {
+            for (String keyType : keyTypes) {
+                String alias = choose(keyType, issuers, null);
+                if (alias != null) {
+                    return alias;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private String[] getAliases(String keyType, Principal[] issuers) {
+        List<Entry> candidates = getCandidates(keyType, issuers);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        String[] aliases = new String[candidates.size()];
+        for (int i = 0; i < aliases.length; i++) {
+            aliases[i] = candidates.get(i).alias;
+        }
+        return aliases;
+    }
+
+    private String choose(String keyType, Principal[] issuers, String hostName) {
+        if (keyType == null) {
+            return null;
+        }
+
+        // Only names matching an indexed host are part of the key, any other requested name is treated as no name.
+        Set<String> hostMatches = null;
+        String matchedName = null;
+        if (hostName != null) {
+            hostMatches = byHostName.get(hostName);
+            matchedName = hostName;
+            if (hostMatches == null) {
+                int dot = hostName.indexOf('.');
+                matchedName = dot > 0 ? hostName.substring(dot + 1) : null;
+                hostMatches = matchedName != null ? byWildcardDomain.get(matchedName) : null;
+            }
+            if (hostMatches == null) {
+                matchedName = null;
+            }
+        }
+
+        final long now = System.currentTimeMillis();
+        final Choice choice = new Choice(keyType, issuers, matchedName);
+        Selection selection = choices.get(choice);
+        if (selection != null && now < selection.recheckAfter) {
+            return selection.alias;
+        }
+
+        Entry selected = null;
+        int selectedRank = -1;
+        for (Entry candidate : getCandidates(keyType, issuers)) {
+            int rank = (hostMatches != null && hostMatches.contains(candidate.alias) ? 2 : 0) + (candidate.isValid(now) ? 1 : 0);
+            if (rank > selectedRank || (rank == selectedRank && candidate.notAfter > selected.notAfter)) {
+                selected = candidate;
+                selectedRank = rank;
+            }
+        }
+
+        if (choices.size() >= MAXIMUM_CACHED_CHOICES) {
+            choices.clear();
+        }
+        choices.put(choice, new Selection(selected, now));
+
+        return selected != null ? selected.alias : null;
+    }
+
+    private List<Entry> getCandidates(String keyType, Principal[] issuers) {
+        if (keyType == null) {
+            return Collections.emptyList();
+        }
+
+        final String keyAlgorithm;
+        final String signatureType;
+        int separator = keyType.indexOf('_');
+        if (separator > 0) {
+            keyAlgorithm = keyType.substring(0, separator).toUpperCase(Locale.ROOT);
+            signatureType = "WITH" + keyType.substring(separator + 1).toUpperCase(Locale.ROOT);
+        } else {
+            keyAlgorithm = keyType.toUpperCase(Locale.ROOT);
+            signatureType = null;
+        }
+
+        List<Entry> byAlgorithm = byKeyAlgorithm.get(keyAlgorithm);
+        if (byAlgorithm == null) {
+            return Collections.emptyList();
+        }
+
+        Set<String> issued = null;
+        if (issuers != null && issuers.length > 0) {
+            issued = new HashSet<>();
+            for (Principal issuer : issuers) {
+                Set<String> aliases = byIssuer.get(toX500Principal(issuer));
+                if (aliases != null) {
+                    issued.addAll(aliases);
+                }
+            }
+        }
+
+        List<Entry> candidates = new ArrayList<>(byAlgorithm.size());
+        for (Entry entry : byAlgorithm) {
+            if ((signatureType == null || entry.chain[0].getSigAlgName().toUpperCase(Locale.ROOT).contains(signatureType))
+                    && (issued == null || issued.contains(entry.alias))) {
+                candidates.add(entry);
+            }
+        }
+
+        return candidates;
+    }
+
+    private static X500Principal toX500Principal(Principal principal) {
+        return principal instanceof X500Principal ? (X500Principal) principal : new X500Principal(principal.getName());
+    }
+
+    private static X509Certificate[] toX509(Certificate[] chain) {
+        if (chain == null) {
+            return null;
+        }
+
+        X509Certificate[] x509Chain = new X509Certificate[chain.length];
+        for (int i = 0; i < chain.length; i++) {
+            if (chain[i] instanceof X509Certificate == false) {
+                return null;
+            }
+            x509Chain[i] = (X509Certificate) chain[i];
+        }
+        return x509Chain;
+    }
+
+    private static String getRequestedHostName(SSLSession handshakeSession) {
+        if (handshakeSession instanceof ExtendedSSLSession) {
+            for (SNIServerName serverName : ((ExtendedSSLSession) handshakeSession).getRequestedServerNames()) {
+                if (serverName.getType() == StandardConstants.SNI_HOST_NAME) {
+                    SNIHostName hostName = serverName instanceof SNIHostName ? (SNIHostName) serverName : new SNIHostName(serverName.getEncoded());
+                    return hostName.getAsciiName().toLowerCase(Locale.ROOT);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the DNS names of the subject alternative name extension, or the common names of the subject if there are none.
+     */
+    private static Set<String> getHostNames(X509Certificate certificate) {
+        Set<String> hostNames = new HashSet<>();
+        try {
+            Collection<List<?>> alternativeNames = certificate.getSubjectAlternativeNames();
+            if (alternativeNames != null) {
+                for (List<?> alternativeName : alternativeNames) {
+                    if (((Integer) alternativeName.get(0)) == SUBJECT_ALT_NAME_DNS) {
+                        hostNames.add(((String) alternativeName.get(1)).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (CertificateParsingException ignored) {
+        }
+
+        if (hostNames.isEmpty()) {
+            try {
+                for (Rdn rdn : new LdapName(certificate.getSubjectX500Principal().getName()).getRdns()) {
+                    if ("CN".equalsIgnoreCase(rdn.getType())) {
+                        hostNames.add(rdn.getValue().toString().toLowerCase(Locale.ROOT));
+                    }
+                }
+            } catch (InvalidNameException ignored) {
+            }
+        }
+
+        return hostNames;
+    }
+
+    private static final class Entry {
+
+        private final String alias;
+        private final PrivateKey privateKey;
+        private final X509Certificate[] chain;
+        private final long notBefore;
+        private final long notAfter;
+
+        Entry(String alias, PrivateKey privateKey, X509Certificate[] chain) {
+            this.alias = alias;
+            this.privateKey = privateKey;
+            this.chain = chain;
+            this.notBefore = chain[0].getNotBefore().getTime();
+            this.notAfter = chain[0].getNotAfter().getTime();
+        }
+
+        boolean isValid(long now) {
+            return notBefore <= now && now <= notAfter;
+        }
+
+    }
+
+    /**
+     * A cached choice, the choice is made again once the validity of the chosen certificate could have changed.
+     */
+    private static final class Selection {
+
+        private final String alias;
+        private final long recheckAfter;
+
+        Selection(Entry entry, long now) {
+            this.alias = entry != null ? entry.alias : null;
+            if (entry == null) {
+                recheckAfter = Long.MAX_VALUE;
+            } else if (now < entry.notBefore) {
+                recheckAfter = entry.notBefore;
+            } else if (now <= entry.notAfter) {
+                recheckAfter = entry.notAfter;
+            } else {
+                recheckAfter = Long.MAX_VALUE;
+            }
+        }
+
+    }
+
+    private static final class Choice {
+
+        private final String keyType;
+        private final List<Principal> issuers;
+        private final String hostName;
+        private final int hashCode;
+
+        Choice(String keyType, Principal[] issuers, String hostName) {
+            this.keyType = keyType;
+            this.issuers = issuers != null ? Arrays.asList(issuers) : Collections.emptyList();
+            this.hostName = hostName;
+            this.hashCode = Objects.hash(keyType, this.issuers, hostName);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof Choice == false) {
+                return false;
+            }
+            Choice choice = (Choice) other;
+            return keyType.equals(choice.keyType) && issuers.equals(choice.issuers) && Objects.equals(hostName, choice.hostName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
@@ -0,0 +1,335 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.security.auth.x500.X500Principal;
+
+import org.wildfly.security.asn1.ASN1;
+import org.wildfly.security.asn1.ASN1Exception;
+import org.wildfly.security.asn1.DERDecoder;
+
+/**
+ * An {@link X509ExtendedTrustManager} which indexes the trusted certificates of a {@link KeyStore} by subject and by subject
+ * key identifier so the issuer of each certificate in a chain is found without iterating all of the trusted certificates.
+ *
+ * Chains not already cached are validated by the wrapped {@link X509ExtendedTrustManager} so the path, key usage and
+ * extended key usage checks are exactly those of the JDK trust managers, in addition the validity of an end entity
+ * certificate which is itself trusted is checked as the JDK trust managers accept such a certificate as is. Chains which
+ * pass validation are cached by the fingerprint of the presented chain, the authentication type and the direction until
+ * the first certificate of the path found using the index expires, failures are never cached.
+ *
+ * Where endpoint identification has been requested for a connection the check is always passed to the wrapped
+ * {@link X509ExtendedTrustManager}.
+ */
+class IndexingTrustManager extends X509ExtendedTrustManager {
+
+    private static final String SUBJECT_KEY_IDENTIFIER = "2.5.29.14";
+    private static final String AUTHORITY_KEY_IDENTIFIER = "2.5.29.35";
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+    private static final int MAXIMUM_CACHED_CHAINS = 10000;
+
+    private final X509ExtendedTrustManager delegate;
+    private final Set<X509Certificate> trusted = new LinkedHashSet<>();
+    private final Map<X500Principal, List<X509Certificate>> bySubject = new HashMap<>();
+    private final Map<ByteBuffer, List<X509Certificate>> byKeyIdentifier = new HashMap<>();
+    private final X509Certificate[] acceptedIssuers;
+
+    private final ConcurrentHashMap<ValidatedChain, Long> validatedChains = new ConcurrentHashMap<>();
+
+    IndexingTrustManager(KeyStore keyStore, X509ExtendedTrustManager delegate) throws KeyStoreException {
+        this.delegate = delegate;
+
+        Enumeration<String> aliases = keyStore.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate instanceof X509Certificate && trusted.add((X509Certificate) certificate)) {
+                X509Certificate x509Certificate = (X509Certificate) certificate;
+                bySubject.computeIfAbsent(x509Certificate.getSubjectX500Principal(), k -> new ArrayList<>(1)).add(x509Certificate);
+                byte[] keyIdentifier = getSubjectKeyIdentifier(x509Certificate);
+                if (keyIdentifier != null) {
+                    byKeyIdentifier.computeIfAbsent(ByteBuffer.wrap(keyIdentifier), k -> new ArrayList<>(1)).add(x509Certificate);
+                }
+            }
+        }
+        acceptedIssuers = trusted.toArray(new X509Certificate[trusted.size()]);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        checkTrusted(chain, authType, false);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        if (requiresEndpointIdentification(socket)) {
+            delegate.checkClientTrusted(chain, authType, socket);
+        } else {
+            checkTrusted(chain, authType, false);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+        if (requiresEndpointIdentification(engine)) {
+            delegate.checkClientTrusted(chain, authType, engine);
+        } else {
+            checkTrusted(chain, authType, false);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        checkTrusted(chain, authType, true);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        if (requiresEndpointIdentification(socket)) {
+            delegate.checkServerTrusted(chain, authType, socket);
+        } else {
+            checkTrusted(chain, authType, true);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+        if (requiresEndpointIdentification(engine)) {
+            delegate.checkServerTrusted(chain, authType, engine);
+        } else {
+            checkTrusted(chain, authType, true);
+        }
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return acceptedIssuers.clone();
+    }
+
+    private void checkTrusted(X509Certificate[] chain, String authType, boolean server) throws CertificateException {
+        if (chain == null || chain.length == 0) {
+            throw new IllegalArgumentException("null or zero-length certificate chain");
+        }
+        if (authType == null || authType.isEmpty()) {
+            throw new IllegalArgumentException("null or zero-length authentication type");
+        }
+
+        final long now = System.currentTimeMillis();
+        final ValidatedChain key = new ValidatedChain(fingerprint(chain), authType, server);
+        Long validUntil = validatedChains.get(key);
+        if (validUntil != null) {
+            if (now <= validUntil) {
+                return;
+            }
+            validatedChains.remove(key, validUntil);
+        }
+
+        // The JDK trust managers accept an end entity certificate which is itself trusted without checking its validity.
+        chain[0].checkValidity(new Date(now));
+        if (server) {
+            delegate.checkServerTrusted(chain, authType);
+        } else {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        List<X509Certificate> path = new ArrayList<>(chain.length);
+        X509Certificate anchor = buildPath(chain, path);
+        if (anchor == null) {
+            // Accepted through a path the index can not reproduce so the expiry is unknown, the result is not cached.
+            return;
+        }
+
+        long expiry = Math.min(anchor.getNotAfter().getTime(), chain[0].getNotAfter().getTime());
+        for (X509Certificate certificate : path) {
+            expiry = Math.min(expiry, certificate.getNotAfter().getTime());
+        }
+
+        if (validatedChains.size() >= MAXIMUM_CACHED_CHAINS) {
+            validatedChains.clear();
+        }
+        validatedChains.put(key, expiry);
+    }
+
+    /**
+     * Build the path from the end entity certificate to a trusted certificate, the certificates of the path excluding the
+     * trusted certificate are added to the supplied list.
+     *
+     * @return the trusted certificate the path ends in or {@code null} if no path to a trusted certificate can be built.
+     */
+    private X509Certificate buildPath(X509Certificate[] chain, List<X509Certificate> path) {
+        X509Certificate current = chain[0];
+        for (int i = 0; i <= chain.length; i++) {
+            if (trusted.contains(current)) {
+                return current;
+            }
+            path.add(current);
+
+            X509Certificate anchor = findTrustedIssuer(current);
+            if (anchor != null) {
+                return anchor;
+            }
+
+            X509Certificate next = null;
+            for (int j = 1; j < chain.length && next == null; j++) {
+                if (chain[j] != current && chain[j].getSubjectX500Principal().equals(current.getIssuerX500Principal()) && path.contains(chain[j]) == false) {
+                    next = chain[j];
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            current = next;
+        }
+
+        return null;
+    }
+
+    private X509Certificate findTrustedIssuer(X509Certificate certificate) {
+        X500Principal issuer = certificate.getIssuerX500Principal();
+        byte[] keyIdentifier = getAuthorityKeyIdentifier(certificate);
+        List<X509Certificate> candidates = keyIdentifier != null ? byKeyIdentifier.get(ByteBuffer.wrap(keyIdentifier)) : null;
+        if (candidates == null) {
+            candidates = bySubject.get(issuer);
+        }
+
+        if (candidates != null) {
+            for (X509Certificate candidate : candidates) {
+                if (candidate.getSubjectX500Principal().equals(issuer)) {
+                    try {
+                        certificate.verify(candidate.getPublicKey());
+                        return candidate;
+                    } catch (GeneralSecurityException ignored) {
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean requiresEndpointIdentification(Socket socket) {
+        return socket instanceof SSLSocket && requiresEndpointIdentification(((SSLSocket) socket).getSSLParameters());
+    }
+
+    private static boolean requiresEndpointIdentification(SSLEngine engine) {
+        return engine != null && requiresEndpointIdentification(engine.getSSLParameters());
+    }
+
+    private static boolean requiresEndpointIdentification(SSLParameters parameters) {
+        String algorithm = parameters.getEndpointIdentificationAlgorithm();
+        return algorithm != null && algorithm.isEmpty() == false;
+    }
+
+    private static ByteBuffer fingerprint(X509Certificate[] chain) throws CertificateException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+            for (X509Certificate certificate : chain) {
+                digest.update(certificate.getEncoded());
+            }
+            return ByteBuffer.wrap(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new CertificateException(e);
+        }
+    }
+
+    private static byte[] getSubjectKeyIdentifier(X509Certificate certificate) {
+        byte[] extension = certificate.getExtensionValue(SUBJECT_KEY_IDENTIFIER);
+        if (extension == null) {
+            return null;
+        }
+
+        try {
+            return new DERDecoder(new DERDecoder(extension).decodeOctetString()).decodeOctetString();
+        } catch (ASN1Exception e) {
+            return null;
+        }
+    }
+
+    private static byte[] getAuthorityKeyIdentifier(X509Certificate certificate) {
+        byte[] extension = certificate.getExtensionValue(AUTHORITY_KEY_IDENTIFIER);
+        if (extension == null) {
+            return null;
+        }
+
+        try {
+            DERDecoder decoder = new DERDecoder(new DERDecoder(extension).decodeOctetString());
+            decoder.startSequence();
+            if (decoder.hasNextElement() && decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, false)) {
+                decoder.decodeImplicit(0);
+                return decoder.decodeOctetString();
+            }
+            return null;
+        } catch (ASN1Exception e) {
+            return null;
+        }
+    }
+
+    private static final class ValidatedChain {
+
+        private final ByteBuffer fingerprint;
+        private final String authType;
+        private final boolean server;
+
+        ValidatedChain(ByteBuffer fingerprint, String authType, boolean server) {
+            this.fingerprint = fingerprint;
+            this.authType = authType;
+            this.server = server;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof ValidatedChain == false) {
+                return false;
+            }
+            ValidatedChain validatedChain = (ValidatedChain) other;
+            return server == validatedChain.server && authType.equals(validatedChain.authType) && fingerprint.equals(validatedChain.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return (fingerprint.hashCode() * 31 + authType.hashCode()) * 31 + (server ? 1 : 0);
+        }
+
+    }
+
+}
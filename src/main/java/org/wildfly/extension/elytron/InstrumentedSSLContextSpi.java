@@ -0,0 +1,288 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.security.cert.Certificate;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A {@link DelegatingSSLContextSpi} which observes the handshakes performed by the {@link SSLEngine} and {@link SSLSocket}
+ * instances it creates so that statistics can be maintained for the resulting sessions and the handshakes themselves.
+ *
+ * Sockets accepted from the {@link javax.net.ssl.SSLServerSocketFactory} are not observed, within the application server
+ * inbound connections are handled using {@link SSLEngine}. For client sockets only completed handshakes are visible so
+ * handshake durations and failures are recorded for engines only.
+ *
+ * Where a {@link DelegatedTaskExecutor} is supplied the delegated tasks of the engines are run using it, where
+ * {@link PeerSessions} are supplied the sessions negotiated by client side handshakes are pinned to their peer. A
+ * {@link SecureRandomPool} is only held so its statistics can be read, it is installed when the delegate is initialised.
+ */
+class InstrumentedSSLContextSpi extends DelegatingSSLContextSpi {
+
+    private static final int CONTENT_TYPE_HANDSHAKE = 22;
+    private static final int HANDSHAKE_TYPE_CLIENT_HELLO = 1;
+    private static final int RECORD_HEADER_LENGTH = 5;
+    // record header, handshake header, client_version and random
+    private static final int SESSION_ID_LENGTH_OFFSET = RECORD_HEADER_LENGTH + 4 + 2 + 32;
+
+    private final CountingSSLSessionContext serverSessionContext;
+    private final CountingSSLSessionContext clientSessionContext;
+    private final HandshakeStatistics handshakeStatistics = new HandshakeStatistics();
+    private final DelegatedTaskExecutor delegatedTaskExecutor;
+    private final PeerSessions peerSessions;
+    private final SecureRandomPool secureRandomPool;
+
+    InstrumentedSSLContextSpi(SSLContext delegate) {
+        this(delegate, null, null, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param delegate the {@link SSLContext} to delegate to.
+     * @param delegatedTaskExecutor the executor to run the delegated tasks of created engines or {@code null} if they should be
+     *        run by the caller as usual.
+     * @param peerSessions the sessions to pin client side sessions to or {@code null} if sessions should not be pinned.
+     * @param secureRandomPool the pool used by the delegate or {@code null} if the default {@link java.security.SecureRandom}
+     *        is used.
+     */
+    InstrumentedSSLContextSpi(SSLContext delegate, DelegatedTaskExecutor delegatedTaskExecutor, PeerSessions peerSessions, SecureRandomPool secureRandomPool) {
+        super(delegate);
+        serverSessionContext = new CountingSSLSessionContext(delegate.getServerSessionContext());
+        clientSessionContext = new CountingSSLSessionContext(delegate.getClientSessionContext());
+        this.delegatedTaskExecutor = delegatedTaskExecutor;
+        this.peerSessions = peerSessions;
+        this.secureRandomPool = secureRandomPool;
+    }
+
+    HandshakeStatistics getHandshakeStatistics() {
+        return handshakeStatistics;
+    }
+
+    DelegatedTaskExecutor getDelegatedTaskExecutor() {
+        return delegatedTaskExecutor;
+    }
+
+    PeerSessions getPeerSessions() {
+        return peerSessions;
+    }
+
+    SecureRandomPool getSecureRandomPool() {
+        return secureRandomPool;
+    }
+
+    @Override
+    protected SSLSocketFactory engineGetSocketFactory() {
+        return new DelegatingSSLSocketFactory(super.engineGetSocketFactory()) {
+
+            @Override
+            protected Socket configure(SSLSocket socket) {
+                socket.addHandshakeCompletedListener(e -> handshakeCompleted(e.getSession(), socket.getUseClientMode(), false));
+                return socket;
+            }
+
+        };
+    }
+
+    @Override
+    protected SSLEngine engineCreateSSLEngine() {
+        return new InstrumentedSSLEngine(super.engineCreateSSLEngine());
+    }
+
+    @Override
+    protected SSLEngine engineCreateSSLEngine(String host, int port) {
+        return new InstrumentedSSLEngine(super.engineCreateSSLEngine(host, port));
+    }
+
+    @Override
+    protected SSLSessionContext engineGetServerSessionContext() {
+        return serverSessionContext;
+    }
+
+    @Override
+    protected SSLSessionContext engineGetClientSessionContext() {
+        return clientSessionContext;
+    }
+
+    /**
+     * Called each time a handshake completes on an engine or socket created by this context.
+     *
+     * @param session the session negotiated by the handshake.
+     * @param clientMode {@code true} if the local side of the handshake was the client.
+     * @param resumptionRequested {@code true} if the ClientHello contained a session ID to resume.
+     */
+    protected void handshakeCompleted(SSLSession session, boolean clientMode, boolean resumptionRequested) {
+        (clientMode ? clientSessionContext : serverSessionContext).handshakeCompleted(session, resumptionRequested);
+        if (clientMode && peerSessions != null) {
+            peerSessions.pin(session);
+        }
+    }
+
+    /**
+     * Inspect the TLS record starting at the specified position to see if it is a ClientHello offering a session ID.
+     *
+     * @param buffer the buffer containing the record.
+     * @param position the position of the start of the record.
+     * @return {@code Boolean.TRUE} or {@code Boolean.FALSE} if the record was a ClientHello, {@code null} if not enough data
+     *         was available yet to tell.
+     */
+    static Boolean offersSessionId(ByteBuffer buffer, int position) {
+        if (buffer.limit() - position < 1) {
+            return null;
+        }
+        if (buffer.get(position) != CONTENT_TYPE_HANDSHAKE) {
+            return Boolean.FALSE;
+        }
+        if (buffer.limit() - position <= SESSION_ID_LENGTH_OFFSET) {
+            return null;
+        }
+
+        return buffer.get(position + RECORD_HEADER_LENGTH) == HANDSHAKE_TYPE_CLIENT_HELLO && buffer.get(position + SESSION_ID_LENGTH_OFFSET) != 0;
+    }
+
+    private static boolean hasPeerCertificates(SSLSession session) {
+        try {
+            Certificate[] peerCertificates = session.getPeerCertificates();
+            return peerCertificates != null && peerCertificates.length > 0;
+        } catch (SSLPeerUnverifiedException e) {
+            return false;
+        }
+    }
+
+    private class InstrumentedSSLEngine extends DelegatingSSLEngine {
+
+        private volatile boolean clientHelloInspected;
+        private volatile boolean resumptionRequested;
+        private volatile boolean handshakeCompleted;
+        private volatile long handshakeStart;
+
+        InstrumentedSSLEngine(SSLEngine delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void beginHandshake() throws SSLException {
+            markHandshakeStart();
+            try {
+                super.beginHandshake();
+            } catch (SSLException e) {
+                handshakeFailed(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+            markHandshakeStart();
+            final int position = dst.position();
+            final SSLEngineResult result;
+            try {
+                result = super.wrap(srcs, offset, length, dst);
+            } catch (SSLException | RuntimeException e) {
+                handshakeFailed(e);
+                throw e;
+            }
+            if (clientHelloInspected == false && result.bytesProduced() > 0 && getUseClientMode()) {
+                inspectClientHello(dst, position);
+            }
+            checkFinished(result);
+
+            return result;
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+            markHandshakeStart();
+            if (clientHelloInspected == false && getUseClientMode() == false) {
+                inspectClientHello(src, src.position());
+            }
+            final SSLEngineResult result;
+            try {
+                result = super.unwrap(src, dsts, offset, length);
+            } catch (SSLException | RuntimeException e) {
+                handshakeFailed(e);
+                throw e;
+            }
+            checkFinished(result);
+
+            return result;
+        }
+
+        @Override
+        public Runnable getDelegatedTask() {
+            Runnable task = super.getDelegatedTask();
+            return task != null && delegatedTaskExecutor != null ? delegatedTaskExecutor.wrap(task) : task;
+        }
+
+        /**
+         * The initial handshake starts with the first call to the engine, subsequent handshakes start when the engine reports
+         * that it is handshaking again.
+         */
+        private void markHandshakeStart() {
+            if (handshakeStart == 0 && (handshakeCompleted == false || getDelegate().getHandshakeStatus() != HandshakeStatus.NOT_HANDSHAKING)) {
+                handshakeStart = System.nanoTime();
+            }
+        }
+
+        private void handshakeFailed(Exception failure) {
+            if (handshakeStart != 0) {
+                handshakeStart = 0;
+                handshakeStatistics.handshakeFailed(failure);
+            }
+        }
+
+        private void inspectClientHello(ByteBuffer buffer, int position) {
+            Boolean offered = offersSessionId(buffer, position);
+            if (offered != null) {
+                resumptionRequested = offered;
+                clientHelloInspected = true;
+            }
+        }
+
+        private void checkFinished(SSLEngineResult result) {
+            if (result.getHandshakeStatus() == HandshakeStatus.FINISHED) {
+                final long duration = System.nanoTime() - handshakeStart;
+                final SSLSession session = getSession();
+                final boolean clientMode = getUseClientMode();
+                handshakeStart = 0;
+                handshakeCompleted = true;
+
+                handshakeCompleted(session, clientMode, resumptionRequested);
+                resumptionRequested = false;
+                handshakeStatistics.handshakeCompleted(session.getProtocol(), session.getCipherSuite(), duration);
+                if (clientMode == false && (getNeedClientAuth() || getWantClientAuth())) {
+                    handshakeStatistics.clientAuthentication(hasPeerCertificates(session));
+                }
+            }
+        }
+    }
+
+}
@@ -151,6 +151,11 @@ class KerberosSecurityFactoryDefinition {
                     }
                 };
             }
+
+            @Override
+            protected boolean isStartAsynchronous() {
+                return true;
+            }
         };
 
         return new TrivialResourceDefinition(ElytronDescriptionConstants.KERBEROS_SECURITY_FACTORY, add, attributes, SECURITY_FACTORY_CREDENTIAL_RUNTIME_CAPABILITY);
@@ -0,0 +1,408 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PropertiesAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.extension.elytron.KeyStoreDefinition.KeyStoreRuntimeOnlyHandler;
+
+/**
+ * Handler for the {@code import-certificates} and {@code export-certificates} operations which transfer many certificates
+ * between a {@link KeyStore} and PEM files in a single operation.
+ *
+ * Certificates are parsed and encoded in parallel once there are enough of them to benefit, a failure for an individual
+ * certificate is reported in the result of the operation without aborting the remainder.
+ */
+class KeyStoreCertificatesHandler extends KeyStoreRuntimeOnlyHandler {
+
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    private static final Pattern PEM_CERTIFICATE = Pattern.compile("-----BEGIN CERTIFICATE-----(.*?)-----END CERTIFICATE-----", Pattern.DOTALL);
+
+    private static final String PEM_BEGIN = "-----BEGIN CERTIFICATE-----\n";
+    private static final String PEM_END = "\n-----END CERTIFICATE-----\n";
+
+    private static final SimpleAttributeDefinition PATH = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PATH, ModelType.STRING, false)
+            .setAllowExpression(true)
+            .setMinSize(1)
+            .build();
+
+    private static final SimpleAttributeDefinition RELATIVE_TO = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.RELATIVE_TO, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setMinSize(1)
+            .build();
+
+    private static final SimpleAttributeDefinition REPLACE_EXISTING = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.REPLACE_EXISTING, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
+    private static final StringListAttributeDefinition ALIASES = new StringListAttributeDefinition.Builder(ElytronDescriptionConstants.ALIASES)
+            .setAllowNull(true)
+            .setMinSize(1)
+            .build();
+
+    private static final StringListAttributeDefinition IMPORTED = new StringListAttributeDefinition.Builder(ElytronDescriptionConstants.IMPORTED)
+            .build();
+
+    private static final StringListAttributeDefinition EXPORTED = new StringListAttributeDefinition.Builder(ElytronDescriptionConstants.EXPORTED)
+            .build();
+
+    private static final PropertiesAttributeDefinition FAILED = new PropertiesAttributeDefinition.Builder(ElytronDescriptionConstants.FAILED, true)
+            .build();
+
+    private static final KeyStoreCertificatesHandler INSTANCE = new KeyStoreCertificatesHandler();
+
+    private KeyStoreCertificatesHandler() {
+        super(true, true);
+    }
+
+    static void register(ManagementResourceRegistration resourceRegistration, ResourceDescriptionResolver resolver) {
+        SimpleOperationDefinition importCertificates = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.IMPORT_CERTIFICATES, resolver)
+                .setParameters(PATH, RELATIVE_TO, REPLACE_EXISTING)
+                .setReplyType(ModelType.OBJECT)
+                .setReplyParameters(IMPORTED, FAILED)
+                .setRuntimeOnly()
+                .build();
+        resourceRegistration.registerOperationHandler(importCertificates, INSTANCE);
+
+        SimpleOperationDefinition exportCertificates = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.EXPORT_CERTIFICATES, resolver)
+                .setParameters(PATH, RELATIVE_TO, ALIASES)
+                .setReplyType(ModelType.OBJECT)
+                .setReplyParameters(EXPORTED, FAILED)
+                .setRuntimeOnly()
+                .build();
+        resourceRegistration.registerOperationHandler(exportCertificates, INSTANCE);
+    }
+
+    @Override
+    protected void performRuntime(ModelNode result, OperationContext context, ModelNode operation, KeyStoreService keyStoreService) throws OperationFailedException {
+        File file = resolveFile(context, operation);
+        String operationName = operation.require(OP).asString();
+        switch (operationName) {
+            case ElytronDescriptionConstants.IMPORT_CERTIFICATES:
+                importCertificates(result, context, operation, keyStoreService, file);
+                break;
+            case ElytronDescriptionConstants.EXPORT_CERTIFICATES:
+                exportCertificates(result, operation, keyStoreService, file);
+                break;
+            default:
+                throw ROOT_LOGGER.invalidOperationName(operationName, ElytronDescriptionConstants.IMPORT_CERTIFICATES,
+                        ElytronDescriptionConstants.EXPORT_CERTIFICATES);
+        }
+    }
+
+    private static File resolveFile(OperationContext context, ModelNode operation) throws OperationFailedException {
+        String path = PATH.resolveModelAttribute(context, operation).asString();
+        ModelNode relativeTo = RELATIVE_TO.resolveModelAttribute(context, operation);
+        if (relativeTo.isDefined()) {
+            PathManager pathManager = (PathManager) context.getServiceRegistry(false).getRequiredService(PathManagerService.SERVICE_NAME).getValue();
+            return new File(pathManager.resolveRelativePathEntry(path, relativeTo.asString()));
+        }
+        return new File(path);
+    }
+
+    /*
+     * Import
+     */
+
+    private void importCertificates(ModelNode result, OperationContext context, ModelNode operation, KeyStoreService keyStoreService, File file) throws OperationFailedException {
+        final boolean replaceExisting = REPLACE_EXISTING.resolveModelAttribute(context, operation).asBoolean();
+        final Map<String, String> failures = new LinkedHashMap<>();
+
+        List<PemBlock> blocks = new ArrayList<>();
+        for (File current : listFiles(file)) {
+            List<PemBlock> found = readBlocks(current);
+            if (found.isEmpty()) {
+                failures.put(current.getName(), ROOT_LOGGER.noCertificatesFound(current.getAbsolutePath()));
+            }
+            blocks.addAll(found);
+        }
+
+        List<ParsedCertificate> parsed = parallel(blocks).map(KeyStoreCertificatesHandler::parse).collect(Collectors.toList());
+
+        final KeyStore keyStore = keyStoreService.getModifiableValue();
+        final Map<String, Certificate> replaced = new LinkedHashMap<>();
+        final List<String> imported = new ArrayList<>();
+        try {
+            for (ParsedCertificate current : parsed) {
+                if (current.failure != null) {
+                    failures.put(current.alias, current.failure);
+                    continue;
+                }
+                if (replaced.containsKey(current.alias)) {
+                    // replacing an entry from this batch would lose the original entry needed to roll back
+                    failures.put(current.alias, ROOT_LOGGER.duplicateImportAlias(current.alias));
+                    continue;
+                }
+                Certificate previous = null;
+                if (keyStore.containsAlias(current.alias)) {
+                    if (replaceExisting == false || keyStore.isCertificateEntry(current.alias) == false) {
+                        failures.put(current.alias, ROOT_LOGGER.aliasAlreadyExists(current.alias));
+                        continue;
+                    }
+                    previous = keyStore.getCertificate(current.alias);
+                }
+                try {
+                    keyStore.setCertificateEntry(current.alias, current.certificate);
+                    replaced.put(current.alias, previous);
+                    imported.add(current.alias);
+                } catch (KeyStoreException e) {
+                    failures.put(current.alias, e.getLocalizedMessage());
+                }
+            }
+        } catch (KeyStoreException e) {
+            revert(keyStore, replaced);
+            throw ROOT_LOGGER.unableToAccessKeyStore(e);
+        }
+
+        if (imported.isEmpty() == false && keyStoreService.isFileBased()) {
+            keyStoreService.save();
+        }
+
+        ModelNode importedNode = result.get(IMPORTED.getName()).setEmptyList();
+        imported.forEach(importedNode::add);
+        populateFailures(result, failures);
+
+        context.completeStep((OperationContext.RollbackHandler) (ctx, op) -> {
+            if (replaced.isEmpty() == false) {
+                revert(keyStore, replaced);
+                if (keyStoreService.isFileBased()) {
+                    try {
+                        keyStoreService.save();
+                    } catch (OperationFailedException e) {
+                        ROOT_LOGGER.tracef(e, "Unable to save KeyStore after reverting imported certificates");
+                    }
+                }
+            }
+        });
+    }
+
+    private static List<File> listFiles(File file) throws OperationFailedException {
+        if (file.isDirectory()) {
+            try (Stream<Path> children = Files.list(file.toPath())) {
+                return children.filter(Files::isRegularFile).map(Path::toFile).sorted().collect(Collectors.toList());
+            } catch (IOException e) {
+                throw ROOT_LOGGER.unableToReadCertificates(file.getAbsolutePath(), e);
+            }
+        } else if (file.isFile()) {
+            return Collections.singletonList(file);
+        }
+        throw ROOT_LOGGER.unableToReadCertificates(file.getAbsolutePath(), null);
+    }
+
+    /**
+     * Split a PEM file into the individual certificate blocks, the aliases are derived from the name of the file with an
+     * index appended where the file contains more than one certificate.
+     */
+    private static List<PemBlock> readBlocks(File file) throws OperationFailedException {
+        final String content;
+        try {
+            content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw ROOT_LOGGER.unableToReadCertificates(file.getAbsolutePath(), e);
+        }
+
+        List<String> bodies = new ArrayList<>();
+        Matcher matcher = PEM_CERTIFICATE.matcher(content);
+        while (matcher.find()) {
+            bodies.add(matcher.group(1));
+        }
+
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String baseAlias = dot > 0 ? name.substring(0, dot) : name;
+
+        List<PemBlock> blocks = new ArrayList<>(bodies.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            blocks.add(new PemBlock(bodies.size() == 1 ? baseAlias : baseAlias + "-" + (i + 1), bodies.get(i)));
+        }
+        return blocks;
+    }
+
+    private static ParsedCertificate parse(PemBlock block) {
+        try {
+            byte[] encoded = Base64.getMimeDecoder().decode(block.body);
+            // CertificateFactory instances are not guaranteed to be thread safe.
+            Certificate certificate = CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(encoded));
+            return new ParsedCertificate(block.alias, certificate, null);
+        } catch (CertificateException | IllegalArgumentException e) {
+            return new ParsedCertificate(block.alias, null, e.getLocalizedMessage());
+        }
+    }
+
+    private static void revert(KeyStore keyStore, Map<String, Certificate> replaced) {
+        for (Map.Entry<String, Certificate> entry : replaced.entrySet()) {
+            try {
+                if (entry.getValue() == null) {
+                    keyStore.deleteEntry(entry.getKey());
+                } else {
+                    keyStore.setCertificateEntry(entry.getKey(), entry.getValue());
+                }
+            } catch (KeyStoreException e) {
+                ROOT_LOGGER.tracef(e, "Unable to revert import of certificate [%s]", entry.getKey());
+            }
+        }
+    }
+
+    /*
+     * Export
+     */
+
+    private void exportCertificates(ModelNode result, ModelNode operation, KeyStoreService keyStoreService, File file) throws OperationFailedException {
+        final KeyStore keyStore = keyStoreService.getValue();
+        final Map<String, String> failures = new LinkedHashMap<>();
+
+        List<String> aliases = ALIASES.unwrap(ExpressionResolver.SIMPLE, operation);
+        if (aliases.isEmpty()) {
+            try {
+                aliases = Collections.list(keyStore.aliases());
+            } catch (KeyStoreException e) {
+                throw ROOT_LOGGER.unableToAccessKeyStore(e);
+            }
+        }
+
+        List<String> exported = new ArrayList<>();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII)) {
+            // Certificates are encoded in parallel one batch at a time so the output is streamed in the requested order.
+            for (int i = 0; i < aliases.size(); i += PARALLEL_THRESHOLD * 8) {
+                List<String> batch = aliases.subList(i, Math.min(aliases.size(), i + PARALLEL_THRESHOLD * 8));
+                List<EncodedCertificate> encoded = parallel(batch).map(alias -> encode(keyStore, alias)).collect(Collectors.toList());
+                for (EncodedCertificate current : encoded) {
+                    if (current.failure != null) {
+                        failures.put(current.alias, current.failure);
+                    } else {
+                        writer.write(current.pem);
+                        exported.add(current.alias);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw ROOT_LOGGER.unableToWriteCertificates(file.getAbsolutePath(), e);
+        }
+
+        ModelNode exportedNode = result.get(EXPORTED.getName()).setEmptyList();
+        exported.forEach(exportedNode::add);
+        populateFailures(result, failures);
+    }
+
+    private static EncodedCertificate encode(KeyStore keyStore, String alias) {
+        try {
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate == null) {
+                return new EncodedCertificate(alias, null, ROOT_LOGGER.noCertificateForAlias(alias));
+            }
+            String body = Base64.getMimeEncoder(64, new byte[] { '\n' }).encodeToString(certificate.getEncoded());
+            return new EncodedCertificate(alias, PEM_BEGIN + body + PEM_END, null);
+        } catch (KeyStoreException | CertificateEncodingException e) {
+            return new EncodedCertificate(alias, null, e.getLocalizedMessage());
+        }
+    }
+
+    /*
+     * Common
+     */
+
+    private static <T> Stream<T> parallel(List<T> items) {
+        return items.size() >= PARALLEL_THRESHOLD ? items.parallelStream() : items.stream();
+    }
+
+    private static void populateFailures(ModelNode result, Map<String, String> failures) {
+        ModelNode failed = result.get(FAILED.getName()).setEmptyObject();
+        failures.forEach((name, reason) -> failed.get(name).set(reason != null ? reason : ""));
+    }
+
+    private static final class PemBlock {
+
+        private final String alias;
+        private final String body;
+
+        PemBlock(String alias, String body) {
+            this.alias = alias;
+            this.body = body;
+        }
+    }
+
+    private static final class ParsedCertificate {
+
+        private final String alias;
+        private final Certificate certificate;
+        private final String failure;
+
+        ParsedCertificate(String alias, Certificate certificate, String failure) {
+            this.alias = alias;
+            this.certificate = certificate;
+            this.failure = failure;
+        }
+    }
+
+    private static final class EncodedCertificate {
+
+        private final String alias;
+        private final String pem;
+        private final String failure;
+
+        EncodedCertificate(String alias, String pem, String failure) {
+            this.alias = alias;
+            this.pem = pem;
+            this.failure = failure;
+        }
+    }
+
+}
@@ -25,6 +25,11 @@ import static org.wildfly.extension.elytron.Capabilities.CREDENTIAL_STORE_CLIENT
 import static org.wildfly.extension.elytron.Capabilities.KEY_STORE_CAPABILITY;
 import static org.wildfly.extension.elytron.Capabilities.KEY_STORE_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.elytron.Capabilities.PROVIDERS_CAPABILITY;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.EXPIRING_CERTIFICATES;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.EXPIRY_HORIZON;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.certificateExpiringNotification;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.expiryNotifier;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.populateExpiringCertificates;
 import static org.wildfly.extension.elytron.ElytronDefinition.commonDependencies;
 import static org.wildfly.extension.elytron.ElytronExtension.ISO_8601_FORMAT;
 import static org.wildfly.extension.elytron.ElytronExtension.asStringIfDefined;
@@ -62,7 +67,9 @@ import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -123,6 +130,41 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
         .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
         .build();
 
+    static final SimpleAttributeDefinition AUTO_RELOAD = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.AUTO_RELOAD, ModelType.BOOLEAN, true)
+        .setDefaultValue(new ModelNode(false))
+        .setAllowExpression(true)
+        .setAttributeGroup(ElytronDescriptionConstants.FILE)
+        .setRequires(ElytronDescriptionConstants.PATH)
+        .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+        .build();
+
+    static final SimpleAttributeDefinition AUTO_RELOAD_INTERVAL = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.AUTO_RELOAD_INTERVAL, ModelType.LONG, true)
+        .setDefaultValue(new ModelNode(10000L))
+        .setAllowExpression(true)
+        .setValidator(new LongRangeValidator(1L, true))
+        .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+        .setAttributeGroup(ElytronDescriptionConstants.FILE)
+        .setRequires(ElytronDescriptionConstants.AUTO_RELOAD)
+        .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+        .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_DELAY = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.WRITE_BEHIND_DELAY, ModelType.LONG, true)
+        .setAllowExpression(true)
+        .setValidator(new LongRangeValidator(1L, true))
+        .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+        .setAttributeGroup(ElytronDescriptionConstants.FILE)
+        .setRequires(ElytronDescriptionConstants.PATH)
+        .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+        .build();
+
+    static final SimpleAttributeDefinition LAZY_LOAD = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.LAZY_LOAD, ModelType.BOOLEAN, true)
+        .setDefaultValue(new ModelNode(false))
+        .setAllowExpression(true)
+        .setAttributeGroup(ElytronDescriptionConstants.FILE)
+        .setRequires(ElytronDescriptionConstants.PATH)
+        .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+        .build();
+
     static final SimpleAttributeDefinition ALIAS_FILTER = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.ALIAS_FILTER, ModelType.STRING, true)
         .setAllowExpression(true)
         .setMinSize(1)
@@ -147,15 +189,24 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
         .setStorageRuntime()
         .build();
 
+    static final SimpleAttributeDefinition PENDING_MODIFICATIONS = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PENDING_MODIFICATIONS, ModelType.INT)
+        .setStorageRuntime()
+        .build();
+
+    static final SimpleAttributeDefinition FAILED_STORES = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.FAILED_STORES, ModelType.INT)
+        .setStorageRuntime()
+        .build();
+
     // Operations
 
     static final SimpleOperationDefinition LOAD = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.LOAD, RESOURCE_RESOLVER)
         .build();
 
     static final SimpleOperationDefinition STORE = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.STORE, RESOURCE_RESOLVER)
+        .setReplyType(ModelType.BOOLEAN)
         .build();
 
-    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] { TYPE, PROVIDER, PROVIDER_LOADER, CREDENTIAL_REFERENCE, PATH, RELATIVE_TO, REQUIRED, ALIAS_FILTER };
+    private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] { TYPE, PROVIDER, PROVIDER_LOADER, CREDENTIAL_REFERENCE, PATH, RELATIVE_TO, REQUIRED, AUTO_RELOAD, AUTO_RELOAD_INTERVAL, WRITE_BEHIND_DELAY, LAZY_LOAD, ALIAS_FILTER, EXPIRY_HORIZON };
 
     private static final KeyStoreAddHandler ADD = new KeyStoreAddHandler();
     private static final OperationStepHandler REMOVE = new TrivialCapabilityServiceRemoveHandler(ADD, KEY_STORE_RUNTIME_CAPABILITY);
@@ -217,6 +268,30 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
             }
         });
 
+        resourceRegistration.registerReadOnlyAttribute(PENDING_MODIFICATIONS, new KeyStoreRuntimeOnlyHandler(false) {
+
+            @Override
+            protected void performRuntime(ModelNode result, ModelNode operation, KeyStoreService keyStoreService) throws OperationFailedException {
+                result.set(keyStoreService.getPendingModifications());
+            }
+        });
+
+        resourceRegistration.registerReadOnlyAttribute(FAILED_STORES, new KeyStoreRuntimeOnlyHandler(false) {
+
+            @Override
+            protected void performRuntime(ModelNode result, ModelNode operation, KeyStoreService keyStoreService) throws OperationFailedException {
+                result.set(keyStoreService.getFailedStores());
+            }
+        });
+
+        resourceRegistration.registerReadOnlyAttribute(EXPIRING_CERTIFICATES, new KeyStoreRuntimeOnlyHandler(false) {
+
+            @Override
+            protected void performRuntime(ModelNode result, OperationContext context, ModelNode operation, KeyStoreService keyStoreService) throws OperationFailedException {
+                populateExpiringCertificates(context, keyStoreService.getExpiryIndex());
+            }
+        });
+
         resourceRegistration.registerReadOnlyAttribute(LOADED_PROVIDER, new KeyStoreRuntimeOnlyHandler(false) {
 
             @Override
@@ -232,10 +307,16 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
         super.registerOperations(resourceRegistration);
         // Create Key Pair / Certificate (Is this a special op or on a resource?)
         // Create CSR
-        // Import certificate
 
         resourceRegistration.registerOperationHandler(LOAD, PersistanceHandler.INSTANCE);
         resourceRegistration.registerOperationHandler(STORE, PersistanceHandler.INSTANCE);
+        ReadAliasesHandler.register(resourceRegistration, RESOURCE_RESOLVER);
+        KeyStoreCertificatesHandler.register(resourceRegistration, RESOURCE_RESOLVER);
+    }
+
+    @Override
+    public void registerNotifications(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerNotification(certificateExpiringNotification(RESOURCE_RESOLVER));
     }
 
     @Override
@@ -268,6 +349,7 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
             String relativeTo = null;
             boolean required;
             String aliasFilter = asStringIfDefined(context, ALIAS_FILTER, model);
+            long expiryHorizon = EXPIRY_HORIZON.resolveModelAttribute(context, model).asLong();
 
             String credentialStoreName = credentialReferencePartAsStringIfDefined(context, CREDENTIAL_REFERENCE, model, CredentialReference.STORE);
             String credentialAlias = credentialReferencePartAsStringIfDefined(context, CREDENTIAL_REFERENCE, model, CredentialReference.ALIAS);
@@ -285,10 +367,17 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
             if (path != null) {
                 relativeTo = asStringIfDefined(context, RELATIVE_TO, model);
                 required = REQUIRED.resolveModelAttribute(context, model).asBoolean();
-
-                keyStoreService = KeyStoreService.createFileBasedKeyStoreService(provider, type, relativeTo, path, required, aliasFilter, credentialReference);
+                boolean autoReload = AUTO_RELOAD.resolveModelAttribute(context, model).asBoolean();
+                long autoReloadInterval = AUTO_RELOAD_INTERVAL.resolveModelAttribute(context, model).asLong();
+                ModelNode writeBehindDelay = WRITE_BEHIND_DELAY.resolveModelAttribute(context, model);
+                boolean lazyLoad = LAZY_LOAD.resolveModelAttribute(context, model).asBoolean();
+
+                keyStoreService = KeyStoreService.createFileBasedKeyStoreService(provider, type, relativeTo, path, required, aliasFilter, credentialReference,
+                        autoReload, autoReloadInterval, writeBehindDelay.isDefined() ? writeBehindDelay.asLong() : 0, lazyLoad, context.getCurrentAddressValue(), expiryHorizon,
+                        expiryNotifier(context));
             } else {
-                keyStoreService = KeyStoreService.createFileLessKeyStoreService(provider, type, aliasFilter, credentialReference);
+                keyStoreService = KeyStoreService.createFileLessKeyStoreService(provider, type, aliasFilter, credentialReference, context.getCurrentAddressValue(), expiryHorizon,
+                        expiryNotifier(context));
             }
 
             ServiceTarget serviceTarget = context.getServiceTarget();
@@ -405,7 +494,7 @@ final class KeyStoreDefinition extends SimpleResourceDefinition {
                     });
                     break;
                 case ElytronDescriptionConstants.STORE:
-                    keyStoreService.save();
+                    result.set(keyStoreService.save());
                     break;
                 default:
                     throw ROOT_LOGGER.invalidOperationName(operationName, ElytronDescriptionConstants.LOAD,
@@ -25,6 +25,7 @@ import static org.wildfly.extension.elytron.ElytronDefinition.commonDependencies
 import static org.wildfly.extension.elytron.KeyStoreDefinition.KEY_STORE_UTIL;
 
 import java.security.KeyStore;
+import java.util.function.Consumer;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.OperationContext;
@@ -43,12 +44,15 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
-import org.wildfly.security.auth.realm.KeyStoreBackedSecurityRealm;
 import org.wildfly.security.auth.server.SecurityRealm;
 
 
@@ -97,14 +101,13 @@ class KeyStoreRealmDefinition extends SimpleResourceDefinition {
             RuntimeCapability<Void> runtimeCapability = SECURITY_REALM_RUNTIME_CAPABILITY.fromBaseCapability(context.getCurrentAddressValue());
             ServiceName realmName = runtimeCapability.getCapabilityServiceName(SecurityRealm.class);
 
-            final InjectedValue<KeyStore> keyStore = new InjectedValue<KeyStore>();
-            TrivialService<SecurityRealm> keyStoreRealmService = new TrivialService<SecurityRealm>(() -> new KeyStoreBackedSecurityRealm(keyStore.getValue()));
+            String keyStoreName = KEYSTORE.resolveModelAttribute(context, model).asString();
+            String keyStoreCapabilityName = RuntimeCapability.buildDynamicCapabilityName(KEY_STORE_CAPABILITY, keyStoreName);
+            ServiceName keyStoreServiceName = context.getCapabilityServiceName(keyStoreCapabilityName, KeyStore.class);
 
+            KeyStoreRealmService keyStoreRealmService = new KeyStoreRealmService(keyStoreName, keyStoreServiceName);
             ServiceBuilder<SecurityRealm> serviceBuilder = serviceTarget.addService(realmName, keyStoreRealmService);
-
-            String keyStoreCapabilityName = RuntimeCapability.buildDynamicCapabilityName(KEY_STORE_CAPABILITY, KEYSTORE.resolveModelAttribute(context, model).asString());
-            ServiceName keyStoreServiceName = context.getCapabilityServiceName(keyStoreCapabilityName, KeyStore.class);
-            KEY_STORE_UTIL.addInjection(serviceBuilder, keyStore, keyStoreServiceName);
+            KEY_STORE_UTIL.addInjection(serviceBuilder, keyStoreRealmService.keyStore, keyStoreServiceName);
             commonDependencies(serviceBuilder)
                 .setInitialMode(Mode.ACTIVE)
                 .install();
@@ -112,6 +115,62 @@ class KeyStoreRealmDefinition extends SimpleResourceDefinition {
 
     }
 
+    /**
+     * The {@link Service} for the realm, the index of the certificates is built as the service starts and maintained in the
+     * background as the {@link KeyStore} is reloaded or its entries modified.
+     */
+    private static class KeyStoreRealmService implements Service<SecurityRealm> {
+
+        private final String keyStoreName;
+        private final ServiceName keyStoreServiceName;
+        private final InjectedValue<KeyStore> keyStore = new InjectedValue<>();
+
+        private volatile IndexedKeyStoreRealm securityRealm;
+        private ModifiableKeyStoreService keyStoreService;
+        private Runnable loadListener;
+        private Consumer<String> entryListener;
+
+        KeyStoreRealmService(String keyStoreName, ServiceName keyStoreServiceName) {
+            this.keyStoreName = keyStoreName;
+            this.keyStoreServiceName = keyStoreServiceName;
+        }
+
+        @Override
+        public void start(StartContext context) throws StartException {
+            ModifiableKeyStoreService keyStoreService = (ModifiableKeyStoreService) context.getController().getServiceContainer().getRequiredService(keyStoreServiceName).getService();
+            IndexedKeyStoreRealm securityRealm = new IndexedKeyStoreRealm(keyStoreName, keyStore.getValue(), keyStoreService::getVersion);
+            AsynchronousStart.start(context, () -> {
+                // Registered first so changes made whilst the index is built are applied afterwards.
+                loadListener = securityRealm::contentReplaced;
+                entryListener = securityRealm::entryChanged;
+                keyStoreService.registerLoadListener(loadListener);
+                keyStoreService.registerEntryListener(entryListener);
+                securityRealm.refresh();
+                this.keyStoreService = keyStoreService;
+                this.securityRealm = securityRealm;
+            });
+        }
+
+        @Override
+        public void stop(StopContext context) {
+            if (loadListener != null) {
+                keyStoreService.unregisterLoadListener(loadListener);
+                loadListener = null;
+            }
+            if (entryListener != null) {
+                keyStoreService.unregisterEntryListener(entryListener);
+                entryListener = null;
+            }
+            keyStoreService = null;
+            securityRealm = null;
+        }
+
+        @Override
+        public SecurityRealm getValue() throws IllegalStateException, IllegalArgumentException {
+            return securityRealm;
+        }
+    }
+
     private static class WriteAttributeHandler extends RestartParentWriteAttributeHandler {
 
         WriteAttributeHandler() {
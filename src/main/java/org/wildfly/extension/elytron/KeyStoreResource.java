@@ -20,16 +20,21 @@ package org.wildfly.extension.elytron;
 
 import java.security.KeyStore;
 import java.security.KeyStoreException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.DelegatingResource;
 import org.jboss.as.controller.registry.PlaceholderResource;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceController.State;
 import org.wildfly.extension.elytron._private.ElytronSubsystemMessages;
@@ -44,8 +49,18 @@ class KeyStoreResource extends DelegatingResource {
 
     private ServiceController<KeyStore> keyStoreServiceController;
 
+    /**
+     * The most recent snapshot of the aliases, shared with any clones of this resource.
+     */
+    private final AtomicReference<AliasSnapshot> aliasSnapshot;
+
     KeyStoreResource(Resource delegate) {
+        this(delegate, new AtomicReference<>());
+    }
+
+    private KeyStoreResource(Resource delegate, AtomicReference<AliasSnapshot> aliasSnapshot) {
         super(delegate);
+        this.aliasSnapshot = aliasSnapshot;
     }
 
     /**
@@ -55,6 +70,7 @@ class KeyStoreResource extends DelegatingResource {
      */
     public void setKeyStoreServiceController(ServiceController<KeyStore> keyStoreServiceController) {
         this.keyStoreServiceController = keyStoreServiceController;
+        aliasSnapshot.set(null);
     }
 
     @Override
@@ -72,24 +88,13 @@ class KeyStoreResource extends DelegatingResource {
 
     @Override
     public boolean hasChild(PathElement element) {
-        final KeyStore keyStore;
-        try {
-            return (ElytronDescriptionConstants.ALIAS.equals(element.getKey()) && (keyStore = getKeyStore(keyStoreServiceController)) != null && keyStore.containsAlias(element.getValue()));
-        } catch (KeyStoreException | IllegalStateException e) {
-            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
-            return false;
-        }
+        return ElytronDescriptionConstants.ALIAS.equals(element.getKey()) && containsAlias(element.getValue());
     }
 
     @Override
     public Resource getChild(PathElement element) {
-        final KeyStore keyStore;
-        try {
-            if (ElytronDescriptionConstants.ALIAS.equals(element.getKey()) && (keyStore = getKeyStore(keyStoreServiceController)) != null && keyStore.containsAlias(element.getValue())) {
-                return PlaceholderResource.INSTANCE;
-            }
-        } catch (KeyStoreException | IllegalStateException e) {
-            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
+        if (ElytronDescriptionConstants.ALIAS.equals(element.getKey()) && containsAlias(element.getValue())) {
+            return PlaceholderResource.INSTANCE;
         }
 
         return null;
@@ -106,19 +111,11 @@ class KeyStoreResource extends DelegatingResource {
 
     @Override
     public Set<String> getChildrenNames(String childType) {
-        final KeyStore keyStore;
-        try {
-            if (ElytronDescriptionConstants.ALIAS.equals(childType) && (keyStore = getKeyStore(keyStoreServiceController)) != null && keyStore.size() > 0) {
-                Enumeration<String> aliases = keyStore.aliases();
-                Set<String> children = new LinkedHashSet<String>(keyStore.size());
-                while (aliases.hasMoreElements()) {
-                    children.add(aliases.nextElement());
-                }
-
-                return children;
+        if (ElytronDescriptionConstants.ALIAS.equals(childType)) {
+            AliasSnapshot snapshot = getAliasSnapshot();
+            if (snapshot != null) {
+                return snapshot.aliasSet;
             }
-        } catch (KeyStoreException | IllegalStateException e) {
-            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
         }
 
         return Collections.emptySet();
@@ -126,19 +123,16 @@ class KeyStoreResource extends DelegatingResource {
 
     @Override
     public Set<ResourceEntry> getChildren(String childType) {
-        final KeyStore keyStore;
-        try {
-            if (ElytronDescriptionConstants.ALIAS.equals(childType) && (keyStore = getKeyStore(keyStoreServiceController)) != null && keyStore.size() > 0) {
-                Enumeration<String> aliases = keyStore.aliases();
-                Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>(keyStore.size());
-                while (aliases.hasMoreElements()) {
-                    children.add(new PlaceholderResource.PlaceholderResourceEntry(ElytronDescriptionConstants.ALIAS, aliases.nextElement()));
+        if (ElytronDescriptionConstants.ALIAS.equals(childType)) {
+            AliasSnapshot snapshot = getAliasSnapshot();
+            if (snapshot != null && snapshot.aliases.isEmpty() == false) {
+                Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>(snapshot.aliases.size());
+                for (String alias : snapshot.aliases) {
+                    children.add(new PlaceholderResource.PlaceholderResourceEntry(ElytronDescriptionConstants.ALIAS, alias));
                 }
 
                 return children;
             }
-        } catch (KeyStoreException | IllegalStateException e) {
-            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
         }
 
         return Collections.emptySet();
@@ -151,19 +145,79 @@ class KeyStoreResource extends DelegatingResource {
 
     @Override
     public Resource clone() {
-        KeyStoreResource keyStoreResource = new KeyStoreResource(super.clone());
-        keyStoreResource.setKeyStoreServiceController(keyStoreServiceController);
+        KeyStoreResource keyStoreResource = new KeyStoreResource(super.clone(), aliasSnapshot);
+        keyStoreResource.keyStoreServiceController = keyStoreServiceController;
         return keyStoreResource;
     }
 
+    /**
+     * Read a page of the aliases of the {@link KeyStore}.
+     *
+     * @param offset the number of matching aliases to skip.
+     * @param limit the maximum number of aliases to return.
+     * @param pattern a pattern the aliases must match or {@code null} to return all aliases.
+     * @return the matching aliases in the order returned by the {@link KeyStore}.
+     */
+    List<String> readAliases(int offset, int limit, Pattern pattern) {
+        AliasSnapshot snapshot = getCachedAliasSnapshot();
+        if (snapshot != null && pattern == null) {
+            int size = snapshot.aliases.size();
+            return offset >= size ? Collections.emptyList() : snapshot.aliases.subList(offset, (int) Math.min((long) offset + limit, size));
+        }
+
+        // Where changes can not be tracked the aliases are consumed directly so only the requested page is held.
+        final Enumeration<String> aliases;
+        try {
+            KeyStore keyStore;
+            if (snapshot != null) {
+                aliases = Collections.enumeration(snapshot.aliases);
+            } else if ((keyStore = getKeyStore(keyStoreServiceController)) != null) {
+                aliases = keyStore.aliases();
+            } else {
+                return Collections.emptyList();
+            }
+        } catch (KeyStoreException | IllegalStateException e) {
+            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+        int skipped = 0;
+        try {
+            while (result.size() < limit && aliases.hasMoreElements()) {
+                String alias = aliases.nextElement();
+                if (pattern == null || pattern.matcher(alias).matches()) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        result.add(alias);
+                    }
+                }
+            }
+        } finally {
+            if (aliases instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) aliases).close();
+                } catch (Exception e) {
+                    ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Check if the {@link KeyStore} contains any aliases.
      *
      * @return {@code true} if the {@link KeyStore} is available and contains at least one entry, {@code false} otherwise.
      */
     private boolean containsAliases() {
-        final KeyStore keyStore;
+        AliasSnapshot snapshot = getCachedAliasSnapshot();
+        if (snapshot != null) {
+            return snapshot.aliases.isEmpty() == false;
+        }
 
+        final KeyStore keyStore;
         try {
             return ((keyStore = getKeyStore(keyStoreServiceController)) != null) && keyStore.size() > 0;
         } catch (KeyStoreException | IllegalStateException e) {
@@ -172,6 +226,83 @@ class KeyStoreResource extends DelegatingResource {
         }
     }
 
+    private boolean containsAlias(String alias) {
+        AliasSnapshot snapshot = getCachedAliasSnapshot();
+        if (snapshot != null) {
+            return snapshot.aliasSet.contains(alias);
+        }
+
+        final KeyStore keyStore;
+        try {
+            return (keyStore = getKeyStore(keyStoreServiceController)) != null && keyStore.containsAlias(alias);
+        } catch (KeyStoreException | IllegalStateException e) {
+            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the current snapshot if it is still valid, otherwise create one if the {@link KeyStore} can track changes to its
+     * content.
+     *
+     * Where changes can not be tracked {@code null} is returned so single aliases can be checked against the
+     * {@link KeyStore} directly rather than reading every alias.
+     */
+    private AliasSnapshot getCachedAliasSnapshot() {
+        ServiceController<KeyStore> keyStoreServiceController = this.keyStoreServiceController;
+        KeyStore keyStore = getKeyStore(keyStoreServiceController);
+        long version = getVersion(keyStoreServiceController);
+        if (keyStore == null || version < 0) {
+            return null;
+        }
+
+        AliasSnapshot snapshot = aliasSnapshot.get();
+        if (snapshot != null && snapshot.keyStore == keyStore && snapshot.version == version) {
+            return snapshot;
+        }
+
+        return createAliasSnapshot(keyStore, version);
+    }
+
+    /**
+     * Get a snapshot of the aliases, creating a new one where the current snapshot is not valid.
+     *
+     * @return a snapshot of the aliases or {@code null} if the {@link KeyStore} is not available.
+     */
+    private AliasSnapshot getAliasSnapshot() {
+        AliasSnapshot snapshot = getCachedAliasSnapshot();
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        KeyStore keyStore = getKeyStore(keyStoreServiceController);
+        return keyStore != null ? createAliasSnapshot(keyStore, -1) : null;
+    }
+
+    private AliasSnapshot createAliasSnapshot(KeyStore keyStore, long version) {
+        try {
+            List<String> aliases = new ArrayList<>(keyStore.size());
+            Enumeration<String> enumeration = keyStore.aliases();
+            while (enumeration.hasMoreElements()) {
+                aliases.add(enumeration.nextElement());
+            }
+
+            AliasSnapshot snapshot = new AliasSnapshot(keyStore, version, aliases);
+            if (version >= 0) {
+                aliasSnapshot.set(snapshot);
+            }
+            return snapshot;
+        } catch (KeyStoreException | IllegalStateException e) {
+            ElytronSubsystemMessages.ROOT_LOGGER.trace(e);
+            return null;
+        }
+    }
+
+    private static long getVersion(ServiceController<KeyStore> keyStoreServiceController) {
+        Service<KeyStore> service = keyStoreServiceController != null ? keyStoreServiceController.getService() : null;
+        return service instanceof ModifiableKeyStoreService ? ((ModifiableKeyStoreService) service).getVersion() : -1;
+    }
+
     /**
      * Get the {@link KeyStore} represented by this {@link Resource} or {@code null} if it is not currently available.
      *
@@ -185,4 +316,22 @@ class KeyStoreResource extends DelegatingResource {
         }
     }
 
+    /**
+     * An immutable snapshot of the aliases of a {@link KeyStore} at a specific version.
+     */
+    private static final class AliasSnapshot {
+
+        private final KeyStore keyStore;
+        private final long version;
+        private final List<String> aliases;
+        private final Set<String> aliasSet;
+
+        AliasSnapshot(KeyStore keyStore, long version, List<String> aliases) {
+            this.keyStore = keyStore;
+            this.version = version;
+            this.aliases = Collections.unmodifiableList(aliases);
+            this.aliasSet = Collections.unmodifiableSet(new LinkedHashSet<>(aliases));
+        }
+    }
+
 }
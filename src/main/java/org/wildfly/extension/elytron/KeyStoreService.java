@@ -27,30 +27,41 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.Security;
-import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
-import java.security.cert.CertificateExpiredException;
-import java.security.cert.CertificateNotYetValidException;
-import java.security.cert.X509Certificate;
-import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.security.CredentialReference;
 import org.jboss.as.controller.security.CredentialStoreClient;
 import org.jboss.as.controller.services.path.PathManager;
-import org.jboss.logging.Logger;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.elytron.CertificateExpiryIndex.ExpiringCertificate;
 import org.wildfly.extension.elytron.FileAttributeDefinitions.PathResolver;
 import org.wildfly.security.keystore.AliasFilter;
 import org.wildfly.security.keystore.AtomicLoadKeyStore;
@@ -72,20 +83,39 @@ class KeyStoreService implements ModifiableKeyStoreService {
     private final boolean required;
     private final String aliasFilter;
     private final CredentialReference credentialReference;
+    private final boolean autoReload;
+    private final long autoReloadInterval;
+    private final long writeBehindDelay;
+    private final boolean lazyLoad;
+    private final String name;
+    private final long expiryHorizon;
+    private final Consumer<ExpiringCertificate> expiryNotifier;
 
     private final InjectedValue<PathManager> pathManager = new InjectedValue<>();
     private final InjectedValue<Provider[]> providers = new InjectedValue<>();
     private final InjectedValue<CredentialStoreClient> injectedCredentialStoreClient = new InjectedValue<>();
+    private final List<Runnable> loadListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> entryListeners = new CopyOnWriteArrayList<>();
 
     private PathResolver pathResolver;
     private File resolvedPath;
+    private volatile FileChangeWatcher fileChangeWatcher;
+    private ScheduledExecutorService storeScheduler;
+    private ScheduledFuture<?> pendingStore;
+    private BackgroundLoad backgroundLoad;
+    private FutureTask<Void> loadTask;
+    private volatile CertificateExpiryIndex expiryIndex;
 
     private volatile long synched;
+    private volatile int failedStores;
     private volatile AtomicLoadKeyStore keyStore = null;
     private volatile ModifyTrackingKeyStore trackingKeyStore = null;
+    private volatile ModificationCountingKeyStore countingKeyStore = null;
     private volatile KeyStore unmodifiableKeyStore = null;
+    private volatile LazyLoadingKeyStore lazyKeyStore = null;
 
-    private KeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter, CredentialReference credentialReference) {
+    private KeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter, CredentialReference credentialReference,
+            boolean autoReload, long autoReloadInterval, long writeBehindDelay, boolean lazyLoad, String name, long expiryHorizon, Consumer<ExpiringCertificate> expiryNotifier) {
         this.provider = provider;
         this.type = type;
         this.relativeTo = relativeTo;
@@ -93,14 +123,24 @@ class KeyStoreService implements ModifiableKeyStoreService {
         this.required = required;
         this.aliasFilter = aliasFilter;
         this.credentialReference = credentialReference;
+        this.autoReload = autoReload;
+        this.autoReloadInterval = autoReloadInterval;
+        this.writeBehindDelay = writeBehindDelay;
+        this.lazyLoad = lazyLoad;
+        this.name = name;
+        this.expiryHorizon = expiryHorizon;
+        this.expiryNotifier = expiryNotifier;
     }
 
-    static KeyStoreService createFileLessKeyStoreService(String provider, String type, String aliasFilter, CredentialReference credentialReference) {
-        return new KeyStoreService(provider, type, null, null, false, aliasFilter, credentialReference);
+    static KeyStoreService createFileLessKeyStoreService(String provider, String type, String aliasFilter, CredentialReference credentialReference,
+            String name, long expiryHorizon, Consumer<ExpiringCertificate> expiryNotifier) {
+        return new KeyStoreService(provider, type, null, null, false, aliasFilter, credentialReference, false, 0, 0, false, name, expiryHorizon, expiryNotifier);
     }
 
-    static KeyStoreService createFileBasedKeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter, CredentialReference credentialReference) {
-        return new KeyStoreService(provider, type, relativeTo, path, required, aliasFilter, credentialReference);
+    static KeyStoreService createFileBasedKeyStoreService(String provider, String type, String relativeTo, String path, boolean required, String aliasFilter, CredentialReference credentialReference,
+            boolean autoReload, long autoReloadInterval, long writeBehindDelay, boolean lazyLoad, String name, long expiryHorizon, Consumer<ExpiringCertificate> expiryNotifier) {
+        return new KeyStoreService(provider, type, relativeTo, path, required, aliasFilter, credentialReference, autoReload, autoReloadInterval, writeBehindDelay,
+                lazyLoad, name, expiryHorizon, expiryNotifier);
     }
 
     /*
@@ -109,6 +149,10 @@ class KeyStoreService implements ModifiableKeyStoreService {
 
     @Override
     public void start(StartContext startContext) throws StartException {
+        AsynchronousStart.start(startContext, this::startKeyStore);
+    }
+
+    private void startKeyStore() throws StartException {
         try {
             Provider provider = resolveProvider();
             AtomicLoadKeyStore keyStore = AtomicLoadKeyStore.newInstance(type, provider);
@@ -136,22 +180,52 @@ class KeyStoreService implements ModifiableKeyStoreService {
                     resolvedPath = null;
                 }
             }
-            try (InputStream is = resolvedPath != null ? new FileInputStream(resolvedPath) : null) {
-                char[] password = resolvePassword();
-
-                ROOT_LOGGER.tracef(
-                        "starting:  type = %s  provider = %s  path = %s  resolvedPath = %s  password = %b  aliasFilter = %s",
-                        type, provider, path, resolvedPath, password != null, aliasFilter
-                );
-
-                keyStore.load(is, password);
-                checkCertificatesValidity(keyStore);
+            char[] password = resolvePassword();
+
+            ROOT_LOGGER.tracef(
+                    "starting:  type = %s  provider = %s  path = %s  resolvedPath = %s  password = %b  aliasFilter = %s  lazyLoad = %b",
+                    type, provider, path, resolvedPath, password != null, aliasFilter, lazyLoad
+            );
+
+            CertificateExpiryIndex expiryIndex = new CertificateExpiryIndex(name, expiryHorizon, expiryNotifier);
+            KeyStore source;
+            if (lazyLoad && resolvedPath != null) {
+                // This service is UP while the file is parsed and decrypted but the first use of the KeyStore, usually by
+                // the start of a dependent service, still waits for the load to complete.
+                BackgroundLoad backgroundLoad = new BackgroundLoad(keyStore, resolvedPath, password, expiryIndex);
+                FutureTask<Void> loadTask = new FutureTask<>(backgroundLoad);
+                lazyKeyStore = LazyLoadingKeyStore.lazyLoadingKeyStore(keyStore, name, loadTask);
+                source = lazyKeyStore;
+                this.backgroundLoad = backgroundLoad;
+                this.loadTask = loadTask;
+                AsynchronousStart.execute(loadTask);
+            } else {
+                try (InputStream is = resolvedPath != null ? new FileInputStream(resolvedPath) : null) {
+                    keyStore.load(is, password);
+                }
+                expiryIndex.rebuild(keyStore);
+                source = keyStore;
             }
 
             this.keyStore = keyStore;
-            KeyStore intermediate = aliasFilter != null ? FilteringKeyStore.filteringKeyStore(keyStore, AliasFilter.fromString(aliasFilter)) :  keyStore;
-            this.trackingKeyStore = ModifyTrackingKeyStore.modifyTrackingKeyStore(intermediate);
+            KeyStore intermediate = aliasFilter != null ? FilteringKeyStore.filteringKeyStore(source, AliasFilter.fromString(aliasFilter)) :  source;
+            this.countingKeyStore = ModificationCountingKeyStore.modificationCountingKeyStore(intermediate, this::notifyEntryListeners);
+            this.trackingKeyStore = ModifyTrackingKeyStore.modifyTrackingKeyStore(countingKeyStore);
             this.unmodifiableKeyStore = UnmodifiableKeyStore.unmodifiableKeyStore(intermediate);
+            this.expiryIndex = expiryIndex;
+
+            if (autoReload && resolvedPath != null) {
+                fileChangeWatcher = new FileChangeWatcher(resolvedPath, autoReloadInterval, this::fileChanged, this, "elytron-key-store-reload-" + resolvedPath.getName());
+                fileChangeWatcher.start();
+            }
+            if (writeBehindDelay > 0 && resolvedPath != null) {
+                final String threadName = "elytron-key-store-store-" + resolvedPath.getName();
+                storeScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
         } catch (GeneralSecurityException | IOException e) {
             throw ROOT_LOGGER.unableToStartService(e);
         }
@@ -166,40 +240,104 @@ class KeyStoreService implements ModifiableKeyStoreService {
         return identified;
     }
 
-    private AtomicLoadKeyStore.LoadKey load(AtomicLoadKeyStore keyStore) throws GeneralSecurityException, IOException {
-        try (InputStream is = resolvedPath != null ? new FileInputStream(resolvedPath) : null) {
-            AtomicLoadKeyStore.LoadKey loadKey = keyStore.revertibleLoad(is, resolvePassword());
-            checkCertificatesValidity(keyStore);
-            return loadKey;
+    /**
+     * The load of the file started by {@link #start(StartContext)} when lazy-load is enabled, this holds its own lock while
+     * running so {@link #stop(StopContext)} can wait for a load already in progress before the service is stopped.
+     */
+    private final class BackgroundLoad implements Callable<Void> {
+
+        private final AtomicLoadKeyStore keyStore;
+        private final File file;
+        private final char[] password;
+        private final CertificateExpiryIndex expiryIndex;
+        private boolean cancelled;
+
+        BackgroundLoad(AtomicLoadKeyStore keyStore, File file, char[] password, CertificateExpiryIndex expiryIndex) {
+            this.keyStore = keyStore;
+            this.file = file;
+            this.password = password;
+            this.expiryIndex = expiryIndex;
+        }
+
+        @Override
+        public synchronized Void call() throws GeneralSecurityException, IOException {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            ROOT_LOGGER.tracef("loading KeyStore from file [%s] in the background", file);
+            try (InputStream is = new FileInputStream(file)) {
+                keyStore.load(is, password);
+            } catch (GeneralSecurityException | IOException e) {
+                ROOT_LOGGER.unableToLoadKeyStore(name, e);
+                throw e;
+            }
+            try {
+                expiryIndex.rebuild(keyStore);
+            } catch (KeyStoreException e) {
+                ROOT_LOGGER.unableToIndexCertificates(name, e);
+            }
+            return null;
+        }
+
+        /**
+         * Prevent the load from starting, or wait for it to finish if it already has.
+         */
+        synchronized void cancel() {
+            cancelled = true;
         }
     }
 
-    private void checkCertificatesValidity(KeyStore keyStore) throws KeyStoreException {
-        if (ROOT_LOGGER.isEnabled(Logger.Level.WARN)) {
-            Enumeration<String> aliases = keyStore.aliases();
-            while (aliases.hasMoreElements()) {
-                String alias = aliases.nextElement();
-                Certificate certificate = keyStore.getCertificate(alias);
-                if (certificate != null && certificate instanceof X509Certificate) {
-                    try {
-                        ((X509Certificate) certificate).checkValidity();
-                    } catch (CertificateExpiredException | CertificateNotYetValidException e) {
-                        ROOT_LOGGER.certificateNotValid(alias, e);
-                    }
-                }
+    /**
+     * Wait for a background load started by {@link #start(StartContext)} to finish so it can not overwrite content loaded
+     * afterwards, a failed background load has already been reported and can be recovered by loading again.
+     */
+    private void awaitBackgroundLoad() {
+        LazyLoadingKeyStore lazyKeyStore = this.lazyKeyStore;
+        if (lazyKeyStore != null) {
+            try {
+                lazyKeyStore.awaitLoad();
+            } catch (IllegalStateException ignored) {
             }
         }
     }
 
+    private AtomicLoadKeyStore.LoadKey load(AtomicLoadKeyStore keyStore) throws GeneralSecurityException, IOException {
+        awaitBackgroundLoad();
+        try (InputStream is = resolvedPath != null ? new FileInputStream(resolvedPath) : null) {
+            return keyStore.revertibleLoad(is, resolvePassword());
+        }
+    }
+
     @Override
     public void stop(StopContext stopContext) {
         ROOT_LOGGER.tracef(
                 "stopping:  keyStore = %s  unmodifiableKeyStore = %s  trackingKeyStore = %s  pathResolver = %s",
                 keyStore, unmodifiableKeyStore, trackingKeyStore, pathResolver
         );
+        if (fileChangeWatcher != null) {
+            fileChangeWatcher.stop();
+            fileChangeWatcher = null;
+        }
+        if (storeScheduler != null) {
+            flushPendingStore();
+            storeScheduler.shutdown();
+            storeScheduler = null;
+        }
+        if (loadTask != null) {
+            loadTask.cancel(false);
+            backgroundLoad.cancel();
+            loadTask = null;
+            backgroundLoad = null;
+        }
+        if (expiryIndex != null) {
+            expiryIndex.close();
+            expiryIndex = null;
+        }
         keyStore = null;
+        lazyKeyStore = null;
         unmodifiableKeyStore = null;
         trackingKeyStore = null;
+        countingKeyStore = null;
         if (pathResolver != null) {
             pathResolver.clear();
             pathResolver = null;
@@ -215,6 +353,32 @@ class KeyStoreService implements ModifiableKeyStoreService {
         return trackingKeyStore;
     }
 
+    @Override
+    public long getVersion() {
+        ModificationCountingKeyStore countingKeyStore = this.countingKeyStore;
+        return countingKeyStore != null ? countingKeyStore.getVersion() : -1;
+    }
+
+    @Override
+    public void registerLoadListener(Runnable listener) {
+        loadListeners.add(listener);
+    }
+
+    @Override
+    public void unregisterLoadListener(Runnable listener) {
+        loadListeners.remove(listener);
+    }
+
+    @Override
+    public void registerEntryListener(Consumer<String> listener) {
+        entryListeners.add(listener);
+    }
+
+    @Override
+    public void unregisterEntryListener(Consumer<String> listener) {
+        entryListeners.remove(listener);
+    }
+
     Injector<PathManager> getPathManagerInjector() {
         return pathManager;
     }
@@ -231,42 +395,209 @@ class KeyStoreService implements ModifiableKeyStoreService {
      * OperationStepHandler Access Methods
      */
 
+    boolean isFileBased() {
+        return resolvedPath != null;
+    }
+
     long timeSynched() {
         return synched;
     }
 
-    LoadKey load() throws OperationFailedException {
+    long getFileCheckCount() {
+        FileChangeWatcher fileChangeWatcher = this.fileChangeWatcher;
+        return fileChangeWatcher != null ? fileChangeWatcher.getCheckCount() : 0;
+    }
+
+    synchronized LoadKey load() throws OperationFailedException {
         try {
             ROOT_LOGGER.tracef("reloading KeyStore from file [%s]", resolvedPath);
             AtomicLoadKeyStore.LoadKey loadKey = load(keyStore);
             long originalSynced = synched;
             synched = System.currentTimeMillis();
             boolean originalModified = trackingKeyStore.isModified();
+            int originalModifications = countingKeyStore.getModificationCount();
             trackingKeyStore.setModified(false);
-            return new LoadKey(loadKey, originalSynced, originalModified);
+            countingKeyStore.setModificationCount(0);
+            if (fileChangeWatcher != null) {
+                fileChangeWatcher.refresh();
+            }
+            notifyLoadListeners();
+            return new LoadKey(loadKey, originalSynced, originalModified, originalModifications);
         } catch (GeneralSecurityException | IOException e) {
             throw ROOT_LOGGER.unableToCompleteOperation(e, e.getLocalizedMessage());
         }
     }
 
-    void revertLoad(final LoadKey loadKey) {
+    /**
+     * Called by the {@link FileChangeWatcher} when the file has changed, as the load is atomic the previous content is
+     * retained if the new content can not be loaded e.g. if the file is only partially written.
+     *
+     * The file is not reloaded while there are modifications which have not been saved or a save is pending as loading
+     * would discard them, the next save replaces the file with the in memory content.
+     */
+    private synchronized void fileChanged() {
+        AtomicLoadKeyStore keyStore = this.keyStore;
+        if (keyStore == null) {
+            return;
+        }
+        if (trackingKeyStore.isModified() || pendingStore != null) {
+            ROOT_LOGGER.keyStoreFileChangedWithUnsavedChanges(resolvedPath.getAbsolutePath());
+            return;
+        }
+        try {
+            ROOT_LOGGER.tracef("automatically reloading KeyStore from file [%s]", resolvedPath);
+            load(keyStore);
+            synched = System.currentTimeMillis();
+            trackingKeyStore.setModified(false);
+            countingKeyStore.setModificationCount(0);
+            notifyLoadListeners();
+        } catch (GeneralSecurityException | IOException e) {
+            ROOT_LOGGER.unableToReloadKeyStore(resolvedPath.getAbsolutePath(), e);
+        }
+    }
+
+    synchronized void revertLoad(final LoadKey loadKey) {
         ROOT_LOGGER.trace("reverting load of KeyStore");
         keyStore.revert(loadKey.loadKey);
         synched = loadKey.modifiedTime;
         trackingKeyStore.setModified(loadKey.modified);
+        countingKeyStore.setModificationCount(loadKey.modifications);
+        notifyLoadListeners();
+    }
+
+    private void notifyLoadListeners() {
+        countingKeyStore.contentReplaced();
+        if (lazyKeyStore != null) {
+            lazyKeyStore.flush();
+        }
+        try {
+            expiryIndex.rebuild(keyStore);
+        } catch (KeyStoreException e) {
+            ROOT_LOGGER.unableToIndexCertificates(name, e);
+        }
+        for (Runnable listener : loadListeners) {
+            listener.run();
+        }
     }
 
-    void save() throws OperationFailedException {
+    private void notifyEntryListeners(String alias) {
+        CertificateExpiryIndex expiryIndex = this.expiryIndex;
+        if (expiryIndex != null) {
+            expiryIndex.entryChanged(alias);
+        }
+        for (Consumer<String> listener : entryListeners) {
+            listener.accept(alias);
+        }
+    }
+
+    /**
+     * Save the KeyStore to its file, if a write behind delay is configured the save is deferred and coalesced with any
+     * further requests received before it runs.
+     *
+     * @return {@code true} if the KeyStore has been saved, {@code false} if the save is pending.
+     * @throws OperationFailedException if the KeyStore could not be saved.
+     */
+    synchronized boolean save() throws OperationFailedException {
         if (resolvedPath == null) {
             throw ROOT_LOGGER.cantSaveWithoutFile();
         }
+        if (storeScheduler != null) {
+            // Requests received before the pending store runs are coalesced into that single store.
+            if (pendingStore == null) {
+                ROOT_LOGGER.tracef("scheduling save of KeyStore to the file [%s] in %d ms", resolvedPath, writeBehindDelay);
+                pendingStore = storeScheduler.schedule(this::writeBehind, writeBehindDelay, TimeUnit.MILLISECONDS);
+            }
+            return false;
+        }
+        persist();
+        return true;
+    }
+
+    private synchronized void writeBehind() {
+        if (pendingStore == null || keyStore == null) {
+            // Already flushed or the service has stopped.
+            return;
+        }
+        pendingStore = null;
+        persistOrLog();
+    }
+
+    private synchronized void flushPendingStore() {
+        if (pendingStore != null) {
+            pendingStore.cancel(false);
+            pendingStore = null;
+            persistOrLog();
+        }
+    }
+
+    private void persistOrLog() {
+        try {
+            persist();
+        } catch (OperationFailedException e) {
+            // There is no caller to report this to, the modifications remain pending until a later save succeeds.
+            failedStores++;
+            ROOT_LOGGER.unableToStoreKeyStore(resolvedPath.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Persist the KeyStore to a temporary file in the same directory which is synced to disk before being renamed over the
+     * original file, a failure at any point leaves the original file intact.
+     */
+    private void persist() throws OperationFailedException {
+        awaitBackgroundLoad();
         ROOT_LOGGER.tracef("saving KeyStore to the file [%s]", resolvedPath);
-        try (FileOutputStream fos = new FileOutputStream(resolvedPath)) {
-            keyStore.store(fos, resolvePassword());
+        Path target = resolvedPath.toPath().toAbsolutePath();
+        Path directory = target.getParent();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, resolvedPath.getName(), ".tmp");
+            if (Files.exists(target)) {
+                try {
+                    Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+                } catch (UnsupportedOperationException e) {
+                    // Not a POSIX file system, the default permissions apply.
+                }
+            }
+            int modifications = countingKeyStore.getModificationCount();
+            try (FileOutputStream fos = new FileOutputStream(temp.toFile())) {
+                keyStore.store(fos, resolvePassword());
+                fos.getFD().sync();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            syncDirectory(directory);
+
             synched = System.currentTimeMillis();
-            trackingKeyStore.setModified(false);
+            failedStores = 0;
+            trackingKeyStore.setModified(countingKeyStore.getModificationCount() != modifications);
+            countingKeyStore.persisted(modifications);
+            if (fileChangeWatcher != null) {
+                fileChangeWatcher.refresh();
+            }
         } catch (IOException | KeyStoreException | NoSuchAlgorithmException | CertificateException e) {
             throw ROOT_LOGGER.unableToCompleteOperation(e, e.getLocalizedMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    ROOT_LOGGER.tracef(e, "unable to delete temporary file [%s]", temp);
+                }
+            }
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        // Persists the rename itself, not all platforms support opening a directory so this is best effort.
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            ROOT_LOGGER.tracef(e, "unable to sync directory [%s]", directory);
         }
     }
 
@@ -274,6 +605,18 @@ class KeyStoreService implements ModifiableKeyStoreService {
         return trackingKeyStore.isModified();
     }
 
+    CertificateExpiryIndex getExpiryIndex() {
+        return expiryIndex;
+    }
+
+    int getPendingModifications() {
+        return countingKeyStore.getModificationCount();
+    }
+
+    int getFailedStores() {
+        return failedStores;
+    }
+
     private char[] resolvePassword() {
         CredentialStoreClient credentialStoreClient = injectedCredentialStoreClient.getValue();
         return credentialStoreClient.getSecret();
@@ -283,11 +626,13 @@ class KeyStoreService implements ModifiableKeyStoreService {
         private final AtomicLoadKeyStore.LoadKey loadKey;
         private final long modifiedTime;
         private final boolean modified;
+        private final int modifications;
 
-        LoadKey(AtomicLoadKeyStore.LoadKey loadKey, long modifiedTime, boolean modified) {
+        LoadKey(AtomicLoadKeyStore.LoadKey loadKey, long modifiedTime, boolean modified, int modifications) {
             this.loadKey = loadKey;
             this.modifiedTime = modifiedTime;
             this.modified = modified;
+            this.modifications = modifications;
         }
     }
 
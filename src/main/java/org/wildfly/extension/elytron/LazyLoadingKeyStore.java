@@ -0,0 +1,300 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link KeyStore} wrapper for a delegate which is being loaded in the background, all calls block until the load has
+ * completed so dependents see the same {@link KeyStore} API regardless of when they first use it.
+ *
+ * Keys are decrypted by the delegate on first access and then cached against a salted hash of the password used to
+ * recover them, the cache is cleared for an alias when it is modified and entirely when the delegate is reloaded. A key
+ * read from the delegate is only cached if no modification or reload happened while it was being read.
+ */
+final class LazyLoadingKeyStore extends KeyStore {
+
+    private final LazyLoadingKeyStoreSpi keyStoreSpi;
+
+    private LazyLoadingKeyStore(LazyLoadingKeyStoreSpi keyStoreSpi, KeyStore delegate) {
+        super(keyStoreSpi, delegate.getProvider(), delegate.getType());
+        this.keyStoreSpi = keyStoreSpi;
+    }
+
+    /**
+     * Wrap a {@link KeyStore} which is being loaded in the background.
+     *
+     * @param delegate the {@link KeyStore} being loaded.
+     * @param name the name of the {@link KeyStore} used for reporting.
+     * @param load the {@link Future} which completes once the delegate is loaded.
+     * @return the wrapping {@link KeyStore}.
+     */
+    static LazyLoadingKeyStore lazyLoadingKeyStore(KeyStore delegate, String name, Future<?> load) throws NoSuchAlgorithmException, CertificateException, IOException {
+        LazyLoadingKeyStore keyStore = new LazyLoadingKeyStore(new LazyLoadingKeyStoreSpi(delegate, name, load), delegate);
+        keyStore.load(null, null);
+
+        return keyStore;
+    }
+
+    /**
+     * Wait for the background load of the delegate to complete.
+     *
+     * @throws IllegalStateException if the delegate could not be loaded.
+     */
+    void awaitLoad() {
+        keyStoreSpi.awaitLoad();
+    }
+
+    /**
+     * Discard all cached keys, called when the content of the delegate has been replaced.
+     *
+     * As the delegate now holds loaded content calls no longer wait for the background load, even if it failed.
+     */
+    void flush() {
+        keyStoreSpi.flush();
+    }
+
+    private static final class CachedKey {
+
+        private final byte[] passwordHash;
+        private final Key key;
+
+        CachedKey(byte[] passwordHash, Key key) {
+            this.passwordHash = passwordHash;
+            this.key = key;
+        }
+    }
+
+    private static final class LazyLoadingKeyStoreSpi extends DelegatingKeyStoreSpi {
+
+        private final String name;
+        private final Future<?> load;
+        private final Map<String, CachedKey> keys = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+        private final byte[] salt = new byte[16];
+        private volatile boolean loaded;
+
+        LazyLoadingKeyStoreSpi(KeyStore delegate, String name, Future<?> load) {
+            super(delegate);
+            this.name = name;
+            this.load = load;
+            new SecureRandom().nextBytes(salt);
+        }
+
+        void awaitLoad() {
+            if (loaded) {
+                return;
+            }
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        load.get();
+                        loaded = true;
+                        return;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        throw ROOT_LOGGER.keyStoreNotLoaded(name, e.getCause());
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void flush() {
+            loaded = true;
+            // Incremented before clearing so a read which started before the flush is not cached after it.
+            generation.incrementAndGet();
+            keys.clear();
+        }
+
+        private void invalidate(String alias) {
+            generation.incrementAndGet();
+            keys.remove(alias);
+        }
+
+        private byte[] hash(char[] password) throws NoSuchAlgorithmException {
+            if (password == null) {
+                return null;
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+            try {
+                digest.update(encoded.duplicate());
+            } finally {
+                if (encoded.hasArray()) {
+                    Arrays.fill(encoded.array(), (byte) 0);
+                }
+            }
+            return digest.digest();
+        }
+
+        @Override
+        public Key engineGetKey(String alias, char[] password) throws NoSuchAlgorithmException, UnrecoverableKeyException {
+            awaitLoad();
+            byte[] passwordHash = hash(password);
+            CachedKey cachedKey = keys.get(alias);
+            if (cachedKey != null && (cachedKey.passwordHash == null ? passwordHash == null
+                    : passwordHash != null && MessageDigest.isEqual(cachedKey.passwordHash, passwordHash))) {
+                return cachedKey.key;
+            }
+            long readGeneration = generation.get();
+            Key key = super.engineGetKey(alias, password);
+            if (key != null) {
+                // Only cached if the alias has not been modified, or the delegate reloaded, since the read started.
+                keys.compute(alias, (a, current) -> generation.get() == readGeneration ? new CachedKey(passwordHash, key) : current);
+            }
+            return key;
+        }
+
+        @Override
+        public Certificate[] engineGetCertificateChain(String alias) {
+            awaitLoad();
+            return super.engineGetCertificateChain(alias);
+        }
+
+        @Override
+        public Certificate engineGetCertificate(String alias) {
+            awaitLoad();
+            return super.engineGetCertificate(alias);
+        }
+
+        @Override
+        public Date engineGetCreationDate(String alias) {
+            awaitLoad();
+            return super.engineGetCreationDate(alias);
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, Key key, char[] password, Certificate[] chain) throws KeyStoreException {
+            awaitLoad();
+            try {
+                super.engineSetKeyEntry(alias, key, password, chain);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, byte[] key, Certificate[] chain) throws KeyStoreException {
+            awaitLoad();
+            try {
+                super.engineSetKeyEntry(alias, key, chain);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public void engineSetCertificateEntry(String alias, Certificate cert) throws KeyStoreException {
+            awaitLoad();
+            try {
+                super.engineSetCertificateEntry(alias, cert);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public void engineDeleteEntry(String alias) throws KeyStoreException {
+            awaitLoad();
+            try {
+                super.engineDeleteEntry(alias);
+            } finally {
+                invalidate(alias);
+            }
+        }
+
+        @Override
+        public Enumeration<String> engineAliases() {
+            awaitLoad();
+            return super.engineAliases();
+        }
+
+        @Override
+        public boolean engineContainsAlias(String alias) {
+            awaitLoad();
+            return super.engineContainsAlias(alias);
+        }
+
+        @Override
+        public int engineSize() {
+            awaitLoad();
+            return super.engineSize();
+        }
+
+        @Override
+        public boolean engineIsKeyEntry(String alias) {
+            awaitLoad();
+            return super.engineIsKeyEntry(alias);
+        }
+
+        @Override
+        public boolean engineIsCertificateEntry(String alias) {
+            awaitLoad();
+            return super.engineIsCertificateEntry(alias);
+        }
+
+        @Override
+        public String engineGetCertificateAlias(Certificate cert) {
+            awaitLoad();
+            return super.engineGetCertificateAlias(cert);
+        }
+
+        @Override
+        public void engineStore(OutputStream stream, char[] password) throws IOException, NoSuchAlgorithmException, CertificateException {
+            awaitLoad();
+            super.engineStore(stream, password);
+        }
+
+        @Override
+        protected void loaded() {
+            flush();
+        }
+    }
+
+}
@@ -31,10 +31,15 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.RestartParentWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -60,6 +65,11 @@ import java.security.KeyStoreException;
 import static org.wildfly.extension.elytron.Capabilities.DIR_CONTEXT_CAPABILITY;
 import static org.wildfly.extension.elytron.Capabilities.KEY_STORE_CAPABILITY;
 import static org.wildfly.extension.elytron.Capabilities.KEY_STORE_RUNTIME_CAPABILITY;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.EXPIRING_CERTIFICATES;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.EXPIRY_HORIZON;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.certificateExpiringNotification;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.expiryNotifier;
+import static org.wildfly.extension.elytron.CertificateExpiryAttributeDefinitions.populateExpiringCertificates;
 import static org.wildfly.extension.elytron.ElytronDefinition.commonDependencies;
 import static org.wildfly.extension.elytron.ElytronExtension.asStringIfDefined;
 import static org.wildfly.extension.elytron.ElytronExtension.getRequiredService;
@@ -100,6 +110,13 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
+    static final SimpleAttributeDefinition PAGE_SIZE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PAGE_SIZE, ModelType.INT, true)
+            .setAttributeGroup(ElytronDescriptionConstants.SEARCH)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
     static final SimpleAttributeDefinition FILTER_ALIAS = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.FILTER_ALIAS, ModelType.STRING, true)
             .setAttributeGroup(ElytronDescriptionConstants.SEARCH)
             .setAllowExpression(true)
@@ -145,6 +162,37 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
                 .build();
     }
 
+    static class CacheObjectDefinition {
+
+        static final SimpleAttributeDefinition MAXIMUM_ENTRIES = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MAXIMUM_ENTRIES, ModelType.INT, true)
+                .setDefaultValue(new ModelNode(1000))
+                .setAllowExpression(true)
+                .setValidator(new IntRangeValidator(1, true))
+                .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                .build();
+
+        static final SimpleAttributeDefinition TIME_TO_LIVE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.TIME_TO_LIVE, ModelType.LONG, true)
+                .setDefaultValue(new ModelNode(60000L))
+                .setAllowExpression(true)
+                .setValidator(new LongRangeValidator(1L, Long.MAX_VALUE, true, true))
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                .build();
+
+        static final SimpleAttributeDefinition NEGATIVE_CACHING = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.NEGATIVE_CACHING, ModelType.BOOLEAN, true)
+                .setDefaultValue(new ModelNode(true))
+                .setAllowExpression(true)
+                .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                .build();
+
+        static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { MAXIMUM_ENTRIES, TIME_TO_LIVE, NEGATIVE_CACHING };
+
+        static final ObjectTypeAttributeDefinition OBJECT_DEFINITION = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.CACHE, ATTRIBUTES)
+                .setAllowNull(true)
+                .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                .build();
+    }
+
     static final SimpleAttributeDefinition ALIAS_ATTRIBUTE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.ALIAS_ATTRIBUTE, ModelType.STRING, true)
             .setAttributeGroup(ElytronDescriptionConstants.ATTRIBUTE_MAPPING)
             .setAllowExpression(true)
@@ -193,14 +241,28 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    static final SimpleAttributeDefinition CACHE_HIT_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CACHE_HIT_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISS_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CACHE_MISS_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleOperationDefinition FLUSH_CACHE = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.FLUSH_CACHE, RESOURCE_RESOLVER)
+            .setRuntimeOnly()
+            .build();
+
     private static final AttributeDefinition[] CONFIG_ATTRIBUTES = new AttributeDefinition[] {
             DIR_CONTEXT,
-            SEARCH_PATH, SEARCH_RECURSIVE, SEARCH_TIME_LIMIT, FILTER_ALIAS, FILTER_CERTIFICATE, FILTER_ITERATE,
+            SEARCH_PATH, SEARCH_RECURSIVE, SEARCH_TIME_LIMIT, PAGE_SIZE, FILTER_ALIAS, FILTER_CERTIFICATE, FILTER_ITERATE,
             NewItemTemplateObjectDefinition.OBJECT_DEFINITION,
             ALIAS_ATTRIBUTE,
             CERTIFICATE_ATTRIBUTE, CERTIFICATE_TYPE,
             CERTIFICATE_CHAIN_ATTRIBUTE, CERTIFICATE_CHAIN_ENCODING,
-            KEY_ATTRIBUTE, KEY_TYPE
+            KEY_ATTRIBUTE, KEY_TYPE,
+            EXPIRY_HORIZON,
+            CacheObjectDefinition.OBJECT_DEFINITION
     };
 
     private static final KeyStoreAddHandler ADD = new KeyStoreAddHandler();
@@ -243,6 +305,33 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
             }
         });
 
+        resourceRegistration.registerReadOnlyAttribute(EXPIRING_CERTIFICATES, new LdapKeyStoreRuntimeOnlyHandler(false) {
+            @Override
+            protected void performRuntime(ModelNode result, OperationContext context, ModelNode operation, LdapKeyStoreService keyStoreService) throws OperationFailedException {
+                populateExpiringCertificates(context, keyStoreService.getExpiryIndex());
+            }
+        });
+
+        resourceRegistration.registerReadOnlyAttribute(CACHE_HIT_COUNT, new LdapKeyStoreRuntimeOnlyHandler(false) {
+            @Override
+            protected void performRuntime(ModelNode result, OperationContext context, ModelNode operation, LdapKeyStoreService keyStoreService) throws OperationFailedException {
+                CachingKeyStore cache = keyStoreService.getCache();
+                if (cache != null) {
+                    result.set(cache.getHitCount());
+                }
+            }
+        });
+
+        resourceRegistration.registerReadOnlyAttribute(CACHE_MISS_COUNT, new LdapKeyStoreRuntimeOnlyHandler(false) {
+            @Override
+            protected void performRuntime(ModelNode result, OperationContext context, ModelNode operation, LdapKeyStoreService keyStoreService) throws OperationFailedException {
+                CachingKeyStore cache = keyStoreService.getCache();
+                if (cache != null) {
+                    result.set(cache.getMissCount());
+                }
+            }
+        });
+
     }
 
     @Override
@@ -251,6 +340,22 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
         // Create Key Pair / Certificate (Is this a special op or on a resource?)
         // Create CSR
         // Import certificate
+
+        ReadAliasesHandler.register(resourceRegistration, RESOURCE_RESOLVER);
+        resourceRegistration.registerOperationHandler(FLUSH_CACHE, new LdapKeyStoreRuntimeOnlyHandler(true) {
+            @Override
+            protected void performRuntime(ModelNode result, OperationContext context, ModelNode operation, LdapKeyStoreService keyStoreService) throws OperationFailedException {
+                CachingKeyStore cache = keyStoreService.getCache();
+                if (cache != null) {
+                    cache.flush();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void registerNotifications(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerNotification(certificateExpiringNotification(RESOURCE_RESOLVER));
     }
 
     @Override
@@ -270,6 +375,12 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
 
             String dirContextName = asStringIfDefined(context, DIR_CONTEXT, model);
             String searchPath = asStringIfDefined(context, SEARCH_PATH, model);
+            ModelNode searchRecursiveNode = SEARCH_RECURSIVE.resolveModelAttribute(context, model);
+            Boolean searchRecursive = searchRecursiveNode.isDefined() ? searchRecursiveNode.asBoolean() : null;
+            ModelNode searchTimeLimitNode = SEARCH_TIME_LIMIT.resolveModelAttribute(context, model);
+            Integer searchTimeLimit = searchTimeLimitNode.isDefined() ? searchTimeLimitNode.asInt() : null;
+            ModelNode pageSizeNode = PAGE_SIZE.resolveModelAttribute(context, model);
+            int pageSize = pageSizeNode.isDefined() ? pageSizeNode.asInt() : 0;
             String filterAlias = asStringIfDefined(context, FILTER_ALIAS, model);
             String filterCertificate = asStringIfDefined(context, FILTER_CERTIFICATE, model);
             String filterIterate = asStringIfDefined(context, FILTER_ITERATE, model);
@@ -280,6 +391,10 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
             String certificateChainEncoding = asStringIfDefined(context, CERTIFICATE_CHAIN_ENCODING, model);
             String keyAttribute = asStringIfDefined(context, KEY_ATTRIBUTE, model);
             String keyType = asStringIfDefined(context, KEY_TYPE, model);
+            long expiryHorizon = EXPIRY_HORIZON.resolveModelAttribute(context, model).asLong();
+            int cacheMaximumEntries = 0;
+            long cacheTimeToLive = 0;
+            boolean cacheNegative = false;
             LdapName createPathLdapName = null;
             String createRdn = null;
             Attributes createAttributes = null;
@@ -317,10 +432,18 @@ final class LdapKeyStoreDefinition extends SimpleResourceDefinition {
                 }
             }
 
-            LdapKeyStoreService keyStoreService = new LdapKeyStoreService(searchPath, filterAlias, filterCertificate,
+            ModelNode cacheNode = CacheObjectDefinition.OBJECT_DEFINITION.resolveModelAttribute(context, model);
+            if (cacheNode.isDefined()) {
+                cacheMaximumEntries = CacheObjectDefinition.MAXIMUM_ENTRIES.resolveModelAttribute(context, cacheNode).asInt();
+                cacheTimeToLive = CacheObjectDefinition.TIME_TO_LIVE.resolveModelAttribute(context, cacheNode).asLong();
+                cacheNegative = CacheObjectDefinition.NEGATIVE_CACHING.resolveModelAttribute(context, cacheNode).asBoolean();
+            }
+
+            LdapKeyStoreService keyStoreService = new LdapKeyStoreService(searchPath, searchRecursive, searchTimeLimit, pageSize, filterAlias, filterCertificate,
                     filterIterate, createPathLdapName, createRdn, createAttributes, aliasAttribute,
                     certificateAttribute, certificateType, certificateChainAttribute, certificateChainEncoding,
-                    keyAttribute, keyType);
+                    keyAttribute, keyType, context.getCurrentAddressValue(), expiryHorizon, expiryNotifier(context),
+                    cacheMaximumEntries, cacheTimeToLive, cacheNegative);
 
             ServiceTarget serviceTarget = context.getServiceTarget();
             RuntimeCapability<Void> runtimeCapability = KEY_STORE_RUNTIME_CAPABILITY.fromBaseCapability(context.getCurrentAddressValue());
@@ -25,14 +25,19 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.common.function.ExceptionSupplier;
+import org.wildfly.extension.elytron.CertificateExpiryIndex.ExpiringCertificate;
 import org.wildfly.security.keystore.LdapKeyStore;
 import org.wildfly.security.keystore.UnmodifiableKeyStore;
 
+import javax.naming.NamingException;
 import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
 import javax.naming.ldap.LdapName;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.util.function.Consumer;
 
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
@@ -43,9 +48,21 @@ import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.RO
  */
 class LdapKeyStoreService implements ModifiableKeyStoreService {
 
+    /*
+     * The defaults applied by LdapKeyStore.Builder, repeated for the paged iteration of the aliases.
+     */
+    private static final String DEFAULT_ALIAS_ATTRIBUTE = "cn";
+    private static final int DEFAULT_SEARCH_TIME_LIMIT = 10000;
+
     private final InjectedValue<ExceptionSupplier> dirContextSupplierInjector = new InjectedValue<>();
 
     private final String searchPath;
+    private final Boolean searchRecursive;
+    private final Integer searchTimeLimit;
+    /**
+     * The number of entries to request per page when iterating the aliases or {@code 0} if paging should not be used.
+     */
+    private final int pageSize;
     private final String filterAlias;
     private final String filterCertificate;
     private final String filterIterate;
@@ -61,16 +78,31 @@ class LdapKeyStoreService implements ModifiableKeyStoreService {
     private final String certificateChainEncoding;
     private final String keyAttribute;
     private final String keyType;
+    private final String name;
+    private final long expiryHorizon;
+    private final Consumer<ExpiringCertificate> expiryNotifier;
+    /**
+     * The maximum number of aliases to cache or {@code 0} if lookups should not be cached.
+     */
+    private final int cacheMaximumEntries;
+    private final long cacheTimeToLive;
+    private final boolean cacheNegative;
 
     private volatile KeyStore modifiableKeyStore = null;
     private volatile KeyStore unmodifiableKeyStore = null;
+    private volatile CertificateExpiryIndex expiryIndex = null;
+    private volatile CachingKeyStore cachingKeyStore = null;
 
-    LdapKeyStoreService(String searchPath, String filterAlias, String filterCertificate,
+    LdapKeyStoreService(String searchPath, Boolean searchRecursive, Integer searchTimeLimit, int pageSize, String filterAlias, String filterCertificate,
                         String filterIterate, LdapName createPath, String createRdn, Attributes createAttributes,
                         String aliasAttribute, String certificateAttribute, String certificateType,
                         String certificateChainAttribute, String certificateChainEncoding,
-                        String keyAttribute, String keyType) {
+                        String keyAttribute, String keyType, String name, long expiryHorizon, Consumer<ExpiringCertificate> expiryNotifier,
+                        int cacheMaximumEntries, long cacheTimeToLive, boolean cacheNegative) {
         this.searchPath = searchPath;
+        this.searchRecursive = searchRecursive;
+        this.searchTimeLimit = searchTimeLimit;
+        this.pageSize = pageSize;
         this.filterAlias = filterAlias;
         this.filterCertificate = filterCertificate;
         this.filterIterate = filterIterate;
@@ -84,6 +116,12 @@ class LdapKeyStoreService implements ModifiableKeyStoreService {
         this.certificateChainEncoding = certificateChainEncoding;
         this.keyAttribute = keyAttribute;
         this.keyType = keyType;
+        this.name = name;
+        this.expiryHorizon = expiryHorizon;
+        this.expiryNotifier = expiryNotifier;
+        this.cacheMaximumEntries = cacheMaximumEntries;
+        this.cacheTimeToLive = cacheTimeToLive;
+        this.cacheNegative = cacheNegative;
     }
 
     Injector<ExceptionSupplier> getDirContextSupplierInjector() {
@@ -97,10 +135,14 @@ class LdapKeyStoreService implements ModifiableKeyStoreService {
     @Override
     public void start(StartContext startContext) throws StartException {
         try {
+            ExceptionSupplier<DirContext, NamingException> dirContextSupplier = dirContextSupplierInjector.getValue();
             LdapKeyStore.Builder builder = LdapKeyStore.builder()
-                    .setDirContextSupplier(dirContextSupplierInjector.getValue())
+                    .setDirContextSupplier(dirContextSupplier)
                     .setSearchPath(searchPath);
 
+            if (searchRecursive != null) builder.setSearchRecursive(searchRecursive);
+            if (searchTimeLimit != null) builder.setSearchTimeLimit(searchTimeLimit);
+
             if (filterAlias != null) builder.setFilterAlias(filterAlias);
             if (filterCertificate != null) builder.setFilterCertificate(filterCertificate);
             if (filterIterate != null) builder.setFilterIterate(filterIterate);
@@ -117,8 +159,24 @@ class LdapKeyStoreService implements ModifiableKeyStoreService {
 
             KeyStore keyStore = builder.build();
             keyStore.load(null); // initialize
-            this.modifiableKeyStore = keyStore;
+            if (pageSize > 0) {
+                String alias = aliasAttribute != null ? aliasAttribute : DEFAULT_ALIAS_ATTRIBUTE;
+                keyStore = PagedLdapKeyStore.pagedLdapKeyStore(keyStore, name, dirContextSupplier, searchPath,
+                        filterIterate != null ? filterIterate : "(" + alias + "=*)", alias,
+                        searchRecursive == null || searchRecursive ? SearchControls.SUBTREE_SCOPE : SearchControls.ONELEVEL_SCOPE,
+                        searchTimeLimit != null ? searchTimeLimit : DEFAULT_SEARCH_TIME_LIMIT, pageSize);
+            }
+            if (cacheMaximumEntries > 0) {
+                cachingKeyStore = CachingKeyStore.cachingKeyStore(keyStore, cacheMaximumEntries, cacheTimeToLive, cacheNegative);
+                keyStore = cachingKeyStore;
+            }
+            CertificateExpiryIndex expiryIndex = new CertificateExpiryIndex(name, expiryHorizon, expiryNotifier);
+            // Entries set through this service are added to the index, each requires a search so this is also in the background.
+            this.modifiableKeyStore = ModificationCountingKeyStore.modificationCountingKeyStore(keyStore, expiryIndex::entryChangedInBackground);
             this.unmodifiableKeyStore = UnmodifiableKeyStore.unmodifiableKeyStore(keyStore);
+            this.expiryIndex = expiryIndex;
+            // Iterating the entries requires searching the directory so this should not delay the start.
+            expiryIndex.rebuildInBackground(keyStore);
         } catch (GeneralSecurityException | IOException e) {
             throw ROOT_LOGGER.unableToStartService(e);
         }
@@ -126,6 +184,11 @@ class LdapKeyStoreService implements ModifiableKeyStoreService {
 
     @Override
     public void stop(StopContext stopContext) {
+        if (expiryIndex != null) {
+            expiryIndex.close();
+            expiryIndex = null;
+        }
+        this.cachingKeyStore = null;
         this.modifiableKeyStore = null;
         this.unmodifiableKeyStore = null;
     }
@@ -138,4 +201,12 @@ class LdapKeyStoreService implements ModifiableKeyStoreService {
     public KeyStore getModifiableValue() {
         return modifiableKeyStore;
     }
+
+    CertificateExpiryIndex getExpiryIndex() {
+        return expiryIndex;
+    }
+
+    CachingKeyStore getCache() {
+        return cachingKeyStore;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.io.IOException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A filtering {@link KeyStore} wrapper which evaluates the alias filter once against all aliases of the source
+ * {@link KeyStore} and answers subsequent lookups from the resulting set, this is an alternative to
+ * {@link org.wildfly.security.keystore.FilteringKeyStore} which evaluates the filter on every call.
+ *
+ * The set of aliases is recalculated when the version of the source changes, when the source is reloaded and after
+ * modifications made through this wrapper.
+ */
+final class MaterializedFilteringKeyStore extends KeyStore {
+
+    private final MaterializedKeyStoreSpi keyStoreSpi;
+
+    private MaterializedFilteringKeyStore(MaterializedKeyStoreSpi keyStoreSpi, KeyStore delegate) {
+        super(keyStoreSpi, delegate.getProvider(), delegate.getType());
+        this.keyStoreSpi = keyStoreSpi;
+    }
+
+    /**
+     * Create a new materialized filtering {@link KeyStore}.
+     *
+     * @param delegate the source {@link KeyStore}.
+     * @param filter the filter the aliases must match.
+     * @param version supplier of the version of the content of the source, see {@link ModifiableKeyStoreService#getVersion()}.
+     * @return the new materialized filtering {@link KeyStore}.
+     */
+    static MaterializedFilteringKeyStore materializedFilteringKeyStore(KeyStore delegate, Predicate<String> filter, LongSupplier version) throws NoSuchAlgorithmException, CertificateException, IOException {
+        MaterializedFilteringKeyStore keyStore = new MaterializedFilteringKeyStore(new MaterializedKeyStoreSpi(delegate, filter, version), delegate);
+        keyStore.load(null, null);
+
+        return keyStore;
+    }
+
+    /**
+     * Discard the current set of aliases so it is recalculated on next use.
+     */
+    void invalidate() {
+        keyStoreSpi.materialized = null;
+    }
+
+    private static final class Materialized {
+
+        private final long version;
+        private final Set<String> aliases;
+
+        Materialized(long version, Set<String> aliases) {
+            this.version = version;
+            this.aliases = aliases;
+        }
+    }
+
+    private static final class MaterializedKeyStoreSpi extends DelegatingKeyStoreSpi {
+
+        private final Predicate<String> filter;
+        private final LongSupplier version;
+        private volatile Materialized materialized;
+
+        MaterializedKeyStoreSpi(KeyStore delegate, Predicate<String> filter, LongSupplier version) {
+            super(delegate);
+            this.filter = filter;
+            this.version = version;
+        }
+
+        private Set<String> aliases() {
+            long version = this.version.getAsLong();
+            Materialized materialized = this.materialized;
+            if (materialized != null && (version < 0 || materialized.version == version)) {
+                return materialized.aliases;
+            }
+
+            synchronized (this) {
+                materialized = this.materialized;
+                if (materialized != null && (version < 0 || materialized.version == version)) {
+                    return materialized.aliases;
+                }
+
+                // The version is read before the aliases so a concurrent modification causes a further recalculation.
+                Set<String> aliases = new LinkedHashSet<>();
+                Enumeration<String> enumeration = super.engineAliases();
+                while (enumeration.hasMoreElements()) {
+                    String alias = enumeration.nextElement();
+                    if (filter.test(alias)) {
+                        aliases.add(alias);
+                    }
+                }
+                materialized = new Materialized(version, Collections.unmodifiableSet(aliases));
+                this.materialized = materialized;
+                return materialized.aliases;
+            }
+        }
+
+        @Override
+        public Key engineGetKey(String alias, char[] password) throws NoSuchAlgorithmException, UnrecoverableKeyException {
+            return aliases().contains(alias) ? super.engineGetKey(alias, password) : null;
+        }
+
+        @Override
+        public Certificate[] engineGetCertificateChain(String alias) {
+            return aliases().contains(alias) ? super.engineGetCertificateChain(alias) : null;
+        }
+
+        @Override
+        public Certificate engineGetCertificate(String alias) {
+            return aliases().contains(alias) ? super.engineGetCertificate(alias) : null;
+        }
+
+        @Override
+        public Date engineGetCreationDate(String alias) {
+            return aliases().contains(alias) ? super.engineGetCreationDate(alias) : null;
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, Key key, char[] password, Certificate[] chain) throws KeyStoreException {
+            try {
+                super.engineSetKeyEntry(alias, key, password, chain);
+            } finally {
+                materialized = null;
+            }
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, byte[] key, Certificate[] chain) throws KeyStoreException {
+            try {
+                super.engineSetKeyEntry(alias, key, chain);
+            } finally {
+                materialized = null;
+            }
+        }
+
+        @Override
+        public void engineSetCertificateEntry(String alias, Certificate cert) throws KeyStoreException {
+            try {
+                super.engineSetCertificateEntry(alias, cert);
+            } finally {
+                materialized = null;
+            }
+        }
+
+        @Override
+        public void engineDeleteEntry(String alias) throws KeyStoreException {
+            try {
+                super.engineDeleteEntry(alias);
+            } finally {
+                materialized = null;
+            }
+        }
+
+        @Override
+        public Enumeration<String> engineAliases() {
+            return Collections.enumeration(aliases());
+        }
+
+        @Override
+        public boolean engineContainsAlias(String alias) {
+            return aliases().contains(alias);
+        }
+
+        @Override
+        public int engineSize() {
+            return aliases().size();
+        }
+
+        @Override
+        public boolean engineIsKeyEntry(String alias) {
+            return aliases().contains(alias) && super.engineIsKeyEntry(alias);
+        }
+
+        @Override
+        public boolean engineIsCertificateEntry(String alias) {
+            return aliases().contains(alias) && super.engineIsCertificateEntry(alias);
+        }
+
+        @Override
+        public String engineGetCertificateAlias(Certificate cert) {
+            String alias = super.engineGetCertificateAlias(cert);
+            return alias != null && aliases().contains(alias) ? alias : null;
+        }
+
+        @Override
+        protected void loaded() {
+            materialized = null;
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ package org.wildfly.extension.elytron;
 import org.jboss.msc.service.Service;
 
 import java.security.KeyStore;
+import java.util.function.Consumer;
 
 /**
  * An interface for KeyStore services, which provide modifiable KeyStore.
@@ -31,4 +32,50 @@ public interface ModifiableKeyStoreService extends Service<KeyStore> {
 
     KeyStore getModifiableValue();
 
+    /**
+     * Register a listener to be notified each time the content of the {@link KeyStore} is replaced, e.g. after it has been
+     * reloaded from its backing file.
+     *
+     * Services which do not support reloading can ignore the registration.
+     *
+     * @param listener the listener to notify.
+     */
+    default void registerLoadListener(Runnable listener) {}
+
+    /**
+     * Remove a previously registered load listener.
+     *
+     * @param listener the listener to remove.
+     */
+    default void unregisterLoadListener(Runnable listener) {}
+
+    /**
+     * Register a listener to be notified with the alias of each entry of the {@link KeyStore} which is set or deleted, the
+     * listener is not notified when the content is replaced as a whole, load listeners are notified instead.
+     *
+     * Services which do not support modification can ignore the registration.
+     *
+     * @param listener the listener to notify.
+     */
+    default void registerEntryListener(Consumer<String> listener) {}
+
+    /**
+     * Remove a previously registered entry listener.
+     *
+     * @param listener the listener to remove.
+     */
+    default void unregisterEntryListener(Consumer<String> listener) {}
+
+    /**
+     * Get the version of the content of the {@link KeyStore}, the version changes each time the content is reloaded or
+     * modified so anything derived from the aliases of the {@link KeyStore} can be reused until it changes.
+     *
+     * Services unable to track changes to the content return {@code -1}, in which case nothing should be reused.
+     *
+     * @return the version of the content of the {@link KeyStore} or {@code -1} if changes can not be tracked.
+     */
+    default long getVersion() {
+        return -1;
+    }
+
 }
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.io.IOException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A {@link KeyStore} wrapper counting the modifications made since the count was last reset, this complements the simple
+ * modified flag of {@link org.wildfly.security.keystore.ModifyTrackingKeyStore}.
+ */
+final class ModificationCountingKeyStore extends KeyStore {
+
+    private final CountingKeyStoreSpi keyStoreSpi;
+
+    private ModificationCountingKeyStore(CountingKeyStoreSpi keyStoreSpi, KeyStore delegate) {
+        super(keyStoreSpi, delegate.getProvider(), delegate.getType());
+        this.keyStoreSpi = keyStoreSpi;
+    }
+
+    /**
+     * Wrap a {@link KeyStore} to count the modifications made to it.
+     *
+     * @param delegate the {@link KeyStore} to wrap.
+     * @param entryListener notified with the alias of each entry set or deleted once the version has been incremented.
+     * @return the wrapping {@link KeyStore}.
+     */
+    static ModificationCountingKeyStore modificationCountingKeyStore(KeyStore delegate, Consumer<String> entryListener) throws NoSuchAlgorithmException, CertificateException, IOException {
+        ModificationCountingKeyStore keyStore = new ModificationCountingKeyStore(new CountingKeyStoreSpi(delegate, entryListener), delegate);
+        keyStore.load(null, null);
+
+        return keyStore;
+    }
+
+    /**
+     * Get the number of modifications made since the count was last reset.
+     *
+     * @return the number of modifications made since the count was last reset.
+     */
+    int getModificationCount() {
+        return keyStoreSpi.modifications.get();
+    }
+
+    /**
+     * Reduce the modification count by the number of modifications now persisted, any modifications made whilst the store
+     * was being persisted remain counted.
+     *
+     * @param persisted the count obtained from {@link #getModificationCount()} before the store was persisted.
+     */
+    void persisted(int persisted) {
+        keyStoreSpi.modifications.addAndGet(-persisted);
+    }
+
+    void setModificationCount(int modifications) {
+        keyStoreSpi.modifications.set(modifications);
+    }
+
+    /**
+     * Get the version of the content, this is incremented by every modification and never reset.
+     *
+     * @return the version of the content.
+     */
+    long getVersion() {
+        return keyStoreSpi.version.get();
+    }
+
+    /**
+     * Increment the version where the content of the underlying {@link KeyStore} has been replaced without passing through
+     * this wrapper e.g. by loading it directly.
+     */
+    void contentReplaced() {
+        keyStoreSpi.version.incrementAndGet();
+    }
+
+    private static final class CountingKeyStoreSpi extends DelegatingKeyStoreSpi {
+
+        private final AtomicInteger modifications = new AtomicInteger();
+        private final AtomicLong version = new AtomicLong();
+        private final Consumer<String> entryListener;
+
+        CountingKeyStoreSpi(KeyStore delegate, Consumer<String> entryListener) {
+            super(delegate);
+            this.entryListener = entryListener;
+        }
+
+        private void modified(String alias) {
+            modifications.incrementAndGet();
+            version.incrementAndGet();
+            entryListener.accept(alias);
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, Key key, char[] password, Certificate[] chain) throws KeyStoreException {
+            super.engineSetKeyEntry(alias, key, password, chain);
+            modified(alias);
+        }
+
+        @Override
+        public void engineSetKeyEntry(String alias, byte[] key, Certificate[] chain) throws KeyStoreException {
+            super.engineSetKeyEntry(alias, key, chain);
+            modified(alias);
+        }
+
+        @Override
+        public void engineSetCertificateEntry(String alias, Certificate cert) throws KeyStoreException {
+            super.engineSetCertificateEntry(alias, cert);
+            modified(alias);
+        }
+
+        @Override
+        public void engineDeleteEntry(String alias) throws KeyStoreException {
+            super.engineDeleteEntry(alias);
+            modified(alias);
+        }
+
+        @Override
+        protected void loaded() {
+            modifications.set(0);
+            version.incrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.security.KeyStore;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+
+import org.wildfly.common.function.ExceptionSupplier;
+
+/**
+ * A {@link KeyStore} wrapper for an {@link org.wildfly.security.keystore.LdapKeyStore} which iterates the aliases using the
+ * LDAP paged results control.
+ *
+ * The aliases are retrieved one page at a time as the {@link Enumeration} is consumed so the memory used is bounded by the
+ * page size rather than the number of entries in the directory, {@link KeyStore#size()} counts the entries a page at a time
+ * without retaining them.  Where the {@link DirContext} obtained is not an {@link LdapContext} the delegate is used instead.
+ */
+final class PagedLdapKeyStore extends KeyStore {
+
+    private PagedLdapKeyStore(PagedLdapKeyStoreSpi keyStoreSpi, KeyStore delegate) {
+        super(keyStoreSpi, delegate.getProvider(), delegate.getType());
+    }
+
+    static PagedLdapKeyStore pagedLdapKeyStore(KeyStore delegate, String name, ExceptionSupplier<DirContext, NamingException> dirContextSupplier,
+            String searchPath, String filterIterate, String aliasAttribute, int searchScope, int searchTimeLimit, int pageSize)
+            throws NoSuchAlgorithmException, CertificateException, IOException {
+        PagedLdapKeyStoreSpi keyStoreSpi = new PagedLdapKeyStoreSpi(delegate, name, dirContextSupplier, searchPath, filterIterate,
+                aliasAttribute, searchScope, searchTimeLimit, pageSize);
+        PagedLdapKeyStore keyStore = new PagedLdapKeyStore(keyStoreSpi, delegate);
+        keyStore.load(null, null);
+
+        return keyStore;
+    }
+
+    private static final class PagedLdapKeyStoreSpi extends DelegatingKeyStoreSpi {
+
+        private final String name;
+        private final ExceptionSupplier<DirContext, NamingException> dirContextSupplier;
+        private final String searchPath;
+        private final String filterIterate;
+        private final String aliasAttribute;
+        private final int searchScope;
+        private final int searchTimeLimit;
+        private final int pageSize;
+
+        PagedLdapKeyStoreSpi(KeyStore delegate, String name, ExceptionSupplier<DirContext, NamingException> dirContextSupplier,
+                String searchPath, String filterIterate, String aliasAttribute, int searchScope, int searchTimeLimit, int pageSize) {
+            super(delegate);
+            this.name = name;
+            this.dirContextSupplier = dirContextSupplier;
+            this.searchPath = searchPath;
+            this.filterIterate = filterIterate;
+            this.aliasAttribute = aliasAttribute;
+            this.searchScope = searchScope;
+            this.searchTimeLimit = searchTimeLimit;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public Enumeration<String> engineAliases() {
+            PagedSearch search = openSearch();
+            return search != null ? new PagedAliasEnumeration(search) : super.engineAliases();
+        }
+
+        @Override
+        public int engineSize() {
+            PagedSearch search = openSearch();
+            if (search == null) {
+                return super.engineSize();
+            }
+
+            int size = 0;
+            try {
+                while (search.next() != null) {
+                    size++;
+                }
+            } finally {
+                search.close();
+            }
+            return size;
+        }
+
+        /**
+         * Open a paged search of the entries, or return {@code null} if the directory does not support paging.
+         */
+        private PagedSearch openSearch() {
+            final DirContext dirContext;
+            try {
+                dirContext = dirContextSupplier.get();
+            } catch (NamingException e) {
+                throw ROOT_LOGGER.unableToIterateLdapKeyStoreAliases(name, e);
+            }
+            if (dirContext instanceof LdapContext) {
+                return new PagedSearch((LdapContext) dirContext);
+            }
+
+            try {
+                dirContext.close();
+            } catch (NamingException e) {
+                ROOT_LOGGER.trace(e);
+            }
+            return null;
+        }
+
+        /**
+         * A search of the entries of the KeyStore, the next page is requested from the server once the current page has
+         * been consumed.
+         */
+        private final class PagedSearch {
+
+            private final LdapContext ldapContext;
+            private final SearchControls searchControls;
+            private NamingEnumeration<SearchResult> page;
+            private byte[] cookie;
+            private boolean complete;
+
+            PagedSearch(LdapContext ldapContext) {
+                this.ldapContext = ldapContext;
+                searchControls = new SearchControls();
+                searchControls.setSearchScope(searchScope);
+                searchControls.setTimeLimit(searchTimeLimit);
+                searchControls.setReturningAttributes(new String[] { aliasAttribute });
+            }
+
+            /**
+             * Get the next search result, or {@code null} once all results have been returned in which case the search is
+             * closed.
+             */
+            SearchResult next() {
+                try {
+                    while (complete == false) {
+                        if (page != null && page.hasMore()) {
+                            return page.next();
+                        }
+                        if (page != null) {
+                            page.close();
+                            cookie = responseCookie();
+                            if (cookie == null || cookie.length == 0) {
+                                close();
+                                return null;
+                            }
+                        }
+
+                        ldapContext.setRequestControls(new Control[] { new PagedResultsControl(pageSize, cookie, Control.NONCRITICAL) });
+                        page = ldapContext.search(searchPath, filterIterate, searchControls);
+                    }
+                    return null;
+                } catch (NamingException | IOException e) {
+                    close();
+                    throw ROOT_LOGGER.unableToIterateLdapKeyStoreAliases(name, e);
+                }
+            }
+
+            private byte[] responseCookie() throws NamingException {
+                Control[] controls = ldapContext.getResponseControls();
+                if (controls != null) {
+                    for (Control control : controls) {
+                        if (control instanceof PagedResultsResponseControl) {
+                            return ((PagedResultsResponseControl) control).getCookie();
+                        }
+                    }
+                }
+                return null;
+            }
+
+            void close() {
+                if (complete == false) {
+                    complete = true;
+                    try {
+                        if (page != null) {
+                            page.close();
+                        }
+                        ldapContext.close();
+                    } catch (NamingException e) {
+                        ROOT_LOGGER.trace(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * An {@link Enumeration} of the aliases backed by a {@link PagedSearch}, entries without the alias attribute are
+         * skipped as they are by the delegate.
+         *
+         * The search is closed once the last alias has been returned, callers which stop early can close it using
+         * {@link #close()}.
+         */
+        private final class PagedAliasEnumeration implements Enumeration<String>, AutoCloseable {
+
+            private final PagedSearch search;
+            private String next;
+
+            PagedAliasEnumeration(PagedSearch search) {
+                this.search = search;
+            }
+
+            @Override
+            public boolean hasMoreElements() {
+                while (next == null) {
+                    SearchResult result = search.next();
+                    if (result == null) {
+                        return false;
+                    }
+                    Attribute attribute = result.getAttributes().get(aliasAttribute);
+                    if (attribute != null) {
+                        try {
+                            Object value = attribute.get();
+                            next = value != null ? value.toString() : null;
+                        } catch (NamingException e) {
+                            search.close();
+                            throw ROOT_LOGGER.unableToIterateLdapKeyStoreAliases(name, e);
+                        }
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public String nextElement() {
+                if (hasMoreElements() == false) {
+                    throw new NoSuchElementException();
+                }
+                String alias = next;
+                next = null;
+                return alias;
+            }
+
+            @Override
+            public void close() {
+                search.close();
+            }
+        }
+    }
+
+}
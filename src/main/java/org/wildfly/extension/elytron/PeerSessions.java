@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * The most recently negotiated session for each peer a client side {@link SSLContext} has connected to.
+ *
+ * The JDK already looks up client sessions for resumption by peer host and port, however its cache only holds the sessions
+ * softly so they can be discarded under memory pressure leading to a full handshake. Holding the latest session for each
+ * peer strongly keeps it available for resumption until it is invalidated or times out.
+ */
+class PeerSessions {
+
+    private static final int WARM_UP_TIMEOUT = 10000;
+
+    private final ConcurrentHashMap<String, SSLSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Pin the session negotiated by a completed client side handshake, replacing any previous session for the same peer.
+     *
+     * @param session the session negotiated by the handshake.
+     */
+    void pin(SSLSession session) {
+        if (session.getPeerHost() == null || session.getPeerPort() < 0 || session.getId() == null || session.getId().length == 0) {
+            // The JDK can not resume a session without knowing the peer.
+            return;
+        }
+        sessions.put(toPeer(session.getPeerHost(), session.getPeerPort()), session);
+    }
+
+    int getPinnedCount() {
+        sessions.values().removeIf(s -> isUsable(s) == false);
+        return sessions.size();
+    }
+
+    void clear() {
+        sessions.clear();
+    }
+
+    private static boolean isUsable(SSLSession session) {
+        if (session.isValid() == false) {
+            return false;
+        }
+        int timeout = session.getSessionContext() != null ? session.getSessionContext().getSessionTimeout() : 0;
+        return timeout <= 0 || System.currentTimeMillis() - session.getCreationTime() < timeout * 1000L;
+    }
+
+    static String toPeer(String host, int port) {
+        return (host.indexOf(':') >= 0 ? "[" + host + "]" : host) + ":" + port;
+    }
+
+    /**
+     * Parse a peer in the form {@code host:port}, an IPv6 address can be enclosed in square brackets.
+     *
+     * @param peer the peer to parse.
+     * @return the address of the peer, unresolved, or {@code null} if the peer is not valid.
+     */
+    static InetSocketAddress parsePeer(String peer) {
+        int separator = peer.lastIndexOf(':');
+        if (separator < 1 || separator == peer.length() - 1) {
+            return null;
+        }
+        String host = peer.substring(0, separator);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        } else if (host.indexOf(':') >= 0) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(peer.substring(separator + 1));
+            return host.isEmpty() || port < 1 || port > 65535 ? null : InetSocketAddress.createUnresolved(host, port);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Handshake with each of the peers in turn so a session is available for resumption by the first real connection,
+     * failures are logged and do not prevent the remaining peers being contacted.
+     *
+     * @param name the name of the {@link SSLContext} resource.
+     * @param sslContext the {@link SSLContext} to handshake with.
+     * @param peers the peers to handshake with in the form {@code host:port}.
+     */
+    static void warmUp(String name, SSLContext sslContext, List<String> peers) {
+        new WarmUp(name, sslContext, peers).run();
+    }
+
+    /**
+     * A warm up which can be cancelled once the {@link SSLContext} is no longer required, cancelling closes any connection
+     * in progress so it does not wait for the connect or handshake to time out.
+     */
+    static final class WarmUp implements Runnable {
+
+        private final String name;
+        private final SSLContext sslContext;
+        private final List<String> peers;
+        private volatile boolean cancelled;
+        private volatile SSLSocket current;
+
+        WarmUp(String name, SSLContext sslContext, List<String> peers) {
+            this.name = name;
+            this.sslContext = sslContext;
+            this.peers = peers;
+        }
+
+        @Override
+        public void run() {
+            for (String peer : peers) {
+                if (cancelled) {
+                    return;
+                }
+                InetSocketAddress address = parsePeer(peer);
+                if (address == null) {
+                    ROOT_LOGGER.unableToWarmUpSession(peer, name, null);
+                    continue;
+                }
+                try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket()) {
+                    current = socket;
+                    if (cancelled) {
+                        return;
+                    }
+                    socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()), WARM_UP_TIMEOUT);
+                    socket.setSoTimeout(WARM_UP_TIMEOUT);
+                    socket.startHandshake();
+                } catch (IOException | RuntimeException e) {
+                    if (cancelled == false) {
+                        ROOT_LOGGER.unableToWarmUpSession(peer, name, e);
+                    }
+                } finally {
+                    current = null;
+                }
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            SSLSocket socket = current;
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    ROOT_LOGGER.tracef(e, "Unable to close warm up connection for SSLContext '%s'", name);
+                }
+            }
+        }
+    }
+
+}
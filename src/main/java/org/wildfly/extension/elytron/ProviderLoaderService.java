@@ -79,7 +79,10 @@ class ProviderLoaderService implements Service<Provider[]> {
 
     @Override
     public void start(StartContext context) throws StartException {
+        AsynchronousStart.start(context, this::loadAndRegisterProviders);
+    }
 
+    private void loadAndRegisterProviders() throws StartException {
         try {
             ArrayList<Provider> providerList = new ArrayList<Provider>();
             for (ProviderConfig currentConfig : providerConfig) {
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler for the {@code read-aliases} operation, the aliases are read from the snapshot held by the {@link KeyStoreResource}
+ * so large key stores can be paged through without each page iterating the whole {@link java.security.KeyStore}.
+ */
+class ReadAliasesHandler extends AbstractRuntimeOnlyHandler {
+
+    private static final SimpleAttributeDefinition OFFSET = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.OFFSET, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(0))
+            .setValidator(new IntRangeValidator(0, true))
+            .build();
+
+    private static final SimpleAttributeDefinition LIMIT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.LIMIT, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+
+    private static final SimpleAttributeDefinition PATTERN = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PATTERN, ModelType.STRING, true)
+            .setMinSize(1)
+            .build();
+
+    private static final ReadAliasesHandler INSTANCE = new ReadAliasesHandler();
+
+    private ReadAliasesHandler() {
+    }
+
+    static void register(ManagementResourceRegistration resourceRegistration, ResourceDescriptionResolver resolver) {
+        SimpleOperationDefinition readAliases = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.READ_ALIASES, resolver)
+                .setParameters(OFFSET, LIMIT, PATTERN)
+                .setReplyType(ModelType.LIST)
+                .setReplyValueType(ModelType.STRING)
+                .setReadOnly()
+                .setRuntimeOnly()
+                .build();
+        resourceRegistration.registerOperationHandler(readAliases, INSTANCE);
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final int offset = OFFSET.resolveModelAttribute(ExpressionResolver.SIMPLE, operation).asInt();
+        final ModelNode limitNode = LIMIT.resolveModelAttribute(ExpressionResolver.SIMPLE, operation);
+        final int limit = limitNode.isDefined() ? limitNode.asInt() : Integer.MAX_VALUE;
+        final ModelNode patternNode = PATTERN.resolveModelAttribute(ExpressionResolver.SIMPLE, operation);
+        final Pattern pattern;
+        try {
+            pattern = patternNode.isDefined() ? Pattern.compile(patternNode.asString()) : null;
+        } catch (PatternSyntaxException e) {
+            throw ROOT_LOGGER.invalidRegularExpression(patternNode.asString(), e);
+        }
+
+        ModelNode result = context.getResult();
+        result.setEmptyList();
+
+        // A recursive read is required as only a clone retains the KeyStoreResource, the aliases are not copied.
+        Resource resource = context.readResource(PathAddress.EMPTY_ADDRESS, true);
+        if (resource instanceof KeyStoreResource) {
+            List<String> aliases = ((KeyStoreResource) resource).readAliases(offset, limit, pattern);
+            for (String alias : aliases) {
+                result.add(alias);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,746 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CRL;
+import java.security.cert.CRLReason;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CertificateRevokedException;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.security.auth.x500.X500Principal;
+
+import org.jboss.msc.service.StartException;
+import org.wildfly.security.asn1.ASN1;
+import org.wildfly.security.asn1.ASN1Exception;
+import org.wildfly.security.asn1.DERDecoder;
+import org.wildfly.security.asn1.DEREncoder;
+import org.wildfly.security.util.ByteStringBuilder;
+import org.wildfly.security.x500.X500;
+
+/**
+ * Revocation checking for the certificates accepted by a {@link X509ExtendedTrustManager} using only revocation data already
+ * held in memory, a handshake never waits for a file to be read or for an OCSP responder to answer.
+ *
+ * Certificate revocation lists are loaded from a file and indexed by issuer and serial number, the file is polled in the
+ * background and the index is replaced if the file changes. Only revocation lists whose signature can be verified using a
+ * certificate trusted by the wrapped trust manager are used, a revocation list past its nextUpdate time is treated as
+ * unavailable so its issuer's certificates are then rejected unless soft-fail is enabled. OCSP responses are requested in the background the first time a
+ * certificate is seen and are cached until their nextUpdate time, concurrent checks of the same certificate share a single
+ * request to the responder. Until a response is available a certificate is accepted if soft-fail is enabled and rejected
+ * otherwise.
+ *
+ * A single instance is shared by each trust manager created for a resource so cached revocation data survives a reload of
+ * the underlying {@link java.security.KeyStore}.
+ */
+class RevocationChecker {
+
+    private static final String OCSP_BASIC_RESPONSE = "1.3.6.1.5.5.7.48.1.1";
+    private static final String SHA1_OID = "1.3.14.3.2.26";
+    private static final int ENUMERATED_TYPE = 10;
+    private static final int OCSP_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+    private static final int MAXIMUM_RESPONSE_SIZE = 1024 * 1024;
+    private static final int MAXIMUM_CACHED_RESPONSES = 10000;
+    private static final long DEFAULT_RESPONSE_LIFETIME = TimeUnit.MINUTES.toMillis(5);
+    private static final long FAILURE_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final long CLOCK_SKEW = TimeUnit.MINUTES.toMillis(5);
+    private static final DateTimeFormatter GENERALIZED_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final File certificateRevocationList;
+    private final long refreshInterval;
+    private final boolean ocsp;
+    private final URI ocspResponder;
+    private final boolean softFail;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private volatile List<X509CRL> certificateRevocationLists = Collections.emptyList();
+    private volatile Collection<X509Certificate> trustedCertificates;
+    private volatile RevocationLists revocationLists = new RevocationLists(Collections.emptyMap(), Collections.emptyMap());
+    private volatile long lastModified;
+    private volatile long length;
+
+    private final ConcurrentHashMap<CertificateId, OcspStatus> ocspStatus = new ConcurrentHashMap<>();
+    private final Set<CertificateId> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param certificateRevocationList the file to load certificate revocation lists from or {@code null} if none are used.
+     * @param refreshInterval the interval in milliseconds between checks for modification of the file, {@code 0} disables the checks.
+     * @param ocsp {@code true} if OCSP should be used.
+     * @param ocspResponder the OCSP responder to use or {@code null} to use the responder from the certificate being checked.
+     * @param softFail {@code true} if a certificate should be accepted while its OCSP status is not yet known or while the
+     *        revocation list of its issuer is past its nextUpdate time.
+     */
+    RevocationChecker(File certificateRevocationList, long refreshInterval, boolean ocsp, URI ocspResponder, boolean softFail) {
+        this.certificateRevocationList = certificateRevocationList;
+        this.refreshInterval = refreshInterval;
+        this.ocsp = ocsp;
+        this.ocspResponder = ocspResponder;
+        this.softFail = softFail;
+
+        executor = new ScheduledThreadPoolExecutor(2, r -> {
+            Thread thread = new Thread(r, "elytron-revocation-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    void start() throws StartException {
+        if (certificateRevocationList != null) {
+            try {
+                loadCertificateRevocationLists();
+            } catch (GeneralSecurityException | IOException e) {
+                executor.shutdownNow();
+                throw ROOT_LOGGER.unableToLoadCertificateRevocationList(certificateRevocationList.getAbsolutePath(), e);
+            }
+            if (refreshInterval > 0) {
+                executor.scheduleWithFixedDelay(this::refreshCertificateRevocationLists, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    void stop() {
+        executor.shutdownNow();
+        ocspStatus.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Wrap the supplied {@link X509ExtendedTrustManager} so the revocation status of each certificate it accepts is checked.
+     *
+     * @param trustManager the {@link X509ExtendedTrustManager} to wrap.
+     * @return the wrapping {@link X509ExtendedTrustManager}.
+     */
+    X509ExtendedTrustManager wrap(X509ExtendedTrustManager trustManager) {
+        // The revocation lists are verified using the certificates of the most recently wrapped trust manager.
+        trustedCertificates = Arrays.asList(trustManager.getAcceptedIssuers());
+        indexCertificateRevocationLists();
+        return new RevocationCheckingTrustManager(trustManager);
+    }
+
+    private void loadCertificateRevocationLists() throws GeneralSecurityException, IOException {
+        final long lastModified = certificateRevocationList.lastModified();
+        final long length = certificateRevocationList.length();
+        // Recorded first so a file which fails to load is not retried until it is modified again.
+        this.lastModified = lastModified;
+        this.length = length;
+
+        Collection<? extends CRL> crls;
+        try (InputStream is = new FileInputStream(certificateRevocationList)) {
+            crls = CertificateFactory.getInstance("X.509").generateCRLs(is);
+        }
+
+        List<X509CRL> certificateRevocationLists = new ArrayList<>(crls.size());
+        for (CRL crl : crls) {
+            certificateRevocationLists.add((X509CRL) crl);
+        }
+        this.certificateRevocationLists = certificateRevocationLists;
+        indexCertificateRevocationLists();
+
+        ROOT_LOGGER.tracef("Loaded %d certificate revocation lists from '%s'", crls.size(), certificateRevocationList);
+    }
+
+    /**
+     * Index the revoked certificates of the loaded revocation lists which can be verified using a trusted certificate, where
+     * an issuer has more than one revocation list the most recent is used.
+     */
+    private synchronized void indexCertificateRevocationLists() {
+        final Collection<X509Certificate> trustedCertificates = this.trustedCertificates;
+        if (trustedCertificates == null || certificateRevocationList == null) {
+            // Nothing can be verified until a trust manager has been wrapped.
+            return;
+        }
+
+        Map<X500Principal, X509CRL> latest = new HashMap<>();
+        for (X509CRL crl : certificateRevocationLists) {
+            if (isVerified(crl, trustedCertificates)) {
+                latest.merge(crl.getIssuerX500Principal(), crl, (a, b) -> b.getThisUpdate().after(a.getThisUpdate()) ? b : a);
+            } else {
+                ROOT_LOGGER.unverifiedCertificateRevocationList(crl.getIssuerX500Principal().getName(), certificateRevocationList.getAbsolutePath());
+            }
+        }
+
+        Map<X500Principal, Map<BigInteger, X509CRLEntry>> revoked = new HashMap<>();
+        Map<X500Principal, Long> nextUpdates = new HashMap<>();
+        int count = 0;
+        for (X509CRL crl : latest.values()) {
+            nextUpdates.put(crl.getIssuerX500Principal(), crl.getNextUpdate() != null ? crl.getNextUpdate().getTime() : Long.MAX_VALUE);
+            Set<? extends X509CRLEntry> entries = crl.getRevokedCertificates();
+            if (entries != null) {
+                for (X509CRLEntry entry : entries) {
+                    if (entry.getRevocationReason() != CRLReason.REMOVE_FROM_CRL) {
+                        X500Principal issuer = entry.getCertificateIssuer() != null ? entry.getCertificateIssuer() : crl.getIssuerX500Principal();
+                        revoked.computeIfAbsent(issuer, i -> new HashMap<>()).put(entry.getSerialNumber(), entry);
+                        count++;
+                    }
+                }
+            }
+        }
+        this.revocationLists = new RevocationLists(revoked, nextUpdates);
+
+        ROOT_LOGGER.tracef("Indexed %d revoked certificates from %d verified certificate revocation lists in '%s'", count, latest.size(), certificateRevocationList);
+    }
+
+    private static boolean isVerified(X509CRL crl, Collection<X509Certificate> trustedCertificates) {
+        for (X509Certificate trusted : trustedCertificates) {
+            if (trusted.getSubjectX500Principal().equals(crl.getIssuerX500Principal())) {
+                try {
+                    crl.verify(trusted.getPublicKey());
+                    return true;
+                } catch (GeneralSecurityException ignored) {
+                }
+            }
+        }
+        return false;
+    }
+
+    private void refreshCertificateRevocationLists() {
+        if (certificateRevocationList.lastModified() != lastModified || certificateRevocationList.length() != length) {
+            try {
+                loadCertificateRevocationLists();
+            } catch (GeneralSecurityException | IOException | RuntimeException e) {
+                ROOT_LOGGER.unableToReloadCertificateRevocationList(certificateRevocationList.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    private void checkCertificateRevocationList(X509Certificate certificate) throws CertificateException {
+        RevocationLists revocationLists = this.revocationLists;
+        X500Principal issuer = certificate.getIssuerX500Principal();
+        Map<BigInteger, X509CRLEntry> entries = revocationLists.revoked.get(issuer);
+        X509CRLEntry entry = entries != null ? entries.get(certificate.getSerialNumber()) : null;
+        if (entry != null) {
+            CRLReason reason = entry.getRevocationReason();
+            throw new CertificateRevokedException(entry.getRevocationDate(), reason != null ? reason : CRLReason.UNSPECIFIED,
+                    issuer, Collections.emptyMap());
+        }
+
+        // A revocation, once listed, remains valid but the absence of a revocation is only known until the nextUpdate time.
+        Long nextUpdate = revocationLists.nextUpdates.get(issuer);
+        if (nextUpdate != null && System.currentTimeMillis() > nextUpdate && softFail == false) {
+            throw new CertificateException("The certificate revocation list of " + issuer + " is past its next update time");
+        }
+    }
+
+    private void checkOcsp(X509Certificate certificate, X509Certificate issuer) throws CertificateException {
+        URI responder = ocspResponder != null ? ocspResponder : getOcspResponder(certificate);
+        if (responder == null) {
+            return;
+        }
+
+        final CertificateId id = new CertificateId(issuer, certificate.getSerialNumber());
+        final long now = System.currentTimeMillis();
+        OcspStatus status = ocspStatus.get(id);
+        if (status == null || now >= status.expiry) {
+            status = null;
+            requestStatus(id, issuer, responder);
+        } else if (now >= status.refreshAfter) {
+            requestStatus(id, issuer, responder);
+        }
+
+        if (status == null || status.state == State.UNKNOWN) {
+            if (softFail) {
+                return;
+            }
+            throw new CertificateException("The revocation status of certificate " + certificate.getSubjectX500Principal() + " is not known");
+        } else if (status.state == State.REVOKED) {
+            throw new CertificateRevokedException(status.revocationTime, status.reason, issuer.getSubjectX500Principal(), Collections.emptyMap());
+        }
+    }
+
+    private void requestStatus(CertificateId id, X509Certificate issuer, URI responder) {
+        if (inFlight.add(id) == false) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                OcspStatus status;
+                try {
+                    status = queryResponder(id, issuer, responder);
+                } catch (GeneralSecurityException | IOException | RuntimeException e) {
+                    ROOT_LOGGER.debugf(e, "Unable to obtain the OCSP status of serial number %s from %s", id.serialNumber, responder);
+                    status = new OcspStatus(State.UNKNOWN, null, null, System.currentTimeMillis() + FAILURE_RETRY_INTERVAL, Long.MAX_VALUE);
+                }
+                if (ocspStatus.size() >= MAXIMUM_CACHED_RESPONSES) {
+                    ocspStatus.clear();
+                }
+                ocspStatus.put(id, status);
+                inFlight.remove(id);
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+        }
+    }
+
+    private OcspStatus queryResponder(CertificateId id, X509Certificate issuer, URI responder) throws GeneralSecurityException, IOException {
+        byte[] request = id.encodeRequest();
+        HttpURLConnection connection = (HttpURLConnection) responder.toURL().openConnection();
+        try {
+            connection.setConnectTimeout(OCSP_TIMEOUT);
+            connection.setReadTimeout(OCSP_TIMEOUT);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/ocsp-request");
+            connection.setRequestProperty("Accept", "application/ocsp-response");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(request.length);
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(request);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("OCSP responder returned HTTP status " + connection.getResponseCode());
+            }
+
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            try (InputStream is = connection.getInputStream()) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = is.read(buffer)) != -1) {
+                    if (response.size() + read > MAXIMUM_RESPONSE_SIZE) {
+                        throw new IOException("OCSP response exceeds " + MAXIMUM_RESPONSE_SIZE + " bytes");
+                    }
+                    response.write(buffer, 0, read);
+                }
+            }
+
+            return parseResponse(id, issuer, response.toByteArray());
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static OcspStatus parseResponse(CertificateId id, X509Certificate issuer, byte[] encoded) throws GeneralSecurityException {
+        DERDecoder decoder = new DERDecoder(encoded);
+        decoder.startSequence();
+        if (decoder.peekType() != ENUMERATED_TYPE) {
+            throw new CertificateException("Malformed OCSP response");
+        }
+        int responseStatus = decoder.drainElementValue()[0];
+        if (responseStatus != 0) {
+            throw new CertificateException("OCSP responder returned response status " + responseStatus);
+        }
+        decoder.startExplicit(0);
+        decoder.startSequence();
+        if (OCSP_BASIC_RESPONSE.equals(decoder.decodeObjectIdentifier()) == false) {
+            throw new CertificateException("Unsupported OCSP response type");
+        }
+
+        DERDecoder basicResponse = new DERDecoder(decoder.decodeOctetString());
+        basicResponse.startSequence();
+        byte[] responseData = basicResponse.drainElement();
+        basicResponse.startSequence();
+        String signatureAlgorithm = ASN1.signatureAlgorithmFromOid(basicResponse.decodeObjectIdentifier());
+        basicResponse.endSequence();
+        byte[] signature = basicResponse.decodeBitString();
+        List<X509Certificate> certificates = new ArrayList<>();
+        if (basicResponse.hasNextElement() && basicResponse.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+            CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            basicResponse.startExplicit(0);
+            basicResponse.startSequence();
+            while (basicResponse.hasNextElement()) {
+                certificates.add((X509Certificate) certificateFactory.generateCertificate(new ByteArrayInputStream(basicResponse.drainElement())));
+            }
+            basicResponse.endSequence();
+            basicResponse.endExplicit();
+        }
+        if (signatureAlgorithm == null) {
+            throw new CertificateException("Unsupported OCSP response signature algorithm");
+        }
+
+        verifyResponseSignature(responseData, signatureAlgorithm, signature, issuer, certificates);
+        return findStatus(id, responseData);
+    }
+
+    private static void verifyResponseSignature(byte[] responseData, String signatureAlgorithm, byte[] signature, X509Certificate issuer,
+            List<X509Certificate> certificates) throws GeneralSecurityException {
+        if (verify(responseData, signatureAlgorithm, signature, issuer.getPublicKey())) {
+            return;
+        }
+
+        // Otherwise the response must be signed by a responder the issuer has delegated OCSP signing to.
+        for (X509Certificate responder : certificates) {
+            List<String> extendedKeyUsage = responder.getExtendedKeyUsage();
+            if (responder.getIssuerX500Principal().equals(issuer.getSubjectX500Principal())
+                    && extendedKeyUsage != null && extendedKeyUsage.contains(X500.OID_KP_OCSP_SIGNING)) {
+                responder.checkValidity();
+                responder.verify(issuer.getPublicKey());
+                if (verify(responseData, signatureAlgorithm, signature, responder.getPublicKey())) {
+                    return;
+                }
+            }
+        }
+
+        throw new CertificateException("Unable to verify the signature of the OCSP response");
+    }
+
+    private static boolean verify(byte[] data, String signatureAlgorithm, byte[] signature, PublicKey publicKey) throws GeneralSecurityException {
+        Signature verifier = Signature.getInstance(signatureAlgorithm);
+        try {
+            verifier.initVerify(publicKey);
+        } catch (InvalidKeyException e) {
+            return false;
+        }
+        verifier.update(data);
+        return verifier.verify(signature);
+    }
+
+    private static OcspStatus findStatus(CertificateId id, byte[] responseData) throws CertificateException {
+        DERDecoder decoder = new DERDecoder(responseData);
+        decoder.startSequence();
+        if (decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+            decoder.skipElement(); // version
+        }
+        decoder.skipElement(); // responderID
+        decoder.skipElement(); // producedAt
+        decoder.startSequence();
+        while (decoder.hasNextElement()) {
+            decoder.startSequence();
+            decoder.startSequence();
+            decoder.skipElement(); // hashAlgorithm
+            byte[] issuerNameHash = decoder.decodeOctetString();
+            byte[] issuerKeyHash = decoder.decodeOctetString();
+            BigInteger serialNumber = decoder.decodeInteger();
+            decoder.endSequence();
+            if (id.matches(issuerNameHash, issuerKeyHash, serialNumber) == false) {
+                decoder.endSequence();
+                continue;
+            }
+
+            final State state;
+            Date revocationTime = null;
+            CRLReason reason = CRLReason.UNSPECIFIED;
+            if (decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, false)) {
+                decoder.skipElement();
+                state = State.GOOD;
+            } else if (decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 1, true)) {
+                decoder.decodeImplicit(1);
+                decoder.startSequence();
+                revocationTime = decodeGeneralizedTime(decoder);
+                if (decoder.hasNextElement() && decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+                    decoder.startExplicit(0);
+                    int code = decoder.drainElementValue()[0];
+                    reason = code >= 0 && code < CRLReason.values().length ? CRLReason.values()[code] : CRLReason.UNSPECIFIED;
+                    decoder.endExplicit();
+                }
+                decoder.endSequence();
+                state = State.REVOKED;
+            } else {
+                decoder.skipElement();
+                state = State.UNKNOWN;
+            }
+
+            final long now = System.currentTimeMillis();
+            final long thisUpdate = decodeGeneralizedTime(decoder).getTime();
+            long expiry = now + DEFAULT_RESPONSE_LIFETIME;
+            if (decoder.hasNextElement() && decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 0, true)) {
+                decoder.startExplicit(0);
+                expiry = decodeGeneralizedTime(decoder).getTime();
+                decoder.endExplicit();
+            }
+            decoder.endSequence();
+
+            if (thisUpdate > now + CLOCK_SKEW) {
+                throw new CertificateException("The OCSP response is not yet valid");
+            }
+            if (expiry <= now) {
+                throw new CertificateException("The OCSP response has expired");
+            }
+            return new OcspStatus(state, revocationTime, reason, expiry, now + (expiry - now) / 2);
+        }
+
+        throw new CertificateException("The OCSP response does not contain the requested certificate");
+    }
+
+    private static Date decodeGeneralizedTime(DERDecoder decoder) throws CertificateException {
+        if (decoder.peekType() != ASN1.GENERALIZED_TIME_TYPE) {
+            throw new CertificateException("Malformed OCSP response");
+        }
+        String value = new String(decoder.drainElementValue(), StandardCharsets.US_ASCII);
+        if (value.length() < 14) {
+            throw new CertificateException("Malformed OCSP response");
+        }
+        return Date.from(LocalDateTime.parse(value.substring(0, 14), GENERALIZED_TIME).toInstant(ZoneOffset.UTC));
+    }
+
+    private static URI getOcspResponder(X509Certificate certificate) {
+        byte[] extension = certificate.getExtensionValue(X500.OID_PE_AUTHORITY_INFO_ACCESS);
+        if (extension == null) {
+            return null;
+        }
+
+        try {
+            DERDecoder decoder = new DERDecoder(new DERDecoder(extension).decodeOctetString());
+            decoder.startSequence();
+            while (decoder.hasNextElement()) {
+                decoder.startSequence();
+                String accessMethod = decoder.decodeObjectIdentifier();
+                if (X500.OID_AD_OCSP.equals(accessMethod) && decoder.isNextType(ASN1.CONTEXT_SPECIFIC_MASK, 6, false)) {
+                    decoder.decodeImplicit(6);
+                    return new URI(decoder.decodeIA5String());
+                }
+                decoder.endSequence();
+            }
+        } catch (ASN1Exception | URISyntaxException e) {
+            ROOT_LOGGER.tracef(e, "Unable to decode the authority information access of %s", certificate.getSubjectX500Principal());
+        }
+
+        return null;
+    }
+
+    private class RevocationCheckingTrustManager extends X509ExtendedTrustManager {
+
+        private final X509ExtendedTrustManager delegate;
+        private final Set<X509Certificate> trusted;
+        private final Map<X500Principal, List<X509Certificate>> trustedBySubject = new HashMap<>();
+
+        RevocationCheckingTrustManager(X509ExtendedTrustManager delegate) {
+            this.delegate = delegate;
+            X509Certificate[] acceptedIssuers = delegate.getAcceptedIssuers();
+            trusted = new HashSet<>(Arrays.asList(acceptedIssuers));
+            for (X509Certificate certificate : acceptedIssuers) {
+                trustedBySubject.computeIfAbsent(certificate.getSubjectX500Principal(), s -> new ArrayList<>(1)).add(certificate);
+            }
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+            checkRevocation(chain);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType, socket);
+            checkRevocation(chain);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType, engine);
+            checkRevocation(chain);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+            checkRevocation(chain);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType, socket);
+            checkRevocation(chain);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType, engine);
+            checkRevocation(chain);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+
+        private void checkRevocation(X509Certificate[] chain) throws CertificateException {
+            for (int i = 0; i < chain.length && trusted.contains(chain[i]) == false; i++) {
+                checkCertificateRevocationList(chain[i]);
+                if (ocsp) {
+                    X509Certificate issuer = findIssuer(chain, i);
+                    if (issuer != null) {
+                        checkOcsp(chain[i], issuer);
+                    }
+                }
+            }
+        }
+
+        private X509Certificate findIssuer(X509Certificate[] chain, int index) {
+            X500Principal issuer = chain[index].getIssuerX500Principal();
+            if (index + 1 < chain.length && chain[index + 1].getSubjectX500Principal().equals(issuer)) {
+                return chain[index + 1];
+            }
+
+            List<X509Certificate> candidates = trustedBySubject.get(issuer);
+            if (candidates == null) {
+                return null;
+            } else if (candidates.size() == 1) {
+                return candidates.get(0);
+            }
+            for (X509Certificate candidate : candidates) {
+                try {
+                    chain[index].verify(candidate.getPublicKey());
+                    return candidate;
+                } catch (GeneralSecurityException ignored) {
+                }
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * The identifier of a certificate within an OCSP request or response.
+     */
+    private static final class CertificateId {
+
+        private final byte[] issuerNameHash;
+        private final byte[] issuerKeyHash;
+        private final BigInteger serialNumber;
+        private final int hashCode;
+
+        CertificateId(X509Certificate issuer, BigInteger serialNumber) throws CertificateException {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                issuerNameHash = digest.digest(issuer.getSubjectX500Principal().getEncoded());
+                DERDecoder decoder = new DERDecoder(issuer.getPublicKey().getEncoded());
+                decoder.startSequence();
+                decoder.skipElement(); // algorithm
+                issuerKeyHash = digest.digest(decoder.decodeBitString());
+            } catch (NoSuchAlgorithmException | ASN1Exception e) {
+                throw new CertificateException(e);
+            }
+            this.serialNumber = serialNumber;
+            hashCode = (Arrays.hashCode(issuerNameHash) * 31 + Arrays.hashCode(issuerKeyHash)) * 31 + serialNumber.hashCode();
+        }
+
+        boolean matches(byte[] issuerNameHash, byte[] issuerKeyHash, BigInteger serialNumber) {
+            return this.serialNumber.equals(serialNumber) && Arrays.equals(this.issuerNameHash, issuerNameHash) && Arrays.equals(this.issuerKeyHash, issuerKeyHash);
+        }
+
+        byte[] encodeRequest() {
+            ByteStringBuilder request = new ByteStringBuilder();
+            DEREncoder encoder = new DEREncoder(request);
+            encoder.startSequence(); // OCSPRequest
+            encoder.startSequence(); // TBSRequest
+            encoder.startSequence(); // requestList
+            encoder.startSequence(); // Request
+            encoder.startSequence(); // CertID
+            encoder.startSequence();
+            encoder.encodeObjectIdentifier(SHA1_OID);
+            encoder.encodeNull();
+            encoder.endSequence();
+            encoder.encodeOctetString(issuerNameHash);
+            encoder.encodeOctetString(issuerKeyHash);
+            encoder.encodeInteger(serialNumber);
+            encoder.endSequence();
+            encoder.endSequence();
+            encoder.endSequence();
+            encoder.endSequence();
+            encoder.endSequence();
+
+            return request.toArray();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CertificateId && matches(((CertificateId) other).issuerNameHash, ((CertificateId) other).issuerKeyHash, ((CertificateId) other).serialNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    /**
+     * The revoked certificates of the verified revocation lists by issuer and serial number, with the nextUpdate time of
+     * the revocation list of each issuer.
+     */
+    private static final class RevocationLists {
+
+        private final Map<X500Principal, Map<BigInteger, X509CRLEntry>> revoked;
+        private final Map<X500Principal, Long> nextUpdates;
+
+        RevocationLists(Map<X500Principal, Map<BigInteger, X509CRLEntry>> revoked, Map<X500Principal, Long> nextUpdates) {
+            this.revoked = revoked;
+            this.nextUpdates = nextUpdates;
+        }
+
+    }
+
+    private enum State {
+        GOOD, REVOKED, UNKNOWN
+    }
+
+    private static final class OcspStatus {
+
+        private final State state;
+        private final Date revocationTime;
+        private final CRLReason reason;
+        private final long expiry;
+        private final long refreshAfter;
+
+        OcspStatus(State state, Date revocationTime, CRLReason reason, long expiry, long refreshAfter) {
+            this.state = state;
+            this.revocationTime = revocationTime;
+            this.reason = reason;
+            this.expiry = expiry;
+            this.refreshAfter = refreshAfter;
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.StandardConstants;
+
+import org.wildfly.security.ssl.SSLConnectionInformation;
+import org.wildfly.security.ssl.SSLContextSelector;
+
+/**
+ * An {@link SSLContextSelector} choosing an {@link SSLContext} based on the host name sent by the client using SNI.
+ *
+ * Exact host names are held in a single {@link HashMap}, wildcard patterns of the form {@code *.example.com} are held in a
+ * trie keyed by the labels of the name in reverse order so a lookup costs at most one hash lookup per label of the requested
+ * name regardless of how many hosts are mapped. A wildcard matches one or more leading labels, where several wildcards match
+ * the most specific one is selected.
+ */
+final class SNIContextMatcher implements SSLContextSelector {
+
+    private static final String WILDCARD_PREFIX = "*.";
+
+    private final SSLContext defaultContext;
+    private final Map<String, SSLContext> exactMatches;
+    private final Node wildcardMatches;
+
+    private SNIContextMatcher(Builder builder) {
+        this.defaultContext = builder.defaultContext;
+        this.exactMatches = builder.exactMatches;
+        this.wildcardMatches = builder.wildcardMatches;
+    }
+
+    @Override
+    public SSLContext selectContext(SSLConnectionInformation connectionInformation) {
+        for (SNIServerName serverName : connectionInformation.getSNIServerNames()) {
+            if (serverName.getType() == StandardConstants.SNI_HOST_NAME) {
+                SNIHostName hostName = serverName instanceof SNIHostName ? (SNIHostName) serverName : new SNIHostName(serverName.getEncoded());
+                return getContext(hostName.getAsciiName());
+            }
+        }
+
+        return defaultContext;
+    }
+
+    /**
+     * Get the {@link SSLContext} to use for the specified host name.
+     *
+     * @param hostName the host name requested by the client.
+     * @return the {@link SSLContext} mapped to the host name, or the default {@link SSLContext} if there is no match.
+     */
+    SSLContext getContext(String hostName) {
+        String name = normalise(hostName);
+        SSLContext exact = exactMatches.get(name);
+        if (exact != null) {
+            return exact;
+        }
+
+        SSLContext wildcard = defaultContext;
+        Node current = wildcardMatches;
+        int end = name.length();
+        while (current != null && end > 0) {
+            int start = name.lastIndexOf('.', end - 1);
+            if (start < 0) {
+                // The first label of the name can not also be matched by a wildcard.
+                break;
+            }
+            current = current.children.get(name.substring(start + 1, end));
+            if (current != null && current.context != null) {
+                wildcard = current.context;
+            }
+            end = start;
+        }
+
+        return wildcard;
+    }
+
+    /**
+     * Check if the supplied pattern is either a host name or a wildcard followed by a domain name.
+     *
+     * @param pattern the pattern to check.
+     * @return {@code true} if the pattern can be added to a {@link Builder}, {@code false} otherwise.
+     */
+    static boolean isValidPattern(String pattern) {
+        String name = pattern.startsWith(WILDCARD_PREFIX) ? pattern.substring(WILDCARD_PREFIX.length()) : pattern;
+        if (name.isEmpty() || name.indexOf('*') >= 0 || name.startsWith(".") || name.endsWith(".") || name.contains("..")) {
+            return false;
+        }
+
+        try {
+            new SNIHostName(name);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String normalise(String hostName) {
+        return hostName.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private SSLContext context;
+
+    }
+
+    static final class Builder {
+
+        private final SSLContext defaultContext;
+        private final Map<String, SSLContext> exactMatches = new HashMap<>();
+        private final Node wildcardMatches = new Node();
+
+        Builder(SSLContext defaultContext) {
+            this.defaultContext = defaultContext;
+        }
+
+        /**
+         * Map a host name or wildcard pattern to an {@link SSLContext}, the pattern must already have been checked using
+         * {@link SNIContextMatcher#isValidPattern(String)}.
+         *
+         * @param pattern the host name or wildcard pattern.
+         * @param context the {@link SSLContext} to select for names matching the pattern.
+         * @return this {@link Builder}.
+         */
+        Builder addMatch(String pattern, SSLContext context) {
+            String name = normalise(pattern);
+            if (name.startsWith(WILDCARD_PREFIX)) {
+                String[] labels = name.substring(WILDCARD_PREFIX.length()).split("\\.");
+                Node current = wildcardMatches;
+                for (int i = labels.length - 1; i >= 0; i--) {
+                    current = current.children.computeIfAbsent(labels[i], l -> new Node());
+                }
+                current.context = context;
+            } else {
+                exactMatches.put(name, context);
+            }
+
+            return this;
+        }
+
+        SNIContextMatcher build() {
+            return new SNIContextMatcher(this);
+        }
+
+    }
+
+}
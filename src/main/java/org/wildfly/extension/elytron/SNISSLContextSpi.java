@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+import org.wildfly.security.ssl.SSLContextSelector;
+import org.wildfly.security.ssl.SSLUtils;
+
+/**
+ * A {@link DelegatingSSLContextSpi} for server side contexts where each {@link SSLEngine} defers the choice of
+ * {@link SSLContext} until the ClientHello has been received.
+ *
+ * Only engines select the context, sockets and the session contexts are those of the default {@link SSLContext}.
+ */
+class SNISSLContextSpi extends DelegatingSSLContextSpi {
+
+    private final SSLContextSelector selector;
+
+    SNISSLContextSpi(SSLContext defaultContext, SSLContextSelector selector) {
+        super(defaultContext);
+        this.selector = selector;
+    }
+
+    @Override
+    protected SSLEngine engineCreateSSLEngine() {
+        return SSLUtils.createSelectingSSLEngine(selector);
+    }
+
+    @Override
+    protected SSLEngine engineCreateSSLEngine(String host, int port) {
+        return SSLUtils.createSelectingSSLEngine(selector, host, port);
+    }
+
+}
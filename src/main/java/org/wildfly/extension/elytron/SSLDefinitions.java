@@ -32,26 +32,46 @@ import static org.wildfly.extension.elytron.Capabilities.TRUST_MANAGERS_CAPABILI
 import static org.wildfly.extension.elytron.Capabilities.TRUST_MANAGERS_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.elytron.ElytronExtension.asStringIfDefined;
 import static org.wildfly.extension.elytron.ElytronExtension.getRequiredService;
+import static org.wildfly.extension.elytron.FileAttributeDefinitions.pathName;
+import static org.wildfly.extension.elytron.FileAttributeDefinitions.pathResolver;
 import static org.wildfly.extension.elytron.KeyStoreDefinition.CREDENTIAL_REFERENCE;
 import static org.wildfly.extension.elytron.KeyStoreDefinition.CREDENTIAL_STORE_CLIENT_SERVICE_UTIL;
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
+import java.io.File;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.security.PrivateKey;
 import java.security.Provider;
 import java.security.UnrecoverableKeyException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509ExtendedKeyManager;
@@ -59,30 +79,43 @@ import javax.net.ssl.X509ExtendedTrustManager;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
 import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.validation.AllowedValuesValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.security.CredentialReference;
 import org.jboss.as.controller.security.CredentialStoreClient;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceController.State;
 import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.elytron.FileAttributeDefinitions.PathResolver;
 import org.wildfly.extension.elytron.TrivialService.ValueSupplier;
 import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.ssl.CipherSuiteSelector;
@@ -123,6 +156,47 @@ class SSLDefinitions {
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
+    static final SimpleAttributeDefinition INDEXED = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.INDEXED, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition CERTIFICATE_REVOCATION_LIST_PATH = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PATH, FileAttributeDefinitions.PATH)
+            .setAllowNull(false)
+            .build();
+
+    static final SimpleAttributeDefinition REFRESH_INTERVAL = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.REFRESH_INTERVAL, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(60000L))
+            .setValidator(new LongRangeValidator(0, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final ObjectTypeAttributeDefinition CERTIFICATE_REVOCATION_LIST = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.CERTIFICATE_REVOCATION_LIST,
+            CERTIFICATE_REVOCATION_LIST_PATH, FileAttributeDefinitions.RELATIVE_TO, REFRESH_INTERVAL)
+            .setAllowNull(true)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition RESPONDER = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.RESPONDER, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setMinSize(1)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition SOFT_FAIL = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SOFT_FAIL, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final ObjectTypeAttributeDefinition OCSP = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.OCSP, RESPONDER, SOFT_FAIL)
+            .setAllowNull(true)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
     static final SimpleAttributeDefinition SECURITY_DOMAIN = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECURITY_DOMAIN, ModelType.STRING, true)
             .setMinSize(1)
             .setCapabilityReference(SECURITY_DOMAIN_CAPABILITY, SSL_CONTEXT_CAPABILITY, true)
@@ -177,12 +251,55 @@ class SSLDefinitions {
     static final SimpleAttributeDefinition MAXIMUM_SESSION_CACHE_SIZE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MAXIMUM_SESSION_CACHE_SIZE, ModelType.INT, true)
             .setAllowExpression(true)
             .setDefaultValue(new ModelNode(0))
-            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .setFlags(AttributeAccess.Flag.RESTART_NONE)
             .build();
 
     static final SimpleAttributeDefinition SESSION_TIMEOUT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_TIMEOUT, ModelType.INT, true)
             .setAllowExpression(true)
             .setDefaultValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.RESTART_NONE)
+            .build();
+
+    static final SimpleAttributeDefinition DELEGATED_TASK_PARALLELISM = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DELEGATED_TASK_PARALLELISM, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition DELEGATED_TASK_QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DELEGATED_TASK_QUEUE_DEPTH, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(128))
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setRequires(ElytronDescriptionConstants.DELEGATED_TASK_PARALLELISM)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition SECURE_RANDOM_POOL_SIZE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECURE_RANDOM_POOL_SIZE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition SECURE_RANDOM_RESEED_INTERVAL = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECURE_RANDOM_RESEED_INTERVAL, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(3600000L))
+            .setValidator(new LongRangeValidator(0, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setRequires(ElytronDescriptionConstants.SECURE_RANDOM_POOL_SIZE)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition PIN_SESSIONS = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PIN_SESSIONS, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final StringListAttributeDefinition WARM_UP_PEERS = new StringListAttributeDefinition.Builder(ElytronDescriptionConstants.WARM_UP_PEERS)
+            .setAllowExpression(true)
+            .setMinSize(1)
+            .setAllowNull(true)
+            .setValidator(new PeerValidator())
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
@@ -198,6 +315,31 @@ class SSLDefinitions {
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build();
 
+    static final SimpleAttributeDefinition DEFAULT_SSL_CONTEXT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DEFAULT_SSL_CONTEXT, ModelType.STRING, false)
+            .setMinSize(1)
+            .setCapabilityReference(SSL_CONTEXT_CAPABILITY, SSL_CONTEXT_CAPABILITY, true)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition HOST = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.HOST, ModelType.STRING, false)
+            .setMinSize(1)
+            .setValidator(new SNIHostValidator())
+            .build();
+
+    static final SimpleAttributeDefinition MAPPED_SSL_CONTEXT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SSL_CONTEXT, ModelType.STRING, false)
+            .setMinSize(1)
+            .setCapabilityReference(SSL_CONTEXT_CAPABILITY, SSL_CONTEXT_CAPABILITY, true)
+            .build();
+
+    static final ObjectTypeAttributeDefinition SNI_MAPPING = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.SNI_MAPPING, HOST, MAPPED_SSL_CONTEXT)
+            .setAllowNull(false)
+            .build();
+
+    static final ObjectListAttributeDefinition HOST_CONTEXT_MAP = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.HOST_CONTEXT_MAP, SNI_MAPPING)
+            .setAllowNull(true)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build();
+
     /*
      * Runtime Attributes
      */
@@ -206,6 +348,135 @@ class SSLDefinitions {
             .setStorageRuntime()
             .build();
 
+    private static SimpleAttributeDefinition SESSION_CREATION_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_CREATION_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static SimpleAttributeDefinition SESSION_RESUMPTION_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_RESUMPTION_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static SimpleAttributeDefinition SESSION_MISS_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_MISS_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static SimpleAttributeDefinition SESSION_EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_EVICTION_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static SimpleAttributeDefinition SESSION_INVALIDATION_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SESSION_INVALIDATION_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static SimpleAttributeDefinition CLIENT_AUTH_ACCEPTED_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CLIENT_AUTH_ACCEPTED_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static SimpleAttributeDefinition CLIENT_AUTH_ABSENT_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CLIENT_AUTH_ABSENT_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition DELEGATED_TASK_ACTIVE_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DELEGATED_TASK_ACTIVE_COUNT, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition DELEGATED_TASK_QUEUE_SIZE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DELEGATED_TASK_QUEUE_SIZE, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition DELEGATED_TASK_COMPLETED_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DELEGATED_TASK_COMPLETED_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition DELEGATED_TASK_REJECTED_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.DELEGATED_TASK_REJECTED_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition SECURE_RANDOM_REQUEST_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECURE_RANDOM_REQUEST_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition SECURE_RANDOM_WAIT_TIME = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.SECURE_RANDOM_WAIT_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition PINNED_SESSION_COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PINNED_SESSION_COUNT, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition COUNT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.COUNT, ModelType.LONG).build();
+
+    private static final SimpleAttributeDefinition UPPER_BOUND = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.UPPER_BOUND, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    private static final ObjectTypeAttributeDefinition BUCKET = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.BUCKET, UPPER_BOUND, COUNT).build();
+
+    private static final ObjectListAttributeDefinition BUCKETS = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.BUCKETS, BUCKET).build();
+
+    private static final SimpleAttributeDefinition NEGOTIATED_PROTOCOL = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PROTOCOL, ModelType.STRING).build();
+
+    private static final SimpleAttributeDefinition NEGOTIATED_CIPHER_SUITE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CIPHER_SUITE, ModelType.STRING).build();
+
+    private static final SimpleAttributeDefinition TOTAL_TIME = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.TOTAL_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    private static final SimpleAttributeDefinition MAXIMUM_TIME = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MAXIMUM_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    private static final ObjectTypeAttributeDefinition HANDSHAKE_DURATION = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.HANDSHAKE_DURATION,
+            NEGOTIATED_PROTOCOL, NEGOTIATED_CIPHER_SUITE, COUNT, TOTAL_TIME, MAXIMUM_TIME, BUCKETS).build();
+
+    private static final ObjectListAttributeDefinition HANDSHAKE_DURATIONS = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.HANDSHAKE_DURATIONS, HANDSHAKE_DURATION)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition REASON = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.REASON, ModelType.STRING).build();
+
+    private static final ObjectTypeAttributeDefinition HANDSHAKE_FAILURE = new ObjectTypeAttributeDefinition.Builder(ElytronDescriptionConstants.HANDSHAKE_FAILURE, REASON, COUNT).build();
+
+    private static final ObjectListAttributeDefinition HANDSHAKE_FAILURES = new ObjectListAttributeDefinition.Builder(ElytronDescriptionConstants.HANDSHAKE_FAILURES, HANDSHAKE_FAILURE)
+            .setStorageRuntime()
+            .build();
+
+    /*
+     * Operation Parameters
+     */
+
+    private static final SimpleAttributeDefinition OFFSET = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.OFFSET, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(0))
+            .setValidator(new IntRangeValidator(0, true))
+            .build();
+
+    private static final SimpleAttributeDefinition LIMIT = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.LIMIT, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+
+    private static final SimpleAttributeDefinition SESSION_PROTOCOL = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PROTOCOL, ModelType.STRING, true)
+            .setMinSize(1)
+            .build();
+
+    private static final SimpleAttributeDefinition SESSION_CIPHER_SUITE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.CIPHER_SUITE, ModelType.STRING, true)
+            .setMinSize(1)
+            .build();
+
+    private static final SimpleAttributeDefinition SESSION_PEER_HOST = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.PEER_HOST, ModelType.STRING, true)
+            .setMinSize(1)
+            .build();
+
+    private static final SimpleAttributeDefinition MINIMUM_AGE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MINIMUM_AGE, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(0, true))
+            .setMeasurementUnit(MeasurementUnit.SECONDS)
+            .build();
+
+    private static final SimpleAttributeDefinition MAXIMUM_AGE = new SimpleAttributeDefinitionBuilder(ElytronDescriptionConstants.MAXIMUM_AGE, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(0, true))
+            .setMeasurementUnit(MeasurementUnit.SECONDS)
+            .build();
+
     /**
      * A simple {@link ModelTypeValidator} that requires that values are contained on a pre-defined list of string.
      *
@@ -239,6 +510,42 @@ class SSLDefinitions {
     }
 
 
+    /**
+     * Validator for the host names and wildcard patterns mapped by a {@code server-ssl-sni-context}.
+     */
+    static class SNIHostValidator extends ModelTypeValidator {
+
+        SNIHostValidator() {
+            super(ModelType.STRING);
+        }
+
+        @Override
+        public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+            super.validateParameter(parameterName, value);
+            if (value.isDefined() && SNIContextMatcher.isValidPattern(value.asString()) == false) {
+                throw ROOT_LOGGER.invalidSniHostName(value.asString());
+            }
+        }
+    }
+
+    /**
+     * Validator for the {@code host:port} peers a {@code client-ssl-context} warms up sessions with.
+     */
+    static class PeerValidator extends ModelTypeValidator {
+
+        PeerValidator() {
+            super(ModelType.STRING);
+        }
+
+        @Override
+        public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+            super.validateParameter(parameterName, value);
+            if (value.isDefined() && value.getType() != ModelType.EXPRESSION && PeerSessions.parsePeer(value.asString()) == null) {
+                throw ROOT_LOGGER.invalidPeer(value.asString());
+            }
+        }
+    }
+
     static ResourceDefinition getKeyManagerDefinition() {
 
         final SimpleAttributeDefinition providerLoaderDefinition = new SimpleAttributeDefinitionBuilder(PROVIDER_LOADER)
@@ -251,7 +558,7 @@ class SSLDefinitions {
 
         final ObjectTypeAttributeDefinition credentialReference = CredentialReference.getAttributeDefinition();
 
-        AttributeDefinition[] attributes = new AttributeDefinition[] { ALGORITHM, providerLoaderDefinition, PROVIDER, keystoreDefinition, credentialReference};
+        AttributeDefinition[] attributes = new AttributeDefinition[] { ALGORITHM, providerLoaderDefinition, PROVIDER, keystoreDefinition, credentialReference, INDEXED };
 
         AbstractAddStepHandler add = new TrivialAddHandler<KeyManager[]>(KeyManager[].class, attributes, KEY_MANAGERS_RUNTIME_CAPABILITY, CREDENTIAL_STORE_CLIENT_RUNTIME_CAPABILITY) {
 
@@ -259,8 +566,13 @@ class SSLDefinitions {
             protected ValueSupplier<KeyManager[]> getValueSupplier(ServiceBuilder<KeyManager[]> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
                 final String algorithm = ALGORITHM.resolveModelAttribute(context, model).asString();
                 final String provider = PROVIDER.resolveModelAttribute(context, model).isDefined() ? PROVIDER.resolveModelAttribute(context, model).asString() : null;
+                final boolean indexed = INDEXED.resolveModelAttribute(context, model).asBoolean();
 
                 String providerLoader = asStringIfDefined(context, providerLoaderDefinition, model);
+                if (indexed && (provider != null || providerLoader != null)) {
+                    // Keys are selected by the index so these would otherwise be silently ignored.
+                    throw ROOT_LOGGER.providerNotSupportedByIndexedKeyManager();
+                }
                 final InjectedValue<Provider[]> providersInjector = new InjectedValue<>();
                 if (providerLoader != null) {
                     serviceBuilder.addDependency(context.getCapabilityServiceName(
@@ -270,11 +582,7 @@ class SSLDefinitions {
 
                 final String keyStoreName = asStringIfDefined(context, keystoreDefinition, model);
                 final InjectedValue<KeyStore> keyStoreInjector = new InjectedValue<>();
-                if (keyStoreName != null) {
-                    serviceBuilder.addDependency(context.getCapabilityServiceName(
-                            buildDynamicCapabilityName(KEY_STORE_CAPABILITY, keyStoreName), KeyStore.class),
-                            KeyStore.class, keyStoreInjector);
-                }
+                final ServiceName keyStoreServiceName = addKeyStoreDependency(keyStoreName, keyStoreInjector, serviceBuilder, context);
 
                 String credentialStoreName = credentialReferencePartAsStringIfDefined(context, CREDENTIAL_REFERENCE, model, CredentialReference.STORE);
                 String credentialAlias = credentialReferencePartAsStringIfDefined(context, CREDENTIAL_REFERENCE, model, CredentialReference.ALIAS);
@@ -295,50 +603,91 @@ class SSLDefinitions {
                     CREDENTIAL_STORE_CLIENT_SERVICE_UTIL.addInjection(serviceBuilder, credentialStoreClientInjector, credentialStoreClientServiceName);
                 }
 
-                return () -> {
-                    Provider[] providers = providersInjector.getOptionalValue();
-                    KeyManagerFactory keyManagerFactory = null;
-                    if (providers != null) {
-                        for (Provider current : providers) {
-                            if (provider == null || provider.equals(current.getName())) {
-                                try {
-                                    // TODO - We could check the Services within each Provider to check there is one of the required type/algorithm
-                                    // However the same loop would need to remain as it is still possible a specific provider can't create it.
-                                    keyManagerFactory = KeyManagerFactory.getInstance(algorithm, current);
-                                    break;
-                                } catch (NoSuchAlgorithmException ignored) {
+                return new ReloadableValueSupplier<KeyManager[]>(KeyManager.class.getSimpleName(), keyStoreName, keyStoreServiceName) {
+
+                    private final DelegatingKeyManager delegatingKeyManager = new DelegatingKeyManager();
+
+                    @Override
+                    protected KeyManager[] create() throws StartException {
+                        delegatingKeyManager.setKeyManager(createKeyManager());
+                        return new KeyManager[] { delegatingKeyManager };
+                    }
+
+                    @Override
+                    protected void reload() throws StartException {
+                        delegatingKeyManager.setKeyManager(createKeyManager());
+                    }
+
+                    private X509ExtendedKeyManager createKeyManager() throws StartException {
+                        if (indexed) {
+                            return createIndexingKeyManager();
+                        }
+
+                        Provider[] providers = providersInjector.getOptionalValue();
+                        KeyManagerFactory keyManagerFactory = null;
+                        if (providers != null) {
+                            for (Provider current : providers) {
+                                if (provider == null || provider.equals(current.getName())) {
+                                    try {
+                                        // TODO - We could check the Services within each Provider to check there is one of the required type/algorithm
+                                        // However the same loop would need to remain as it is still possible a specific provider can't create it.
+                                        keyManagerFactory = KeyManagerFactory.getInstance(algorithm, current);
+                                        break;
+                                    } catch (NoSuchAlgorithmException ignored) {
+                                    }
                                 }
                             }
+                            if (keyManagerFactory == null) throw ROOT_LOGGER.unableToCreateManagerFactory(KeyManagerFactory.class.getSimpleName(), algorithm);
+                        } else {
+                            try {
+                                keyManagerFactory = KeyManagerFactory.getInstance(algorithm);
+                            } catch (NoSuchAlgorithmException e) {
+                                throw new StartException(e);
+                            }
                         }
-                        if (keyManagerFactory == null) throw ROOT_LOGGER.unableToCreateManagerFactory(KeyManagerFactory.class.getSimpleName(), algorithm);
-                    } else {
+
                         try {
-                            keyManagerFactory = KeyManagerFactory.getInstance(algorithm);
-                        } catch (NoSuchAlgorithmException e) {
+                            reinjectCredentialStoreClient(credentialStoreClientInjector, credentialReference);
+                            CredentialStoreClient credentialStoreClient = credentialStoreClientInjector.getOptionalValue();
+                            KeyStore keyStore = keyStoreInjector.getOptionalValue();
+                            char[] password = credentialStoreClient != null ? credentialStoreClient.getSecret() : credentialReference.getSecret();
+
+                            if (ROOT_LOGGER.isTraceEnabled()) {
+                                ROOT_LOGGER.tracef(
+                                        "KeyManager supplying:  providers = %s  provider = %s  algorithm = %s  keyManagerFactory = %s  " +
+                                                "keyStoreName = %s  keyStore = %s  password (of item) = %b",
+                                        Arrays.toString(providers), provider, algorithm, keyManagerFactory, keyStoreName, keyStore, password != null
+                                );
+                            }
+
+                            keyManagerFactory.init(keyStore, password);
+                        } catch (UnrecoverableKeyException | KeyStoreException | NoSuchAlgorithmException | ClassNotFoundException e) {
                             throw new StartException(e);
                         }
+
+                        return getX509KeyManager(keyManagerFactory.getKeyManagers());
                     }
 
-                    try {
-                        CredentialReference.reinjectCredentialStoreClient(credentialStoreClientInjector, credentialReference);
-                        CredentialStoreClient credentialStoreClient = credentialStoreClientInjector.getOptionalValue();
-                        KeyStore keyStore = keyStoreInjector.getOptionalValue();
-                        char[] password = credentialStoreClient != null ? credentialStoreClient.getSecret() : credentialReference.getSecret();
+                    private X509ExtendedKeyManager createIndexingKeyManager() throws StartException {
+                        try {
+                            reinjectCredentialStoreClient(credentialStoreClientInjector, credentialReference);
+                            CredentialStoreClient credentialStoreClient = credentialStoreClientInjector.getOptionalValue();
+                            KeyStore keyStore = keyStoreInjector.getOptionalValue();
+                            if (keyStore == null) {
+                                throw ROOT_LOGGER.noKeyStoreForIndexedKeyManager();
+                            }
+                            char[] password = credentialStoreClient != null ? credentialStoreClient.getSecret() : credentialReference.getSecret();
 
-                        if (ROOT_LOGGER.isTraceEnabled()) {
-                            ROOT_LOGGER.tracef(
-                                    "KeyManager supplying:  providers = %s  provider = %s  algorithm = %s  keyManagerFactory = %s  " +
-                                            "keyStoreName = %s  keyStore = %s  password (of item) = %b",
-                                    Arrays.toString(providers), provider, algorithm, keyManagerFactory, keyStoreName, keyStore, password != null
-                            );
-                        }
+                            if (ROOT_LOGGER.isTraceEnabled()) {
+                                ROOT_LOGGER.tracef("IndexingKeyManager supplying:  keyStoreName = %s  keyStore = %s  password (of item) = %b",
+                                        keyStoreName, keyStore, password != null);
+                            }
 
-                        keyManagerFactory.init(keyStore, password);
-                    } catch (UnrecoverableKeyException | KeyStoreException | NoSuchAlgorithmException | ClassNotFoundException e) {
-                        throw new StartException(e);
+                            return new IndexingKeyManager(keyStore, password);
+                        } catch (UnrecoverableKeyException | KeyStoreException | NoSuchAlgorithmException | ClassNotFoundException e) {
+                            throw new StartException(e);
+                        }
                     }
-
-                    return keyManagerFactory.getKeyManagers();
                 };
             }
         };
@@ -357,7 +706,8 @@ class SSLDefinitions {
                 .setCapabilityReference(KEY_STORE_CAPABILITY, TRUST_MANAGERS_CAPABILITY, true)
                 .build();
 
-        AttributeDefinition[] attributes = new AttributeDefinition[] { ALGORITHM, providerLoaderDefinition, PROVIDER, keystoreDefinition};
+        AttributeDefinition[] attributes = new AttributeDefinition[] { ALGORITHM, providerLoaderDefinition, PROVIDER, keystoreDefinition, INDEXED,
+                CERTIFICATE_REVOCATION_LIST, OCSP };
 
         AbstractAddStepHandler add = new TrivialAddHandler<TrustManager[]>(TrustManager[].class, attributes, TRUST_MANAGERS_RUNTIME_CAPABILITY) {
 
@@ -365,6 +715,22 @@ class SSLDefinitions {
             protected ValueSupplier<TrustManager[]> getValueSupplier(ServiceBuilder<TrustManager[]> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
                 final String algorithm = ALGORITHM.resolveModelAttribute(context, model).asString();
                 final String provider = PROVIDER.resolveModelAttribute(context, model).isDefined() ? PROVIDER.resolveModelAttribute(context, model).asString() : null;
+                final boolean indexed = INDEXED.resolveModelAttribute(context, model).asBoolean();
+
+                final ModelNode crl = CERTIFICATE_REVOCATION_LIST.resolveModelAttribute(context, model);
+                final String crlPath = crl.isDefined() ? CERTIFICATE_REVOCATION_LIST_PATH.resolveModelAttribute(context, crl).asString() : null;
+                final String crlRelativeTo = crl.isDefined() ? asStringIfDefined(context, FileAttributeDefinitions.RELATIVE_TO, crl) : null;
+                final long refreshInterval = crl.isDefined() ? REFRESH_INTERVAL.resolveModelAttribute(context, crl).asLong() : 0;
+
+                final ModelNode ocsp = OCSP.resolveModelAttribute(context, model);
+                final String responder = ocsp.isDefined() ? asStringIfDefined(context, RESPONDER, ocsp) : null;
+                final boolean softFail = ocsp.isDefined() ? SOFT_FAIL.resolveModelAttribute(context, ocsp).asBoolean() : true;
+                final URI responderUri;
+                try {
+                    responderUri = responder != null ? new URI(responder) : null;
+                } catch (URISyntaxException e) {
+                    throw new OperationFailedException(e);
+                }
 
                 String providerLoader = asStringIfDefined(context, providerLoaderDefinition, model);
                 final InjectedValue<Provider[]> providersInjector = new InjectedValue<>();
@@ -376,52 +742,103 @@ class SSLDefinitions {
 
                 final String keyStoreName = asStringIfDefined(context, keystoreDefinition, model);
                 final InjectedValue<KeyStore> keyStoreInjector = new InjectedValue<>();
-                if (keyStoreName != null) {
-                    serviceBuilder.addDependency(context.getCapabilityServiceName(
-                            buildDynamicCapabilityName(KEY_STORE_CAPABILITY, keyStoreName), KeyStore.class),
-                            KeyStore.class, keyStoreInjector);
+                final ServiceName keyStoreServiceName = addKeyStoreDependency(keyStoreName, keyStoreInjector, serviceBuilder, context);
+
+                final InjectedValue<PathManager> pathManagerInjector = new InjectedValue<>();
+                if (crlRelativeTo != null) {
+                    serviceBuilder.addDependency(PathManagerService.SERVICE_NAME, PathManager.class, pathManagerInjector);
+                    serviceBuilder.addDependency(pathName(crlRelativeTo));
                 }
 
-                return () -> {
-                    Provider[] providers = providersInjector.getOptionalValue();
-                    TrustManagerFactory trustManagerFactory = null;
-
-                    if (providers != null) {
-                        for (Provider current : providers) {
-                            if (provider == null || provider.equals(current.getName())) {
-                                try {
-                                    // TODO - We could check the Services within each Provider to check there is one of the required type/algorithm
-                                    // However the same loop would need to remain as it is still possible a specific provider can't create it.
-                                    trustManagerFactory = TrustManagerFactory.getInstance(algorithm, current);
-                                    break;
-                                } catch (NoSuchAlgorithmException ignored) {
+                return new ReloadableValueSupplier<TrustManager[]>(TrustManager.class.getSimpleName(), keyStoreName, keyStoreServiceName) {
+
+                    private final DelegatingTrustManager delegatingTrustManager = new DelegatingTrustManager();
+                    private PathResolver pathResolver;
+                    private RevocationChecker revocationChecker;
+
+                    @Override
+                    protected TrustManager[] create() throws StartException {
+                        if (crlPath != null || ocsp.isDefined()) {
+                            File crlFile = null;
+                            if (crlPath != null) {
+                                pathResolver = pathResolver();
+                                pathResolver.path(crlPath);
+                                if (crlRelativeTo != null) {
+                                    pathResolver.relativeTo(crlRelativeTo, pathManagerInjector.getValue());
                                 }
+                                crlFile = pathResolver.resolve();
                             }
+                            revocationChecker = new RevocationChecker(crlFile, refreshInterval, ocsp.isDefined(), responderUri, softFail);
+                            revocationChecker.start();
                         }
-                        if (trustManagerFactory == null) throw ROOT_LOGGER.unableToCreateManagerFactory(TrustManagerFactory.class.getSimpleName(), algorithm);
-                    } else {
-                        try {
-                            trustManagerFactory = TrustManagerFactory.getInstance(algorithm);
-                        } catch (NoSuchAlgorithmException e) {
-                            throw new StartException(e);
-                        }
+
+                        delegatingTrustManager.setTrustManager(createTrustManager());
+                        return new TrustManager[] { delegatingTrustManager };
                     }
-                    KeyStore keyStore = keyStoreInjector.getOptionalValue();
 
-                    if (ROOT_LOGGER.isTraceEnabled()) {
-                        ROOT_LOGGER.tracef(
-                                "KeyManager supplying:  providers = %s  provider = %s  algorithm = %s  trustManagerFactory = %s  keyStoreName = %s  keyStore = %s",
-                                Arrays.toString(providers), provider, algorithm, trustManagerFactory, keyStoreName, keyStore
-                        );
+                    @Override
+                    public void dispose() {
+                        super.dispose();
+                        if (revocationChecker != null) {
+                            revocationChecker.stop();
+                            revocationChecker = null;
+                        }
+                        if (pathResolver != null) {
+                            pathResolver.clear();
+                            pathResolver = null;
+                        }
                     }
 
-                    try {
-                        trustManagerFactory.init(keyStoreInjector.getOptionalValue());
-                    } catch (KeyStoreException e) {
-                        throw new StartException(e);
+                    @Override
+                    protected void reload() throws StartException {
+                        delegatingTrustManager.setTrustManager(createTrustManager());
                     }
 
-                    return trustManagerFactory.getTrustManagers();
+                    private X509ExtendedTrustManager createTrustManager() throws StartException {
+                        Provider[] providers = providersInjector.getOptionalValue();
+                        TrustManagerFactory trustManagerFactory = null;
+
+                        if (providers != null) {
+                            for (Provider current : providers) {
+                                if (provider == null || provider.equals(current.getName())) {
+                                    try {
+                                        // TODO - We could check the Services within each Provider to check there is one of the required type/algorithm
+                                        // However the same loop would need to remain as it is still possible a specific provider can't create it.
+                                        trustManagerFactory = TrustManagerFactory.getInstance(algorithm, current);
+                                        break;
+                                    } catch (NoSuchAlgorithmException ignored) {
+                                    }
+                                }
+                            }
+                            if (trustManagerFactory == null) throw ROOT_LOGGER.unableToCreateManagerFactory(TrustManagerFactory.class.getSimpleName(), algorithm);
+                        } else {
+                            try {
+                                trustManagerFactory = TrustManagerFactory.getInstance(algorithm);
+                            } catch (NoSuchAlgorithmException e) {
+                                throw new StartException(e);
+                            }
+                        }
+                        KeyStore keyStore = keyStoreInjector.getOptionalValue();
+
+                        if (ROOT_LOGGER.isTraceEnabled()) {
+                            ROOT_LOGGER.tracef(
+                                    "KeyManager supplying:  providers = %s  provider = %s  algorithm = %s  trustManagerFactory = %s  keyStoreName = %s  keyStore = %s  indexed = %b  revocationChecker = %s",
+                                    Arrays.toString(providers), provider, algorithm, trustManagerFactory, keyStoreName, keyStore, indexed, revocationChecker
+                            );
+                        }
+
+                        try {
+                            trustManagerFactory.init(keyStore);
+
+                            X509ExtendedTrustManager trustManager = getX509TrustManager(trustManagerFactory.getTrustManagers());
+                            if (indexed && keyStore != null) {
+                                trustManager = new IndexingTrustManager(keyStore, trustManager);
+                            }
+                            return revocationChecker != null ? revocationChecker.wrap(trustManager) : trustManager;
+                        } catch (KeyStoreException e) {
+                            throw new StartException(e);
+                        }
+                    }
                 };
             }
         };
@@ -431,20 +848,82 @@ class SSLDefinitions {
 
     private static class SSLContextDefinition extends TrivialResourceDefinition {
 
-        private SSLContextDefinition(String pathKey, AbstractAddStepHandler addHandler, AttributeDefinition[] attributes) {
-            super(pathKey, addHandler, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY);
+        private final boolean server;
+
+        private SSLContextDefinition(String pathKey, boolean server, AbstractAddStepHandler addHandler, AttributeDefinition[] attributes) {
+            super(pathKey, addHandler, Arrays.stream(attributes).filter(a -> a != MAXIMUM_SESSION_CACHE_SIZE && a != SESSION_TIMEOUT).toArray(AttributeDefinition[]::new),
+                    SSL_CONTEXT_RUNTIME_CAPABILITY);
+            this.server = server;
         }
 
         @Override
         public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
             super.registerAttributes(resourceRegistration);
 
-            resourceRegistration.registerReadOnlyAttribute(ACTIVE_SESSION_COUNT, new SSLContextRuntimeHandler() {
-                @Override
-                protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
-                    result.set(Collections.list(sslContext.getServerSessionContext().getIds()).stream().mapToInt( (byte[] b)-> 1).sum());
-                }
-            });
+            SessionCacheWriteAttributeHandler sessionCacheWriteHandler = new SessionCacheWriteAttributeHandler(server);
+            resourceRegistration.registerReadWriteAttribute(MAXIMUM_SESSION_CACHE_SIZE, null, sessionCacheWriteHandler);
+            resourceRegistration.registerReadWriteAttribute(SESSION_TIMEOUT, null, sessionCacheWriteHandler);
+
+            resourceRegistration.registerReadOnlyAttribute(ACTIVE_SESSION_COUNT, new SessionStatisticsRuntimeHandler(server,
+                    (ModelNode r, CountingSSLSessionContext c) -> r.set((int) c.getActiveSessionCount())));
+            resourceRegistration.registerReadOnlyAttribute(SESSION_CREATION_COUNT, new SessionStatisticsRuntimeHandler(server,
+                    (ModelNode r, CountingSSLSessionContext c) -> r.set(c.getCreationCount())));
+            resourceRegistration.registerReadOnlyAttribute(SESSION_RESUMPTION_COUNT, new SessionStatisticsRuntimeHandler(server,
+                    (ModelNode r, CountingSSLSessionContext c) -> r.set(c.getResumptionCount())));
+            resourceRegistration.registerReadOnlyAttribute(SESSION_MISS_COUNT, new SessionStatisticsRuntimeHandler(server,
+                    (ModelNode r, CountingSSLSessionContext c) -> r.set(c.getMissCount())));
+            resourceRegistration.registerReadOnlyAttribute(SESSION_EVICTION_COUNT, new SessionStatisticsRuntimeHandler(server,
+                    (ModelNode r, CountingSSLSessionContext c) -> r.set(c.getEvictionCount())));
+            resourceRegistration.registerReadOnlyAttribute(SESSION_INVALIDATION_COUNT, new SessionStatisticsRuntimeHandler(server,
+                    (ModelNode r, CountingSSLSessionContext c) -> r.set(c.getInvalidationCount())));
+
+            resourceRegistration.registerReadOnlyAttribute(HANDSHAKE_DURATIONS, new HandshakeStatisticsRuntimeHandler((ModelNode r, HandshakeStatistics h) -> h.writeDurations(r)));
+            resourceRegistration.registerReadOnlyAttribute(HANDSHAKE_FAILURES, new HandshakeStatisticsRuntimeHandler((ModelNode r, HandshakeStatistics h) -> h.writeFailures(r)));
+            if (server) {
+                resourceRegistration.registerReadOnlyAttribute(CLIENT_AUTH_ACCEPTED_COUNT, new HandshakeStatisticsRuntimeHandler(
+                        (ModelNode r, HandshakeStatistics h) -> r.set(h.getClientAuthAcceptedCount())));
+                resourceRegistration.registerReadOnlyAttribute(CLIENT_AUTH_ABSENT_COUNT, new HandshakeStatisticsRuntimeHandler(
+                        (ModelNode r, HandshakeStatistics h) -> r.set(h.getClientAuthAbsentCount())));
+            }
+
+            resourceRegistration.registerReadOnlyAttribute(DELEGATED_TASK_ACTIVE_COUNT, new DelegatedTaskRuntimeHandler(
+                    (ModelNode r, DelegatedTaskExecutor e) -> r.set(e.getActiveCount())));
+            resourceRegistration.registerReadOnlyAttribute(DELEGATED_TASK_QUEUE_SIZE, new DelegatedTaskRuntimeHandler(
+                    (ModelNode r, DelegatedTaskExecutor e) -> r.set(e.getQueueSize())));
+            resourceRegistration.registerReadOnlyAttribute(DELEGATED_TASK_COMPLETED_COUNT, new DelegatedTaskRuntimeHandler(
+                    (ModelNode r, DelegatedTaskExecutor e) -> r.set(e.getCompletedCount())));
+            resourceRegistration.registerReadOnlyAttribute(DELEGATED_TASK_REJECTED_COUNT, new DelegatedTaskRuntimeHandler(
+                    (ModelNode r, DelegatedTaskExecutor e) -> r.set(e.getRejectedCount())));
+            resourceRegistration.registerReadOnlyAttribute(SECURE_RANDOM_REQUEST_COUNT, new SecureRandomRuntimeHandler(
+                    (ModelNode r, SecureRandomPool p) -> r.set(p.getRequestCount())));
+            resourceRegistration.registerReadOnlyAttribute(SECURE_RANDOM_WAIT_TIME, new SecureRandomRuntimeHandler(
+                    (ModelNode r, SecureRandomPool p) -> r.set(p.getWaitTime())));
+            if (server == false) {
+                resourceRegistration.registerReadOnlyAttribute(PINNED_SESSION_COUNT, new SSLContextRuntimeHandler() {
+                    @Override
+                    protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+                        PeerSessions peerSessions = sslContext instanceof DelegatingSSLContext && ((DelegatingSSLContext) sslContext).getContextSpi() instanceof InstrumentedSSLContextSpi
+                                ? ((InstrumentedSSLContextSpi) ((DelegatingSSLContext) sslContext).getContextSpi()).getPeerSessions() : null;
+                        if (peerSessions != null) {
+                            result.set(peerSessions.getPinnedCount());
+                        }
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+            super.registerOperations(resourceRegistration);
+
+            SimpleOperationDefinition readSessions = new SimpleOperationDefinitionBuilder(ElytronDescriptionConstants.READ_SESSIONS, getResourceDescriptionResolver())
+                    .setParameters(OFFSET, LIMIT, SESSION_PROTOCOL, SESSION_CIPHER_SUITE, SESSION_PEER_HOST, MINIMUM_AGE, MAXIMUM_AGE)
+                    .setReplyType(ModelType.LIST)
+                    .setReplyValueType(ModelType.OBJECT)
+                    .setReadOnly()
+                    .setRuntimeOnly()
+                    .build();
+            resourceRegistration.registerOperationHandler(readSessions, new ReadSessionsHandler(server));
         }
 
         @Override
@@ -455,6 +934,64 @@ class SSLDefinitions {
         }
     }
 
+    /**
+     * Handler for the {@code read-sessions} operation, the session context is iterated once applying the filters and paging
+     * and all attributes of each matching session are returned together.
+     */
+    private static class ReadSessionsHandler extends SSLContextRuntimeHandler {
+
+        private final boolean server;
+
+        ReadSessionsHandler(boolean server) {
+            this.server = server;
+        }
+
+        @Override
+        protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+            final int offset = OFFSET.resolveModelAttribute(ExpressionResolver.SIMPLE, operation).asInt();
+            final ModelNode limitNode = LIMIT.resolveModelAttribute(ExpressionResolver.SIMPLE, operation);
+            final int limit = limitNode.isDefined() ? limitNode.asInt() : Integer.MAX_VALUE;
+            final String protocol = asStringIfDefined(SESSION_PROTOCOL, operation);
+            final String cipherSuite = asStringIfDefined(SESSION_CIPHER_SUITE, operation);
+            final String peerHost = asStringIfDefined(SESSION_PEER_HOST, operation);
+            final ModelNode minimumAgeNode = MINIMUM_AGE.resolveModelAttribute(ExpressionResolver.SIMPLE, operation);
+            final ModelNode maximumAgeNode = MAXIMUM_AGE.resolveModelAttribute(ExpressionResolver.SIMPLE, operation);
+            final long now = System.currentTimeMillis();
+            final long createdBefore = minimumAgeNode.isDefined() ? now - TimeUnit.SECONDS.toMillis(minimumAgeNode.asLong()) : Long.MAX_VALUE;
+            final long createdAfter = maximumAgeNode.isDefined() ? now - TimeUnit.SECONDS.toMillis(maximumAgeNode.asLong()) : Long.MIN_VALUE;
+
+            SSLSessionContext sessionContext = server ? sslContext.getServerSessionContext() : sslContext.getClientSessionContext();
+            result.setEmptyList();
+            int skipped = 0;
+            int added = 0;
+            Enumeration<byte[]> ids = sessionContext.getIds();
+            while (added < limit && ids.hasMoreElements()) {
+                byte[] id = ids.nextElement();
+                SSLSession session = sessionContext.getSession(id);
+                if (session == null
+                        || (protocol != null && protocol.equals(session.getProtocol()) == false)
+                        || (cipherSuite != null && cipherSuite.equals(session.getCipherSuite()) == false)
+                        || (peerHost != null && peerHost.equalsIgnoreCase(session.getPeerHost()) == false)
+                        || session.getCreationTime() > createdBefore
+                        || session.getCreationTime() < createdAfter) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+
+                SSLSessionDefinition.writeSession(result.add(), id, session);
+                added++;
+            }
+        }
+
+        private static String asStringIfDefined(SimpleAttributeDefinition parameter, ModelNode operation) throws OperationFailedException {
+            ModelNode value = parameter.resolveModelAttribute(ExpressionResolver.SIMPLE, operation);
+            return value.isDefined() ? value.asString() : null;
+        }
+    }
+
     private static <T> InjectedValue<T> addDependency(String baseName, SimpleAttributeDefinition attribute,
             Class<T> type, ServiceBuilder<SSLContext> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
 
@@ -476,9 +1013,10 @@ class SSLDefinitions {
                 .build();
 
         AttributeDefinition[] attributes = new AttributeDefinition[] { SECURITY_DOMAIN, CIPHER_SUITE_FILTER, PROTOCOLS, WANT_CLIENT_AUTH, NEED_CLIENT_AUTH, AUTHENTICATION_OPTIONAL,
-                USE_CIPHER_SUITES_ORDER, MAXIMUM_SESSION_CACHE_SIZE, SESSION_TIMEOUT, KEY_MANAGERS, TRUST_MANAGERS, providerLoaderDefinition };
+                USE_CIPHER_SUITES_ORDER, MAXIMUM_SESSION_CACHE_SIZE, SESSION_TIMEOUT, KEY_MANAGERS, TRUST_MANAGERS, providerLoaderDefinition,
+                DELEGATED_TASK_PARALLELISM, DELEGATED_TASK_QUEUE_DEPTH, SECURE_RANDOM_POOL_SIZE, SECURE_RANDOM_RESEED_INTERVAL };
 
-        return new SSLContextDefinition(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, new TrivialAddHandler<SSLContext>(SSLContext.class, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
+        return new SSLContextDefinition(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, true, new TrivialAddHandler<SSLContext>(SSLContext.class, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
             @Override
             protected ValueSupplier<SSLContext> getValueSupplier(ServiceBuilder<SSLContext> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
 
@@ -493,20 +1031,22 @@ class SSLDefinitions {
                 final boolean needClientAuth = NEED_CLIENT_AUTH.resolveModelAttribute(context, model).asBoolean();
                 final boolean authenticationOptional = AUTHENTICATION_OPTIONAL.resolveModelAttribute(context, model).asBoolean();
                 final boolean useCipherSuitesOrder = USE_CIPHER_SUITES_ORDER.resolveModelAttribute(context, model).asBoolean();
-                final int maximumSessionCacheSize = MAXIMUM_SESSION_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
-                final int sessionTimeout = SESSION_TIMEOUT.resolveModelAttribute(context, model).asInt();
+                final ModelNode secureRandomPoolSize = SECURE_RANDOM_POOL_SIZE.resolveModelAttribute(context, model);
+                final long secureRandomReseedInterval = SECURE_RANDOM_RESEED_INTERVAL.resolveModelAttribute(context, model).asLong();
 
-                return () -> {
+                return withDelegatedTaskExecutor(context, model, (delegatedTaskExecutor, sessionCache) -> {
                     SecurityDomain securityDomain = securityDomainInjector.getOptionalValue();
                     X509ExtendedKeyManager keyManager = getX509KeyManager(keyManagersInjector.getOptionalValue());
                     X509ExtendedTrustManager trustManager = getX509TrustManager(trustManagersInjector.getOptionalValue());
                     Provider[] providers = providersInjector.getOptionalValue();
+                    SecureRandomPool secureRandomPool = createSecureRandomPool(secureRandomPoolSize, secureRandomReseedInterval);
 
                     SSLContextBuilder builder = new SSLContextBuilder();
                     if (securityDomain != null) builder.setSecurityDomain(securityDomain);
                     if (keyManager != null) builder.setKeyManager(keyManager);
                     if (trustManager != null) builder.setTrustManager(trustManager);
                     if (providers != null) builder.setProviderSupplier(() -> providers);
+                    if (secureRandomPool != null) builder.setProviderSupplier(secureRandomPool.wrap(providers));
                     if (cipherSuiteFilter != null) builder.setCipherSuiteSelector(CipherSuiteSelector.fromString(cipherSuiteFilter));
                     if ( ! protocols.isEmpty()) builder.setProtocolSelector(ProtocolSelector.empty().add(
                             EnumSet.copyOf(protocols.stream().map(Protocol::forName).collect(Collectors.toList()))
@@ -515,8 +1055,8 @@ class SSLDefinitions {
                            .setNeedClientAuth(needClientAuth)
                            .setAuthenticationOptional(authenticationOptional)
                            .setUseCipherSuitesOrder(useCipherSuitesOrder)
-                           .setSessionCacheSize(maximumSessionCacheSize)
-                           .setSessionTimeout(sessionTimeout);
+                           .setSessionCacheSize(sessionCache.maximumSessionCacheSize)
+                           .setSessionTimeout(sessionCache.sessionTimeout);
 
                     if (ROOT_LOGGER.isTraceEnabled()) {
                         ROOT_LOGGER.tracef(
@@ -525,15 +1065,15 @@ class SSLDefinitions {
                                 "authenticationOptional = %s  maximumSessionCacheSize = %s  sessionTimeout = %s",
                                 securityDomain, keyManager, trustManager, Arrays.toString(providers), cipherSuiteFilter,
                                 Arrays.toString(protocols.toArray()), wantClientAuth, needClientAuth, authenticationOptional,
-                                maximumSessionCacheSize, sessionTimeout);
+                                sessionCache.maximumSessionCacheSize, sessionCache.sessionTimeout);
                     }
 
                     try {
-                        return builder.build().create();
+                        return new DelegatingSSLContext(new InstrumentedSSLContextSpi(builder.build().create(), delegatedTaskExecutor, null, secureRandomPool));
                     } catch (GeneralSecurityException e) {
                         throw new StartException(e);
                     }
-                };
+                });
             }
         }, attributes);
     }
@@ -545,9 +1085,11 @@ class SSLDefinitions {
                 .build();
 
         AttributeDefinition[] attributes = new AttributeDefinition[] { CIPHER_SUITE_FILTER, PROTOCOLS,
-                USE_CIPHER_SUITES_ORDER, MAXIMUM_SESSION_CACHE_SIZE, SESSION_TIMEOUT, KEY_MANAGERS, TRUST_MANAGERS, providerLoaderDefinition };
+                USE_CIPHER_SUITES_ORDER, MAXIMUM_SESSION_CACHE_SIZE, SESSION_TIMEOUT, KEY_MANAGERS, TRUST_MANAGERS, providerLoaderDefinition,
+                DELEGATED_TASK_PARALLELISM, DELEGATED_TASK_QUEUE_DEPTH, SECURE_RANDOM_POOL_SIZE, SECURE_RANDOM_RESEED_INTERVAL,
+                PIN_SESSIONS, WARM_UP_PEERS };
 
-        return new SSLContextDefinition(ElytronDescriptionConstants.CLIENT_SSL_CONTEXT, new TrivialAddHandler<SSLContext>(SSLContext.class, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
+        return new SSLContextDefinition(ElytronDescriptionConstants.CLIENT_SSL_CONTEXT, false, new TrivialAddHandler<SSLContext>(SSLContext.class, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
             @Override
             protected ValueSupplier<SSLContext> getValueSupplier(ServiceBuilder<SSLContext> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
 
@@ -558,46 +1100,394 @@ class SSLDefinitions {
                 final List<String> protocols = PROTOCOLS.unwrap(context, model);
                 final String cipherSuiteFilter = asStringIfDefined(context, CIPHER_SUITE_FILTER, model);
                 final boolean useCipherSuitesOrder = USE_CIPHER_SUITES_ORDER.resolveModelAttribute(context, model).asBoolean();
-                final int maximumSessionCacheSize = MAXIMUM_SESSION_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
-                final int sessionTimeout = SESSION_TIMEOUT.resolveModelAttribute(context, model).asInt();
+                final ModelNode secureRandomPoolSize = SECURE_RANDOM_POOL_SIZE.resolveModelAttribute(context, model);
+                final long secureRandomReseedInterval = SECURE_RANDOM_RESEED_INTERVAL.resolveModelAttribute(context, model).asLong();
+                final boolean pinSessions = PIN_SESSIONS.resolveModelAttribute(context, model).asBoolean();
+                final List<String> warmUpPeers = WARM_UP_PEERS.unwrap(context, model);
 
-                return () -> {
+                return withDelegatedTaskExecutor(context, model, warmUpPeers, (delegatedTaskExecutor, sessionCache) -> {
                     X509ExtendedKeyManager keyManager = getX509KeyManager(keyManagersInjector.getOptionalValue());
                     X509ExtendedTrustManager trustManager = getX509TrustManager(trustManagersInjector.getOptionalValue());
                     Provider[] providers = providersInjector.getOptionalValue();
+                    SecureRandomPool secureRandomPool = createSecureRandomPool(secureRandomPoolSize, secureRandomReseedInterval);
 
                     SSLContextBuilder builder = new SSLContextBuilder();
                     if (keyManager != null) builder.setKeyManager(keyManager);
                     if (trustManager != null) builder.setTrustManager(trustManager);
                     if (providers != null) builder.setProviderSupplier(() -> providers);
+                    if (secureRandomPool != null) builder.setProviderSupplier(secureRandomPool.wrap(providers));
                     if (cipherSuiteFilter != null) builder.setCipherSuiteSelector(CipherSuiteSelector.fromString(cipherSuiteFilter));
                     if ( ! protocols.isEmpty()) builder.setProtocolSelector(ProtocolSelector.empty().add(
                             EnumSet.copyOf(protocols.stream().map(Protocol::forName).collect(Collectors.toList()))
                     ));
                     builder.setClientMode(true)
                            .setUseCipherSuitesOrder(useCipherSuitesOrder)
-                           .setSessionCacheSize(maximumSessionCacheSize)
-                           .setSessionTimeout(sessionTimeout);
+                           .setSessionCacheSize(sessionCache.maximumSessionCacheSize)
+                           .setSessionTimeout(sessionCache.sessionTimeout);
 
                     if (ROOT_LOGGER.isTraceEnabled()) {
                         ROOT_LOGGER.tracef(
                                 "ClientSSLContext supplying:  keyManager = %s  trustManager = %s  providers = %s  " +
                                 "cipherSuiteFilter = %s  protocols = %s  maximumSessionCacheSize = %s  sessionTimeout = %s",
                                 keyManager, trustManager, Arrays.toString(providers), cipherSuiteFilter,
-                                Arrays.toString(protocols.toArray()), maximumSessionCacheSize, sessionTimeout
+                                Arrays.toString(protocols.toArray()), sessionCache.maximumSessionCacheSize, sessionCache.sessionTimeout
                         );
                     }
 
                     try {
-                        return builder.build().create();
+                        return new DelegatingSSLContext(new InstrumentedSSLContextSpi(builder.build().create(), delegatedTaskExecutor,
+                                pinSessions ? new PeerSessions() : null, secureRandomPool));
                     } catch (GeneralSecurityException e) {
                         throw new StartException(e);
                     }
-                };
+                });
             }
         }, attributes);
     }
 
+    private static SecureRandomPool createSecureRandomPool(ModelNode size, long reseedInterval) throws StartException {
+        try {
+            return size.isDefined() ? new SecureRandomPool(size.asInt(), reseedInterval) : null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new StartException(e);
+        }
+    }
+
+    /**
+     * Wrap the creation of an {@link SSLContext} so a {@link DelegatedTaskExecutor} is created for it if configured and
+     * shutdown when the {@link SSLContext} is no longer required.
+     */
+    private static ValueSupplier<SSLContext> withDelegatedTaskExecutor(OperationContext context, ModelNode model, SSLContextFactory factory) throws OperationFailedException {
+        return withDelegatedTaskExecutor(context, model, Collections.emptyList(), factory);
+    }
+
+    /**
+     * As {@link #withDelegatedTaskExecutor(OperationContext, ModelNode, SSLContextFactory)} additionally warming up sessions
+     * with the peers in the background once the {@link SSLContext} has been created, the warm up is cancelled if the
+     * {@link SSLContext} is no longer required before it completes.
+     */
+    private static ValueSupplier<SSLContext> withDelegatedTaskExecutor(OperationContext context, ModelNode model, List<String> warmUpPeers,
+            SSLContextFactory factory) throws OperationFailedException {
+        final String name = context.getCurrentAddressValue();
+        final ModelNode parallelism = DELEGATED_TASK_PARALLELISM.resolveModelAttribute(context, model);
+        final int queueDepth = DELEGATED_TASK_QUEUE_DEPTH.resolveModelAttribute(context, model).asInt();
+        final SessionCacheSettings sessionCache = new SessionCacheSettings(MAXIMUM_SESSION_CACHE_SIZE.resolveModelAttribute(context, model).asInt(),
+                SESSION_TIMEOUT.resolveModelAttribute(context, model).asInt());
+
+        return new SSLContextValueSupplier(sessionCache) {
+
+            private DelegatedTaskExecutor delegatedTaskExecutor;
+            private PeerSessions.WarmUp warmUp;
+
+            @Override
+            public SSLContext get() throws StartException {
+                delegatedTaskExecutor = parallelism.isDefined() ? new DelegatedTaskExecutor(name, parallelism.asInt(), queueDepth) : null;
+                final SSLContext sslContext;
+                try {
+                    sslContext = factory.create(delegatedTaskExecutor, sessionCache);
+                } catch (StartException | RuntimeException e) {
+                    dispose();
+                    throw e;
+                }
+                if (warmUpPeers.isEmpty() == false) {
+                    warmUp = new PeerSessions.WarmUp(name, sslContext, warmUpPeers);
+                    AsynchronousStart.execute(warmUp);
+                }
+                return sslContext;
+            }
+
+            @Override
+            public void dispose() {
+                if (warmUp != null) {
+                    warmUp.cancel();
+                    warmUp = null;
+                }
+                if (delegatedTaskExecutor != null) {
+                    delegatedTaskExecutor.shutdown();
+                    delegatedTaskExecutor = null;
+                }
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface SSLContextFactory {
+
+        SSLContext create(DelegatedTaskExecutor delegatedTaskExecutor, SessionCacheSettings sessionCache) throws StartException;
+
+    }
+
+    /**
+     * The session cache bounds of an {@link SSLContext}, these are held by the service rather than captured as the resource
+     * is added so values written at runtime are also used each time the service restarts.
+     */
+    private static final class SessionCacheSettings {
+
+        private volatile int maximumSessionCacheSize;
+        private volatile int sessionTimeout;
+
+        SessionCacheSettings(int maximumSessionCacheSize, int sessionTimeout) {
+            this.maximumSessionCacheSize = maximumSessionCacheSize;
+            this.sessionTimeout = sessionTimeout;
+        }
+    }
+
+    private abstract static class SSLContextValueSupplier implements ValueSupplier<SSLContext> {
+
+        private final SessionCacheSettings sessionCache;
+
+        SSLContextValueSupplier(SessionCacheSettings sessionCache) {
+            this.sessionCache = sessionCache;
+        }
+    }
+
+    static ResourceDefinition getServerSNISSLContextDefinition() {
+
+        AttributeDefinition[] attributes = new AttributeDefinition[] { DEFAULT_SSL_CONTEXT, HOST_CONTEXT_MAP };
+
+        AbstractAddStepHandler add = new TrivialAddHandler<SSLContext>(SSLContext.class, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY) {
+            @Override
+            protected ValueSupplier<SSLContext> getValueSupplier(ServiceBuilder<SSLContext> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException {
+
+                final InjectedValue<SSLContext> defaultContextInjector = addDependency(SSL_CONTEXT_CAPABILITY, DEFAULT_SSL_CONTEXT, SSLContext.class, serviceBuilder, context, model);
+
+                final Map<String, InjectedValue<SSLContext>> contextInjectors = new HashMap<>();
+                final Map<String, InjectedValue<SSLContext>> hostInjectors = new LinkedHashMap<>();
+                if (model.hasDefined(ElytronDescriptionConstants.HOST_CONTEXT_MAP)) {
+                    for (ModelNode mapping : HOST_CONTEXT_MAP.resolveModelAttribute(context, model).asList()) {
+                        final String host = HOST.resolveModelAttribute(context, mapping).asString();
+                        final String sslContext = MAPPED_SSL_CONTEXT.resolveModelAttribute(context, mapping).asString();
+                        InjectedValue<SSLContext> injector = contextInjectors.get(sslContext);
+                        if (injector == null) {
+                            injector = new InjectedValue<>();
+                            serviceBuilder.addDependency(context.getCapabilityServiceName(
+                                    buildDynamicCapabilityName(SSL_CONTEXT_CAPABILITY, sslContext), SSLContext.class), SSLContext.class, injector);
+                            contextInjectors.put(sslContext, injector);
+                        }
+                        hostInjectors.put(host, injector);
+                    }
+                }
+
+                return () -> {
+                    SSLContext defaultContext = defaultContextInjector.getValue();
+                    SNIContextMatcher.Builder builder = new SNIContextMatcher.Builder(defaultContext);
+                    hostInjectors.forEach((String host, InjectedValue<SSLContext> injector) -> builder.addMatch(host, injector.getValue()));
+
+                    if (ROOT_LOGGER.isTraceEnabled()) {
+                        ROOT_LOGGER.tracef("ServerSNISSLContext supplying:  defaultContext = %s  hosts = %s", defaultContext, hostInjectors.keySet());
+                    }
+
+                    return new DelegatingSSLContext(new SNISSLContextSpi(defaultContext, builder.build()));
+                };
+            }
+        };
+
+        return new TrivialResourceDefinition(ElytronDescriptionConstants.SERVER_SSL_SNI_CONTEXT, add, attributes, SSL_CONTEXT_RUNTIME_CAPABILITY);
+    }
+
+    /**
+     * Wraps {@link CredentialReference#reinjectCredentialStoreClient(InjectedValue, CredentialReference)} so it can be called
+     * each time a manager is created, for a clear text reference the client injected by a previous call is discarded first
+     * as it would otherwise be wrapped again without an alias and no longer resolve the secret.
+     */
+    private static void reinjectCredentialStoreClient(InjectedValue<CredentialStoreClient> credentialStoreClientInjector,
+            CredentialReference credentialReference) throws ClassNotFoundException {
+        if (credentialReference.getAlias() == null) {
+            credentialStoreClientInjector.uninject();
+        }
+        CredentialReference.reinjectCredentialStoreClient(credentialStoreClientInjector, credentialReference);
+    }
+
+    private static ServiceName addKeyStoreDependency(String keyStoreName, InjectedValue<KeyStore> keyStoreInjector,
+            ServiceBuilder<?> serviceBuilder, OperationContext context) {
+        if (keyStoreName == null) {
+            return null;
+        }
+
+        ServiceName keyStoreServiceName = context.getCapabilityServiceName(
+                buildDynamicCapabilityName(KEY_STORE_CAPABILITY, keyStoreName), KeyStore.class);
+        serviceBuilder.addDependency(keyStoreServiceName, KeyStore.class, keyStoreInjector);
+
+        return keyStoreServiceName;
+    }
+
+    /**
+     * A {@link ValueSupplier} for managers backed by a {@link KeyStore}, the manager is re-created each time the
+     * {@link KeyStore} is reloaded so that {@link SSLContext} instances already using it pick up the new content.
+     *
+     * The key store service is located each time the manager is started as the key store service is replaced when the
+     * key-store resource is restarted.
+     */
+    private abstract static class ReloadableValueSupplier<T> implements ValueSupplier<T> {
+
+        private final String type;
+        private final String keyStoreName;
+        private final ServiceName keyStoreServiceName;
+        private final Runnable loadListener = this::onLoad;
+        private volatile ModifiableKeyStoreService keyStoreService;
+        private boolean created;
+
+        ReloadableValueSupplier(String type, String keyStoreName, ServiceName keyStoreServiceName) {
+            this.type = type;
+            this.keyStoreName = keyStoreName;
+            this.keyStoreServiceName = keyStoreServiceName;
+        }
+
+        @Override
+        public T get() throws StartException {
+            return get(null);
+        }
+
+        @Override
+        public T get(StartContext context) throws StartException {
+            if (context != null && keyStoreServiceName != null) {
+                Service<?> service = context.getController().getServiceContainer().getRequiredService(keyStoreServiceName).getService();
+                if (service instanceof ModifiableKeyStoreService) {
+                    // Registered before the manager is created so a load in between is not missed.
+                    keyStoreService = (ModifiableKeyStoreService) service;
+                    keyStoreService.registerLoadListener(loadListener);
+                }
+            }
+            try {
+                synchronized (this) {
+                    T value = create();
+                    created = true;
+                    return value;
+                }
+            } catch (StartException | RuntimeException e) {
+                dispose();
+                throw e;
+            }
+        }
+
+        @Override
+        public void dispose() {
+            ModifiableKeyStoreService keyStoreService = this.keyStoreService;
+            if (keyStoreService != null) {
+                keyStoreService.unregisterLoadListener(loadListener);
+                this.keyStoreService = null;
+            }
+            synchronized (this) {
+                created = false;
+            }
+        }
+
+        private synchronized void onLoad() {
+            if (created == false) {
+                // The manager created on start will use the content just loaded.
+                return;
+            }
+            try {
+                reload();
+            } catch (StartException e) {
+                ROOT_LOGGER.unableToReinitialiseManager(type, keyStoreName, e);
+            }
+        }
+
+        protected abstract T create() throws StartException;
+
+        protected abstract void reload() throws StartException;
+    }
+
+    /**
+     * An {@link X509ExtendedKeyManager} which delegates to a replaceable {@link X509ExtendedKeyManager}.
+     */
+    private static class DelegatingKeyManager extends X509ExtendedKeyManager {
+
+        private final AtomicReference<X509ExtendedKeyManager> delegate = new AtomicReference<>();
+
+        void setKeyManager(X509ExtendedKeyManager keyManager) {
+            delegate.set(keyManager);
+        }
+
+        @Override
+        public String[] getClientAliases(String keyType, Principal[] issuers) {
+            return delegate.get().getClientAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseClientAlias(String[] keyType, Principal[] issuers, Socket socket) {
+            return delegate.get().chooseClientAlias(keyType, issuers, socket);
+        }
+
+        @Override
+        public String chooseEngineClientAlias(String[] keyType, Principal[] issuers, SSLEngine engine) {
+            return delegate.get().chooseEngineClientAlias(keyType, issuers, engine);
+        }
+
+        @Override
+        public String[] getServerAliases(String keyType, Principal[] issuers) {
+            return delegate.get().getServerAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+            return delegate.get().chooseServerAlias(keyType, issuers, socket);
+        }
+
+        @Override
+        public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine) {
+            return delegate.get().chooseEngineServerAlias(keyType, issuers, engine);
+        }
+
+        @Override
+        public X509Certificate[] getCertificateChain(String alias) {
+            return delegate.get().getCertificateChain(alias);
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(String alias) {
+            return delegate.get().getPrivateKey(alias);
+        }
+    }
+
+    /**
+     * An {@link X509ExtendedTrustManager} which delegates to a replaceable {@link X509ExtendedTrustManager}.
+     */
+    private static class DelegatingTrustManager extends X509ExtendedTrustManager {
+
+        private final AtomicReference<X509ExtendedTrustManager> delegate = new AtomicReference<>();
+
+        void setTrustManager(X509ExtendedTrustManager trustManager) {
+            delegate.set(trustManager);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+            delegate.get().checkClientTrusted(chain, authType, socket);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+            delegate.get().checkServerTrusted(chain, authType, socket);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+            delegate.get().checkClientTrusted(chain, authType, engine);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+            delegate.get().checkServerTrusted(chain, authType, engine);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.get().checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.get().checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.get().getAcceptedIssuers();
+        }
+    }
+
     private static X509ExtendedKeyManager getX509KeyManager(KeyManager[] keyManagers) throws StartException {
         if (keyManagers == null) {
             return null;
@@ -629,7 +1519,7 @@ class SSLDefinitions {
     abstract static class SSLContextRuntimeHandler extends AbstractRuntimeOnlyHandler {
         @Override
         protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
-            ServiceName serviceName = SSL_CONTEXT_SERVICE_UTIL.serviceName(operation);
+            ServiceName serviceName = SSL_CONTEXT_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddressValue());
 
             ServiceController<SSLContext> serviceController = getRequiredService(context.getServiceRegistry(false), serviceName, SSLContext.class);
             State serviceState;
@@ -643,4 +1533,138 @@ class SSLDefinitions {
         protected abstract void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException;
     }
 
+    /**
+     * A write handler for the session cache attributes, the new values are applied directly to the session context of the
+     * running {@link SSLContext} so existing connections and cached sessions are retained.
+     */
+    private static class SessionCacheWriteAttributeHandler extends AbstractWriteAttributeHandler<Void> {
+
+        private final boolean server;
+
+        SessionCacheWriteAttributeHandler(boolean server) {
+            super(MAXIMUM_SESSION_CACHE_SIZE, SESSION_TIMEOUT);
+            this.server = server;
+        }
+
+        @Override
+        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue,
+                ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+            apply(context, operation, attributeName, resolvedValue);
+            return false;
+        }
+
+        @Override
+        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore,
+                ModelNode valueToRevert, Void handback) throws OperationFailedException {
+            apply(context, operation, attributeName, valueToRestore);
+        }
+
+        private void apply(OperationContext context, ModelNode operation, String attributeName, ModelNode value) {
+            ServiceController<?> serviceController = context.getServiceRegistry(false).getService(SSL_CONTEXT_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddressValue()));
+            if (serviceController == null) {
+                return;
+            }
+
+            // Recorded with the service so the value is also used whenever the service next starts.
+            Service<?> service = serviceController.getService();
+            ValueSupplier<?> valueSupplier = service instanceof TrivialService ? ((TrivialService<?>) service).getValueSupplier() : null;
+            if (valueSupplier instanceof SSLContextValueSupplier) {
+                SessionCacheSettings sessionCache = ((SSLContextValueSupplier) valueSupplier).sessionCache;
+                if (ElytronDescriptionConstants.MAXIMUM_SESSION_CACHE_SIZE.equals(attributeName)) {
+                    sessionCache.maximumSessionCacheSize = value.asInt();
+                } else {
+                    sessionCache.sessionTimeout = value.asInt();
+                }
+            }
+
+            SSLContext sslContext = serviceController.getState() == State.UP ? (SSLContext) serviceController.getValue() : null;
+            if (sslContext == null) {
+                return;
+            }
+
+            SSLSessionContext sessionContext = server ? sslContext.getServerSessionContext() : sslContext.getClientSessionContext();
+            if (ElytronDescriptionConstants.MAXIMUM_SESSION_CACHE_SIZE.equals(attributeName)) {
+                sessionContext.setSessionCacheSize(value.asInt());
+            } else {
+                sessionContext.setSessionTimeout(value.asInt());
+            }
+        }
+    }
+
+    private static class HandshakeStatisticsRuntimeHandler extends SSLContextRuntimeHandler {
+
+        private final BiConsumer<ModelNode, HandshakeStatistics> biConsumer;
+
+        HandshakeStatisticsRuntimeHandler(BiConsumer<ModelNode, HandshakeStatistics> biConsumer) {
+            this.biConsumer = biConsumer;
+        }
+
+        @Override
+        protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+            if (sslContext instanceof DelegatingSSLContext) {
+                DelegatingSSLContextSpi contextSpi = ((DelegatingSSLContext) sslContext).getContextSpi();
+                if (contextSpi instanceof InstrumentedSSLContextSpi) {
+                    biConsumer.accept(result, ((InstrumentedSSLContextSpi) contextSpi).getHandshakeStatistics());
+                }
+            }
+        }
+    }
+
+    private static class SecureRandomRuntimeHandler extends SSLContextRuntimeHandler {
+
+        private final BiConsumer<ModelNode, SecureRandomPool> biConsumer;
+
+        SecureRandomRuntimeHandler(BiConsumer<ModelNode, SecureRandomPool> biConsumer) {
+            this.biConsumer = biConsumer;
+        }
+
+        @Override
+        protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+            if (sslContext instanceof DelegatingSSLContext) {
+                DelegatingSSLContextSpi contextSpi = ((DelegatingSSLContext) sslContext).getContextSpi();
+                if (contextSpi instanceof InstrumentedSSLContextSpi && ((InstrumentedSSLContextSpi) contextSpi).getSecureRandomPool() != null) {
+                    biConsumer.accept(result, ((InstrumentedSSLContextSpi) contextSpi).getSecureRandomPool());
+                }
+            }
+        }
+    }
+
+    private static class DelegatedTaskRuntimeHandler extends SSLContextRuntimeHandler {
+
+        private final BiConsumer<ModelNode, DelegatedTaskExecutor> biConsumer;
+
+        DelegatedTaskRuntimeHandler(BiConsumer<ModelNode, DelegatedTaskExecutor> biConsumer) {
+            this.biConsumer = biConsumer;
+        }
+
+        @Override
+        protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+            if (sslContext instanceof DelegatingSSLContext) {
+                DelegatingSSLContextSpi contextSpi = ((DelegatingSSLContext) sslContext).getContextSpi();
+                if (contextSpi instanceof InstrumentedSSLContextSpi && ((InstrumentedSSLContextSpi) contextSpi).getDelegatedTaskExecutor() != null) {
+                    biConsumer.accept(result, ((InstrumentedSSLContextSpi) contextSpi).getDelegatedTaskExecutor());
+                }
+            }
+        }
+    }
+
+    private static class SessionStatisticsRuntimeHandler extends SSLContextRuntimeHandler {
+
+        private final boolean server;
+        private final BiConsumer<ModelNode, CountingSSLSessionContext> biConsumer;
+
+        SessionStatisticsRuntimeHandler(boolean server, BiConsumer<ModelNode, CountingSSLSessionContext> biConsumer) {
+            this.server = server;
+            this.biConsumer = biConsumer;
+        }
+
+        @Override
+        protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+            SSLSessionContext sessionContext = server ? sslContext.getServerSessionContext() : sslContext.getClientSessionContext();
+            if (sessionContext instanceof CountingSSLSessionContext) {
+                biConsumer.accept(result, (CountingSSLSessionContext) sessionContext);
+            }
+        }
+    }
+
 }
@@ -20,20 +20,20 @@ package org.wildfly.extension.elytron;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.wildfly.extension.elytron.CertificateChainAttributeDefinitions.getNamedCertificateList;
 import static org.wildfly.extension.elytron.CertificateChainAttributeDefinitions.writeCertificates;
-import static org.wildfly.extension.elytron.ElytronExtension.ISO_8601_FORMAT;
+import static org.wildfly.extension.elytron.ElytronExtension.ISO_8601_FORMATTER;
 import static org.wildfly.extension.elytron._private.ElytronSubsystemMessages.ROOT_LOGGER;
 
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
 import java.security.cert.CertificateEncodingException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
 import java.util.function.BiConsumer;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
 
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
@@ -48,6 +48,7 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.wildfly.extension.elytron.SSLDefinitions.SSLContextRuntimeHandler;
 import org.wildfly.security.util.ByteIterator;
 
 /**
@@ -119,9 +120,9 @@ public class SSLSessionDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerReadOnlyAttribute(APPLICATION_BUFFER_SIZE, new SSLSessionRuntimeHandler((ModelNode r, SSLSession s) -> r.set(s.getApplicationBufferSize())));
         resourceRegistration.registerReadOnlyAttribute(CIPHER_SUITE, new SSLSessionRuntimeHandler((ModelNode r, SSLSession s) -> r.set(s.getCipherSuite())));
         resourceRegistration.registerReadOnlyAttribute(CREATION_TIME, new SSLSessionRuntimeHandler(
-                (ModelNode r, SSLSession s) -> r.set(new SimpleDateFormat(ISO_8601_FORMAT).format(new Date(s.getCreationTime())))));
+                (ModelNode r, SSLSession s) -> r.set(ISO_8601_FORMATTER.format(Instant.ofEpochMilli(s.getCreationTime())))));
         resourceRegistration.registerReadOnlyAttribute(LAST_ACCESSED_TIME, new SSLSessionRuntimeHandler(
-                (ModelNode r, SSLSession s) -> r.set(new SimpleDateFormat(ISO_8601_FORMAT).format(new Date(s.getLastAccessedTime())))));
+                (ModelNode r, SSLSession s) -> r.set(ISO_8601_FORMATTER.format(Instant.ofEpochMilli(s.getLastAccessedTime())))));
         resourceRegistration.registerReadOnlyAttribute(getNamedCertificateList(ElytronDescriptionConstants.LOCAL_CERTIFICATES),
                 new SSLSessionRuntimeHandler((ModelNode r, SSLSession s) -> {
                     try {
@@ -160,7 +161,54 @@ public class SSLSessionDefinition extends SimpleResourceDefinition {
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
-        resourceRegistration.registerOperationHandler(INVALIDATE, new SSLSessionRuntimeHandler((ModelNode r, SSLSession s) -> s.invalidate()));
+        resourceRegistration.registerOperationHandler(INVALIDATE, new SSLContextRuntimeHandler() {
+            @Override
+            protected void performRuntime(ModelNode result, ModelNode operation, SSLContext sslContext) throws OperationFailedException {
+                SSLSessionContext sessionContext = sslContext.getServerSessionContext();
+                byte[] sessionId = sessionId(operation);
+                if (sessionContext instanceof CountingSSLSessionContext) {
+                    ((CountingSSLSessionContext) sessionContext).invalidate(sessionId);
+                } else {
+                    SSLSession sslSession = sessionContext.getSession(sessionId);
+                    if (sslSession != null) {
+                        sslSession.invalidate();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Write all of the attributes of the session in a single pass, used where many sessions are read in one operation.
+     *
+     * @param target the {@link ModelNode} to populate.
+     * @param sessionId the ID of the session.
+     * @param sslSession the session to write.
+     */
+    static void writeSession(ModelNode target, byte[] sessionId, SSLSession sslSession) {
+        target.get(ElytronDescriptionConstants.SESSION_ID).set(ByteIterator.ofBytes(sessionId).hexEncode(true).drainToString());
+        target.get(ElytronDescriptionConstants.PROTOCOL).set(sslSession.getProtocol());
+        target.get(ElytronDescriptionConstants.CIPHER_SUITE).set(sslSession.getCipherSuite());
+        String peerHost = sslSession.getPeerHost();
+        if (peerHost != null) {
+            target.get(ElytronDescriptionConstants.PEER_HOST).set(peerHost);
+        }
+        target.get(ElytronDescriptionConstants.PEER_PORT).set(sslSession.getPeerPort());
+        target.get(ElytronDescriptionConstants.CREATION_TIME).set(ISO_8601_FORMATTER.format(Instant.ofEpochMilli(sslSession.getCreationTime())));
+        target.get(ElytronDescriptionConstants.LAST_ACCESSED_TIME).set(ISO_8601_FORMATTER.format(Instant.ofEpochMilli(sslSession.getLastAccessedTime())));
+        target.get(ElytronDescriptionConstants.VALID).set(sslSession.isValid());
+        Principal localPrincipal = sslSession.getLocalPrincipal();
+        if (localPrincipal != null) {
+            target.get(ElytronDescriptionConstants.LOCAL_PRINCIPAL).set(localPrincipal.toString());
+        }
+        try {
+            Principal peerPrincipal = sslSession.getPeerPrincipal();
+            if (peerPrincipal != null) {
+                target.get(ElytronDescriptionConstants.PEER_PRINCIPAL).set(peerPrincipal.toString());
+            }
+        } catch (SSLPeerUnverifiedException ignored) {}
+        target.get(ElytronDescriptionConstants.APPLICATION_BUFFER_SIZE).set(sslSession.getApplicationBufferSize());
+        target.get(ElytronDescriptionConstants.PACKET_BUFFER_SIZE).set(sslSession.getPacketBufferSize());
     }
 
     static class SSLSessionRuntimeHandler extends SSLDefinitions.SSLContextRuntimeHandler {
@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.credential.PasswordCredential;
+import org.wildfly.security.credential.store.CredentialStore;
+import org.wildfly.security.credential.store.CredentialStoreException;
+import org.wildfly.security.credential.store.CredentialStoreSpi;
+import org.wildfly.security.credential.store.UnsupportedCredentialTypeException;
+import org.wildfly.security.password.interfaces.ClearPassword;
+
+/**
+ * A {@link CredentialStore} wrapper which caches the clear text secrets of {@link PasswordCredential} entries retrieved
+ * from an already initialized {@link CredentialStore}.
+ *
+ * The cache is bounded and each secret expires after a fixed time, secrets are held as {@code char[]} and are zeroed
+ * as soon as they are evicted, expire or are invalidated. Storing or removing an alias through this wrapper invalidates
+ * the cached secret for that alias.
+ *
+ * Invalidating an alias or clearing the cache advances a generation, a secret retrieved from the delegate is only cached
+ * if neither its alias has been invalidated nor the cache cleared since the retrieval started so a retrieval racing with
+ * an update can not cache the previous secret. The generation at which an alias was invalidated is only retained whilst a
+ * retrieval of that alias is in progress.
+ *
+ * A maximum size or time to live of {@code 0} disables the cache, every retrieval then reads from the delegate.
+ */
+final class SecretCachingCredentialStore extends CredentialStore {
+
+    private final SecretCachingCredentialStoreSpi credentialStoreSpi;
+
+    private SecretCachingCredentialStore(SecretCachingCredentialStoreSpi credentialStoreSpi, CredentialStore delegate) {
+        super(delegate.getProvider(), credentialStoreSpi, delegate.getType());
+        this.credentialStoreSpi = credentialStoreSpi;
+    }
+
+    /**
+     * Create a new secret caching {@link CredentialStore}.
+     *
+     * @param delegate the initialized {@link CredentialStore} to wrap.
+     * @param maximumSize the maximum number of secrets to cache, {@code 0} disables the cache.
+     * @param timeToLive how long a secret is cached for, {@code 0} disables the cache.
+     * @param unit the {@link TimeUnit} of {@code timeToLive}.
+     * @return the new secret caching {@link CredentialStore}.
+     */
+    static SecretCachingCredentialStore secretCachingCredentialStore(CredentialStore delegate, int maximumSize, long timeToLive, TimeUnit unit) {
+        return new SecretCachingCredentialStore(new SecretCachingCredentialStoreSpi(delegate, maximumSize, unit.toNanos(timeToLive)), delegate);
+    }
+
+    /**
+     * Discard and zero the cached secret for the specified alias.
+     *
+     * @param alias the alias to invalidate.
+     */
+    void invalidate(String alias) {
+        credentialStoreSpi.invalidate(alias);
+    }
+
+    /**
+     * Discard and zero all cached secrets.
+     */
+    void clear() {
+        credentialStoreSpi.clear();
+    }
+
+    private static final class CachedSecret {
+
+        private final char[] secret;
+        private final long expires;
+
+        CachedSecret(char[] secret, long expires) {
+            this.secret = secret;
+            this.expires = expires;
+        }
+
+        void destroy() {
+            Arrays.fill(secret, (char) 0);
+        }
+    }
+
+    /**
+     * The retrievals of a single alias in progress and the generation at which the alias was last invalidated during them.
+     */
+    private static final class Retrievals {
+
+        private int count;
+        private long invalidated;
+
+    }
+
+    private static final class SecretCachingCredentialStoreSpi extends CredentialStoreSpi {
+
+        private final CredentialStore delegate;
+        private final boolean enabled;
+        private final long timeToLive;
+        private final Map<String, CachedSecret> cache;
+        /*
+         * Only aliases with a retrieval in progress have an entry, it is removed once the last retrieval completes.
+         */
+        private final Map<String, Retrievals> retrievals = new HashMap<>();
+        private long generation;
+        private long cleared;
+
+        SecretCachingCredentialStoreSpi(CredentialStore delegate, int maximumSize, long timeToLive) {
+            this.delegate = delegate;
+            this.enabled = maximumSize > 0 && timeToLive > 0;
+            this.timeToLive = timeToLive;
+            this.cache = new LinkedHashMap<String, CachedSecret>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedSecret> eldest) {
+                    if (size() > maximumSize) {
+                        eldest.getValue().destroy();
+                        return true;
+                    }
+                    return false;
+                }
+
+            };
+        }
+
+        @Override
+        public void initialize(Map<String, String> attributes) throws CredentialStoreException {
+            delegate.initialize(attributes);
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return delegate.isInitialized();
+        }
+
+        @Override
+        public boolean isModifiable() {
+            return delegate.isModifiable();
+        }
+
+        @Override
+        public <C extends Credential> boolean exists(String credentialAlias, Class<C> credentialType) throws CredentialStoreException, UnsupportedCredentialTypeException {
+            return delegate.exists(credentialAlias, credentialType);
+        }
+
+        @Override
+        public <C extends Credential> void store(String credentialAlias, C credential) throws CredentialStoreException, UnsupportedCredentialTypeException {
+            try {
+                delegate.store(credentialAlias, credential);
+            } finally {
+                invalidate(credentialAlias);
+            }
+        }
+
+        @Override
+        public <C extends Credential> C retrieve(String credentialAlias, Class<C> credentialType) throws CredentialStoreException, UnsupportedCredentialTypeException {
+            if (enabled == false || credentialType != PasswordCredential.class) {
+                return delegate.retrieve(credentialAlias, credentialType);
+            }
+
+            char[] secret = getCachedSecret(credentialAlias);
+            if (secret == null) {
+                long generation = beginRetrieval(credentialAlias);
+                try {
+                    C credential = delegate.retrieve(credentialAlias, credentialType);
+                    if (credential == null || ((PasswordCredential) credential).getPassword() instanceof ClearPassword == false) {
+                        return credential;
+                    }
+                    secret = ((ClearPassword) ((PasswordCredential) credential).getPassword()).getPassword();
+                    cacheSecret(credentialAlias, secret, generation);
+                } finally {
+                    endRetrieval(credentialAlias);
+                }
+            }
+
+            return credentialType.cast(new PasswordCredential(ClearPassword.createRaw(ClearPassword.ALGORITHM_CLEAR, secret)));
+        }
+
+        @Override
+        public <C extends Credential> void remove(String credentialAlias, Class<C> credentialType) throws CredentialStoreException, UnsupportedCredentialTypeException {
+            try {
+                delegate.remove(credentialAlias, credentialType);
+            } finally {
+                invalidate(credentialAlias);
+            }
+        }
+
+        @Override
+        public Set<String> getAliases() throws UnsupportedOperationException, CredentialStoreException {
+            return delegate.getAliases();
+        }
+
+        private synchronized char[] getCachedSecret(String alias) {
+            expire(System.nanoTime());
+            CachedSecret cachedSecret = cache.get(alias);
+
+            return cachedSecret != null ? cachedSecret.secret.clone() : null;
+        }
+
+        private synchronized long beginRetrieval(String alias) {
+            retrievals.computeIfAbsent(alias, a -> new Retrievals()).count++;
+            return generation;
+        }
+
+        private synchronized void endRetrieval(String alias) {
+            Retrievals inProgress = retrievals.get(alias);
+            if (--inProgress.count == 0) {
+                retrievals.remove(alias);
+            }
+        }
+
+        private synchronized void cacheSecret(String alias, char[] secret, long generation) {
+            if (retrievals.get(alias).invalidated > generation || cleared > generation) {
+                // Invalidated whilst the secret was being retrieved, the secret may already be stale.
+                return;
+            }
+            CachedSecret previous = cache.put(alias, new CachedSecret(secret.clone(), System.nanoTime() + timeToLive));
+            if (previous != null) {
+                previous.destroy();
+            }
+        }
+
+        private void expire(long now) {
+            Iterator<CachedSecret> iterator = cache.values().iterator();
+            while (iterator.hasNext()) {
+                CachedSecret cachedSecret = iterator.next();
+                if (now - cachedSecret.expires >= 0) {
+                    cachedSecret.destroy();
+                    iterator.remove();
+                }
+            }
+        }
+
+        synchronized void invalidate(String alias) {
+            ++generation;
+            Retrievals inProgress = retrievals.get(alias);
+            if (inProgress != null) {
+                inProgress.invalidated = generation;
+            }
+            CachedSecret cachedSecret = cache.remove(alias);
+            if (cachedSecret != null) {
+                cachedSecret.destroy();
+            }
+        }
+
+        synchronized void clear() {
+            cleared = ++generation;
+            cache.values().forEach(CachedSecret::destroy);
+            cache.clear();
+        }
+    }
+
+}
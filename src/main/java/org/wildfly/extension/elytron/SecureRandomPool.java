@@ -0,0 +1,221 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.elytron;
+
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.SecureRandomSpi;
+import java.security.Security;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+
+/**
+ * A {@link SecureRandom} which spreads requests over a fixed number of independent non-blocking generators so concurrent
+ * handshakes do not contend on, or block within, a single shared instance.
+ *
+ * Each thread is always served by the same stripe, each stripe is reseeded from a non-blocking seed source once the reseed
+ * interval has elapsed. The time threads spend obtaining random bytes, including waiting for their stripe, is recorded.
+ *
+ * As the {@link SSLContext} is initialised by the {@code SSLContextBuilder} the pool is installed by wrapping the providers
+ * the context is obtained from, see {@link #wrap(Provider[])}.
+ */
+class SecureRandomPool extends SecureRandomSpi {
+
+    private static final String[] ALGORITHMS = { "DRBG", "SHA1PRNG" };
+    private static final String SEED_ALGORITHM = "NativePRNGNonBlocking";
+    private static final int SEED_LENGTH = 32;
+    private static final String SSL_CONTEXT = "SSLContext";
+
+    private final Stripe[] stripes;
+    private final long reseedInterval;
+    private final SecureRandom seedSource;
+    private final SecureRandom secureRandom;
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param size the number of stripes.
+     * @param reseedInterval the interval in milliseconds after which each stripe is reseeded.
+     * @throws NoSuchAlgorithmException if no suitable generator algorithm is available.
+     */
+    SecureRandomPool(int size, long reseedInterval) throws NoSuchAlgorithmException {
+        this.reseedInterval = TimeUnit.MILLISECONDS.toNanos(reseedInterval);
+        seedSource = createSeedSource();
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(createGenerator());
+        }
+        secureRandom = new SecureRandom(this, null) {};
+    }
+
+    /**
+     * Get the {@link SecureRandom} backed by this pool.
+     *
+     * @return the {@link SecureRandom} backed by this pool.
+     */
+    SecureRandom getSecureRandom() {
+        return secureRandom;
+    }
+
+    long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.sum());
+    }
+
+    @Override
+    protected void engineSetSeed(byte[] seed) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.generator.setSeed(seed);
+            }
+        }
+    }
+
+    @Override
+    protected void engineNextBytes(byte[] bytes) {
+        final long start = System.nanoTime();
+        final Stripe stripe = stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+        synchronized (stripe) {
+            if (start - stripe.lastSeeded > reseedInterval) {
+                stripe.generator.setSeed(seed());
+                stripe.lastSeeded = start;
+            }
+            stripe.generator.nextBytes(bytes);
+        }
+        requestCount.increment();
+        waitTime.add(System.nanoTime() - start);
+    }
+
+    @Override
+    protected byte[] engineGenerateSeed(int numBytes) {
+        byte[] seed = new byte[numBytes];
+        synchronized (seedSource) {
+            seedSource.nextBytes(seed);
+        }
+        return seed;
+    }
+
+    private byte[] seed() {
+        return engineGenerateSeed(SEED_LENGTH);
+    }
+
+    private SecureRandom createGenerator() throws NoSuchAlgorithmException {
+        for (String algorithm : ALGORITHMS) {
+            try {
+                SecureRandom generator = SecureRandom.getInstance(algorithm);
+                // Seeding before first use also prevents the generator from seeding itself from a blocking source.
+                generator.setSeed(seed());
+                return generator;
+            } catch (NoSuchAlgorithmException e) {
+                continue;
+            }
+        }
+        throw new NoSuchAlgorithmException(String.join(", ", ALGORITHMS));
+    }
+
+    private static SecureRandom createSeedSource() {
+        try {
+            return SecureRandom.getInstance(SEED_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * Wrap the providers an {@link SSLContext} will be obtained from so that when the context is initialised without a
+     * {@link SecureRandom} the {@link SecureRandom} of this pool is used instead.
+     *
+     * @param providers the providers to wrap or {@code null} to wrap the globally registered providers.
+     * @return a supplier of the wrapped providers.
+     */
+    Supplier<Provider[]> wrap(Provider[] providers) {
+        return () -> {
+            Provider[] delegates = providers != null ? providers : Security.getProviders();
+            Provider[] wrapped = new Provider[delegates.length];
+            for (int i = 0; i < delegates.length; i++) {
+                wrapped[i] = new PoolingProvider(delegates[i]);
+            }
+            return wrapped;
+        };
+    }
+
+    private static final class Stripe {
+
+        private final SecureRandom generator;
+        private long lastSeeded = System.nanoTime();
+
+        Stripe(SecureRandom generator) {
+            this.generator = generator;
+        }
+    }
+
+    /**
+     * A {@link Provider} exposing the {@code SSLContext} services of another provider with the {@link SecureRandom} of this
+     * pool substituted when the contexts are initialised.
+     */
+    private final class PoolingProvider extends Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        PoolingProvider(Provider delegate) {
+            super(delegate.getName(), delegate.getVersion(), delegate.getInfo());
+            for (Service service : delegate.getServices()) {
+                if (SSL_CONTEXT.equals(service.getType())) {
+                    putService(new PoolingService(this, service));
+                }
+            }
+        }
+    }
+
+    private final class PoolingService extends Provider.Service {
+
+        private final Provider.Service delegate;
+
+        PoolingService(Provider provider, Provider.Service delegate) {
+            super(provider, SSL_CONTEXT, delegate.getAlgorithm(), delegate.getClassName(), Collections.emptyList(), Collections.emptyMap());
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object newInstance(Object constructorParameter) throws NoSuchAlgorithmException {
+            return new DelegatingSSLContextSpi(SSLContext.getInstance(delegate.getAlgorithm(), delegate.getProvider())) {
+
+                @Override
+                protected void engineInit(KeyManager[] keyManagers, TrustManager[] trustManagers, SecureRandom random) throws KeyManagementException {
+                    super.engineInit(keyManagers, trustManagers, random != null ? random : secureRandom);
+                }
+
+            };
+        }
+    }
+
+}
@@ -33,36 +33,54 @@ import static org.wildfly.extension.elytron.ElytronDescriptionConstants.ALIAS_AT
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.ALIAS_FILTER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.ATTRIBUTE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.AUTHENTICATION_OPTIONAL;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.AUTO_RELOAD;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.AUTO_RELOAD_INTERVAL;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CACHE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CERTIFICATE_ATTRIBUTE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CERTIFICATE_CHAIN_ATTRIBUTE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CERTIFICATE_CHAIN_ENCODING;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CERTIFICATE_REVOCATION_LIST;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CERTIFICATE_TYPE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CIPHER_SUITE_FILTER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CLIENT_SSL_CONTEXT;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.CLIENT_SSL_CONTEXTS;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.DEFAULT_SSL_CONTEXT;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.DELEGATED_TASK_PARALLELISM;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.DELEGATED_TASK_QUEUE_DEPTH;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.DIR_CONTEXT;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.EXPIRY_HORIZON;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILTERING_KEY_STORE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILTER_ALIAS;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILTER_CERTIFICATE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.FILTER_ITERATE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.HOST;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.HOST_CONTEXT_MAP;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.INDEXED;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_ATTRIBUTE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_MANAGER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_MANAGERS;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_STORE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_STORES;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.KEY_TYPE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.LAZY_LOAD;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.LDAP_KEY_STORE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.LDAP_MAPPING;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.MATERIALIZED;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.MAXIMUM_ENTRIES;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.MAXIMUM_SESSION_CACHE_SIZE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NAME;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NEED_CLIENT_AUTH;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NEGATIVE_CACHING;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NEW_ITEM_ATTRIBUTES;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NEW_ITEM_PATH;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NEW_ITEM_RDN;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.NEW_ITEM_TEMPLATE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PAGE_SIZE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.OCSP;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PASSWORD;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PATH;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PIN_SESSIONS;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PROTOCOLS;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PROVIDER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.PROVIDER_LOADER;
@@ -71,10 +89,17 @@ import static org.wildfly.extension.elytron.ElytronDescriptionConstants.REQUIRED
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SEARCH_PATH;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SEARCH_RECURSIVE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SEARCH_TIME_LIMIT;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SECURE_RANDOM_POOL_SIZE;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SECURE_RANDOM_RESEED_INTERVAL;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SECURITY_DOMAIN;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SERVER_SSL_CONTEXT;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SERVER_SSL_CONTEXTS;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SERVER_SSL_SNI_CONTEXT;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SERVER_SSL_SNI_CONTEXTS;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SESSION_TIMEOUT;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SNI_MAPPING;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.SSL_CONTEXT;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.TIME_TO_LIVE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.TLS;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.TRUST_MANAGER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.TRUST_MANAGERS;
@@ -82,6 +107,8 @@ import static org.wildfly.extension.elytron.ElytronDescriptionConstants.TYPE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.USE_CIPHER_SUITES_ORDER;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.VALUE;
 import static org.wildfly.extension.elytron.ElytronDescriptionConstants.WANT_CLIENT_AUTH;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.WARM_UP_PEERS;
+import static org.wildfly.extension.elytron.ElytronDescriptionConstants.WRITE_BEHIND_DELAY;
 import static org.wildfly.extension.elytron.ElytronSubsystemParser.verifyNamespace;
 
 import java.util.Arrays;
@@ -110,6 +137,7 @@ class TlsParser {
         boolean trustManagersFound = false;
         boolean serverSSLContextsFound = false;
         boolean clientSSLContextsFound = false;
+        boolean serverSNISSLContextsFound = false;
 
         while(reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             verifyNamespace(reader);
@@ -129,6 +157,9 @@ class TlsParser {
             } else if (CLIENT_SSL_CONTEXTS.equals(localName) && clientSSLContextsFound == false) {
                 clientSSLContextsFound = true;
                 readClientSSLContexts(parentAddress, reader, operations);
+            } else if (SERVER_SSL_SNI_CONTEXTS.equals(localName) && serverSNISSLContextsFound == false) {
+                serverSNISSLContextsFound = true;
+                readServerSNISSLContexts(parentAddress, reader, operations);
             } else {
                 throw unexpectedElement(reader);
             }
@@ -178,6 +209,9 @@ class TlsParser {
                     case PROVIDER:
                         SSLDefinitions.PROVIDER.parseAndSetParameter(value, addKeyManager, reader);
                         break;
+                    case INDEXED:
+                        SSLDefinitions.INDEXED.parseAndSetParameter(value, addKeyManager, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -245,6 +279,9 @@ class TlsParser {
                     case PROVIDER:
                         SSLDefinitions.PROVIDER.parseAndSetParameter(value, addKeyManager, reader);
                         break;
+                    case INDEXED:
+                        SSLDefinitions.INDEXED.parseAndSetParameter(value, addKeyManager, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -258,7 +295,17 @@ class TlsParser {
         addKeyManager.get(OP_ADDR).set(parentAddress).add(TRUST_MANAGERS, name);
         list.add(addKeyManager);
 
-        requireNoContent(reader);
+        while(reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            verifyNamespace(reader);
+            String localName = reader.getLocalName();
+            if (CERTIFICATE_REVOCATION_LIST.equals(localName) && addKeyManager.hasDefined(CERTIFICATE_REVOCATION_LIST) == false) {
+                SSLDefinitions.CERTIFICATE_REVOCATION_LIST.getParser().parseElement(SSLDefinitions.CERTIFICATE_REVOCATION_LIST, reader, addKeyManager);
+            } else if (OCSP.equals(localName) && addKeyManager.hasDefined(OCSP) == false) {
+                SSLDefinitions.OCSP.getParser().parseElement(SSLDefinitions.OCSP, reader, addKeyManager);
+            } else {
+                throw unexpectedElement(reader);
+            }
+        }
     }
 
     private void readServerSSLContexts(ModelNode parentAddress, XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
@@ -330,6 +377,18 @@ class TlsParser {
                     case PROVIDER:
                         SSLDefinitions.PROVIDER_LOADER.parseAndSetParameter(value, addServerSSLContext, reader);
                         break;
+                    case DELEGATED_TASK_PARALLELISM:
+                        SSLDefinitions.DELEGATED_TASK_PARALLELISM.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case DELEGATED_TASK_QUEUE_DEPTH:
+                        SSLDefinitions.DELEGATED_TASK_QUEUE_DEPTH.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case SECURE_RANDOM_POOL_SIZE:
+                        SSLDefinitions.SECURE_RANDOM_POOL_SIZE.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case SECURE_RANDOM_RESEED_INTERVAL:
+                        SSLDefinitions.SECURE_RANDOM_RESEED_INTERVAL.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -403,6 +462,26 @@ class TlsParser {
                     case PROVIDER:
                         SSLDefinitions.PROVIDER_LOADER.parseAndSetParameter(value, addServerSSLContext, reader);
                         break;
+                    case DELEGATED_TASK_PARALLELISM:
+                        SSLDefinitions.DELEGATED_TASK_PARALLELISM.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case DELEGATED_TASK_QUEUE_DEPTH:
+                        SSLDefinitions.DELEGATED_TASK_QUEUE_DEPTH.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case SECURE_RANDOM_POOL_SIZE:
+                        SSLDefinitions.SECURE_RANDOM_POOL_SIZE.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case SECURE_RANDOM_RESEED_INTERVAL:
+                        SSLDefinitions.SECURE_RANDOM_RESEED_INTERVAL.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case PIN_SESSIONS:
+                        SSLDefinitions.PIN_SESSIONS.parseAndSetParameter(value, addServerSSLContext, reader);
+                        break;
+                    case WARM_UP_PEERS:
+                        for (String peer : reader.getListAttributeValue(i)) {
+                            SSLDefinitions.WARM_UP_PEERS.parseAndAddParameterElement(peer, addServerSSLContext, reader);
+                        }
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -419,6 +498,97 @@ class TlsParser {
         requireNoContent(reader);
     }
 
+    private void readServerSNISSLContexts(ModelNode parentAddress, XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        requireNoAttributes(reader);
+        while(reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            verifyNamespace(reader);
+            String localName = reader.getLocalName();
+            if (SERVER_SSL_SNI_CONTEXT.equals(localName)) {
+                readServerSNISSLContext(parentAddress, reader, operations);
+            } else {
+                throw unexpectedElement(reader);
+            }
+        }
+    }
+
+    private void readServerSNISSLContext(ModelNode parentAddress, XMLExtendedStreamReader reader, List<ModelNode> list) throws XMLStreamException {
+        ModelNode addServerSNISSLContext = new ModelNode();
+        addServerSNISSLContext.get(OP).set(ADD);
+        Set<String> requiredAttributes = new HashSet<String>(Arrays.asList(new String[] { NAME, DEFAULT_SSL_CONTEXT }));
+        String name = null;
+
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            final String value = reader.getAttributeValue(i);
+            if (!isNoNamespaceAttribute(reader, i)) {
+                throw unexpectedAttribute(reader, i);
+            } else {
+                String attribute = reader.getAttributeLocalName(i);
+                requiredAttributes.remove(attribute);
+                switch (attribute) {
+                    case NAME:
+                        name = value;
+                        break;
+                    case DEFAULT_SSL_CONTEXT:
+                        SSLDefinitions.DEFAULT_SSL_CONTEXT.parseAndSetParameter(value, addServerSNISSLContext, reader);
+                        break;
+                    default:
+                        throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+
+        if (requiredAttributes.isEmpty() == false) {
+            throw missingRequired(reader, requiredAttributes);
+        }
+
+        addServerSNISSLContext.get(OP_ADDR).set(parentAddress).add(SERVER_SSL_SNI_CONTEXT, name);
+        list.add(addServerSNISSLContext);
+
+        while(reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            verifyNamespace(reader);
+            String localName = reader.getLocalName();
+            if (SNI_MAPPING.equals(localName)) {
+                readSNIMapping(addServerSNISSLContext.get(HOST_CONTEXT_MAP), reader);
+            } else {
+                throw unexpectedElement(reader);
+            }
+        }
+    }
+
+    private void readSNIMapping(ModelNode hostContextMap, XMLExtendedStreamReader reader) throws XMLStreamException {
+        ModelNode mapping = new ModelNode();
+        Set<String> requiredAttributes = new HashSet<String>(Arrays.asList(new String[] { HOST, SSL_CONTEXT }));
+
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            final String value = reader.getAttributeValue(i);
+            if (!isNoNamespaceAttribute(reader, i)) {
+                throw unexpectedAttribute(reader, i);
+            } else {
+                String attribute = reader.getAttributeLocalName(i);
+                requiredAttributes.remove(attribute);
+                switch (attribute) {
+                    case HOST:
+                        SSLDefinitions.HOST.parseAndSetParameter(value, mapping, reader);
+                        break;
+                    case SSL_CONTEXT:
+                        SSLDefinitions.MAPPED_SSL_CONTEXT.parseAndSetParameter(value, mapping, reader);
+                        break;
+                    default:
+                        throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+
+        if (requiredAttributes.isEmpty() == false) {
+            throw missingRequired(reader, requiredAttributes);
+        }
+
+        hostContextMap.add(mapping);
+        requireNoContent(reader);
+    }
+
     private void readKeyStores(ModelNode parentAddress, XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         requireNoAttributes(reader);
         while(reader.hasNext() && reader.nextTag() != END_ELEMENT) {
@@ -469,6 +639,9 @@ class TlsParser {
                     case ALIAS_FILTER:
                         KeyStoreDefinition.ALIAS_FILTER.parseAndSetParameter(value, addKeyStore, reader);
                         break;
+                    case EXPIRY_HORIZON:
+                        CertificateExpiryAttributeDefinitions.EXPIRY_HORIZON.parseAndSetParameter(value, addKeyStore, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -515,6 +688,18 @@ class TlsParser {
                     case REQUIRED:
                         KeyStoreDefinition.REQUIRED.parseAndSetParameter(value, addOp, reader);
                         break;
+                    case AUTO_RELOAD:
+                        KeyStoreDefinition.AUTO_RELOAD.parseAndSetParameter(value, addOp, reader);
+                        break;
+                    case AUTO_RELOAD_INTERVAL:
+                        KeyStoreDefinition.AUTO_RELOAD_INTERVAL.parseAndSetParameter(value, addOp, reader);
+                        break;
+                    case WRITE_BEHIND_DELAY:
+                        KeyStoreDefinition.WRITE_BEHIND_DELAY.parseAndSetParameter(value, addOp, reader);
+                        break;
+                    case LAZY_LOAD:
+                        KeyStoreDefinition.LAZY_LOAD.parseAndSetParameter(value, addOp, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -557,6 +742,9 @@ class TlsParser {
                     case SEARCH_TIME_LIMIT:
                         LdapKeyStoreDefinition.SEARCH_TIME_LIMIT.parseAndSetParameter(value, addKeyStore, reader);
                         break;
+                    case PAGE_SIZE:
+                        LdapKeyStoreDefinition.PAGE_SIZE.parseAndSetParameter(value, addKeyStore, reader);
+                        break;
                     case FILTER_ALIAS:
                         LdapKeyStoreDefinition.FILTER_ALIAS.parseAndSetParameter(value, addKeyStore, reader);
                         break;
@@ -566,6 +754,9 @@ class TlsParser {
                     case FILTER_ITERATE:
                         LdapKeyStoreDefinition.FILTER_ITERATE.parseAndSetParameter(value, addKeyStore, reader);
                         break;
+                    case EXPIRY_HORIZON:
+                        CertificateExpiryAttributeDefinitions.EXPIRY_HORIZON.parseAndSetParameter(value, addKeyStore, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -586,6 +777,8 @@ class TlsParser {
                 readNewItemTemplate(addKeyStore, reader, list);
             } else if (LDAP_MAPPING.equals(localName)) {
                 readLdapMapping(addKeyStore, reader, list);
+            } else if (CACHE.equals(localName)) {
+                readLdapKeyStoreCache(addKeyStore, reader);
             } else {
                 throw unexpectedElement(reader);
             }
@@ -633,6 +826,35 @@ class TlsParser {
         }
     }
 
+    private void readLdapKeyStoreCache(ModelNode addKeyStore, XMLExtendedStreamReader reader) throws XMLStreamException {
+        ModelNode cache = addKeyStore.get(CACHE).setEmptyObject();
+
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            final String value = reader.getAttributeValue(i);
+            if (!isNoNamespaceAttribute(reader, i)) {
+                throw unexpectedAttribute(reader, i);
+            } else {
+                String attribute = reader.getAttributeLocalName(i);
+                switch (attribute) {
+                    case MAXIMUM_ENTRIES:
+                        LdapKeyStoreDefinition.CacheObjectDefinition.MAXIMUM_ENTRIES.parseAndSetParameter(value, cache, reader);
+                        break;
+                    case TIME_TO_LIVE:
+                        LdapKeyStoreDefinition.CacheObjectDefinition.TIME_TO_LIVE.parseAndSetParameter(value, cache, reader);
+                        break;
+                    case NEGATIVE_CACHING:
+                        LdapKeyStoreDefinition.CacheObjectDefinition.NEGATIVE_CACHING.parseAndSetParameter(value, cache, reader);
+                        break;
+                    default:
+                        throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+
+        requireNoContent(reader);
+    }
+
     private void readLdapAttribute(ModelNode attribute, XMLExtendedStreamReader reader) throws XMLStreamException {
         Set<String> requiredAttributes = new HashSet<>(Arrays.asList(new String[]{NAME, VALUE}));
         final int count = reader.getAttributeCount();
@@ -728,6 +950,9 @@ class TlsParser {
                     case ALIAS_FILTER:
                         FilteringKeyStoreDefinition.ALIAS_FILTER.parseAndSetParameter(value, addKeyStore, reader);
                         break;
+                    case MATERIALIZED:
+                        FilteringKeyStoreDefinition.MATERIALIZED.parseAndSetParameter(value, addKeyStore, reader);
+                        break;
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -758,6 +983,7 @@ class TlsParser {
         tlsStarted = tlsStarted | writeTrustManagers(tlsStarted, subsystem, writer);
         tlsStarted = tlsStarted | writeServerSSLContext(tlsStarted, subsystem, writer);
         tlsStarted = tlsStarted | writeClientSSLContext(tlsStarted, subsystem, writer);
+        tlsStarted = tlsStarted | writeServerSNISSLContext(tlsStarted, subsystem, writer);
 
         if (tlsStarted) {
             writer.writeEndElement();
@@ -777,6 +1003,7 @@ class TlsParser {
                 SSLDefinitions.KEYSTORE.marshallAsAttribute(keyManager, writer);
                 SSLDefinitions.PROVIDER_LOADER.marshallAsAttribute(keyManager, writer);
                 SSLDefinitions.PROVIDER.marshallAsAttribute(keyManager, writer);
+                SSLDefinitions.INDEXED.marshallAsAttribute(keyManager, writer);
 
                 if (keyManager.hasDefined(CredentialReference.CREDENTIAL_REFERENCE)) {
                     CredentialReference.getAttributeDefinition().marshallAsElement(keyManager.get(CredentialReference.CREDENTIAL_REFERENCE), writer);
@@ -805,6 +1032,9 @@ class TlsParser {
                 SSLDefinitions.KEYSTORE.marshallAsAttribute(trustManager, writer);
                 SSLDefinitions.PROVIDER_LOADER.marshallAsAttribute(trustManager, writer);
                 SSLDefinitions.PROVIDER.marshallAsAttribute(trustManager, writer);
+                SSLDefinitions.INDEXED.marshallAsAttribute(trustManager, writer);
+                SSLDefinitions.CERTIFICATE_REVOCATION_LIST.marshallAsElement(trustManager, writer);
+                SSLDefinitions.OCSP.marshallAsElement(trustManager, writer);
 
                 writer.writeEndElement();
             }
@@ -838,6 +1068,10 @@ class TlsParser {
                 SSLDefinitions.KEY_MANAGERS.marshallAsAttribute(serverSSLContext, writer);
                 SSLDefinitions.TRUST_MANAGERS.marshallAsAttribute(serverSSLContext, writer);
                 SSLDefinitions.PROVIDER_LOADER.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.DELEGATED_TASK_PARALLELISM.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.DELEGATED_TASK_QUEUE_DEPTH.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.SECURE_RANDOM_POOL_SIZE.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.SECURE_RANDOM_RESEED_INTERVAL.marshallAsAttribute(serverSSLContext, writer);
 
                 writer.writeEndElement();
             }
@@ -867,6 +1101,43 @@ class TlsParser {
                 SSLDefinitions.KEY_MANAGERS.marshallAsAttribute(serverSSLContext, writer);
                 SSLDefinitions.TRUST_MANAGERS.marshallAsAttribute(serverSSLContext, writer);
                 SSLDefinitions.PROVIDER_LOADER.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.DELEGATED_TASK_PARALLELISM.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.DELEGATED_TASK_QUEUE_DEPTH.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.SECURE_RANDOM_POOL_SIZE.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.SECURE_RANDOM_RESEED_INTERVAL.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.PIN_SESSIONS.marshallAsAttribute(serverSSLContext, writer);
+                SSLDefinitions.WARM_UP_PEERS.getAttributeMarshaller().marshallAsAttribute(SSLDefinitions.WARM_UP_PEERS, serverSSLContext, false, writer);
+
+                writer.writeEndElement();
+            }
+
+            writer.writeEndElement();
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean writeServerSNISSLContext(boolean started, ModelNode subsystem, XMLExtendedStreamWriter writer) throws XMLStreamException {
+        if (subsystem.hasDefined(SERVER_SSL_SNI_CONTEXT)) {
+            startTLS(started, writer);
+            writer.writeStartElement(SERVER_SSL_SNI_CONTEXTS);
+            ModelNode serverSNISSLContexts = subsystem.require(SERVER_SSL_SNI_CONTEXT);
+
+            for (String name : serverSNISSLContexts.keys()) {
+                ModelNode serverSNISSLContext = serverSNISSLContexts.require(name);
+                writer.writeStartElement(SERVER_SSL_SNI_CONTEXT);
+                writer.writeAttribute(NAME, name);
+                SSLDefinitions.DEFAULT_SSL_CONTEXT.marshallAsAttribute(serverSNISSLContext, writer);
+
+                if (serverSNISSLContext.hasDefined(HOST_CONTEXT_MAP)) {
+                    for (ModelNode mapping : serverSNISSLContext.get(HOST_CONTEXT_MAP).asList()) {
+                        writer.writeStartElement(SNI_MAPPING);
+                        SSLDefinitions.HOST.marshallAsAttribute(mapping, writer);
+                        SSLDefinitions.MAPPED_SSL_CONTEXT.marshallAsAttribute(mapping, writer);
+                        writer.writeEndElement();
+                    }
+                }
 
                 writer.writeEndElement();
             }
@@ -893,12 +1164,17 @@ class TlsParser {
                     KeyStoreDefinition.PROVIDER.marshallAsAttribute(keyStore, writer);
                     KeyStoreDefinition.PROVIDER_LOADER.marshallAsAttribute(keyStore, writer);
                     KeyStoreDefinition.ALIAS_FILTER.marshallAsAttribute(keyStore, writer);
+                    CertificateExpiryAttributeDefinitions.EXPIRY_HORIZON.marshallAsAttribute(keyStore, writer);
 
                     if (keyStore.hasDefined(PATH)) {
                         writer.writeStartElement(FILE);
                         FileAttributeDefinitions.RELATIVE_TO.marshallAsAttribute(keyStore, writer);
                         FileAttributeDefinitions.PATH.marshallAsAttribute(keyStore, writer);
                         KeyStoreDefinition.REQUIRED.marshallAsAttribute(keyStore, writer);
+                        KeyStoreDefinition.AUTO_RELOAD.marshallAsAttribute(keyStore, writer);
+                        KeyStoreDefinition.AUTO_RELOAD_INTERVAL.marshallAsAttribute(keyStore, writer);
+                        KeyStoreDefinition.WRITE_BEHIND_DELAY.marshallAsAttribute(keyStore, writer);
+                        KeyStoreDefinition.LAZY_LOAD.marshallAsAttribute(keyStore, writer);
 
                         writer.writeEndElement();
                     }
@@ -920,9 +1196,11 @@ class TlsParser {
                     LdapKeyStoreDefinition.SEARCH_PATH.marshallAsAttribute(keyStore, writer);
                     LdapKeyStoreDefinition.SEARCH_RECURSIVE.marshallAsAttribute(keyStore, writer);
                     LdapKeyStoreDefinition.SEARCH_TIME_LIMIT.marshallAsAttribute(keyStore, writer);
+                    LdapKeyStoreDefinition.PAGE_SIZE.marshallAsAttribute(keyStore, writer);
                     LdapKeyStoreDefinition.FILTER_ALIAS.marshallAsAttribute(keyStore, writer);
                     LdapKeyStoreDefinition.FILTER_CERTIFICATE.marshallAsAttribute(keyStore, writer);
                     LdapKeyStoreDefinition.FILTER_ITERATE.marshallAsAttribute(keyStore, writer);
+                    CertificateExpiryAttributeDefinitions.EXPIRY_HORIZON.marshallAsAttribute(keyStore, writer);
 
                     ModelNode newItemTemplate = keyStore.get(NEW_ITEM_TEMPLATE);
                     if (newItemTemplate.isDefined()) {
@@ -958,6 +1236,15 @@ class TlsParser {
                         LdapKeyStoreDefinition.KEY_TYPE.marshallAsAttribute(keyStore, writer);
                         writer.writeEndElement();
                     }
+
+                    ModelNode cache = keyStore.get(CACHE);
+                    if (cache.isDefined()) {
+                        writer.writeStartElement(CACHE);
+                        LdapKeyStoreDefinition.CacheObjectDefinition.MAXIMUM_ENTRIES.marshallAsAttribute(cache, writer);
+                        LdapKeyStoreDefinition.CacheObjectDefinition.TIME_TO_LIVE.marshallAsAttribute(cache, writer);
+                        LdapKeyStoreDefinition.CacheObjectDefinition.NEGATIVE_CACHING.marshallAsAttribute(cache, writer);
+                        writer.writeEndElement();
+                    }
                     writer.writeEndElement(); // end of LDAP_KEY_STORE
                 }
             }
@@ -970,6 +1257,7 @@ class TlsParser {
                     writer.writeAttribute(NAME, name);
                     FilteringKeyStoreDefinition.KEY_STORE.marshallAsAttribute(keyStore, writer);
                     FilteringKeyStoreDefinition.ALIAS_FILTER.marshallAsAttribute(keyStore, writer);
+                    FilteringKeyStoreDefinition.MATERIALIZED.marshallAsAttribute(keyStore, writer);
                     writer.writeEndElement(); // end of FILTERING_KEY_STORE
                 }
             }
@@ -67,7 +67,7 @@ abstract class TrivialAddHandler<T> extends BaseAddHandler {
         ServiceName mainName = runtimeCapabilities[0].fromBaseCapability(address).getCapabilityServiceName();
 
         ServiceTarget serviceTarget = context.getServiceTarget();
-        TrivialService<T> trivialService = new TrivialService<T>();
+        TrivialService<T> trivialService = new TrivialService<T>(isStartAsynchronous());
 
         ServiceBuilder<T> serviceBuilder = serviceTarget.addService(mainName, trivialService);
         for (int i= 1; i< runtimeCapabilities.length; i++) {
@@ -83,6 +83,15 @@ abstract class TrivialAddHandler<T> extends BaseAddHandler {
 
     protected void installedForResource(ServiceController<T> serviceController, Resource resource) {}
 
+    /**
+     * Indicates if creating the value of the service is expensive enough that the service should be started asynchronously.
+     *
+     * @return {@code true} if the service should be started asynchronously, {@code false} by default.
+     */
+    protected boolean isStartAsynchronous() {
+        return false;
+    }
+
     protected abstract ValueSupplier<T> getValueSupplier(ServiceBuilder<T> serviceBuilder, OperationContext context, ModelNode model) throws OperationFailedException;
 
 }
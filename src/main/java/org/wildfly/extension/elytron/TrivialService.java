@@ -33,24 +33,47 @@ import org.jboss.msc.service.StopContext;
  */
 class TrivialService<T> implements Service<T> {
 
+    private final boolean asynchronous;
     private ValueSupplier<T> valueSupplier;
 
     private volatile T value;
 
     TrivialService() {
+        this(false);
+    }
+
+    /**
+     * @param asynchronous {@code true} if the value is expensive to create and should be created using {@link AsynchronousStart}.
+     */
+    TrivialService(boolean asynchronous) {
+        this.asynchronous = asynchronous;
     }
 
     TrivialService(ValueSupplier<T> valueSupplier) {
+        this(valueSupplier, false);
+    }
+
+    TrivialService(ValueSupplier<T> valueSupplier, boolean asynchronous) {
         this.valueSupplier = checkNotNullParam("valueSupplier", valueSupplier);
+        this.asynchronous = asynchronous;
     }
 
     void setValueSupplier(ValueSupplier<T> valueSupplier) {
         this.valueSupplier = checkNotNullParam("valueSupplier", valueSupplier);
     }
 
+    ValueSupplier<T> getValueSupplier() {
+        return valueSupplier;
+    }
+
     @Override
     public void start(StartContext context) throws StartException {
-        value = checkNotNullParam("valueSupplier", valueSupplier).get();
+        final ValueSupplier<T> valueSupplier = checkNotNullParam("valueSupplier", this.valueSupplier);
+        if (asynchronous) {
+            AsynchronousStart.start(context, () -> value = valueSupplier.get(context));
+        } else {
+            value = valueSupplier.get(context);
+        }
     }
 
     @Override
@@ -73,6 +96,17 @@ class TrivialService<T> implements Service<T> {
 
         T get() throws StartException;
 
+        /**
+         * Obtain the value for the service being started, by default this is the same as {@link #get()} but allows suppliers
+         * which need to locate other services at start time to use the {@link StartContext}.
+         *
+         * @param context the {@link StartContext} of the service being started.
+         * @return the value for the service.
+         */
+        default T get(StartContext context) throws StartException {
+            return get();
+        }
+
         default void dispose() {}
 
     }
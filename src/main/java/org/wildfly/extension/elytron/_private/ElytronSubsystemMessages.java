@@ -18,6 +18,7 @@
 
 package org.wildfly.extension.elytron._private;
 
+import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
@@ -250,6 +251,111 @@ public interface ElytronSubsystemMessages extends BasicLogger {
     @Message(id = 24, value = "Certificate [%s] in KeyStore is not valid")
     void certificateNotValid(String alias, @Cause Exception cause);
 
+    @LogMessage(level = WARN)
+    @Message(id = 25, value = "Unable to re-initialise the %s following a reload of KeyStore '%s', the previous instance remains in use.")
+    void unableToReinitialiseManager(String type, String keyStore, @Cause Exception cause);
+
+    /**
+     * An {@link OperationFailedException} where a host name mapped by an SNI aware SSLContext is not valid.
+     *
+     * @param host the host name or wildcard pattern that failed validation.
+     * @return The {@link OperationFailedException} for the error.
+     */
+    @Message(id = 26, value = "The host name '%s' is not a valid host name or wildcard pattern.")
+    OperationFailedException invalidSniHostName(String host);
+
+    /**
+     * A {@link StartException} if the certificate revocation lists for a trust manager can not be loaded.
+     *
+     * @param path the path of the file the certificate revocation lists were being loaded from.
+     * @param cause the underlying cause of the error.
+     * @return The {@link StartException} for the error.
+     */
+    @Message(id = 27, value = "Unable to load the certificate revocation lists from '%s'.")
+    StartException unableToLoadCertificateRevocationList(String path, @Cause Exception cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 28, value = "Unable to reload the certificate revocation lists from '%s', the previously loaded revocation lists remain in use.")
+    void unableToReloadCertificateRevocationList(String path, @Cause Exception cause);
+
+    /**
+     * An {@link OperationFailedException} where a peer to warm up sessions with is not in the form {@code host:port}.
+     *
+     * @param peer the peer that failed validation.
+     * @return The {@link OperationFailedException} for the error.
+     */
+    @Message(id = 29, value = "The peer '%s' is not in the form host:port.")
+    OperationFailedException invalidPeer(String peer);
+
+    @LogMessage(level = WARN)
+    @Message(id = 30, value = "Unable to establish a session with '%s' to warm up SSLContext '%s'.")
+    void unableToWarmUpSession(String peer, String sslContext, @Cause Exception cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 31, value = "Unable to reload KeyStore file '%s' following a change, the previously loaded content remains in use.")
+    void unableToReloadKeyStore(String file, @Cause Exception cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 32, value = "Unable to store KeyStore to file '%s', the modifications remain pending.")
+    void unableToStoreKeyStore(String file, @Cause Exception cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 33, value = "Certificate [%s] in KeyStore '%s' expires at %s")
+    void certificateExpiring(String alias, String keyStore, String notAfter);
+
+    @Message(id = 34, value = "Certificate [%s] in KeyStore '%s' expires at %s")
+    String certificateExpiringNotification(String alias, String keyStore, String notAfter);
+
+    @LogMessage(level = WARN)
+    @Message(id = 35, value = "Unable to index the certificates of KeyStore '%s' to monitor their expiry.")
+    void unableToIndexCertificates(String keyStore, @Cause Exception cause);
+
+    @Message(id = 36, value = "Unable to iterate the aliases of LDAP KeyStore '%s'.")
+    IllegalStateException unableToIterateLdapKeyStoreAliases(String keyStore, @Cause Exception cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 37, value = "Unable to load KeyStore '%s' in the background.")
+    void unableToLoadKeyStore(String keyStore, @Cause Exception cause);
+
+    @Message(id = 38, value = "KeyStore '%s' is not available as it could not be loaded.")
+    IllegalStateException keyStoreNotLoaded(String keyStore, @Cause Throwable cause);
+
+    @Message(id = 39, value = "Unable to read certificates from '%s'.")
+    OperationFailedException unableToReadCertificates(String path, @Cause Exception cause);
+
+    @Message(id = 40, value = "Unable to write certificates to '%s'.")
+    OperationFailedException unableToWriteCertificates(String path, @Cause Exception cause);
+
+    @Message(id = 41, value = "No certificates found in '%s'.")
+    String noCertificatesFound(String path);
+
+    @Message(id = 42, value = "Alias '%s' already exists in the KeyStore.")
+    String aliasAlreadyExists(String alias);
+
+    @Message(id = 43, value = "No certificate found in the KeyStore for alias '%s'.")
+    String noCertificateForAlias(String alias);
+
+    @LogMessage(level = WARN)
+    @Message(id = 44, value = "Unable to index the certificates of KeyStore '%s' for identity lookups, identities can only be located by alias.")
+    void unableToIndexRealmCertificates(String keyStore, @Cause Exception cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 45, value = "KeyStore file '%s' has changed but the KeyStore has unsaved changes, the file has not been reloaded.")
+    void keyStoreFileChangedWithUnsavedChanges(String file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 46, value = "The certificate revocation list issued by '%s' in '%s' can not be verified using a trusted certificate and is ignored.")
+    void unverifiedCertificateRevocationList(String issuer, String path);
+
+    @Message(id = 47, value = "The provider and provider-loader attributes can not be set for an indexed KeyManager as it does not use a KeyManagerFactory.")
+    OperationFailedException providerNotSupportedByIndexedKeyManager();
+
+    @Message(id = 48, value = "An indexed KeyManager requires a KeyStore but none is available.")
+    StartException noKeyStoreForIndexedKeyManager();
+
+    @Message(id = 49, value = "Alias '%s' is derived from more than one certificate being imported, only the first has been imported.")
+    String duplicateImportAlias(String alias);
+
     // CREDENTIAL_STORE section
     @Message(id = 909, value = "Credential store '%s' does not support given credential store entry type '%s'")
     IllegalArgumentException credentialStoreEntryTypeNotSupported(String credentialStoreName, String entryType);
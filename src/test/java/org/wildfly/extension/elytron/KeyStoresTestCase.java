@@ -20,20 +20,42 @@ package org.wildfly.extension.elytron;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.AccessController;
 import java.security.KeyStore;
 import java.security.PrivilegedAction;
 import java.security.Provider;
 import java.security.Security;
+import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.helpers.ClientConstants;
+import org.jboss.as.controller.notification.Notification;
+import org.jboss.as.controller.notification.NotificationFilter;
+import org.jboss.as.controller.notification.NotificationHandler;
 import org.jboss.as.controller.security.CredentialReference;
+import org.jboss.as.controller.security.CredentialStoreClient;
+import org.jboss.as.server.Services;
 import org.jboss.as.subsystem.test.AbstractSubsystemTest;
 import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.dmr.ModelNode;
@@ -44,6 +66,12 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.wildfly.security.WildFlyElytronProvider;
+import org.wildfly.security.credential.Credential;
+import org.wildfly.security.credential.PasswordCredential;
+import org.wildfly.security.credential.store.CredentialStore;
+import org.wildfly.security.credential.store.CredentialStoreException;
+import org.wildfly.security.credential.store.CredentialStoreSpi;
+import org.wildfly.security.password.interfaces.ClearPassword;
 
 
 /**
@@ -165,6 +193,768 @@ public class KeyStoresTestCase extends AbstractSubsystemTest {
         assertSuccess(services.executeOperation(operation));
     }
 
+    @Test
+    public void testKeystoreAutoReload() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path keyStoreFile = resources.resolve("firefly-reload.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "ReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.AUTO_RELOAD).set(true);
+        operation.get(ElytronDescriptionConstants.AUTO_RELOAD_INTERVAL).set(100);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertEquals(2, readKeyStoreSize("ReloadingKeyStore"));
+
+        // replace the file with a copy missing the "ca" entry
+        KeyStore replacement = KeyStore.getInstance("JKS");
+        try (InputStream is = Files.newInputStream(resources.resolve("firefly.keystore"))) {
+            replacement.load(is, "Elytron".toCharArray());
+        }
+        replacement.deleteEntry("ca");
+        Path temp = resources.resolve("firefly-reload.keystore.tmp");
+        try (OutputStream os = Files.newOutputStream(temp)) {
+            replacement.store(os, "Elytron".toCharArray());
+        }
+        Files.move(temp, keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+        Assert.assertEquals(1, awaitKeyStoreSize("ReloadingKeyStore", 1));
+
+        // a file which can not be loaded must leave the previous content in place
+        Files.write(keyStoreFile, new byte[] { 0x01, 0x02, 0x03 });
+        awaitFileChecked("ReloadingKeyStore");
+        Assert.assertEquals(1, readKeyStoreSize("ReloadingKeyStore"));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","ReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+        Files.delete(keyStoreFile);
+    }
+
+    @Test
+    public void testKeystoreAutoReloadRetainsUnsavedChanges() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path keyStoreFile = resources.resolve("firefly-reload-unsaved.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "UnsavedReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.AUTO_RELOAD).set(true);
+        operation.get(ElytronDescriptionConstants.AUTO_RELOAD_INTERVAL).set(100);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode(); // unsaved change
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","UnsavedReloadingKeyStore").add("alias","ca");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+        Assert.assertEquals(1, readKeyStoreSize("UnsavedReloadingKeyStore"));
+
+        // replace the file with one of the same size, the unsaved change must not be discarded
+        Path temp = resources.resolve("firefly-reload-unsaved.keystore.tmp");
+        Files.copy(resources.resolve("firefly.keystore"), temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+        awaitFileChecked("UnsavedReloadingKeyStore");
+        Assert.assertEquals(1, readKeyStoreSize("UnsavedReloadingKeyStore"));
+        Assert.assertEquals(1, readPendingModifications("UnsavedReloadingKeyStore"));
+
+        operation = new ModelNode(); // save, the save itself must not be reloaded
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","UnsavedReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.STORE);
+        assertSuccess(services.executeOperation(operation));
+        awaitFileChecked("UnsavedReloadingKeyStore");
+        Assert.assertEquals(1, readKeyStoreSize("UnsavedReloadingKeyStore"));
+        Assert.assertEquals(0, readPendingModifications("UnsavedReloadingKeyStore"));
+
+        // once saved an external change is reloaded again
+        Files.copy(resources.resolve("firefly.keystore"), temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+        Assert.assertEquals(2, awaitKeyStoreSize("UnsavedReloadingKeyStore", 2));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","UnsavedReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+        Files.delete(keyStoreFile);
+    }
+
+    @Test
+    public void testKeystoreWriteBehind() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path keyStoreFile = resources.resolve("firefly-write-behind.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "WriteBehindKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.WRITE_BEHIND_DELAY).set(500);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","WriteBehindKeyStore").add("alias","ca");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+        Assert.assertEquals(1, readPendingModifications("WriteBehindKeyStore"));
+
+        for (int i = 0; i < 3; i++) {
+            operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","WriteBehindKeyStore");
+            operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.STORE);
+            Assert.assertFalse(assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asBoolean());
+        }
+        // the store requests are coalesced and deferred so the file is not yet updated
+        Assert.assertEquals(1, readPendingModifications("WriteBehindKeyStore"));
+
+        TestEnvironment.awaitCondition("Deferred store not completed", () -> readPendingModifications("WriteBehindKeyStore") == 0);
+
+        KeyStore stored = KeyStore.getInstance("JKS");
+        try (InputStream is = Files.newInputStream(keyStoreFile)) {
+            stored.load(is, "Elytron".toCharArray());
+        }
+        Assert.assertEquals(1, stored.size());
+        Assert.assertFalse(stored.containsAlias("ca"));
+        try (Stream<Path> files = Files.list(resources)) {
+            Assert.assertFalse("Temporary file left behind", files.anyMatch(p -> p.getFileName().toString().startsWith("firefly-write-behind.keystore") && p.toString().endsWith(".tmp")));
+        }
+        Assert.assertEquals(0, readKeyStoreAttribute("WriteBehindKeyStore", ElytronDescriptionConstants.FAILED_STORES));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","WriteBehindKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+        Files.delete(keyStoreFile);
+    }
+
+    @Test
+    public void testKeystoreWriteBehindFailure() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path directory = Files.createDirectories(resources.resolve("write-behind-failure"));
+        Path keyStoreFile = directory.resolve("firefly.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "FailingWriteBehindKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.WRITE_BEHIND_DELAY).set(100);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","FailingWriteBehindKeyStore").add("alias","ca");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+
+        // the deferred store can not create its temporary file once the directory has gone
+        Files.delete(keyStoreFile);
+        Files.delete(directory);
+        ModelNode store = new ModelNode();
+        store.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","FailingWriteBehindKeyStore");
+        store.get(ClientConstants.OP).set(ElytronDescriptionConstants.STORE);
+        Assert.assertFalse(assertSuccess(services.executeOperation(store)).get(ClientConstants.RESULT).asBoolean());
+
+        TestEnvironment.awaitCondition("Deferred store not attempted",
+                () -> readKeyStoreAttribute("FailingWriteBehindKeyStore", ElytronDescriptionConstants.FAILED_STORES) != 0);
+        Assert.assertEquals(1, readKeyStoreAttribute("FailingWriteBehindKeyStore", ElytronDescriptionConstants.FAILED_STORES));
+        Assert.assertEquals(1, readPendingModifications("FailingWriteBehindKeyStore"));
+
+        Files.createDirectories(directory);
+        Assert.assertFalse(assertSuccess(services.executeOperation(store)).get(ClientConstants.RESULT).asBoolean());
+        TestEnvironment.awaitCondition("Deferred store not completed", () -> readPendingModifications("FailingWriteBehindKeyStore") == 0);
+        Assert.assertEquals(0, readKeyStoreAttribute("FailingWriteBehindKeyStore", ElytronDescriptionConstants.FAILED_STORES));
+        Assert.assertTrue(Files.exists(keyStoreFile));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","FailingWriteBehindKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+        Files.delete(keyStoreFile);
+        Files.delete(directory);
+    }
+
+    private int readPendingModifications(String keyStoreName) {
+        return readKeyStoreAttribute(keyStoreName, ElytronDescriptionConstants.PENDING_MODIFICATIONS);
+    }
+
+    private int readKeyStoreAttribute(String keyStoreName, String attributeName) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", keyStoreName);
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(attributeName);
+        return assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asInt();
+    }
+
+    @Test
+    public void testExpiringCertificates() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path keyStoreFile = resources.resolve("firefly-expiry.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "ExpiryKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.EXPIRY_HORIZON).set(0);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream is = Files.newInputStream(keyStoreFile)) {
+            keyStore.load(is, "Elytron".toCharArray());
+        }
+        List<String> expected = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (((X509Certificate) keyStore.getCertificate(alias)).getNotAfter().getTime() <= now) {
+                expected.add(alias);
+            }
+        }
+
+        List<ModelNode> expiring = readExpiringCertificates("ExpiryKeyStore");
+        Assert.assertEquals(expected.size(), expiring.size());
+        for (ModelNode current : expiring) {
+            String alias = current.get(ElytronDescriptionConstants.ALIAS).asString();
+            Assert.assertTrue(alias, expected.contains(alias));
+            Assert.assertEquals(((X509Certificate) keyStore.getCertificate(alias)).getSubjectX500Principal().getName(),
+                    current.get(ElytronDescriptionConstants.SUBJECT).asString());
+            Assert.assertTrue(current.get(ElytronDescriptionConstants.NOT_AFTER).isDefined());
+        }
+
+        if (expected.isEmpty() == false) {
+            // removed entries are no longer reported
+            String removed = expected.get(0);
+            operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","ExpiryKeyStore").add("alias", removed);
+            operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+            assertSuccess(services.executeOperation(operation));
+
+            expiring = readExpiringCertificates("ExpiryKeyStore");
+            Assert.assertEquals(expected.size() - 1, expiring.size());
+            for (ModelNode current : expiring) {
+                Assert.assertNotEquals(removed, current.get(ElytronDescriptionConstants.ALIAS).asString());
+            }
+        }
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","ExpiryKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+
+        // with a long enough horizon every certificate is reported
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "ExpiryKeyStoreAll");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(resources.resolve("firefly.keystore").toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.EXPIRY_HORIZON).set(Long.MAX_VALUE);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+        Assert.assertEquals(keyStore.size(), readExpiringCertificates("ExpiryKeyStoreAll").size());
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","ExpiryKeyStoreAll");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+        Files.delete(keyStoreFile);
+    }
+
+    @Test
+    public void testKeystoreImportExportCertificates() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Path keyStoreFile = resources.resolve("firefly-certificates.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+        Path importDirectory = resources.resolve("import-certificates");
+        Files.createDirectories(importDirectory);
+        Path exported = importDirectory.resolve("exported.pem");
+        Files.write(importDirectory.resolve("invalid.pem"), "Not a certificate".getBytes(StandardCharsets.US_ASCII));
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "CertificatesKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "CertificatesKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.EXPORT_CERTIFICATES);
+        operation.get(ElytronDescriptionConstants.PATH).set(exported.toString());
+        operation.get(ElytronDescriptionConstants.ALIASES).add("firefly").add("ca").add("missing");
+        ModelNode result = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT);
+        Assert.assertEquals(2, result.get(ElytronDescriptionConstants.EXPORTED).asList().size());
+        Assert.assertTrue(result.get(ElytronDescriptionConstants.FAILED).hasDefined("missing"));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "CertificatesKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.IMPORT_CERTIFICATES);
+        operation.get(ElytronDescriptionConstants.PATH).set(importDirectory.toString());
+        result = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT);
+        Assert.assertEquals(Arrays.asList(new ModelNode("exported-1"), new ModelNode("exported-2")), result.get(ElytronDescriptionConstants.IMPORTED).asList());
+        Assert.assertTrue(result.get(ElytronDescriptionConstants.FAILED).hasDefined("invalid.pem"));
+        Assert.assertEquals(4, readKeyStoreSize("CertificatesKeyStore"));
+
+        KeyStore stored = KeyStore.getInstance("JKS");
+        try (InputStream is = Files.newInputStream(keyStoreFile)) {
+            stored.load(is, "Elytron".toCharArray());
+        }
+        Assert.assertEquals(4, stored.size());
+        Assert.assertEquals(stored.getCertificate("firefly"), stored.getCertificate("exported-1"));
+        Assert.assertEquals(stored.getCertificate("ca"), stored.getCertificate("exported-2"));
+
+        operation = new ModelNode(); // importing again reports the existing aliases
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "CertificatesKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.IMPORT_CERTIFICATES);
+        operation.get(ElytronDescriptionConstants.PATH).set(exported.toString());
+        result = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT);
+        Assert.assertTrue(result.get(ElytronDescriptionConstants.IMPORTED).asList().isEmpty());
+        Assert.assertTrue(result.get(ElytronDescriptionConstants.FAILED).hasDefined("exported-1"));
+
+        operation.get(ElytronDescriptionConstants.REPLACE_EXISTING).set(true);
+        result = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT);
+        Assert.assertEquals(2, result.get(ElytronDescriptionConstants.IMPORTED).asList().size());
+        Assert.assertEquals(4, readKeyStoreSize("CertificatesKeyStore"));
+
+        Path duplicateDirectory = resources.resolve("duplicate-certificates");
+        Files.createDirectories(duplicateDirectory);
+        for (String alias : new String[] { "firefly", "ca" }) {
+            operation = new ModelNode(); // export both certificates to files which derive the same alias
+            operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "CertificatesKeyStore");
+            operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.EXPORT_CERTIFICATES);
+            operation.get(ElytronDescriptionConstants.PATH).set(duplicateDirectory.resolve("firefly".equals(alias) ? "duplicate.crt" : "duplicate.pem").toString());
+            operation.get(ElytronDescriptionConstants.ALIASES).add(alias);
+            assertSuccess(services.executeOperation(operation));
+        }
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "CertificatesKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.IMPORT_CERTIFICATES);
+        operation.get(ElytronDescriptionConstants.PATH).set(duplicateDirectory.toString());
+        operation.get(ElytronDescriptionConstants.REPLACE_EXISTING).set(true);
+        result = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT);
+        Assert.assertEquals(Collections.singletonList(new ModelNode("duplicate")), result.get(ElytronDescriptionConstants.IMPORTED).asList());
+        Assert.assertTrue(result.get(ElytronDescriptionConstants.FAILED).hasDefined("duplicate"));
+        KeyStore keyStore = (KeyStore) services.getContainer().getService(Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("CertificatesKeyStore")).getValue();
+        Assert.assertEquals(keyStore.getCertificate("firefly"), keyStore.getCertificate("duplicate"));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","CertificatesKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+    }
+
+    @Test
+    public void testKeystoreLazyLoad() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Files.copy(resources.resolve("firefly.keystore"), resources.resolve("firefly-lazy.keystore"), StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "LazyKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(resources + "/firefly-lazy.keystore");
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.LAZY_LOAD).set(true);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        ServiceName serviceName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("LazyKeyStore");
+        KeyStore keyStore = (KeyStore) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(keyStore);
+
+        Assert.assertEquals(2, keyStore.size());
+        Assert.assertTrue(keyStore.isKeyEntry("firefly"));
+        Assert.assertEquals(2, keyStore.getCertificateChain("firefly").length);
+        Assert.assertNotNull(keyStore.getKey("firefly", "Elytron".toCharArray()));
+        Assert.assertSame(keyStore.getKey("firefly", "Elytron".toCharArray()), keyStore.getKey("firefly", "Elytron".toCharArray()));
+        try {
+            keyStore.getKey("firefly", "Wrong".toCharArray());
+            Assert.fail("Expected UnrecoverableKeyException for a different password");
+        } catch (UnrecoverableKeyException expected) {
+        }
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","LazyKeyStore").add("alias","firefly");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertEquals(1, keyStore.size());
+        Assert.assertNull(keyStore.getKey("firefly", "Elytron".toCharArray()));
+
+        operation = new ModelNode(); // reload the original content
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","LazyKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.LOAD);
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertEquals(2, keyStore.size());
+        Assert.assertNotNull(keyStore.getKey("firefly", "Elytron".toCharArray()));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","LazyKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+    }
+
+    @Test
+    public void testKeystoreAsynchronousStartFailure() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+
+        ModelNode operation = new ModelNode(); // add keystore with a missing required file
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "MissingKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(resources + "/missing.keystore");
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(ElytronDescriptionConstants.REQUIRED).set(true);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        ModelNode result = services.executeOperation(operation);
+        Assert.assertEquals(result.toString(), "failed", result.get(OUTCOME).asString());
+        Assert.assertTrue(result.toString(), result.get(ClientConstants.FAILURE_DESCRIPTION).asString().contains("WFLYELY00022"));
+
+        ServiceName serviceName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("MissingKeyStore");
+        Assert.assertNull(services.getContainer().getService(serviceName));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.SERVICE_START_TIMES);
+        List<ModelNode> startTimes = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asList();
+
+        String started = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("FireflyKeystore").getCanonicalName();
+        String failed = serviceName.getCanonicalName();
+        boolean found = false;
+        for (ModelNode startTime : startTimes) {
+            String name = startTime.get(ElytronDescriptionConstants.SERVICE_NAME).asString();
+            Assert.assertNotEquals("Removed services are not reported", failed, name);
+            if (started.equals(name)) {
+                found = true;
+                Assert.assertFalse(startTime.get(ElytronDescriptionConstants.FAILED).asBoolean());
+                Assert.assertTrue(startTime.get(ElytronDescriptionConstants.WAIT_TIME).asLong() >= 0);
+                Assert.assertTrue(startTime.get(ElytronDescriptionConstants.START_TIME).asLong() >= 0);
+            }
+        }
+        Assert.assertTrue(startTimes.toString(), found);
+    }
+
+    @Test
+    public void testKeystoreReadAliases() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Files.copy(resources.resolve("firefly.keystore"), resources.resolve("firefly-aliases.keystore"), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "AliasesKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(resources + "/firefly-aliases.keystore");
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        List<String> aliases = readAliases("AliasesKeyStore", null, null, null);
+        Assert.assertEquals(2, aliases.size());
+        Assert.assertTrue(aliases.containsAll(Arrays.asList("firefly", "ca")));
+
+        List<String> firstPage = readAliases("AliasesKeyStore", 0, 1, null);
+        List<String> secondPage = readAliases("AliasesKeyStore", 1, 1, null);
+        Assert.assertEquals(1, firstPage.size());
+        Assert.assertEquals(1, secondPage.size());
+        Assert.assertNotEquals(firstPage, secondPage);
+        Assert.assertTrue(readAliases("AliasesKeyStore", 2, null, null).isEmpty());
+        Assert.assertEquals(Collections.singletonList("ca"), readAliases("AliasesKeyStore", null, null, "c.*"));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","AliasesKeyStore").add("alias","ca");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertEquals(Collections.singletonList("firefly"), readAliases("AliasesKeyStore", null, null, null));
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","AliasesKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_CHILDREN_NAMES_OPERATION);
+        operation.get(ClientConstants.CHILD_TYPE).set(ElytronDescriptionConstants.ALIAS);
+        Assert.assertEquals(1, assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asList().size());
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","AliasesKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+    }
+
+    private List<String> readAliases(String keyStoreName, Integer offset, Integer limit, String pattern) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", keyStoreName);
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.READ_ALIASES);
+        if (offset != null) {
+            operation.get(ElytronDescriptionConstants.OFFSET).set(offset);
+        }
+        if (limit != null) {
+            operation.get(ElytronDescriptionConstants.LIMIT).set(limit);
+        }
+        if (pattern != null) {
+            operation.get(ElytronDescriptionConstants.PATTERN).set(pattern);
+        }
+        List<String> aliases = new ArrayList<>();
+        for (ModelNode alias : assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asList()) {
+            aliases.add(alias.asString());
+        }
+        return aliases;
+    }
+
+    @Test
+    public void testExpiringCertificateNotifications() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        KeyStore source = KeyStore.getInstance("JKS");
+        try (InputStream is = Files.newInputStream(resources.resolve("firefly.keystore"))) {
+            source.load(is, "Elytron".toCharArray());
+        }
+        Path pemFile = resources.resolve("expiring-ca.pem");
+        Files.write(pemFile, ("-----BEGIN CERTIFICATE-----\n" + Base64.getMimeEncoder().encodeToString(source.getCertificate("ca").getEncoded())
+                + "\n-----END CERTIFICATE-----\n").getBytes(StandardCharsets.US_ASCII));
+
+        PathAddress address = PathAddress.pathAddress("subsystem", "elytron").append("key-store", "NotifyingKeyStore");
+        List<Notification> notifications = new CopyOnWriteArrayList<>();
+        NotificationHandler handler = notifications::add;
+        NotificationFilter filter = n -> CertificateExpiryIndex.CERTIFICATE_EXPIRING_NOTIFICATION.equals(n.getType());
+        ModelController controller = (ModelController) services.getContainer().getService(Services.JBOSS_SERVER_CONTROLLER).getValue();
+        controller.getNotificationRegistry().registerNotificationHandler(address, handler, filter);
+        try {
+            ModelNode operation = new ModelNode(); // add keystore
+            operation.get(ClientConstants.OP_ADDR).set(address.toModelNode());
+            operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+            operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+            operation.get(ElytronDescriptionConstants.EXPIRY_HORIZON).set(Long.MAX_VALUE);
+            operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+            assertSuccess(services.executeOperation(operation));
+            Assert.assertTrue(readExpiringCertificates("NotifyingKeyStore").isEmpty());
+
+            // an imported certificate is indexed and notified without a full load or a read of expiring-certificates
+            operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).set(address.toModelNode());
+            operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.IMPORT_CERTIFICATES);
+            operation.get(ElytronDescriptionConstants.PATH).set(pemFile.toString());
+            assertSuccess(services.executeOperation(operation));
+            Assert.assertEquals(1, notifications.size());
+            Notification notification = notifications.get(0);
+            Assert.assertEquals(address, notification.getSource());
+            Assert.assertEquals("expiring-ca", notification.getData().get(ElytronDescriptionConstants.ALIAS).asString());
+
+            List<ModelNode> expiring = readExpiringCertificates("NotifyingKeyStore");
+            Assert.assertEquals(1, expiring.size());
+            Assert.assertEquals("expiring-ca", expiring.get(0).get(ElytronDescriptionConstants.ALIAS).asString());
+            // reading the attribute does not notify again
+            Assert.assertEquals(1, notifications.size());
+
+            operation = new ModelNode(); // remove keystore
+            operation.get(ClientConstants.OP_ADDR).set(address.toModelNode());
+            operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+            operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+            assertSuccess(services.executeOperation(operation));
+        } finally {
+            controller.getNotificationRegistry().unregisterNotificationHandler(address, handler, filter);
+            Files.delete(pemFile);
+        }
+    }
+
+    private List<ModelNode> readExpiringCertificates(String keyStoreName) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", keyStoreName);
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.EXPIRING_CERTIFICATES);
+        return assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asList();
+    }
+
+    private int awaitKeyStoreSize(String keyStoreName, int expected) throws Exception {
+        TestEnvironment.awaitCondition("KeyStore not reloaded", () -> readKeyStoreSize(keyStoreName) == expected);
+        return readKeyStoreSize(keyStoreName);
+    }
+
+    /**
+     * Wait until the file has been checked for changes after this call, a check already in progress may have missed the
+     * latest change so a further check is required.
+     */
+    private void awaitFileChecked(String keyStoreName) throws Exception {
+        KeyStoreService keyStoreService = (KeyStoreService) services.getContainer()
+                .getService(Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName(keyStoreName)).getService();
+        long checked = keyStoreService.getFileCheckCount() + 2;
+        TestEnvironment.awaitCondition("KeyStore file not checked", () -> keyStoreService.getFileCheckCount() >= checked);
+    }
+
+    private int readKeyStoreSize(String keyStoreName) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", keyStoreName);
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.SIZE);
+        return assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asInt();
+    }
+
+    @Test
+    public void testCredentialStoreSecretCache() throws Exception {
+        ServiceName serviceName = Capabilities.CREDENTIAL_STORE_CLIENT_RUNTIME_CAPABILITY.getCapabilityServiceName("test");
+        CredentialStoreClient credentialStoreClient = (CredentialStoreClient) services.getContainer().getService(serviceName).getValue();
+        Assert.assertSame(credentialStoreClient, services.getContainer().getService(serviceName).getValue());
+
+        CredentialStore credentialStore = credentialStoreClient.getCredentialStore();
+        char[] first = retrieveSecret(credentialStore, "the-key-alias");
+        Assert.assertArrayEquals("Elytron".toCharArray(), first);
+        Arrays.fill(first, (char) 0);
+        Assert.assertArrayEquals("Elytron".toCharArray(), retrieveSecret(credentialStore, "the-key-alias"));
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add(ElytronDescriptionConstants.CREDENTIAL_STORE,"test").add(ElytronDescriptionConstants.ALIAS, "cached-alias");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.SECRET_VALUE).set("first");
+        assertSuccess(services.executeOperation(operation));
+        Assert.assertArrayEquals("first".toCharArray(), retrieveSecret(credentialStore, "cached-alias"));
+
+        credentialStore.store("cached-alias", CredentialStoreAliasDefinition.createCredentialFromPassword("second".toCharArray()));
+        Assert.assertArrayEquals("second".toCharArray(), retrieveSecret(credentialStore, "cached-alias"));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add(ElytronDescriptionConstants.CREDENTIAL_STORE,"test").add(ElytronDescriptionConstants.ALIAS, "cached-alias");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+        try {
+            credentialStore.retrieve("cached-alias", PasswordCredential.class);
+            Assert.fail("Expected CredentialStoreException for removed alias");
+        } catch (CredentialStoreException expected) {
+        }
+    }
+
+    @Test
+    public void testCredentialStoreSecretCacheInvalidatedDuringRetrieve() throws Exception {
+        AtomicReference<SecretCachingCredentialStore> caching = new AtomicReference<>();
+        AtomicReference<String> secret = new AtomicReference<>("first");
+        CredentialStoreSpi credentialStoreSpi = new CredentialStoreSpi() {
+
+            {
+                initialized = true;
+            }
+
+            @Override
+            public void initialize(Map<String, String> attributes) {
+            }
+
+            @Override
+            public boolean isModifiable() {
+                return false;
+            }
+
+            @Override
+            public <C extends Credential> boolean exists(String credentialAlias, Class<C> credentialType) {
+                return true;
+            }
+
+            @Override
+            public <C extends Credential> void store(String credentialAlias, C credential) {
+            }
+
+            @Override
+            public <C extends Credential> C retrieve(String credentialAlias, Class<C> credentialType) {
+                String current = secret.get();
+                if ("first".equals(current)) {
+                    // An update completing whilst the previous secret is being returned.
+                    secret.set("second");
+                    caching.get().invalidate(credentialAlias);
+                }
+                return credentialType.cast(new PasswordCredential(ClearPassword.createRaw(ClearPassword.ALGORITHM_CLEAR, current.toCharArray())));
+            }
+
+            @Override
+            public <C extends Credential> void remove(String credentialAlias, Class<C> credentialType) {
+            }
+        };
+        CredentialStore delegate = new CredentialStore(wildFlyElytronProvider, credentialStoreSpi, "Stub") {};
+        caching.set(SecretCachingCredentialStore.secretCachingCredentialStore(delegate, 10, 1, TimeUnit.MINUTES));
+
+        Assert.assertArrayEquals("first".toCharArray(), retrieveSecret(caching.get(), "racing-alias"));
+        Assert.assertArrayEquals("The stale secret must not be cached", "second".toCharArray(), retrieveSecret(caching.get(), "racing-alias"));
+        secret.set("third");
+        Assert.assertArrayEquals("second".toCharArray(), retrieveSecret(caching.get(), "racing-alias"));
+    }
+
+    @Test
+    public void testCredentialStoreSecretCacheDisabled() throws Exception {
+        AtomicInteger retrievals = new AtomicInteger();
+        CredentialStoreSpi credentialStoreSpi = new CredentialStoreSpi() {
+
+            {
+                initialized = true;
+            }
+
+            @Override
+            public void initialize(Map<String, String> attributes) {
+            }
+
+            @Override
+            public boolean isModifiable() {
+                return false;
+            }
+
+            @Override
+            public <C extends Credential> boolean exists(String credentialAlias, Class<C> credentialType) {
+                return true;
+            }
+
+            @Override
+            public <C extends Credential> void store(String credentialAlias, C credential) {
+            }
+
+            @Override
+            public <C extends Credential> C retrieve(String credentialAlias, Class<C> credentialType) {
+                retrievals.incrementAndGet();
+                return credentialType.cast(new PasswordCredential(ClearPassword.createRaw(ClearPassword.ALGORITHM_CLEAR, "secret".toCharArray())));
+            }
+
+            @Override
+            public <C extends Credential> void remove(String credentialAlias, Class<C> credentialType) {
+            }
+        };
+        CredentialStore delegate = new CredentialStore(wildFlyElytronProvider, credentialStoreSpi, "Stub") {};
+
+        CredentialStore cached = SecretCachingCredentialStore.secretCachingCredentialStore(delegate, 10, 1, TimeUnit.MINUTES);
+        retrieveSecret(cached, "alias");
+        Assert.assertArrayEquals("secret".toCharArray(), retrieveSecret(cached, "alias"));
+        Assert.assertEquals(1, retrievals.getAndSet(0));
+
+        for (CredentialStore disabled : new CredentialStore[] {
+                SecretCachingCredentialStore.secretCachingCredentialStore(delegate, 0, 1, TimeUnit.MINUTES),
+                SecretCachingCredentialStore.secretCachingCredentialStore(delegate, 10, 0, TimeUnit.MINUTES) }) {
+            retrieveSecret(disabled, "alias");
+            Assert.assertArrayEquals("secret".toCharArray(), retrieveSecret(disabled, "alias"));
+            Assert.assertEquals(2, retrievals.getAndSet(0));
+        }
+    }
+
+    private static char[] retrieveSecret(CredentialStore credentialStore, String alias) throws Exception {
+        PasswordCredential credential = credentialStore.retrieve(alias, PasswordCredential.class);
+        return ((ClearPassword) credential.getPassword()).getPassword();
+    }
+
     @Test
     public void testFilteringKeystoreService() throws Exception {
         ServiceName serviceName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("FilteringKeyStore");
@@ -182,6 +972,65 @@ public class KeyStoresTestCase extends AbstractSubsystemTest {
         Assert.assertFalse(keyStore.isCertificateEntry("ca"));
     }
 
+    @Test
+    public void testMaterializedFilteringKeystore() throws Exception {
+        Path resources = Paths.get(KeyStoresTestCase.class.getResource(".").toURI());
+        Files.copy(resources.resolve("firefly.keystore"), resources.resolve("firefly-materialized.keystore"), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode(); // add keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store", "MaterializedSourceKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(resources + "/firefly-materialized.keystore");
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode(); // add filtering keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add(ElytronDescriptionConstants.FILTERING_KEY_STORE, "MaterializedKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.KEY_STORE).set("MaterializedSourceKeyStore");
+        operation.get(ElytronDescriptionConstants.ALIAS_FILTER).set("NONE:+firefly");
+        operation.get(ElytronDescriptionConstants.MATERIALIZED).set(true);
+        assertSuccess(services.executeOperation(operation));
+
+        ServiceName serviceName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("MaterializedKeyStore");
+        KeyStore keyStore = (KeyStore) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(keyStore);
+
+        Assert.assertEquals(1, keyStore.size());
+        Assert.assertEquals(Collections.singletonList("firefly"), Collections.list(keyStore.aliases()));
+        Assert.assertTrue(keyStore.isKeyEntry("firefly"));
+        Certificate cert = keyStore.getCertificate("firefly");
+        Assert.assertNotNull(cert);
+        Assert.assertEquals("firefly", keyStore.getCertificateAlias(cert));
+        Assert.assertFalse(keyStore.containsAlias("ca"));
+        Assert.assertNull(keyStore.getCertificate("ca"));
+
+        operation = new ModelNode(); // remove the alias from the source keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","MaterializedSourceKeyStore").add("alias","firefly");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertEquals(0, keyStore.size());
+        Assert.assertFalse(keyStore.containsAlias("firefly"));
+        Assert.assertFalse(keyStore.aliases().hasMoreElements());
+
+        operation = new ModelNode(); // remove filtering keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add(ElytronDescriptionConstants.FILTERING_KEY_STORE, "MaterializedKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode(); // remove keystore
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        operation.get(ClientConstants.OP_ADDR).add("subsystem","elytron").add("key-store","MaterializedSourceKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        assertSuccess(services.executeOperation(operation));
+    }
+
     @Test
     public void testFilteringKeystoreCli() throws Exception {
         ModelNode operation = new ModelNode();
@@ -20,6 +20,7 @@ import java.security.Key;
 import java.security.KeyStore;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -212,6 +213,77 @@ public class LdapTestCase extends AbstractSubsystemTest {
         Assert.assertEquals(1, keyStore.size());
     }
 
+    @Test
+    public void testLdapKeyStorePagedAliases() throws Exception {
+        ServiceName serviceName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("LdapKeyStoreMaximal");
+        LdapKeyStoreService ldapKeyStoreService = (LdapKeyStoreService) services.getContainer().getService(serviceName).getService();
+        KeyStore keyStore = ldapKeyStoreService.getModifiableValue();
+        Assert.assertNotNull(keyStore);
+
+        Key key = keyStore.getKey("serenity", "Elytron".toCharArray());
+        Certificate[] chain = keyStore.getCertificateChain("serenity");
+        keyStore.setKeyEntry("serenity3", key, "password3".toCharArray(), chain);
+        keyStore.setKeyEntry("serenity4", key, "password4".toCharArray(), chain);
+        try {
+            // page-size is 1 so each alias is a separate page
+            Assert.assertEquals(3, keyStore.size());
+            List<String> aliases = Collections.list(keyStore.aliases());
+            Assert.assertEquals(3, aliases.size());
+            Assert.assertTrue(aliases.containsAll(Arrays.asList("serenity", "serenity3", "serenity4")));
+
+            ModelNode operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add("ldap-key-store", "LdapKeyStoreMaximal");
+            operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.READ_ALIASES);
+            operation.get(ElytronDescriptionConstants.OFFSET).set(1);
+            operation.get(ElytronDescriptionConstants.LIMIT).set(1);
+            List<ModelNode> page = assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asList();
+            Assert.assertEquals(1, page.size());
+            Assert.assertEquals(aliases.get(1), page.get(0).asString());
+        } finally {
+            keyStore.deleteEntry("serenity3");
+            keyStore.deleteEntry("serenity4");
+        }
+        Assert.assertEquals(1, keyStore.size());
+    }
+
+    @Test
+    public void testLdapKeyStoreCache() throws Exception {
+        ServiceName serviceName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("LdapKeyStoreMaximal");
+        KeyStore keyStore = (KeyStore) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(keyStore);
+
+        long misses = readCacheCount(ElytronDescriptionConstants.CACHE_MISS_COUNT);
+        long hits = readCacheCount(ElytronDescriptionConstants.CACHE_HIT_COUNT);
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add("ldap-key-store", "LdapKeyStoreMaximal");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.FLUSH_CACHE);
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertNotNull(keyStore.getCertificateChain("serenity"));
+        Assert.assertEquals(misses + 1, readCacheCount(ElytronDescriptionConstants.CACHE_MISS_COUNT));
+        Assert.assertNotNull(keyStore.getCertificateChain("serenity"));
+        Assert.assertEquals(misses + 1, readCacheCount(ElytronDescriptionConstants.CACHE_MISS_COUNT));
+        Assert.assertEquals(hits + 1, readCacheCount(ElytronDescriptionConstants.CACHE_HIT_COUNT));
+
+        // negative caching is disabled for this key store so each lookup of a missing alias searches the directory
+        Assert.assertFalse(keyStore.containsAlias("serenity-missing"));
+        Assert.assertFalse(keyStore.containsAlias("serenity-missing"));
+        Assert.assertEquals(misses + 3, readCacheCount(ElytronDescriptionConstants.CACHE_MISS_COUNT));
+
+        assertSuccess(services.executeOperation(operation));
+        Assert.assertNotNull(keyStore.getCertificateChain("serenity"));
+        Assert.assertEquals(misses + 4, readCacheCount(ElytronDescriptionConstants.CACHE_MISS_COUNT));
+    }
+
+    private long readCacheCount(String attributeName) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add("ldap-key-store", "LdapKeyStoreMaximal");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(attributeName);
+        return assertSuccess(services.executeOperation(operation)).get(ClientConstants.RESULT).asLong();
+    }
+
     private ModelNode assertSuccess(ModelNode response) {
         if (!response.get(OUTCOME).asString().equals(SUCCESS)) {
             Assert.fail(response.toJSONString(false));
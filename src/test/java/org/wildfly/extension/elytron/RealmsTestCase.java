@@ -28,6 +28,7 @@ import org.wildfly.security.auth.server.RealmIdentity;
 import org.wildfly.security.auth.server.SecurityRealm;
 import org.wildfly.security.credential.Credential;
 import org.wildfly.security.credential.PasswordCredential;
+import org.wildfly.security.evidence.X509PeerCertificateChainEvidence;
 import org.wildfly.security.evidence.PasswordGuessEvidence;
 import org.wildfly.security.password.PasswordFactory;
 import org.wildfly.security.password.interfaces.ClearPassword;
@@ -36,11 +37,14 @@ import org.wildfly.security.password.spec.ClearPasswordSpec;
 import org.wildfly.security.password.spec.OneTimePasswordSpec;
 
 import java.io.IOException;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
 import java.security.spec.KeySpec;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+import static org.wildfly.security.auth.server.IdentityLocator.fromEvidence;
 import static org.wildfly.security.auth.server.IdentityLocator.fromName;
 
 /**
@@ -86,6 +90,53 @@ public class RealmsTestCase extends AbstractSubsystemBaseTest {
         identity9.dispose();
     }
 
+    /* Test key-store-realm locating identities using the certificate index */
+    @Test
+    public void testKeyStoreRealmCertificateIndex() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(new TestEnvironment()).setSubsystemXmlResource("realms-test.xml").build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+
+        ServiceName serviceName = Capabilities.SECURITY_REALM_RUNTIME_CAPABILITY.getCapabilityServiceName("KeyStoreRealm");
+        SecurityRealm securityRealm = (SecurityRealm) services.getContainer().getService(serviceName).getValue();
+        Assert.assertNotNull(securityRealm);
+
+        ServiceName keyStoreName = Capabilities.KEY_STORE_RUNTIME_CAPABILITY.getCapabilityServiceName("FireflyKeystore");
+        ModifiableKeyStoreService keyStoreService = (ModifiableKeyStoreService) services.getContainer().getService(keyStoreName).getService();
+        KeyStore keyStore = keyStoreService.getValue();
+        X509Certificate ca = (X509Certificate) keyStore.getCertificate("ca");
+
+        RealmIdentity identity = securityRealm.getRealmIdentity(fromEvidence(new X509PeerCertificateChainEvidence(ca)));
+        Assert.assertTrue(identity.exists());
+        identity.dispose();
+
+        identity = securityRealm.getRealmIdentity(fromName(ca.getSubjectX500Principal().getName()));
+        Assert.assertTrue(identity.exists());
+        identity.dispose();
+
+        identity = securityRealm.getRealmIdentity(fromName("ca"));
+        Assert.assertTrue(identity.exists());
+        identity.dispose();
+
+        keyStoreService.getModifiableValue().deleteEntry("ca");
+
+        identity = securityRealm.getRealmIdentity(fromEvidence(new X509PeerCertificateChainEvidence(ca)));
+        Assert.assertFalse(identity.exists());
+        identity.dispose();
+
+        // The index is updated in the background for the single alias added.
+        keyStoreService.getModifiableValue().setCertificateEntry("ca2", ca);
+        TestEnvironment.awaitCondition("Index not updated for the added alias", () -> {
+            RealmIdentity added = securityRealm.getRealmIdentity(fromEvidence(new X509PeerCertificateChainEvidence(ca)));
+            try {
+                return added.exists();
+            } finally {
+                added.dispose();
+            }
+        });
+    }
+
     /* Test filesystem-realm with existing filesystem from resources, without relative-to */
     @Test
     public void testFilesystemRealm() throws Exception {
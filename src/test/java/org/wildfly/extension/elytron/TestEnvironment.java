@@ -21,6 +21,7 @@ import mockit.Mock;
 import mockit.MockUp;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.ControllerInitializer;
+import org.junit.Assert;
 
 import java.io.File;
 import java.io.IOException;
@@ -30,11 +31,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
 
 class TestEnvironment extends AdditionalInitialization {
 
     static final int LDAP_PORT = 11391;
 
+    private static final long AWAIT_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
     @Override
     protected ControllerInitializer createControllerInitializer() {
         ControllerInitializer initializer = new ControllerInitializer();
@@ -70,6 +74,27 @@ class TestEnvironment extends AdditionalInitialization {
         }
     }
 
+    /**
+     * Wait for work completed in the background, failing if the condition is not met within ten seconds.
+     *
+     * @param message the failure message if the condition is not met.
+     * @param condition the condition to wait for.
+     */
+    static void awaitCondition(String message, Condition condition) throws Exception {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT;
+        while (condition.isMet() == false) {
+            Assert.assertTrue(message, System.nanoTime() - deadline < 0);
+            Thread.sleep(10);
+        }
+    }
+
+    @FunctionalInterface
+    interface Condition {
+
+        boolean isMet() throws Exception;
+
+    }
+
     private void emptyDirectory(Path directory) throws IOException {
         Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
             @Override
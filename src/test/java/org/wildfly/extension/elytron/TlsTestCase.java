@@ -17,25 +17,76 @@
  */
 package org.wildfly.extension.elytron;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.math.BigInteger;
 import java.security.AccessController;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.security.Provider;
+import java.security.PublicKey;
 import java.security.Security;
+import java.security.Signature;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.CertificateRevokedException;
+import java.security.cert.X509Certificate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SNIHostName;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLServerSocketFactory;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+import javax.security.auth.x500.X500Principal;
 
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.as.controller.client.helpers.ClientConstants;
+import org.jboss.as.controller.security.CredentialReference;
 import org.jboss.as.subsystem.test.AbstractSubsystemTest;
 import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -43,6 +94,13 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.wildfly.security.WildFlyElytronProvider;
+import org.wildfly.security.asn1.DERDecoder;
+import org.wildfly.security.asn1.DEREncoder;
+import org.wildfly.security.util.ByteStringBuilder;
+import org.wildfly.security.x500.cert.BasicConstraintsExtension;
+import org.wildfly.security.x500.cert.KeyUsage;
+import org.wildfly.security.x500.cert.KeyUsageExtension;
+import org.wildfly.security.x500.cert.X509CertificateBuilder;
 
 /**
  * @author <a href="mailto:jkalina@redhat.com">Jan Kalina</a>
@@ -135,6 +193,907 @@ public class TlsTestCase extends AbstractSubsystemTest {
         testCommunication(listeningSocket, serverSocket, clientSocket, "OU=Elytron,O=Elytron,C=UK,ST=Elytron,CN=Firefly", "");
     }
 
+    @Test
+    public void testServerSessionStatistics() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslContextNoAuth");
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+
+        handshake(clientContext.createSSLEngine("localhost", TESTING_PORT), serverContext.createSSLEngine());
+        handshake(clientContext.createSSLEngine("localhost", TESTING_PORT), serverContext.createSSLEngine());
+
+        Assert.assertEquals(1, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.ACTIVE_SESSION_COUNT));
+        Assert.assertEquals(1, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_CREATION_COUNT));
+        Assert.assertEquals(1, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_RESUMPTION_COUNT));
+        Assert.assertEquals(0, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_MISS_COUNT));
+
+        byte[] sessionId = serverContext.getServerSessionContext().getIds().nextElement();
+        Assert.assertTrue(((CountingSSLSessionContext) serverContext.getServerSessionContext()).invalidate(sessionId));
+        Assert.assertEquals(0, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.ACTIVE_SESSION_COUNT));
+        Assert.assertEquals(1, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_INVALIDATION_COUNT));
+
+        handshake(clientContext.createSSLEngine("localhost", TESTING_PORT), serverContext.createSSLEngine());
+        Assert.assertEquals(2, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_CREATION_COUNT));
+        Assert.assertEquals(1, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_MISS_COUNT));
+    }
+
+    @Test
+    public void testServerSessionInvalidatedDirectly() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslContextNoAuth");
+        List<byte[]> sessionIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            // A new client context each time so a new session is created.
+            SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+            clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+            SSLEngine clientEngine = clientContext.createSSLEngine("localhost", TESTING_PORT);
+            handshake(clientEngine, serverContext.createSSLEngine());
+            sessionIds.add(clientEngine.getSession().getId());
+        }
+        Assert.assertEquals(3, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.ACTIVE_SESSION_COUNT));
+
+        // the newest session is not at the head of the creation order
+        serverContext.getServerSessionContext().getSession(sessionIds.get(2)).invalidate();
+        Assert.assertEquals(2, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.ACTIVE_SESSION_COUNT));
+        Assert.assertEquals(1, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_INVALIDATION_COUNT));
+        Assert.assertEquals(0, readServerSslContextAttribute("ServerSslContextNoAuth", ElytronDescriptionConstants.SESSION_EVICTION_COUNT));
+    }
+
+    @Test
+    public void testServerSessionEvictedFromFullCache() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslContextSecureRandomPool");
+        serverContext.getServerSessionContext().setSessionCacheSize(2);
+        // Other tests may already have used this context.
+        long active = readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.ACTIVE_SESSION_COUNT);
+        long creations = readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.SESSION_CREATION_COUNT);
+        long evictions = readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.SESSION_EVICTION_COUNT);
+        long invalidations = readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.SESSION_INVALIDATION_COUNT);
+        for (int i = 0; i < 3; i++) {
+            SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+            clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+            handshake(clientContext.createSSLEngine("localhost", TESTING_PORT), serverContext.createSSLEngine());
+        }
+
+        Assert.assertEquals(2, readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.ACTIVE_SESSION_COUNT));
+        Assert.assertEquals(creations + 3, readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.SESSION_CREATION_COUNT));
+        Assert.assertEquals(evictions + active + 1, readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.SESSION_EVICTION_COUNT));
+        Assert.assertEquals(invalidations, readServerSslContextAttribute("ServerSslContextSecureRandomPool", ElytronDescriptionConstants.SESSION_INVALIDATION_COUNT));
+    }
+
+    @Test
+    public void testHandshakeStatistics() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslContextNoAuth");
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        handshake(clientContext.createSSLEngine("localhost", TESTING_PORT), serverContext.createSSLEngine());
+
+        SSLEngine serverEngine = serverContext.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        ByteBuffer garbage = ByteBuffer.wrap(new byte[] { 0x16, 0x03, 0x03, 0x00, 0x04, 0x7f, 0x7f, 0x7f, 0x7f });
+        try {
+            serverEngine.unwrap(garbage, ByteBuffer.allocate(serverEngine.getSession().getApplicationBufferSize()));
+            Assert.fail("Expected handshake failure");
+        } catch (SSLException expected) {
+        }
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextNoAuth");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.HANDSHAKE_DURATIONS);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        List<ModelNode> durations = response.get(ClientConstants.RESULT).asList();
+        Assert.assertEquals(1, durations.size());
+        Assert.assertEquals("TLSv1.2", durations.get(0).get(ElytronDescriptionConstants.PROTOCOL).asString());
+        Assert.assertEquals(1, durations.get(0).get(ElytronDescriptionConstants.COUNT).asLong());
+
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.HANDSHAKE_FAILURES);
+        response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        List<ModelNode> failures = response.get(ClientConstants.RESULT).asList();
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals(1, failures.get(0).get(ElytronDescriptionConstants.COUNT).asLong());
+    }
+
+    @Test
+    public void testServerSniContext() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslSniContext");
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+
+        handshake(clientContext.createSSLEngine(), serverContext.createSSLEngine());
+        handshake(createSniEngine(clientContext, "other.example.com"), serverContext.createSSLEngine());
+        for (String host : new String[] { "auth.example.com", "a.b.auth.example.org" }) {
+            try {
+                handshake(createSniEngine(clientContext, host), serverContext.createSSLEngine());
+                Assert.fail("Expected handshake failure as no client certificate is available for " + host);
+            } catch (SSLException expected) {
+            }
+        }
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextNoAuth");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.HANDSHAKE_DURATIONS);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertEquals(2, response.get(ClientConstants.RESULT).get(0).get(ElytronDescriptionConstants.COUNT).asLong());
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextAuth");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.HANDSHAKE_FAILURES);
+        response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        long failures = 0;
+        for (ModelNode failure : response.get(ClientConstants.RESULT).asList()) {
+            failures += failure.get(ElytronDescriptionConstants.COUNT).asLong();
+        }
+        Assert.assertEquals(2, failures);
+    }
+
+    @Test
+    public void testDelegatedTaskExecutor() throws Throwable {
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        handshake(clientContext.createSSLEngine(), getSslContext("ServerSslContextDelegated").createSSLEngine());
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextDelegated");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.DELEGATED_TASK_COMPLETED_COUNT);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertTrue(response.get(ClientConstants.RESULT).asLong() > 0);
+
+        // Without a queue a task submitted while the only thread is busy is run by the caller.
+        DelegatedTaskExecutor executor = new DelegatedTaskExecutor("test", 1, 0);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread blocked = new Thread(executor.wrap(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            blocked.start();
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            Thread caller = Thread.currentThread();
+            AtomicBoolean ranByCaller = new AtomicBoolean();
+            executor.wrap(() -> ranByCaller.set(Thread.currentThread() == caller)).run();
+            Assert.assertTrue(ranByCaller.get());
+            Assert.assertEquals(1, executor.getRejectedCount());
+            Assert.assertEquals(1, executor.getActiveCount());
+            release.countDown();
+            blocked.join();
+            // The pool records the completion after the waiting caller has been released.
+            TestEnvironment.awaitCondition("Completion not recorded", () -> executor.getCompletedCount() != 0);
+            Assert.assertEquals(1, executor.getCompletedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSecureRandomPool() throws Throwable {
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        handshake(clientContext.createSSLEngine(), getSslContext("ServerSslContextSecureRandomPool").createSSLEngine());
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextSecureRandomPool");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.SECURE_RANDOM_REQUEST_COUNT);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertTrue(response.get(ClientConstants.RESULT).asLong() > 0);
+
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.SECURE_RANDOM_WAIT_TIME);
+        response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertTrue(response.get(ClientConstants.RESULT).isDefined());
+
+        // A context without a pool reports no statistics.
+        operation.get(ClientConstants.OP_ADDR).set(new ModelNode().add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextNoAuth"));
+        response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertFalse(response.get(ClientConstants.RESULT).isDefined());
+
+        SecureRandomPool pool = new SecureRandomPool(2, 0);
+        byte[] first = new byte[32];
+        byte[] second = new byte[32];
+        pool.getSecureRandom().nextBytes(first);
+        pool.getSecureRandom().nextBytes(second);
+        Assert.assertFalse(Arrays.equals(first, second));
+        Assert.assertEquals(2, pool.getRequestCount());
+    }
+
+    @Test
+    public void testPinnedSessions() throws Throwable {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.CLIENT_SSL_CONTEXT, "ClientSslContextPinned");
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.PINNED_SESSION_COUNT);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertEquals(0, response.get(ClientConstants.RESULT).asInt());
+
+        SSLContext trustAllContext = SSLContext.getInstance("TLSv1.2");
+        trustAllContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        PeerSessions peerSessions = new PeerSessions();
+        SSLContext clientContext = new DelegatingSSLContext(new InstrumentedSSLContextSpi(trustAllContext, null, peerSessions, null));
+        CountingSSLSessionContext clientSessionContext = (CountingSSLSessionContext) clientContext.getClientSessionContext();
+
+        ExecutorService serverExecutor = Executors.newSingleThreadExecutor();
+        try (ServerSocket listeningSocket = getSslContext("ServerSslContextNoAuth").getServerSocketFactory().createServerSocket()) {
+            listeningSocket.bind(new InetSocketAddress("localhost", TESTING_PORT));
+            Future<?> server = serverExecutor.submit(() -> {
+                for (int i = 0; i < 2; i++) {
+                    try (SSLSocket serverSocket = (SSLSocket) listeningSocket.accept()) {
+                        serverSocket.startHandshake();
+                    }
+                }
+                return null;
+            });
+
+            // an invalid peer is logged and skipped
+            PeerSessions.warmUp("test", clientContext, Arrays.asList("not-a-peer", "localhost:" + TESTING_PORT));
+            // Completed handshakes on sockets are notified asynchronously.
+            TestEnvironment.awaitCondition("Session not pinned", () -> peerSessions.getPinnedCount() != 0);
+            Assert.assertEquals(1, peerSessions.getPinnedCount());
+
+            try (SSLSocket clientSocket = (SSLSocket) clientContext.getSocketFactory().createSocket("localhost", TESTING_PORT)) {
+                clientSocket.startHandshake();
+            }
+            server.get(10, TimeUnit.SECONDS);
+            TestEnvironment.awaitCondition("Session not resumed", () -> clientSessionContext.getResumptionCount() != 0);
+            Assert.assertEquals(1, clientSessionContext.getResumptionCount());
+            Assert.assertEquals(1, peerSessions.getPinnedCount());
+        } finally {
+            serverExecutor.shutdownNow();
+        }
+
+        Assert.assertNotNull(PeerSessions.parsePeer("[::1]:636"));
+        Assert.assertNull(PeerSessions.parsePeer("::1:636"));
+        Assert.assertNull(PeerSessions.parsePeer("localhost"));
+        Assert.assertNull(PeerSessions.parsePeer("localhost:0"));
+
+        // a peer which never completes the handshake does not hold the warm up once cancelled
+        ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor();
+        try (ServerSocket silentSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            PeerSessions.WarmUp warmUp = new PeerSessions.WarmUp("test", clientContext, Collections.singletonList("127.0.0.1:" + silentSocket.getLocalPort()));
+            Future<?> running = warmUpExecutor.submit(warmUp);
+            try (Socket accepted = silentSocket.accept()) {
+                warmUp.cancel();
+                running.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            warmUpExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testKeyManagerReloadedWithKeyStore() throws Throwable {
+        Path resources = Paths.get(TlsTestCase.class.getResource(".").toURI());
+        Path keyStoreFile = resources.resolve("tls-reload.keystore");
+        Files.copy(resources.resolve("firefly.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.KEY_STORE, "ReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        operation.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.KEY_MANAGERS, "ReloadingKeyManager");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.ALGORITHM).set("SunX509");
+        operation.get(ElytronDescriptionConstants.KEY_STORE).set("ReloadingKeyStore");
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        assertSuccess(services.executeOperation(operation));
+
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ReloadingSslContext");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.KEY_MANAGERS).set("ReloadingKeyManager");
+        assertSuccess(services.executeOperation(operation));
+
+        // replacing the key-store replaces its service, the key manager must follow the new service
+        ModelNode keyStoreAdd = new ModelNode();
+        keyStoreAdd.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.KEY_STORE, "ReloadingKeyStore");
+        keyStoreAdd.get(ClientConstants.OP).set(ClientConstants.ADD);
+        keyStoreAdd.get(ElytronDescriptionConstants.PATH).set(keyStoreFile.toString());
+        keyStoreAdd.get(ElytronDescriptionConstants.TYPE).set("JKS");
+        keyStoreAdd.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        ModelNode keyStoreRemove = new ModelNode();
+        keyStoreRemove.get(ClientConstants.OP_ADDR).set(keyStoreAdd.get(ClientConstants.OP_ADDR));
+        keyStoreRemove.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP).set(ClientConstants.COMPOSITE);
+        operation.get(ClientConstants.OP_ADDR).setEmptyList();
+        operation.get(ClientConstants.STEPS).add(keyStoreRemove);
+        operation.get(ClientConstants.STEPS).add(keyStoreAdd);
+        operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+        assertSuccess(services.executeOperation(operation));
+
+        SSLContext serverContext = getSslContext("ReloadingSslContext");
+        Assert.assertEquals("OU=Elytron, O=Elytron, C=UK, ST=Elytron, CN=Firefly", handshakeServerPrincipal(serverContext));
+
+        Files.copy(resources.resolve("localhost.keystore"), keyStoreFile, StandardCopyOption.REPLACE_EXISTING);
+        operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.KEY_STORE, "ReloadingKeyStore");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.LOAD);
+        assertSuccess(services.executeOperation(operation));
+
+        Assert.assertEquals("OU=Elytron, O=Elytron, C=CZ, ST=Elytron, CN=localhost", handshakeServerPrincipal(serverContext));
+
+        for (String[] resource : new String[][] { { ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ReloadingSslContext" },
+                { ElytronDescriptionConstants.KEY_MANAGERS, "ReloadingKeyManager" }, { ElytronDescriptionConstants.KEY_STORE, "ReloadingKeyStore" } }) {
+            operation = new ModelNode();
+            operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(resource[0], resource[1]);
+            operation.get(ClientConstants.OP).set(ClientConstants.REMOVE_OPERATION);
+            operation.get(ClientConstants.OPERATION_HEADERS).get("allow-resource-service-restart").set(Boolean.TRUE);
+            assertSuccess(services.executeOperation(operation));
+        }
+        Files.delete(keyStoreFile);
+    }
+
+    private String handshakeServerPrincipal(SSLContext serverContext) throws Exception {
+        // A new client context each time so the session is not resumed with the previous certificate.
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        SSLEngine clientEngine = clientContext.createSSLEngine("localhost", TESTING_PORT);
+        handshake(clientEngine, serverContext.createSSLEngine());
+        return ((X509Certificate) clientEngine.getSession().getPeerCertificates()[0]).getSubjectDN().getName();
+    }
+
+    private static ModelNode assertSuccess(ModelNode response) {
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        return response;
+    }
+
+    @Test
+    public void testIndexedKeyManager() throws Throwable {
+        ServiceName serviceName = Capabilities.KEY_MANAGERS_RUNTIME_CAPABILITY.getCapabilityServiceName("IndexedServerKeyManager");
+        KeyManager[] keyManagers = (KeyManager[]) services.getContainer().getService(serviceName).getValue();
+        Assert.assertEquals(1, keyManagers.length);
+        X509ExtendedKeyManager keyManager = (X509ExtendedKeyManager) keyManagers[0];
+
+        Assert.assertEquals("localhost", keyManager.chooseEngineServerAlias("RSA", null, null));
+        Assert.assertNull(keyManager.chooseEngineServerAlias("EC", null, null));
+        Assert.assertNotNull(keyManager.getPrivateKey("localhost"));
+        Assert.assertArrayEquals(new String[] { "localhost" }, keyManager.getServerAliases("RSA",
+                new Principal[] { new X500Principal("O=Root Certificate Authority, EMAILADDRESS=elytron@wildfly.org, C=UK, ST=Elytron, CN=Elytron CA") }));
+        Assert.assertNull(keyManager.getServerAliases("RSA", new Principal[] { new X500Principal("CN=Unknown") }));
+
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        SSLEngine serverEngine = getSslContext("ServerSslContextIndexed").createSSLEngine();
+        handshake(createSniEngine(clientContext, "localhost"), serverEngine);
+        X509Certificate certificate = (X509Certificate) serverEngine.getSession().getLocalCertificates()[0];
+        Assert.assertEquals(keyManager.getCertificateChain("localhost")[0], certificate);
+
+        // the provider would not be used so an indexed KeyManager rejects it
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.KEY_MANAGERS, "IndexedProviderKeyManager");
+        operation.get(ClientConstants.OP).set(ClientConstants.ADD);
+        operation.get(ElytronDescriptionConstants.ALGORITHM).set("SunX509");
+        operation.get(ElytronDescriptionConstants.KEY_STORE).set("LocalhostKeystore");
+        operation.get(ElytronDescriptionConstants.PROVIDER).set("SunJSSE");
+        operation.get(ElytronDescriptionConstants.INDEXED).set(true);
+        operation.get(CredentialReference.CREDENTIAL_REFERENCE).get(CredentialReference.CLEAR_TEXT).set("Elytron");
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), "failed", response.get(ClientConstants.OUTCOME).asString());
+        Assert.assertTrue(response.toJSONString(false), response.get(ClientConstants.FAILURE_DESCRIPTION).asString().contains("WFLYELY00047"));
+    }
+
+    @Test
+    public void testIndexedTrustManager() throws Throwable {
+        ServiceName serviceName = Capabilities.TRUST_MANAGERS_RUNTIME_CAPABILITY.getCapabilityServiceName("IndexedCaTrustManager");
+        TrustManager[] trustManagers = (TrustManager[]) services.getContainer().getService(serviceName).getValue();
+        ServiceName defaultServiceName = Capabilities.TRUST_MANAGERS_RUNTIME_CAPABILITY.getCapabilityServiceName("CaTrustManager");
+        TrustManager[] defaultTrustManagers = (TrustManager[]) services.getContainer().getService(defaultServiceName).getValue();
+        Assert.assertEquals(1, trustManagers.length);
+        Assert.assertArrayEquals(((X509TrustManager) defaultTrustManagers[0]).getAcceptedIssuers(), ((X509TrustManager) trustManagers[0]).getAcceptedIssuers());
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair caKeys = keyPairGenerator.generateKeyPair();
+        KeyPair intermediateKeys = keyPairGenerator.generateKeyPair();
+        KeyPair leafKeys = keyPairGenerator.generateKeyPair();
+        KeyPair rogueKeys = keyPairGenerator.generateKeyPair();
+
+        X500Principal caName = new X500Principal("CN=Indexed CA");
+        X500Principal intermediateName = new X500Principal("CN=Indexed Intermediate");
+        X509Certificate ca = createCertificate(caName, caKeys.getPublic(), caName, caKeys, 1, true);
+        X509Certificate intermediate = createCertificate(intermediateName, intermediateKeys.getPublic(), caName, caKeys, 2, true);
+        X509Certificate leaf = createCertificate(new X500Principal("CN=localhost"), leafKeys.getPublic(), intermediateName, intermediateKeys, 3, false);
+        X509Certificate rogueIntermediate = createCertificate(intermediateName, intermediateKeys.getPublic(), caName, rogueKeys, 1, true);
+
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(null, null);
+        keyStore.setCertificateEntry("ca", ca);
+        IndexingTrustManager trustManager = indexingTrustManager(keyStore);
+
+        try {
+            trustManager.checkClientTrusted(new X509Certificate[] { leaf }, "RSA");
+            Assert.fail("Expected CertificateException as the intermediate certificate is missing");
+        } catch (CertificateException expected) {
+        }
+
+        trustManager.checkClientTrusted(new X509Certificate[] { leaf, intermediate }, "RSA");
+        // The second check is answered from the cache of validated chains.
+        trustManager.checkClientTrusted(new X509Certificate[] { leaf, intermediate }, "RSA");
+        trustManager.checkServerTrusted(new X509Certificate[] { intermediate }, "RSA");
+
+        try {
+            trustManager.checkServerTrusted(new X509Certificate[] { rogueIntermediate }, "RSA");
+            Assert.fail("Expected CertificateException as the certificate is not signed by the trusted certificate");
+        } catch (CertificateException expected) {
+        }
+
+        // The key usage is checked against the authentication type, a chain cached for one type is not accepted for another.
+        X509Certificate encipherment = createCertificate(new X500Principal("CN=encipherment"), leafKeys.getPublic(), intermediateName, intermediateKeys, 4, false,
+                ZonedDateTime.now().plusDays(1), new KeyUsageExtension(KeyUsage.keyEncipherment));
+        trustManager.checkServerTrusted(new X509Certificate[] { encipherment, intermediate }, "RSA");
+        try {
+            trustManager.checkServerTrusted(new X509Certificate[] { encipherment, intermediate }, "ECDHE_RSA");
+            Assert.fail("Expected CertificateException as the key usage does not permit signing");
+        } catch (CertificateException expected) {
+        }
+
+        // An expired certificate is rejected even where it is itself trusted.
+        X509Certificate expired = createCertificate(new X500Principal("CN=expired"), leafKeys.getPublic(), caName, caKeys, 5, false,
+                ZonedDateTime.now().minusHours(1), null);
+        keyStore.setCertificateEntry("expired", expired);
+        trustManager = indexingTrustManager(keyStore);
+        try {
+            trustManager.checkClientTrusted(new X509Certificate[] { expired }, "RSA");
+            Assert.fail("Expected CertificateExpiredException for the trusted but expired certificate");
+        } catch (CertificateExpiredException expected) {
+        }
+    }
+
+    private static IndexingTrustManager indexingTrustManager(KeyStore keyStore) throws Exception {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance("PKIX");
+        trustManagerFactory.init(keyStore);
+        return new IndexingTrustManager(keyStore, (X509ExtendedTrustManager) trustManagerFactory.getTrustManagers()[0]);
+    }
+
+    private static X509Certificate createCertificate(X500Principal subject, PublicKey publicKey, X500Principal issuer, KeyPair issuerKeys, int serialNumber, boolean ca) throws Exception {
+        return createCertificate(subject, publicKey, issuer, issuerKeys, serialNumber, ca, ZonedDateTime.now().plusDays(1), null);
+    }
+
+    private static X509Certificate createCertificate(X500Principal subject, PublicKey publicKey, X500Principal issuer, KeyPair issuerKeys, int serialNumber, boolean ca,
+            ZonedDateTime notValidAfter, KeyUsageExtension keyUsage) throws Exception {
+        X509CertificateBuilder builder = new X509CertificateBuilder()
+                .setSubjectDn(subject)
+                .setIssuerDn(issuer)
+                .setSerialNumber(BigInteger.valueOf(serialNumber))
+                .setPublicKey(publicKey)
+                .setSigningKey(issuerKeys.getPrivate())
+                .setSignatureAlgorithmName("SHA256withRSA")
+                .setNotValidBefore(ZonedDateTime.now().minusDays(1))
+                .setNotValidAfter(notValidAfter);
+        if (ca) {
+            builder.addExtension(new BasicConstraintsExtension(false, true, -1));
+        }
+        if (keyUsage != null) {
+            builder.addExtension(keyUsage);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testRevocationChecking() throws Throwable {
+        ServiceName serviceName = Capabilities.TRUST_MANAGERS_RUNTIME_CAPABILITY.getCapabilityServiceName("RevocationCaTrustManager");
+        TrustManager[] trustManagers = (TrustManager[]) services.getContainer().getService(serviceName).getValue();
+        Assert.assertEquals(1, trustManagers.length);
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair caKeys = keyPairGenerator.generateKeyPair();
+        X500Principal caName = new X500Principal("CN=Revocation CA");
+        X509Certificate ca = createCertificate(caName, caKeys.getPublic(), caName, caKeys, 1, true);
+        X509Certificate[] first = { createCertificate(new X500Principal("CN=first"), keyPairGenerator.generateKeyPair().getPublic(), caName, caKeys, 3, false) };
+        X509Certificate[] second = { createCertificate(new X500Principal("CN=second"), keyPairGenerator.generateKeyPair().getPublic(), caName, caKeys, 4, false) };
+
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(null, null);
+        keyStore.setCertificateEntry("ca", ca);
+        IndexingTrustManager trustManager = indexingTrustManager(keyStore);
+
+        File crlFile = File.createTempFile("revoked", ".crl");
+        crlFile.deleteOnExit();
+        Files.write(crlFile.toPath(), createCertificateRevocationList(caName, caKeys, BigInteger.valueOf(4)));
+        RevocationChecker crlChecker = new RevocationChecker(crlFile, 10, false, null, true);
+        crlChecker.start();
+        try {
+            X509ExtendedTrustManager checkingTrustManager = crlChecker.wrap(trustManager);
+            checkingTrustManager.checkClientTrusted(first, "RSA");
+            assertRevoked(checkingTrustManager, second);
+
+            // The modified file is picked up in the background.
+            Files.write(crlFile.toPath(), createCertificateRevocationList(caName, caKeys, BigInteger.valueOf(3), BigInteger.valueOf(4)));
+            TestEnvironment.awaitCondition("Expected modified certificate revocation list to be loaded", () -> isRevoked(checkingTrustManager, first));
+            assertRevoked(checkingTrustManager, second);
+        } finally {
+            crlChecker.stop();
+        }
+
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer responder = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        responder.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            byte[] request = new byte[exchange.getRequestHeaders().getFirst("Content-Length") != null ? Integer.parseInt(exchange.getRequestHeaders().getFirst("Content-Length")) : 0];
+            try (InputStream is = exchange.getRequestBody()) {
+                for (int read = 0; read < request.length; ) {
+                    read += is.read(request, read, request.length - read);
+                }
+            }
+            byte[] response = createOcspResponse(request, caName, caKeys, BigInteger.valueOf(4));
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        responder.start();
+        RevocationChecker ocspChecker = new RevocationChecker(null, 0, true, new URI("http://localhost:" + responder.getAddress().getPort() + "/"), false);
+        ocspChecker.start();
+        try {
+            X509ExtendedTrustManager checkingTrustManager = ocspChecker.wrap(trustManager);
+            TestEnvironment.awaitCondition("Expected OCSP response to be cached", () -> {
+                try {
+                    checkingTrustManager.checkClientTrusted(first, "RSA");
+                    return true;
+                } catch (CertificateException e) {
+                    // Rejected as soft-fail is disabled until the response arrives.
+                    Assert.assertFalse(e instanceof CertificateRevokedException);
+                    return false;
+                }
+            });
+            TestEnvironment.awaitCondition("Expected OCSP response to be cached", () -> isRevoked(checkingTrustManager, second));
+            for (int i = 0; i < 10; i++) {
+                checkingTrustManager.checkClientTrusted(first, "RSA");
+                assertRevoked(checkingTrustManager, second);
+            }
+            // One request per certificate, subsequent checks use the cached responses.
+            Assert.assertEquals(2, requests.get());
+        } finally {
+            ocspChecker.stop();
+            responder.stop(0);
+        }
+    }
+
+    @Test
+    public void testUnverifiedAndStaleRevocationLists() throws Throwable {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair caKeys = keyPairGenerator.generateKeyPair();
+        KeyPair rogueKeys = keyPairGenerator.generateKeyPair();
+        X500Principal caName = new X500Principal("CN=Revocation CA");
+        X509Certificate ca = createCertificate(caName, caKeys.getPublic(), caName, caKeys, 1, true);
+        X509Certificate[] first = { createCertificate(new X500Principal("CN=first"), keyPairGenerator.generateKeyPair().getPublic(), caName, caKeys, 3, false) };
+        X509Certificate[] second = { createCertificate(new X500Principal("CN=second"), keyPairGenerator.generateKeyPair().getPublic(), caName, caKeys, 4, false) };
+
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(null, null);
+        keyStore.setCertificateEntry("ca", ca);
+        IndexingTrustManager trustManager = indexingTrustManager(keyStore);
+
+        // A revocation list not signed by the trusted issuer is ignored.
+        File crlFile = File.createTempFile("forged", ".crl");
+        crlFile.deleteOnExit();
+        Files.write(crlFile.toPath(), createCertificateRevocationList(caName, rogueKeys, BigInteger.valueOf(3)));
+        RevocationChecker checker = new RevocationChecker(crlFile, 0, false, null, true);
+        checker.start();
+        try {
+            checker.wrap(trustManager).checkClientTrusted(first, "RSA");
+        } finally {
+            checker.stop();
+        }
+
+        // A revocation list past its next update still revokes the listed certificates but no longer vouches for the others.
+        Files.write(crlFile.toPath(), createCertificateRevocationList(caName, caKeys, ZonedDateTime.now().minusHours(1), BigInteger.valueOf(4)));
+        checker = new RevocationChecker(crlFile, 0, true, new URI("http://localhost:1/"), false);
+        checker.start();
+        try {
+            X509ExtendedTrustManager checkingTrustManager = checker.wrap(trustManager);
+            assertRevoked(checkingTrustManager, second);
+            try {
+                checkingTrustManager.checkClientTrusted(first, "RSA");
+                Assert.fail("Expected CertificateException as the revocation list is past its next update");
+            } catch (CertificateException expected) {
+                Assert.assertFalse(expected instanceof CertificateRevokedException);
+            }
+        } finally {
+            checker.stop();
+        }
+        checker = new RevocationChecker(crlFile, 0, false, null, true);
+        checker.start();
+        try {
+            checker.wrap(trustManager).checkClientTrusted(first, "RSA");
+        } finally {
+            checker.stop();
+        }
+    }
+
+    private static boolean isRevoked(X509ExtendedTrustManager trustManager, X509Certificate[] chain) throws CertificateException {
+        try {
+            trustManager.checkClientTrusted(chain, "RSA");
+            return false;
+        } catch (CertificateRevokedException e) {
+            return true;
+        } catch (CertificateException e) {
+            return false;
+        }
+    }
+
+    private static void assertRevoked(X509ExtendedTrustManager trustManager, X509Certificate[] chain) throws CertificateException {
+        Assert.assertTrue("Expected certificate to be revoked", isRevoked(trustManager, chain));
+    }
+
+    private static byte[] createCertificateRevocationList(X500Principal issuer, KeyPair issuerKeys, BigInteger... revoked) throws Exception {
+        return createCertificateRevocationList(issuer, issuerKeys, ZonedDateTime.now(ZoneOffset.UTC).plusDays(1), revoked);
+    }
+
+    private static byte[] createCertificateRevocationList(X500Principal issuer, KeyPair issuerKeys, ZonedDateTime nextUpdate, BigInteger... revoked) throws Exception {
+        ByteStringBuilder tbsCertList = new ByteStringBuilder();
+        DEREncoder encoder = new DEREncoder(tbsCertList);
+        encoder.startSequence();
+        encoder.encodeInteger(BigInteger.ONE);
+        encodeSignatureAlgorithm(encoder);
+        encoder.writeEncoded(issuer.getEncoded());
+        encoder.encodeGeneralizedTime(ZonedDateTime.now(ZoneOffset.UTC).minusDays(2));
+        encoder.encodeGeneralizedTime(nextUpdate.withZoneSameInstant(ZoneOffset.UTC));
+        encoder.startSequence();
+        for (BigInteger serialNumber : revoked) {
+            encoder.startSequence();
+            encoder.encodeInteger(serialNumber);
+            encoder.encodeGeneralizedTime(ZonedDateTime.now(ZoneOffset.UTC).minusHours(1));
+            encoder.endSequence();
+        }
+        encoder.endSequence();
+        encoder.endSequence();
+
+        return sign(tbsCertList.toArray(), issuerKeys);
+    }
+
+    private static byte[] createOcspResponse(byte[] request, X500Principal issuer, KeyPair issuerKeys, BigInteger revoked) throws IOException {
+        DERDecoder decoder = new DERDecoder(request);
+        decoder.startSequence();
+        decoder.startSequence();
+        decoder.startSequence();
+        decoder.startSequence();
+        byte[] certificateId = decoder.drainElement();
+        DERDecoder certificateIdDecoder = new DERDecoder(certificateId);
+        certificateIdDecoder.startSequence();
+        certificateIdDecoder.skipElement();
+        certificateIdDecoder.skipElement();
+        certificateIdDecoder.skipElement();
+        BigInteger serialNumber = certificateIdDecoder.decodeInteger();
+
+        ByteStringBuilder responseData = new ByteStringBuilder();
+        DEREncoder encoder = new DEREncoder(responseData);
+        encoder.startSequence();
+        encoder.startExplicit(1);
+        encoder.writeEncoded(issuer.getEncoded());
+        encoder.endExplicit();
+        encoder.encodeGeneralizedTime(ZonedDateTime.now(ZoneOffset.UTC));
+        encoder.startSequence();
+        encoder.startSequence();
+        encoder.writeEncoded(certificateId);
+        if (revoked.equals(serialNumber)) {
+            encoder.encodeImplicit(1);
+            encoder.startSequence();
+            encoder.encodeGeneralizedTime(ZonedDateTime.now(ZoneOffset.UTC).minusHours(1));
+            encoder.endSequence();
+        } else {
+            encoder.encodeImplicit(0);
+            encoder.encodeNull();
+        }
+        encoder.encodeGeneralizedTime(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        encoder.startExplicit(0);
+        encoder.encodeGeneralizedTime(ZonedDateTime.now(ZoneOffset.UTC).plusHours(1));
+        encoder.endExplicit();
+        encoder.endSequence();
+        encoder.endSequence();
+        encoder.endSequence();
+
+        ByteStringBuilder response = new ByteStringBuilder();
+        encoder = new DEREncoder(response);
+        encoder.startSequence();
+        encoder.writeEncoded(new byte[] { 0x0a, 0x01, 0x00 }); // successful
+        encoder.startExplicit(0);
+        encoder.startSequence();
+        encoder.encodeObjectIdentifier("1.3.6.1.5.5.7.48.1.1");
+        try {
+            encoder.encodeOctetString(sign(responseData.toArray(), issuerKeys));
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+        encoder.endSequence();
+        encoder.endExplicit();
+        encoder.endSequence();
+
+        return response.toArray();
+    }
+
+    private static void encodeSignatureAlgorithm(DEREncoder encoder) {
+        encoder.startSequence();
+        encoder.encodeObjectIdentifier("1.2.840.113549.1.1.11");
+        encoder.encodeNull();
+        encoder.endSequence();
+    }
+
+    private static byte[] sign(byte[] data, KeyPair keys) throws GeneralSecurityException {
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keys.getPrivate());
+        signature.update(data);
+
+        ByteStringBuilder signed = new ByteStringBuilder();
+        DEREncoder encoder = new DEREncoder(signed);
+        encoder.startSequence();
+        encoder.writeEncoded(data);
+        encodeSignatureAlgorithm(encoder);
+        encoder.encodeBitString(signature.sign());
+        encoder.endSequence();
+        return signed.toArray();
+    }
+
+    @Test
+    public void testReadSessions() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslContextNoAuth");
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, null);
+        handshake(clientContext.createSSLEngine("localhost", TESTING_PORT), serverContext.createSSLEngine());
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextNoAuth");
+        operation.get(ClientConstants.OP).set(ElytronDescriptionConstants.READ_SESSIONS);
+        operation.get(ElytronDescriptionConstants.PROTOCOL).set("TLSv1.2");
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        List<ModelNode> sessions = response.get(ClientConstants.RESULT).asList();
+        Assert.assertEquals(1, sessions.size());
+        Assert.assertEquals("TLSv1.2", sessions.get(0).get(ElytronDescriptionConstants.PROTOCOL).asString());
+        Assert.assertTrue(sessions.get(0).get(ElytronDescriptionConstants.SESSION_ID).isDefined());
+        Assert.assertTrue(sessions.get(0).get(ElytronDescriptionConstants.CREATION_TIME).isDefined());
+
+        operation.get(ElytronDescriptionConstants.OFFSET).set(1);
+        response = services.executeOperation(operation);
+        Assert.assertEquals(0, response.get(ClientConstants.RESULT).asList().size());
+
+        operation.remove(ElytronDescriptionConstants.OFFSET);
+        operation.get(ElytronDescriptionConstants.PROTOCOL).set("TLSv1");
+        response = services.executeOperation(operation);
+        Assert.assertEquals(0, response.get(ClientConstants.RESULT).asList().size());
+    }
+
+    @Test
+    public void testSessionCacheWrittenWithoutRestart() throws Throwable {
+        SSLContext serverContext = getSslContext("ServerSslContextNoAuth");
+
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, "ServerSslContextNoAuth");
+        operation.get(ClientConstants.OP).set(ClientConstants.WRITE_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.MAXIMUM_SESSION_CACHE_SIZE);
+        operation.get(ClientConstants.VALUE).set(10);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+
+        operation.get(ClientConstants.NAME).set(ElytronDescriptionConstants.SESSION_TIMEOUT);
+        operation.get(ClientConstants.VALUE).set(60);
+        response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+
+        Assert.assertSame(serverContext, getSslContext("ServerSslContextNoAuth"));
+        Assert.assertEquals(10, serverContext.getServerSessionContext().getSessionCacheSize());
+        Assert.assertEquals(60, serverContext.getServerSessionContext().getSessionTimeout());
+
+        // Values written while the service is down, and those written earlier, are used as it starts again.
+        ServiceController<?> serviceController = services.getContainer().getService(Capabilities.SSL_CONTEXT_RUNTIME_CAPABILITY.getCapabilityServiceName("ServerSslContextNoAuth"));
+        ServiceController.Mode mode = serviceController.getMode();
+        serviceController.setMode(ServiceController.Mode.NEVER);
+        services.getContainer().awaitStability();
+        Assert.assertEquals(ServiceController.State.DOWN, serviceController.getState());
+
+        operation.get(ClientConstants.VALUE).set(120);
+        response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+
+        serviceController.setMode(mode);
+        services.getContainer().awaitStability();
+        SSLContext restartedContext = getSslContext("ServerSslContextNoAuth");
+        Assert.assertNotSame(serverContext, restartedContext);
+        Assert.assertEquals(10, restartedContext.getServerSessionContext().getSessionCacheSize());
+        Assert.assertEquals(120, restartedContext.getServerSessionContext().getSessionTimeout());
+    }
+
+    private long readServerSslContextAttribute(String contextName, String attributeName) {
+        ModelNode operation = new ModelNode();
+        operation.get(ClientConstants.OP_ADDR).add("subsystem", "elytron").add(ElytronDescriptionConstants.SERVER_SSL_CONTEXT, contextName);
+        operation.get(ClientConstants.OP).set(ClientConstants.READ_ATTRIBUTE_OPERATION);
+        operation.get(ClientConstants.NAME).set(attributeName);
+        ModelNode response = services.executeOperation(operation);
+        Assert.assertEquals(response.toJSONString(false), ClientConstants.SUCCESS, response.get(ClientConstants.OUTCOME).asString());
+        return response.get(ClientConstants.RESULT).asLong();
+    }
+
+    private static void handshake(SSLEngine clientEngine, SSLEngine serverEngine) throws Exception {
+        clientEngine.setUseClientMode(true);
+        serverEngine.setUseClientMode(false);
+
+        // A selecting server engine has no session until the ClientHello has been received.
+        int packetSize = clientEngine.getSession().getPacketBufferSize();
+        int applicationSize = clientEngine.getSession().getApplicationBufferSize();
+        ByteBuffer clientToServer = ByteBuffer.allocate(packetSize);
+        ByteBuffer serverToClient = ByteBuffer.allocate(packetSize);
+        ByteBuffer application = ByteBuffer.allocate(applicationSize);
+        ByteBuffer empty = ByteBuffer.allocate(0);
+
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+        for (int i = 0; i < 100; i++) {
+            if (isHandshaking(clientEngine) == false && isHandshaking(serverEngine) == false) {
+                return;
+            }
+            step(clientEngine, empty, clientToServer, serverToClient, application);
+            step(serverEngine, empty, serverToClient, clientToServer, application);
+        }
+        Assert.fail("Handshake did not complete");
+    }
+
+    private SSLEngine createSniEngine(SSLContext clientContext, String host) {
+        SSLEngine engine = clientContext.createSSLEngine(host, TESTING_PORT);
+        SSLParameters parameters = engine.getSSLParameters();
+        parameters.setServerNames(Collections.singletonList(new SNIHostName(host)));
+        engine.setSSLParameters(parameters);
+        return engine;
+    }
+
+    private static boolean isHandshaking(SSLEngine engine) {
+        HandshakeStatus status = engine.getHandshakeStatus();
+        return status != HandshakeStatus.NOT_HANDSHAKING && status != HandshakeStatus.FINISHED;
+    }
+
+    private static void step(SSLEngine engine, ByteBuffer empty, ByteBuffer outbound, ByteBuffer inbound, ByteBuffer application) throws Exception {
+        HandshakeStatus status = engine.getHandshakeStatus();
+        if (status == HandshakeStatus.NEED_TASK) {
+            Runnable task;
+            while ((task = engine.getDelegatedTask()) != null) {
+                task.run();
+            }
+        } else if (status == HandshakeStatus.NEED_WRAP) {
+            engine.wrap(empty, outbound);
+        } else if (status == HandshakeStatus.NEED_UNWRAP) {
+            inbound.flip();
+            application.clear();
+            engine.unwrap(inbound, application);
+            inbound.compact();
+        }
+    }
+
+    private static class TrustAllTrustManager implements X509TrustManager {
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+
     private SSLContext getSslContext(String contextName) {
         ServiceName serviceName = Capabilities.SSL_CONTEXT_RUNTIME_CAPABILITY.getCapabilityServiceName(contextName);
         SSLContext sslContext = (SSLContext) services.getContainer().getService(serviceName).getValue();